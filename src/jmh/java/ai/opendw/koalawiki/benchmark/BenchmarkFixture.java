@@ -0,0 +1,90 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.AnalysisProperties;
+import ai.opendw.koalawiki.core.analysis.ClassInfoCache;
+import ai.opendw.koalawiki.core.analysis.EntryPointDetector;
+import ai.opendw.koalawiki.core.analysis.JavaCodeAnalyzer;
+import ai.opendw.koalawiki.core.analysis.MavenPomParser;
+import ai.opendw.koalawiki.core.analysis.ProjectScanner;
+import ai.opendw.koalawiki.core.analysis.ServiceDependencyAnalyzer;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试夹具
+ * 不启动Spring容器，直接组装分析组件；生成合成项目并扫描，供各基准测试共享。
+ * 基准测试关闭解析缓存，每次测量都是完整解析。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@Getter
+public class BenchmarkFixture {
+
+    private final AnalysisProperties properties;
+    private final JavaCodeAnalyzer codeAnalyzer;
+    private final EntryPointDetector entryPointDetector;
+    private final ProjectScanner projectScanner;
+    private final Path root;
+    private final List<Path> projectPaths;
+
+    /**
+     * 生成合成项目
+     *
+     * @param spec       生成参数
+     * @param properties 分析配置
+     */
+    public BenchmarkFixture(SyntheticProjectGenerator.Spec spec, AnalysisProperties properties) throws IOException {
+        properties.setCacheEnabled(false);
+        this.properties = properties;
+        this.codeAnalyzer = new JavaCodeAnalyzer(properties);
+        this.entryPointDetector = new EntryPointDetector();
+        this.projectScanner = new ProjectScanner(codeAnalyzer, entryPointDetector, new MavenPomParser(),
+                properties, new ClassInfoCache(properties));
+        this.root = Files.createTempDirectory("koalawiki-bench");
+        this.projectPaths = SyntheticProjectGenerator.generate(root, spec);
+    }
+
+    /**
+     * 按默认配置生成合成项目
+     */
+    public static BenchmarkFixture create(int projects, int classesPerProject) throws IOException {
+        SyntheticProjectGenerator.Spec spec = new SyntheticProjectGenerator.Spec();
+        spec.setProjects(projects);
+        spec.setClassesPerProject(classesPerProject);
+        return new BenchmarkFixture(spec, new AnalysisProperties());
+    }
+
+    /**
+     * 扫描所有合成项目
+     */
+    public List<ProjectStructure> scanAll() {
+        List<ProjectStructure> structures = new ArrayList<>();
+        for (Path projectPath : projectPaths) {
+            structures.add(projectScanner.scanProject(projectPath.toString()));
+        }
+        return structures;
+    }
+
+    /**
+     * 分析服务依赖
+     */
+    public ServiceDependencyGraph analyzeDependencies(List<ProjectStructure> structures) {
+        return new ServiceDependencyAnalyzer().analyze(structures);
+    }
+
+    /**
+     * 释放线程池并删除生成的项目
+     */
+    public void close() throws IOException {
+        projectScanner.shutdown();
+        SyntheticProjectGenerator.delete(root);
+    }
+}
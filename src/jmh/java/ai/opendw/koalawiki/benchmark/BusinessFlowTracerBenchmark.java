@@ -0,0 +1,84 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.BusinessFlowTracer;
+import ai.opendw.koalawiki.core.analysis.TraceCache;
+import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用链追踪基准
+ * 测量对一个项目全部入口点追踪调用链的耗时，可对比是否在批次内复用子树。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BusinessFlowTracerBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"200", "1000"})
+    private int classes;
+
+    /**
+     * 最大追踪深度
+     */
+    @Param({"5"})
+    private int maxDepth;
+
+    /**
+     * 是否复用批次内的子树
+     */
+    @Param({"true", "false"})
+    private boolean traceCache;
+
+    private BenchmarkFixture fixture;
+    private final BusinessFlowTracer tracer = new BusinessFlowTracer();
+    private ProjectStructure structure;
+    private ServiceDependencyGraph dependencyGraph;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = BenchmarkFixture.create(2, classes);
+        List<ProjectStructure> structures = fixture.scanAll();
+        structure = structures.get(0);
+        dependencyGraph = fixture.analyzeDependencies(structures);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void traceAll(Blackhole blackhole) {
+        TraceCache cache = traceCache ? new TraceCache(structure, dependencyGraph) : null;
+        for (EntryPoint entryPoint : structure.getEntryPoints()) {
+            blackhole.consume(tracer.trace(entryPoint, structure, dependencyGraph, maxDepth, cache));
+        }
+    }
+}
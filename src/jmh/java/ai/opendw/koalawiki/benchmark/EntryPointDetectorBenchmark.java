@@ -0,0 +1,64 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 入口点识别基准
+ * 测量EntryPointDetector对已扫描项目全部类做入口点识别的耗时。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntryPointDetectorBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"1000", "5000"})
+    private int classes;
+
+    private BenchmarkFixture fixture;
+    private List<ClassInfo> classInfos;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = BenchmarkFixture.create(1, classes);
+        classInfos = new ArrayList<>(fixture.scanAll().get(0).getClasses().values());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void detectEntryPoints(Blackhole blackhole) {
+        for (ClassInfo classInfo : classInfos) {
+            blackhole.consume(fixture.getEntryPointDetector().detectEntryPoints(classInfo));
+        }
+    }
+}
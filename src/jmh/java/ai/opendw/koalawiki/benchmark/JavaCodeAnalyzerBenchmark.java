@@ -0,0 +1,73 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 单文件解析基准
+ * 测量JavaCodeAnalyzer.analyzeFile逐个解析一个项目全部源码文件的耗时。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JavaCodeAnalyzerBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"200", "1000"})
+    private int classes;
+
+    private BenchmarkFixture fixture;
+    private List<File> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = BenchmarkFixture.create(1, classes);
+        try (Stream<Path> paths = Files.walk(fixture.getProjectPaths().get(0))) {
+            files = paths.filter(path -> path.toString().endsWith(".java"))
+                    .map(Path::toFile)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void analyzeFiles(Blackhole blackhole) {
+        for (File file : files) {
+            ClassInfo classInfo = fixture.getCodeAnalyzer().analyzeFile(file);
+            blackhole.consume(classInfo);
+        }
+    }
+}
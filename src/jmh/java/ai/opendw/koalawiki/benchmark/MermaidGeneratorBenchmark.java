@@ -0,0 +1,76 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.BusinessFlowTracer;
+import ai.opendw.koalawiki.core.analysis.MermaidGenerator;
+import ai.opendw.koalawiki.core.analysis.model.CallChain;
+import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 时序图生成基准
+ * 测量MermaidGenerator为一个项目全部调用链生成时序图的耗时。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MermaidGeneratorBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"200", "1000"})
+    private int classes;
+
+    private BenchmarkFixture fixture;
+    private final MermaidGenerator generator = new MermaidGenerator();
+    private final List<CallChain> chains = new ArrayList<>();
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = BenchmarkFixture.create(2, classes);
+        List<ProjectStructure> structures = fixture.scanAll();
+        ProjectStructure structure = structures.get(0);
+        ServiceDependencyGraph dependencyGraph = fixture.analyzeDependencies(structures);
+        BusinessFlowTracer tracer = new BusinessFlowTracer();
+        for (EntryPoint entryPoint : structure.getEntryPoints()) {
+            chains.add(tracer.trace(entryPoint, structure, dependencyGraph));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void generateSequenceDiagrams(Blackhole blackhole) {
+        for (CallChain chain : chains) {
+            blackhole.consume(generator.generateSequenceDiagram(chain));
+        }
+    }
+}
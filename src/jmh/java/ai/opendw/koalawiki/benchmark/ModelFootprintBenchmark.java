@@ -0,0 +1,117 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.AnalysisProperties;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代码模型内存占用基准
+ * 扫描一次项目，测量扫描结果在GC后常驻的堆大小，对比模型压缩开启和关闭时的差异：
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="ModelFootprint"
+ *
+ * 结果中的retainedKilobytes为常驻堆大小（KB），耗时一栏只作参考。
+ * 计数在各测量轮次之间累加，因此默认只测量一轮（预热一轮排除线程池创建和类加载的影响）。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+public class ModelFootprintBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"1000", "4000"})
+    private int classes;
+
+    /**
+     * 是否启用模型压缩
+     */
+    @Param({"false", "true"})
+    private boolean compactModel;
+
+    private BenchmarkFixture fixture;
+    private String projectPath;
+
+    /**
+     * 常驻堆大小计数（每轮迭代重新测量）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long retainedKilobytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            retainedKilobytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticProjectGenerator.Spec spec = new SyntheticProjectGenerator.Spec();
+        spec.setProjects(1);
+        spec.setClassesPerProject(classes);
+        AnalysisProperties properties = new AnalysisProperties();
+        properties.setCompactModelEnabled(compactModel);
+        // 关闭预过滤，所有类都带完整的方法体信息
+        properties.setPreFilterEnabled(false);
+        fixture = new BenchmarkFixture(spec, properties);
+        projectPath = fixture.getProjectPaths().get(0).toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ProjectStructure scanProject(Footprint footprint) {
+        long before = usedHeapAfterGc();
+        ProjectStructure structure = fixture.getProjectScanner().scanProject(projectPath);
+        long after = usedHeapAfterGc();
+        footprint.retainedKilobytes = (after - before) / 1024;
+        return structure;
+    }
+
+    /**
+     * 多次GC直到已用堆大小稳定
+     */
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long current = memory.getHeapMemoryUsage().getUsed();
+            if (current >= used) {
+                return current;
+            }
+            used = current;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,78 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.AnalysisProperties;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 项目扫描基准
+ * 测量ProjectScanner.scanProject的端到端耗时，可对比预过滤和模型压缩开关的影响。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ProjectScannerBenchmark {
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"200", "1000"})
+    private int classes;
+
+    /**
+     * 是否启用源码预过滤
+     */
+    @Param({"true", "false"})
+    private boolean preFilter;
+
+    /**
+     * 是否启用模型压缩
+     */
+    @Param({"true"})
+    private boolean compactModel;
+
+    private BenchmarkFixture fixture;
+    private String projectPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        SyntheticProjectGenerator.Spec spec = new SyntheticProjectGenerator.Spec();
+        spec.setProjects(1);
+        spec.setClassesPerProject(classes);
+        AnalysisProperties properties = new AnalysisProperties();
+        properties.setPreFilterEnabled(preFilter);
+        properties.setCompactModelEnabled(compactModel);
+        fixture = new BenchmarkFixture(spec, properties);
+        projectPath = fixture.getProjectPaths().get(0).toString();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ProjectStructure scanProject() {
+        return fixture.getProjectScanner().scanProject(projectPath);
+    }
+}
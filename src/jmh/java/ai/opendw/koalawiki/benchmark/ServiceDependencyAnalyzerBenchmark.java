@@ -0,0 +1,67 @@
+package ai.opendw.koalawiki.benchmark;
+
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务依赖分析基准
+ * 测量ServiceDependencyAnalyzer对多个已扫描项目构建依赖图的耗时。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ServiceDependencyAnalyzerBenchmark {
+
+    /**
+     * 项目数量
+     */
+    @Param({"4", "16"})
+    private int projects;
+
+    /**
+     * 每个项目的类数量
+     */
+    @Param({"500"})
+    private int classes;
+
+    private BenchmarkFixture fixture;
+    private List<ProjectStructure> structures;
+
+    @Setup
+    public void setUp() throws IOException {
+        fixture = BenchmarkFixture.create(projects, classes);
+        structures = fixture.scanAll();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fixture.close();
+    }
+
+    @Benchmark
+    public ServiceDependencyGraph analyze() {
+        return fixture.analyzeDependencies(structures);
+    }
+}
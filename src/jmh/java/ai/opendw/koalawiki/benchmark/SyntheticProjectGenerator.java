@@ -0,0 +1,265 @@
+package ai.opendw.koalawiki.benchmark;
+
+import lombok.Data;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * 合成项目生成器
+ * 按规模参数生成若干个相互调用的Maven微服务项目，作为基准测试的输入：
+ * <ul>
+ *   <li>api包：对外接口，provider包中的@DubboService实现类提供</li>
+ *   <li>service包：@Service业务类，方法按扇出调用其他业务类或远程接口（@DubboReference / @FeignClient字段）</li>
+ *   <li>web包：@RestController控制器，方法调用业务类</li>
+ * </ul>
+ * 相同的参数和种子总是生成相同的项目。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+public final class SyntheticProjectGenerator {
+
+    private SyntheticProjectGenerator() {
+    }
+
+    /**
+     * 生成参数
+     */
+    @Data
+    public static class Spec {
+
+        /**
+         * 项目（服务）数量
+         */
+        private int projects = 2;
+
+        /**
+         * 每个项目的类数量
+         */
+        private int classesPerProject = 200;
+
+        /**
+         * 每个类的方法数量
+         */
+        private int methodsPerClass = 8;
+
+        /**
+         * 每个方法调用的其他方法数量
+         */
+        private int fanOut = 3;
+
+        /**
+         * 业务方法调用中远程调用的比例
+         */
+        private double remoteRatio = 0.2;
+
+        /**
+         * 远程调用中Feign的比例（其余为Dubbo）
+         */
+        private double feignRatio = 0.5;
+
+        /**
+         * 控制器占类数量的比例
+         */
+        private double controllerRatio = 0.1;
+
+        /**
+         * 对外接口占类数量的比例（接口和实现类各算一个）
+         */
+        private double apiRatio = 0.1;
+
+        /**
+         * 随机种子
+         */
+        private long seed = 42L;
+    }
+
+    /**
+     * 生成项目
+     *
+     * @param root 输出目录
+     * @param spec 生成参数
+     * @return 各项目的根目录
+     */
+    public static List<Path> generate(Path root, Spec spec) throws IOException {
+        Random random = new Random(spec.getSeed());
+        List<Path> projectPaths = new ArrayList<>();
+        for (int p = 0; p < spec.getProjects(); p++) {
+            projectPaths.add(generateProject(root, spec, p, random));
+        }
+        return projectPaths;
+    }
+
+    /**
+     * 递归删除目录
+     */
+    public static void delete(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private static Path generateProject(Path root, Spec spec, int project, Random random) throws IOException {
+        String name = "svc" + project;
+        Path projectPath = root.resolve(name);
+        Path sourceRoot = projectPath.resolve("src/main/java/com/synth/" + name);
+
+        int apiCount = Math.max(1, (int) (spec.getClassesPerProject() * spec.getApiRatio() / 2));
+        int controllerCount = Math.max(1, (int) (spec.getClassesPerProject() * spec.getControllerRatio()));
+        int serviceCount = Math.max(1, spec.getClassesPerProject() - apiCount * 2 - controllerCount);
+
+        write(projectPath.resolve("pom.xml"), "<project>\n"
+                + "  <modelVersion>4.0.0</modelVersion>\n"
+                + "  <groupId>com.synth</groupId>\n"
+                + "  <artifactId>" + name + "</artifactId>\n"
+                + "  <version>1.0.0</version>\n"
+                + "</project>\n");
+
+        for (int i = 0; i < apiCount; i++) {
+            write(sourceRoot.resolve("api/Api" + i + ".java"), apiInterface(spec, project, i));
+            write(sourceRoot.resolve("provider/Api" + i + "Impl.java"),
+                    apiImplementation(spec, project, i, random.nextInt(serviceCount)));
+        }
+        for (int i = 0; i < serviceCount; i++) {
+            write(sourceRoot.resolve("service/Service" + i + ".java"),
+                    service(spec, project, i, serviceCount, apiCount, random));
+        }
+        for (int i = 0; i < controllerCount; i++) {
+            write(sourceRoot.resolve("web/Controller" + i + ".java"),
+                    controller(spec, project, i, serviceCount, random));
+        }
+        return projectPath;
+    }
+
+    private static String apiInterface(Spec spec, int project, int api) {
+        StringBuilder sb = header(project, "api");
+        sb.append("public interface Api").append(api).append(" {\n");
+        for (int m = 0; m < spec.getMethodsPerClass(); m++) {
+            sb.append("    String ").append(apiMethod(project, api, m)).append("(String request);\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    private static String apiImplementation(Spec spec, int project, int api, int service) {
+        String pkg = "com.synth.svc" + project;
+        StringBuilder sb = header(project, "provider");
+        sb.append("import org.apache.dubbo.config.annotation.DubboService;\n");
+        sb.append("import org.springframework.beans.factory.annotation.Autowired;\n\n");
+        sb.append("@DubboService\n");
+        sb.append("public class Api").append(api).append("Impl implements ").append(pkg).append(".api.Api").append(api)
+                .append(" {\n\n");
+        sb.append("    @Autowired\n");
+        sb.append("    private ").append(pkg).append(".service.Service").append(service).append(" service;\n\n");
+        for (int m = 0; m < spec.getMethodsPerClass(); m++) {
+            sb.append("    @Override\n");
+            sb.append("    public String ").append(apiMethod(project, api, m)).append("(String request) {\n");
+            sb.append("        return service.").append(serviceMethod(service, m % spec.getMethodsPerClass()))
+                    .append("(request);\n");
+            sb.append("    }\n\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    private static String service(Spec spec, int project, int service, int serviceCount, int apiCount,
+                                  Random random) {
+        String pkg = "com.synth.svc" + project;
+        Map<String, String> fields = new LinkedHashMap<>();
+        StringBuilder methods = new StringBuilder();
+
+        for (int m = 0; m < spec.getMethodsPerClass(); m++) {
+            methods.append("    public String ").append(serviceMethod(service, m)).append("(String request) {\n");
+            methods.append("        String result = request;\n");
+            for (int c = 0; c < spec.getFanOut(); c++) {
+                boolean remote = spec.getProjects() > 1 && random.nextDouble() < spec.getRemoteRatio();
+                if (remote) {
+                    int target = (project + 1 + random.nextInt(spec.getProjects() - 1)) % spec.getProjects();
+                    int api = random.nextInt(apiCount);
+                    boolean feign = random.nextDouble() < spec.getFeignRatio();
+                    String field = (feign ? "feign" : "dubbo") + "Svc" + target + "Api" + api;
+                    fields.put(field, (feign ? "    @FeignClient\n" : "    @DubboReference\n")
+                            + "    private com.synth.svc" + target + ".api.Api" + api + " " + field + ";\n");
+                    methods.append("        result = ").append(field).append('.')
+                            .append(apiMethod(target, api, random.nextInt(spec.getMethodsPerClass())))
+                            .append("(result);\n");
+                } else {
+                    int target = random.nextInt(serviceCount);
+                    String field = "service" + target;
+                    fields.put(field, "    @Autowired\n"
+                            + "    private " + pkg + ".service.Service" + target + " " + field + ";\n");
+                    methods.append("        result = ").append(field).append('.')
+                            .append(serviceMethod(target, random.nextInt(spec.getMethodsPerClass())))
+                            .append("(result);\n");
+                }
+            }
+            methods.append("        return result == null ? \"\" : result.trim();\n");
+            methods.append("    }\n\n");
+        }
+
+        StringBuilder sb = header(project, "service");
+        sb.append("import org.apache.dubbo.config.annotation.DubboReference;\n");
+        sb.append("import org.springframework.beans.factory.annotation.Autowired;\n");
+        sb.append("import org.springframework.cloud.openfeign.FeignClient;\n");
+        sb.append("import org.springframework.stereotype.Service;\n\n");
+        sb.append("@Service\n");
+        sb.append("public class Service").append(service).append(" {\n\n");
+        for (String field : fields.values()) {
+            sb.append(field).append('\n');
+        }
+        sb.append(methods);
+        return sb.append("}\n").toString();
+    }
+
+    private static String controller(Spec spec, int project, int controller, int serviceCount, Random random) {
+        String pkg = "com.synth.svc" + project;
+        int service = random.nextInt(serviceCount);
+
+        StringBuilder sb = header(project, "web");
+        sb.append("import org.springframework.beans.factory.annotation.Autowired;\n");
+        sb.append("import org.springframework.web.bind.annotation.*;\n\n");
+        sb.append("@RestController\n");
+        sb.append("@RequestMapping(\"/svc").append(project).append("/c").append(controller).append("\")\n");
+        sb.append("public class Controller").append(controller).append(" {\n\n");
+        sb.append("    @Autowired\n");
+        sb.append("    private ").append(pkg).append(".service.Service").append(service).append(" service;\n\n");
+        for (int m = 0; m < spec.getMethodsPerClass(); m++) {
+            sb.append(m % 2 == 0 ? "    @GetMapping(\"/m" : "    @PostMapping(\"/m");
+            sb.append(m).append("\")\n");
+            sb.append("    public String handle").append(controller).append('_').append(m)
+                    .append("(@RequestParam String request) {\n");
+            sb.append("        return service.").append(serviceMethod(service, m)).append("(request);\n");
+            sb.append("    }\n\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    private static StringBuilder header(int project, String subPackage) {
+        return new StringBuilder("package com.synth.svc").append(project).append('.').append(subPackage)
+                .append(";\n\n");
+    }
+
+    private static String apiMethod(int project, int api, int method) {
+        return "svc" + project + "Api" + api + "Call" + method;
+    }
+
+    private static String serviceMethod(int service, int method) {
+        return "service" + service + "Op" + method;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
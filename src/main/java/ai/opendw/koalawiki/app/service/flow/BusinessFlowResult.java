@@ -18,6 +18,11 @@ public class BusinessFlowResult {
      */
     private String flowId;
 
+    /**
+     * 流程内容哈希（按追踪输入寻址，未缓存时为null）
+     */
+    private String contentHash;
+
     /**
      * 入口点
      */
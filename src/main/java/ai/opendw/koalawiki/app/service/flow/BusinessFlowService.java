@@ -5,20 +5,29 @@ import ai.opendw.koalawiki.core.analysis.model.*;
 import ai.opendw.koalawiki.core.git.GitCredentials;
 import ai.opendw.koalawiki.core.git.GitRepositoryInfo;
 import ai.opendw.koalawiki.core.git.GitRepositoryManager;
+import ai.opendw.koalawiki.core.util.IdGenerator;
 import ai.opendw.koalawiki.domain.businessflow.BusinessFlowDocument;
 import ai.opendw.koalawiki.domain.businessflow.BusinessFlowDocumentBuilder;
+import ai.opendw.koalawiki.infra.entity.BusinessFlowContentEntity;
 import ai.opendw.koalawiki.infra.entity.BusinessFlowDocumentEntity;
 import ai.opendw.koalawiki.infra.mapper.BusinessFlowDocumentMapper;
+import ai.opendw.koalawiki.infra.repository.BusinessFlowContentRepository;
 import ai.opendw.koalawiki.infra.repository.BusinessFlowDocumentRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -33,15 +42,56 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BusinessFlowService {
 
-    private final ProjectScanner projectScanner;
     private final ServiceDependencyAnalyzer dependencyAnalyzer;
     private final BusinessFlowTracer flowTracer;
     private final MermaidGenerator mermaidGenerator;
     private final EntryPointFinder entryPointFinder;
+    private final ClassInfoCache classInfoCache;
+    private final ProjectStructureStore structureStore;
+    private final ServiceDependencyGraphService dependencyGraphService;
     private final GitRepositoryManager gitRepositoryManager;
     private final BusinessFlowDocumentRepository flowDocumentRepository;
+    private final BusinessFlowContentRepository flowContentRepository;
+    private final FlowInputCollector flowInputCollector;
     private final BusinessFlowDocumentMapper flowDocumentMapper;
     private final ObjectMapper objectMapper;
+    private final AnalysisProperties analysisProperties;
+
+    /**
+     * 流程追踪执行器（构造器注入时保留限定符，见lombok.config）
+     */
+    @Qualifier("flowTraceExecutor")
+    private final Executor flowTraceExecutor;
+
+    /**
+     * 流程文档每批写入的行数
+     */
+    private static final int FLOW_INSERT_BATCH_SIZE = 50;
+
+    /**
+     * 解析流程时校验的同一入口最近内容数
+     */
+    private static final int FLOW_CONTENT_CANDIDATES = 3;
+
+    /**
+     * 批量查询流程内容时每次IN查询的参数数
+     */
+    private static final int FLOW_QUERY_BATCH_SIZE = 500;
+
+    /**
+     * 请求数（用于统计每个请求的项目扫描次数）
+     */
+    private final AtomicLong flowRequestCount = new AtomicLong();
+
+    /**
+     * 项目扫描总次数
+     */
+    private final AtomicLong projectScanCount = new AtomicLong();
+
+    /**
+     * 单个请求的最大项目扫描次数
+     */
+    private final AtomicLong maxScansPerRequest = new AtomicLong();
 
     /**
      * 分析多个仓库的服务依赖
@@ -52,13 +102,9 @@ public class BusinessFlowService {
     public ServiceDependencyGraph analyzeDependencies(List<String> projectPaths) {
         log.info("开始分析服务依赖，项目数: {}", projectPaths.size());
 
-        // 扫描所有项目
-        List<ProjectStructure> structures = projectPaths.stream()
-            .map(projectScanner::scanProject)
-            .collect(java.util.stream.Collectors.toList());
-
-        // 分析依赖关系
-        ServiceDependencyGraph graph = dependencyAnalyzer.analyze(structures);
+        ScanSession session = new ScanSession();
+        ServiceDependencyGraph graph = analyzeDependencies(session, projectPaths);
+        finishSession(session, "analyzeDependencies");
 
         log.info("服务依赖分析完成: 服务数={}, 依赖数={}",
             graph.getServices().size(),
@@ -82,16 +128,49 @@ public class BusinessFlowService {
         ServiceDependencyGraph dependencyGraph,
         int maxDepth
     ) {
-        log.info("开始生成业务流程: {}", entryPoint.getPath());
+        ScanSession session = new ScanSession();
+        ProjectStructure structure = session.scan(projectPath);
+        finishSession(session, "generateFlow");
 
-        // 扫描项目
-        ProjectStructure structure = projectScanner.scanProject(projectPath);
+        return generateFlow(entryPoint, structure, dependencyGraph, maxDepth);
+    }
+
+    /**
+     * 生成业务流程（使用已扫描的项目结构，不再重复扫描）
+     *
+     * @param entryPoint 入口点
+     * @param structure 项目结构
+     * @param dependencyGraph 服务依赖图
+     * @param maxDepth 最大追踪深度
+     * @return 业务流程结果
+     */
+    public BusinessFlowResult generateFlow(
+        EntryPoint entryPoint,
+        ProjectStructure structure,
+        ServiceDependencyGraph dependencyGraph,
+        int maxDepth
+    ) {
+        return generateFlow(entryPoint, structure, dependencyGraph, maxDepth, null);
+    }
+
+    /**
+     * 生成业务流程（批量追踪时复用已追踪的子树）
+     */
+    private BusinessFlowResult generateFlow(
+        EntryPoint entryPoint,
+        ProjectStructure structure,
+        ServiceDependencyGraph dependencyGraph,
+        int maxDepth,
+        TraceCache traceCache
+    ) {
+        log.info("开始生成业务流程: {}", entryPoint.getPath());
 
         // 追踪调用链
-        CallChain chain = flowTracer.trace(entryPoint, structure, dependencyGraph, maxDepth);
+        CallChain chain = flowTracer.trace(
+            entryPoint, structure, dependencyGraph, maxDepth, traceCache, analysisProperties.getTrace());
 
         // 生成Mermaid图
-        String mermaidDiagram = mermaidGenerator.generateSequenceDiagram(chain);
+        String mermaidDiagram = mermaidGenerator.generateSequenceDiagram(chain, analysisProperties.getMermaid());
 
         BusinessFlowResult result = new BusinessFlowResult();
         result.setFlowId(chain.getChainId());
@@ -107,6 +186,57 @@ public class BusinessFlowService {
         return result;
     }
 
+    /**
+     * 生成业务流程，入口项目和依赖项目在同一批次内各只扫描一次
+     *
+     * @param entryPoint 入口点
+     * @param projectPath 入口所在项目路径
+     * @param projectPaths 参与依赖分析的项目路径列表
+     * @param maxDepth 最大追踪深度
+     * @return 业务流程结果
+     */
+    public BusinessFlowResult generateFlow(
+        EntryPoint entryPoint,
+        String projectPath,
+        List<String> projectPaths,
+        int maxDepth
+    ) {
+        ScanSession session = new ScanSession();
+        ServiceDependencyGraph graph = analyzeDependencies(session, projectPaths);
+        ProjectStructure structure = session.scan(projectPath);
+        finishSession(session, "generateFlow");
+
+        return generateFlow(entryPoint, structure, graph, maxDepth);
+    }
+
+    /**
+     * 追踪调用链并将时序图直接写入输出，不在内存中拼接完整的图
+     *
+     * @param entryPoint 入口点
+     * @param projectPath 入口所在项目路径
+     * @param projectPaths 参与依赖分析的项目路径列表
+     * @param maxDepth 最大追踪深度
+     * @param options 渲染选项
+     * @param out 输出
+     * @throws IOException 写入失败
+     */
+    public void renderFlowDiagram(
+        EntryPoint entryPoint,
+        String projectPath,
+        List<String> projectPaths,
+        int maxDepth,
+        MermaidRenderOptions options,
+        Appendable out
+    ) throws IOException {
+        ScanSession session = new ScanSession();
+        ServiceDependencyGraph graph = analyzeDependencies(session, projectPaths);
+        ProjectStructure structure = session.scan(projectPath);
+        finishSession(session, "renderFlowDiagram");
+
+        CallChain chain = flowTracer.trace(entryPoint, structure, graph, maxDepth, null, analysisProperties.getTrace());
+        mermaidGenerator.render(chain, options, out);
+    }
+
     /**
      * 为指定仓库的所有入口点生成业务流程
      *
@@ -122,18 +252,105 @@ public class BusinessFlowService {
     ) {
         log.info("开始为项目生成所有业务流程: {}", projectPath);
 
-        // 扫描项目
-        ProjectStructure structure = projectScanner.scanProject(projectPath);
+        ScanSession session = new ScanSession();
+        ProjectStructure structure = session.scan(projectPath);
+        finishSession(session, "generateAllFlows");
+
+        return generateFlows(structure.getEntryPoints(), structure, dependencyGraph, maxDepth);
+    }
+
+    /**
+     * 为指定仓库的所有入口点生成业务流程，入口项目和依赖项目在同一批次内各只扫描一次
+     *
+     * @param projectPath 项目路径
+     * @param projectPaths 参与依赖分析的项目路径列表
+     * @param maxDepth 最大追踪深度
+     * @return 业务流程结果列表
+     */
+    public List<BusinessFlowResult> generateAllFlows(
+        String projectPath,
+        List<String> projectPaths,
+        int maxDepth
+    ) {
+        log.info("开始为项目生成所有业务流程: {}", projectPath);
+
+        ScanSession session = new ScanSession();
+        ServiceDependencyGraph graph = analyzeDependencies(session, projectPaths);
+        ProjectStructure structure = session.scan(projectPath);
+        finishSession(session, "generateAllFlows");
 
-        // 为每个入口点生成流程
-        List<BusinessFlowResult> results = structure.getEntryPoints().stream()
-            .map(ep -> generateFlow(ep, projectPath, dependencyGraph, maxDepth))
-            .collect(java.util.stream.Collectors.toList());
+        return generateFlows(structure.getEntryPoints(), structure, graph, maxDepth);
+    }
 
-        log.info("所有业务流程生成完成: 流程数={}", results.size());
+    /**
+     * 批量生成业务流程
+     * 所有追踪共享同一个项目结构、依赖图和子树缓存，在追踪线程池中并行执行，结果顺序与入口点顺序一致
+     *
+     * @param entryPoints 入口点列表
+     * @param structure 项目结构
+     * @param dependencyGraph 服务依赖图
+     * @param maxDepth 最大追踪深度
+     * @return 业务流程结果列表
+     */
+    public List<BusinessFlowResult> generateFlows(
+        List<EntryPoint> entryPoints,
+        ProjectStructure structure,
+        ServiceDependencyGraph dependencyGraph,
+        int maxDepth
+    ) {
+        long startTime = System.currentTimeMillis();
+        TraceCache traceCache = new TraceCache(structure, dependencyGraph);
+
+        List<CompletableFuture<BusinessFlowResult>> futures = entryPoints.stream()
+            .map(ep -> CompletableFuture.supplyAsync(
+                () -> generateFlow(ep, structure, dependencyGraph, maxDepth, traceCache), flowTraceExecutor))
+            .collect(Collectors.toList());
+
+        List<BusinessFlowResult> results = futures.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+
+        log.info("所有业务流程生成完成: 流程数={}, 耗时={}ms, 子树缓存命中={}, 未命中={}",
+            results.size(), System.currentTimeMillis() - startTime,
+            traceCache.getHitCount(), traceCache.getMissCount());
         return results;
     }
 
+    /**
+     * 获取项目扫描统计信息
+     */
+    public Map<String, Object> getScanStatistics() {
+        long requests = flowRequestCount.get();
+        long scans = projectScanCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requestCount", requests);
+        stats.put("projectScanCount", scans);
+        stats.put("avgScansPerRequest", requests == 0 ? 0.0 : (double) scans / requests);
+        stats.put("maxScansPerRequest", maxScansPerRequest.get());
+        return stats;
+    }
+
+    /**
+     * 在扫描会话内分析服务依赖
+     */
+    private ServiceDependencyGraph analyzeDependencies(ScanSession session, List<String> projectPaths) {
+        List<ProjectStructure> structures = projectPaths.stream()
+            .map(session::scan)
+            .collect(Collectors.toList());
+        return dependencyAnalyzer.analyze(structures);
+    }
+
+    /**
+     * 结束扫描会话并记录扫描次数
+     */
+    private void finishSession(ScanSession session, String operation) {
+        int scans = session.getScanCount();
+        flowRequestCount.incrementAndGet();
+        projectScanCount.addAndGet(scans);
+        maxScansPerRequest.accumulateAndGet(scans, Math::max);
+        log.info("{} 项目扫描次数: {}", operation, scans);
+    }
+
     /**
      * 基于关键词生成并存储业务流程
      *
@@ -143,7 +360,6 @@ public class BusinessFlowService {
      * @param maxDepth       最大追踪深度
      * @return 按关键词分组的流程结果
      */
-    @Transactional(rollbackFor = Exception.class)
     public Map<String, List<BusinessFlowResult>> generateAndSaveFlowsByKeywords(
             List<String> keywords,
             List<String> repositoryUrls,
@@ -152,81 +368,145 @@ public class BusinessFlowService {
 
         log.info("开始基于关键词生成业务流程，关键词：{}，仓库数量：{}", keywords, repositoryUrls.size());
 
+        // 已提交到追踪线程池的流程解析，流水线失败时取消其中尚未开始的任务
+        Map<EntryPoint, CompletableFuture<ResolvedFlow>> pendingFlows = new IdentityHashMap<>();
         try {
             // 1. 下载/更新所有仓库（使用现有GitRepositoryManager）
             List<GitRepositoryInfo> repositories = downloadOrUpdateRepositories(repositoryUrls, credentials);
 
-            // 2. 提取本地路径和版本信息
-            List<String> projectPaths = repositories.stream()
-                    .map(GitRepositoryInfo::getLocalPath)
-                    .collect(Collectors.toList());
-
+            // 2. 提取版本信息
             String primaryRepoVersion = repositories.get(0).getLatestCommitId();
             String primaryRepoUrl = repositoryUrls.get(0);
 
-            // 3. 扫描项目
-            List<ProjectStructure> structures = scanProjects(projectPaths);
+            // 3. 扫描项目（同一提交版本复用已有结构）
+            ScanSession session = new ScanSession();
+            List<ProjectStructure> structures = scanProjects(session, repositories);
+            finishSession(session, "generateAndSaveFlowsByKeywords");
 
-            // 4. 分析服务依赖
-            ServiceDependencyGraph dependencyGraph = dependencyAnalyzer.analyze(structures);
+            // 4. 读取物化的服务依赖图（只刷新版本变化的仓库）
+            List<String> versions = repositories.stream()
+                    .map(GitRepositoryInfo::getLatestCommitId)
+                    .collect(Collectors.toList());
+            ServiceDependencyGraph dependencyGraph = dependencyGraphService.resolve(structures, versions);
 
             // 5. 智能搜索入口点
             List<EntryPointMatch> entryPointMatches = entryPointFinder.findByKeywords(keywords, structures);
 
             log.info("找到 {} 个匹配的入口点", entryPointMatches.size());
 
-            // 6. 批量生成并存储流程
-            Map<String, List<BusinessFlowResult>> resultsByKeyword = new LinkedHashMap<>();
-
-            for (String keyword : keywords) {
-                List<BusinessFlowResult> keywordFlows = new ArrayList<>();
+            // 6. 每个关键词一次批量查询已存在的关键词关联，其余入口点提交到追踪线程池并行解析：
+            //    追踪输入未变化时复用已存储的流程内容，否则重新追踪
+            //    （同一项目的入口点共享子树缓存，多个关键词命中的同一入口点只解析一次）
+            Map<String, List<EntryPointMatch>> matchesByKeyword = new LinkedHashMap<>();
+            Map<String, Map<String, BusinessFlowDocumentEntity>> existingByKeyword = new HashMap<>();
+            Map<EntryPoint, PendingFlow> pendingEntries = new IdentityHashMap<>();
+            Map<ProjectStructure, TraceCache> traceCaches = new IdentityHashMap<>();
 
+            for (String keyword : new LinkedHashSet<>(keywords)) {
                 // 过滤该关键词相关的入口点
                 List<EntryPointMatch> keywordMatches = filterMatchesByKeyword(entryPointMatches, keyword);
+                Map<String, BusinessFlowDocumentEntity> existing =
+                        findExistingFlows(keyword, primaryRepoVersion, keywordMatches);
+                matchesByKeyword.put(keyword, keywordMatches);
+                existingByKeyword.put(keyword, existing);
 
                 for (EntryPointMatch match : keywordMatches) {
-                    // 检查是否已存在（避免重复生成）
-                    Optional<BusinessFlowDocumentEntity> existing =
-                            flowDocumentRepository.findByKeywordAndRepositoryVersionAndApiPath(
-                                    keyword,
-                                    primaryRepoVersion,
-                                    match.getEntryPoint().getPath()
-                            );
-
-                    if (existing.isPresent()) {
-                        log.info("流程已存在，使用缓存：keyword={}, api={}", keyword, match.getEntryPoint().getPath());
-                        keywordFlows.add(convertToResult(existing.get(), match));
+                    if (existing.containsKey(match.getEntryPoint().getPath())) {
                         continue;
                     }
+                    pendingEntries.computeIfAbsent(match.getEntryPoint(), entryPoint -> {
+                        ProjectStructure structure = findStructure(match.getProjectName(), structures);
+                        TraceCache traceCache = traceCaches.computeIfAbsent(
+                                structure, s -> new TraceCache(s, dependencyGraph));
+                        String entryKey = flowInputCollector.entryKey(entryPoint, structure, maxDepth,
+                                analysisProperties.getTrace(), analysisProperties.getMermaid());
+                        return new PendingFlow(entryPoint, entryKey, structure, traceCache);
+                    });
+                }
+            }
 
-                    // 生成新流程
-                    BusinessFlowResult flow = generateFlowForEntryPoint(
-                            match.getEntryPoint(),
-                            match.getProjectName(),
-                            projectPaths,
-                            dependencyGraph,
-                            maxDepth
-                    );
+            // 提交追踪前一次批量查询所有待解析入口的候选内容，追踪线程只做校验和追踪，不访问数据库
+            Map<String, List<Object[]>> candidates = findContentCandidates(pendingEntries.values().stream()
+                    .map(PendingFlow::getEntryKey)
+                    .collect(Collectors.toSet()));
+            for (PendingFlow pending : pendingEntries.values()) {
+                List<Object[]> entryCandidates =
+                        candidates.getOrDefault(pending.getEntryKey(), Collections.emptyList());
+                pendingFlows.put(pending.getEntryPoint(), CompletableFuture.supplyAsync(
+                        () -> resolveFlow(pending, entryCandidates, dependencyGraph, maxDepth), flowTraceExecutor));
+            }
+            log.info("待解析流程数: {}", pendingFlows.size());
+
+            // 7. 按关键词顺序收集结果，每个关键词先写入新的流程内容，再写入关键词关联（分批短事务）
+            Map<String, List<BusinessFlowResult>> resultsByKeyword = new LinkedHashMap<>();
+            Map<String, BusinessFlowContentEntity> contents = new HashMap<>();
+            for (Map.Entry<String, List<EntryPointMatch>> entry : matchesByKeyword.entrySet()) {
+                String keyword = entry.getKey();
+                Map<String, BusinessFlowDocumentEntity> existing = existingByKeyword.get(keyword);
+
+                // 等待该关键词的流程解析完成，与已存在的关联引用的内容一起批量加载复用的内容
+                Map<EntryPoint, ResolvedFlow> resolvedFlows = new IdentityHashMap<>();
+                Set<String> contentIds = new HashSet<>();
+                for (BusinessFlowDocumentEntity entity : existing.values()) {
+                    contentIds.add(entity.getContentHash());
+                }
+                for (EntryPointMatch match : entry.getValue()) {
+                    CompletableFuture<ResolvedFlow> future = pendingFlows.get(match.getEntryPoint());
+                    if (future != null) {
+                        ResolvedFlow resolved = future.join();
+                        resolvedFlows.put(match.getEntryPoint(), resolved);
+                        contentIds.add(resolved.getReusedContentId());
+                    }
+                }
+                loadContents(contentIds, contents);
+
+                List<BusinessFlowResult> keywordFlows = new ArrayList<>();
+                List<BusinessFlowContentEntity> newContents = new ArrayList<>();
+                List<BusinessFlowDocumentEntity> newEntities = new ArrayList<>();
+
+                for (EntryPointMatch match : entry.getValue()) {
+                    String apiPath = match.getEntryPoint().getPath();
+                    BusinessFlowDocumentEntity entity = apiPath != null ? existing.get(apiPath) : null;
+                    if (entity != null) {
+                        log.info("流程已存在，使用缓存：keyword={}, api={}", keyword, apiPath);
+                        keywordFlows.add(convertToResult(entity, contents.get(entity.getContentHash()), match));
+                        continue;
+                    }
+
+                    ResolvedFlow resolved = resolvedFlows.get(match.getEntryPoint());
+                    if (resolved.getReusedContentId() != null) {
+                        resolved = reuseContent(pendingEntries.get(match.getEntryPoint()),
+                                contents.get(resolved.getReusedContentId()), dependencyGraph, maxDepth);
+                    }
+                    BusinessFlowContentEntity content = resolved.getContent();
+                    if (content != null && contents.putIfAbsent(content.getId(), content) == null
+                            && resolved.isGenerated()) {
+                        newContents.add(content);
+                    }
 
-                    // 持久化存储
                     BusinessFlowDocument document = buildDocument(
-                            flow,
+                            resolved.getFlow(),
+                            content,
                             keyword,
                             match.getRelevanceScore(),
                             primaryRepoUrl,
                             primaryRepoVersion,
                             repositoryUrls
                     );
-
-                    BusinessFlowDocumentEntity entity = flowDocumentMapper.toEntity(document);
-                    flowDocumentRepository.save(entity);
-
-                    log.info("流程已保存：keyword={}, api={}, score={}",
-                            keyword, match.getEntryPoint().getPath(), match.getRelevanceScore());
-
-                    keywordFlows.add(flow);
+                    entity = flowDocumentMapper.toEntity(document);
+                    entity.setId(IdGenerator.generateId());
+                    entity.setCreatedAt(new Date());
+                    newEntities.add(entity);
+                    if (apiPath != null) {
+                        existing.put(apiPath, entity);
+                    }
+                    keywordFlows.add(resolved.getFlow());
                 }
 
+                saveContents(newContents);
+                saveFlows(newEntities);
+                log.info("关键词流程已保存：keyword={}, 新增={}, 新内容={}, 复用={}",
+                        keyword, newEntities.size(), newContents.size(), keywordFlows.size() - newEntities.size());
                 resultsByKeyword.put(keyword, keywordFlows);
             }
 
@@ -237,11 +517,131 @@ public class BusinessFlowService {
             return resultsByKeyword;
 
         } catch (Exception e) {
-            log.error("生成业务流程失败", e);
+            int cancelled = 0;
+            for (CompletableFuture<ResolvedFlow> future : pendingFlows.values()) {
+                if (future.cancel(false)) {
+                    cancelled++;
+                }
+            }
+            log.error("生成业务流程失败，取消未完成的流程解析: {}", cancelled, e);
             throw new RuntimeException("生成业务流程失败：" + e.getMessage(), e);
         }
     }
 
+    /**
+     * 批量查询关键词下已存在的流程
+     *
+     * @return API路径 -> 流程文档
+     */
+    private Map<String, BusinessFlowDocumentEntity> findExistingFlows(
+            String keyword,
+            String repositoryVersion,
+            List<EntryPointMatch> matches) {
+
+        Set<String> apiPaths = matches.stream()
+                .map(match -> match.getEntryPoint().getPath())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, BusinessFlowDocumentEntity> existing = new HashMap<>();
+        if (apiPaths.isEmpty()) {
+            return existing;
+        }
+        for (BusinessFlowDocumentEntity entity :
+                flowDocumentRepository.findByKeywordAndRepositoryVersionAndApiPathIn(keyword, repositoryVersion, apiPaths)) {
+            existing.putIfAbsent(entity.getApiPath(), entity);
+        }
+        return existing;
+    }
+
+    /**
+     * 分批写入新流程，每批一个短事务
+     */
+    private void saveFlows(List<BusinessFlowDocumentEntity> entities) {
+        for (int from = 0; from < entities.size(); from += FLOW_INSERT_BATCH_SIZE) {
+            int to = Math.min(from + FLOW_INSERT_BATCH_SIZE, entities.size());
+            flowDocumentRepository.batchInsertIgnoringDuplicates(entities.subList(from, to));
+        }
+    }
+
+    /**
+     * 分批写入新的流程内容，每批一个短事务
+     */
+    private void saveContents(List<BusinessFlowContentEntity> contents) {
+        for (int from = 0; from < contents.size(); from += FLOW_INSERT_BATCH_SIZE) {
+            int to = Math.min(from + FLOW_INSERT_BATCH_SIZE, contents.size());
+            flowContentRepository.batchInsertIgnoringDuplicates(contents.subList(from, to));
+        }
+    }
+
+    /**
+     * 批量加载关键词关联引用、尚未加载的流程内容
+     */
+    private void loadContents(Collection<BusinessFlowDocumentEntity> entities,
+                              Map<String, BusinessFlowContentEntity> contents) {
+        loadContents(entities.stream()
+                .map(BusinessFlowDocumentEntity::getContentHash)
+                .collect(Collectors.toSet()), contents);
+    }
+
+    /**
+     * 批量加载尚未加载的流程内容
+     */
+    private void loadContents(Set<String> contentIds, Map<String, BusinessFlowContentEntity> contents) {
+        List<String> ids = contentIds.stream()
+                .filter(id -> id != null && !contents.containsKey(id))
+                .collect(Collectors.toList());
+        for (List<String> batch : partition(ids)) {
+            flowContentRepository.findAllById(batch).forEach(content -> contents.put(content.getId(), content));
+        }
+    }
+
+    /**
+     * 批量查询入口键最近的几份流程内容的追踪输入（先查ID挑选候选，再只加载候选的追踪输入）
+     *
+     * @return 入口键 -> [id, inputsJson]列表，按创建时间倒序
+     */
+    private Map<String, List<Object[]>> findContentCandidates(Set<String> entryKeys) {
+        Map<String, List<String>> idsByKey = new HashMap<>();
+        List<String> candidateIds = new ArrayList<>();
+        for (List<String> batch : partition(new ArrayList<>(entryKeys))) {
+            for (Object[] row : flowContentRepository.findIdsByEntryKeyIn(batch)) {
+                List<String> ids = idsByKey.computeIfAbsent((String) row[1], k -> new ArrayList<>());
+                if (ids.size() < FLOW_CONTENT_CANDIDATES) {
+                    ids.add((String) row[0]);
+                    candidateIds.add((String) row[0]);
+                }
+            }
+        }
+
+        Map<String, String> inputsById = new HashMap<>();
+        for (List<String> batch : partition(candidateIds)) {
+            for (Object[] row : flowContentRepository.findInputsByIdIn(batch)) {
+                inputsById.put((String) row[0], (String) row[1]);
+            }
+        }
+
+        Map<String, List<Object[]>> candidates = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : idsByKey.entrySet()) {
+            List<Object[]> rows = new ArrayList<>();
+            for (String id : entry.getValue()) {
+                rows.add(new Object[]{id, inputsById.get(id)});
+            }
+            candidates.put(entry.getKey(), rows);
+        }
+        return candidates;
+    }
+
+    /**
+     * 按IN查询的参数数分批
+     */
+    private static <T> List<List<T>> partition(List<T> values) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += FLOW_QUERY_BATCH_SIZE) {
+            batches.add(values.subList(from, Math.min(from + FLOW_QUERY_BATCH_SIZE, values.size())));
+        }
+        return batches;
+    }
+
     /**
      * 下载或更新仓库
      */
@@ -264,14 +664,14 @@ public class BusinessFlowService {
     /**
      * 扫描项目
      */
-    private List<ProjectStructure> scanProjects(List<String> projectPaths) {
-        return projectPaths.stream()
-                .map(path -> {
+    private List<ProjectStructure> scanProjects(ScanSession session, List<GitRepositoryInfo> repositories) {
+        return repositories.stream()
+                .map(repo -> {
                     try {
-                        return projectScanner.scanProject(path);
+                        return session.scan(repo.getLocalPath(), repo.getLatestCommitId());
                     } catch (Exception e) {
-                        log.error("扫描项目失败：{}", path, e);
-                        throw new RuntimeException("扫描项目失败：" + path, e);
+                        log.error("扫描项目失败：{}", repo.getLocalPath(), e);
+                        throw new RuntimeException("扫描项目失败：" + repo.getLocalPath(), e);
                     }
                 })
                 .collect(Collectors.toList());
@@ -304,26 +704,101 @@ public class BusinessFlowService {
     }
 
     /**
-     * 为入口点生成流程
+     * 解析入口点的流程：追踪输入未变化时复用已存储的流程内容（只返回内容ID，由调用方批量加载），
+     * 否则重新追踪并生成新的内容
+     *
+     * @param candidates 同一入口最近的几份内容的[id, inputsJson]，按创建时间倒序
      */
-    private BusinessFlowResult generateFlowForEntryPoint(
-            EntryPoint entryPoint,
-            String projectName,
-            List<String> projectPaths,
+    private ResolvedFlow resolveFlow(
+            PendingFlow pending,
+            List<Object[]> candidates,
             ServiceDependencyGraph dependencyGraph,
             int maxDepth) {
 
-        // 找到入口点所在的项目路径
-        String projectPath = findProjectPath(projectName, projectPaths);
+        // 同一入口最近的几份内容中，找追踪输入仍然有效的一份
+        for (Object[] candidate : candidates) {
+            FlowInputs inputs = candidate[1] != null ? deserializeInputs((String) candidate[1]) : null;
+            if (inputs != null && flowInputCollector.isUpToDate(inputs, pending.getStructure(), dependencyGraph)) {
+                return ResolvedFlow.reused((String) candidate[0]);
+            }
+        }
+        return generateFlow(pending, dependencyGraph, maxDepth);
+    }
+
+    /**
+     * 由批量加载的内容构建复用的流程，内容已不存在时重新追踪
+     */
+    private ResolvedFlow reuseContent(PendingFlow pending, BusinessFlowContentEntity content,
+                                      ServiceDependencyGraph dependencyGraph, int maxDepth) {
+        if (content == null) {
+            log.warn("复用的流程内容已不存在，重新追踪：api={}", pending.getEntryPoint().getPath());
+            return generateFlow(pending, dependencyGraph, maxDepth);
+        }
+        log.debug("复用流程内容：api={}, content={}", pending.getEntryPoint().getPath(), content.getId());
+        return new ResolvedFlow(toResult(content, pending.getEntryPoint()), content, false);
+    }
+
+    /**
+     * 追踪入口点并生成新的流程内容
+     */
+    private ResolvedFlow generateFlow(PendingFlow pending, ServiceDependencyGraph dependencyGraph, int maxDepth) {
+        EntryPoint entryPoint = pending.getEntryPoint();
+        ProjectStructure structure = pending.getStructure();
+        String entryKey = pending.getEntryKey();
+
+        BusinessFlowResult flow = generateFlowForEntryPoint(
+                entryPoint, structure, dependencyGraph, maxDepth, pending.getTraceCache());
+        FlowInputs inputs = flowInputCollector.collect(entryKey, flow.getCallChain(), structure, dependencyGraph);
+        if (inputs == null) {
+            // 入口未找到、源文件不可读或追踪超时，不缓存
+            return new ResolvedFlow(flow, null, true);
+        }
+
+        BusinessFlowContentEntity content = new BusinessFlowContentEntity();
+        content.setId(inputs.contentHash());
+        content.setEntryKey(entryKey);
+        content.setInputsJson(serializeInputs(inputs));
+        content.setCallChainJson(serializeCallChain(flow.getCallChain()));
+        content.setMermaidDiagram(flow.getMermaidDiagram());
+        content.setNodeCount(flow.getNodeCount());
+        content.setMaxDepth(flow.getMaxDepth());
+        content.setRelatedServices(serializeList(new ArrayList<>(extractServices(flow.getCallChain()))));
+        content.setCreatedAt(new Date());
+        flow.setContentHash(content.getId());
+        return new ResolvedFlow(flow, content, true);
+    }
+
+    /**
+     * 由已存储的流程内容构建结果
+     */
+    private BusinessFlowResult toResult(BusinessFlowContentEntity content, EntryPoint entryPoint) {
+        BusinessFlowResult result = new BusinessFlowResult();
+        result.setFlowId(content.getId());
+        result.setContentHash(content.getId());
+        result.setEntryPoint(entryPoint);
+        result.setCallChain(deserializeCallChain(content.getCallChainJson()));
+        result.setMermaidDiagram(content.getMermaidDiagram());
+        result.setNodeCount(content.getNodeCount() != null ? content.getNodeCount() : 0);
+        result.setMaxDepth(content.getMaxDepth() != null ? content.getMaxDepth() : 0);
+        return result;
+    }
 
-        // 扫描该项目
-        ProjectStructure structure = projectScanner.scanProject(projectPath);
+    /**
+     * 为入口点生成流程
+     */
+    private BusinessFlowResult generateFlowForEntryPoint(
+            EntryPoint entryPoint,
+            ProjectStructure structure,
+            ServiceDependencyGraph dependencyGraph,
+            int maxDepth,
+            TraceCache traceCache) {
 
         // 追踪调用链
-        CallChain callChain = flowTracer.trace(entryPoint, structure, dependencyGraph, maxDepth);
+        CallChain callChain = flowTracer.trace(
+                entryPoint, structure, dependencyGraph, maxDepth, traceCache, analysisProperties.getTrace());
 
         // 生成Mermaid图
-        String mermaidDiagram = mermaidGenerator.generateSequenceDiagram(callChain);
+        String mermaidDiagram = mermaidGenerator.generateSequenceDiagram(callChain, analysisProperties.getMermaid());
 
         // 构建结果
         BusinessFlowResult result = new BusinessFlowResult();
@@ -338,12 +813,13 @@ public class BusinessFlowService {
     }
 
     /**
-     * 查找项目路径
+     * 查找入口点所在项目的结构
      */
-    private String findProjectPath(String projectName, List<String> projectPaths) {
-        // 简单实现：返回第一个路径
-        // TODO: 实现更智能的项目路径匹配逻辑
-        return projectPaths.isEmpty() ? null : projectPaths.get(0);
+    private ProjectStructure findStructure(String projectName, List<ProjectStructure> structures) {
+        return structures.stream()
+                .filter(s -> s.getProjectName().equals(projectName))
+                .findFirst()
+                .orElse(structures.get(0));
     }
 
     /**
@@ -351,20 +827,24 @@ public class BusinessFlowService {
      */
     private BusinessFlowDocument buildDocument(
             BusinessFlowResult flow,
+            BusinessFlowContentEntity content,
             String keyword,
             int relevanceScore,
             String primaryRepoUrl,
             String primaryRepoVersion,
             List<String> allRepoUrls) {
 
-        // 提取关联服务
-        Set<String> relatedServices = extractServices(flow.getCallChain());
-
-        // 序列化调用链
-        String callChainJson = serializeCallChain(flow.getCallChain());
-
-        // 序列化关联服务
-        String relatedServicesJson = serializeList(new ArrayList<>(relatedServices));
+        // 有流程内容时只引用内容哈希，否则调用链和流程图直接存储在关联中
+        String callChainJson = null;
+        String mermaidDiagram = null;
+        String relatedServicesJson;
+        if (content != null) {
+            relatedServicesJson = content.getRelatedServices();
+        } else {
+            callChainJson = serializeCallChain(flow.getCallChain());
+            mermaidDiagram = flow.getMermaidDiagram();
+            relatedServicesJson = serializeList(new ArrayList<>(extractServices(flow.getCallChain())));
+        }
 
         // 序列化依赖仓库
         String dependencyReposJson = serializeList(allRepoUrls);
@@ -378,8 +858,9 @@ public class BusinessFlowService {
         document.setClassName(flow.getEntryPoint().getClassName());
         document.setMethodName(flow.getEntryPoint().getMethodName());
         document.setMethodSignature(flow.getEntryPoint().getMethodSignature());
+        document.setContentHash(content != null ? content.getId() : null);
         document.setCallChainJson(callChainJson);
-        document.setMermaidDiagram(flow.getMermaidDiagram());
+        document.setMermaidDiagram(mermaidDiagram);
         document.setNodeCount(flow.getNodeCount());
         document.setMaxDepth(flow.getMaxDepth());
         document.setRelatedServices(relatedServicesJson);
@@ -403,6 +884,64 @@ public class BusinessFlowService {
         }
     }
 
+    /**
+     * 反序列化调用链
+     * 扁平节点列表按先序从根节点重建，与追踪结果一样引用树中的节点
+     */
+    private CallChain deserializeCallChain(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            CallChain callChain = objectMapper.readerFor(CallChain.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(json);
+            callChain.setNodes(new ArrayList<>());
+            Deque<CallNode> stack = new ArrayDeque<>();
+            if (callChain.getRoot() != null) {
+                stack.push(callChain.getRoot());
+            }
+            while (!stack.isEmpty()) {
+                CallNode node = stack.pop();
+                callChain.addNode(node);
+                for (int i = node.getChildren().size() - 1; i >= 0; i--) {
+                    stack.push(node.getChildren().get(i));
+                }
+            }
+            return callChain;
+        } catch (Exception e) {
+            log.warn("反序列化调用链失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 序列化追踪输入
+     */
+    private String serializeInputs(FlowInputs inputs) {
+        try {
+            return objectMapper.writeValueAsString(inputs);
+        } catch (Exception e) {
+            log.error("序列化追踪输入失败", e);
+            return null;
+        }
+    }
+
+    /**
+     * 反序列化追踪输入
+     */
+    private FlowInputs deserializeInputs(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, FlowInputs.class);
+        } catch (Exception e) {
+            log.warn("反序列化追踪输入失败", e);
+            return null;
+        }
+    }
+
     /**
      * 序列化列表
      */
@@ -448,13 +987,16 @@ public class BusinessFlowService {
      */
     private BusinessFlowResult convertToResult(
             BusinessFlowDocumentEntity entity,
+            BusinessFlowContentEntity content,
             EntryPointMatch match) {
 
         BusinessFlowResult result = new BusinessFlowResult();
         result.setFlowId(entity.getId());
+        result.setContentHash(entity.getContentHash());
         result.setEntryPoint(match.getEntryPoint());
-        // TODO: 反序列化CallChain
-        result.setMermaidDiagram(entity.getMermaidDiagram());
+        result.setCallChain(deserializeCallChain(
+                content != null ? content.getCallChainJson() : entity.getCallChainJson()));
+        result.setMermaidDiagram(content != null ? content.getMermaidDiagram() : entity.getMermaidDiagram());
         result.setNodeCount(entity.getNodeCount());
         result.setMaxDepth(entity.getMaxDepth());
         result.setDescription(entity.getDescription());
@@ -462,6 +1004,13 @@ public class BusinessFlowService {
         return result;
     }
 
+    /**
+     * 获取解析缓存统计信息
+     */
+    public Map<String, Object> getParseCacheStatistics() {
+        return classInfoCache.getStatistics();
+    }
+
     /**
      * 按关键词查询历史流程
      */
@@ -470,7 +1019,7 @@ public class BusinessFlowService {
 
         Page<BusinessFlowDocumentEntity> entities = flowDocumentRepository.findByKeyword(keyword, pageable);
 
-        return entities.map(flowDocumentMapper::toDomain);
+        return toDomainWithContents(entities);
     }
 
     /**
@@ -482,7 +1031,7 @@ public class BusinessFlowService {
         Page<BusinessFlowDocumentEntity> entities =
                 flowDocumentRepository.findByRelatedServiceContaining(serviceName, pageable);
 
-        return entities.map(flowDocumentMapper::toDomain);
+        return toDomainWithContents(entities);
     }
 
     /**
@@ -492,7 +1041,7 @@ public class BusinessFlowService {
         log.info("查询流程：apiPath={}", apiPath);
 
         return flowDocumentRepository.findByApiPath(apiPath)
-                .map(flowDocumentMapper::toDomain);
+                .map(this::toDomainWithContent);
     }
 
     /**
@@ -502,6 +1051,127 @@ public class BusinessFlowService {
         log.info("获取流程详情：id={}", id);
 
         return flowDocumentRepository.findById(id)
-                .map(flowDocumentMapper::toDomain);
+                .map(this::toDomainWithContent);
+    }
+
+    /**
+     * 转换为领域对象，并从引用的流程内容填充调用链和流程图（一页一次批量查询）
+     */
+    private Page<BusinessFlowDocument> toDomainWithContents(Page<BusinessFlowDocumentEntity> entities) {
+        Map<String, BusinessFlowContentEntity> contents = new HashMap<>();
+        loadContents(entities.getContent(), contents);
+        return entities.map(entity -> fillContent(
+                flowDocumentMapper.toDomain(entity), contents.get(entity.getContentHash())));
+    }
+
+    private BusinessFlowDocument toDomainWithContent(BusinessFlowDocumentEntity entity) {
+        BusinessFlowContentEntity content = entity.getContentHash() != null
+                ? flowContentRepository.findById(entity.getContentHash()).orElse(null)
+                : null;
+        return fillContent(flowDocumentMapper.toDomain(entity), content);
+    }
+
+    private BusinessFlowDocument fillContent(BusinessFlowDocument document, BusinessFlowContentEntity content) {
+        if (content != null) {
+            document.setCallChainJson(content.getCallChainJson());
+            document.setMermaidDiagram(content.getMermaidDiagram());
+        }
+        return document;
+    }
+
+    /**
+     * 入口点的流程解析结果
+     */
+    @Getter
+    private static class ResolvedFlow {
+
+        private final BusinessFlowResult flow;
+
+        /**
+         * 流程内容，不可缓存时为null
+         */
+        private final BusinessFlowContentEntity content;
+
+        /**
+         * 是否为本次新追踪生成
+         */
+        private final boolean generated;
+
+        /**
+         * 追踪输入仍然有效、待批量加载的已存储内容ID（此时流程和内容为null）
+         */
+        private final String reusedContentId;
+
+        ResolvedFlow(BusinessFlowResult flow, BusinessFlowContentEntity content, boolean generated) {
+            this.flow = flow;
+            this.content = content;
+            this.generated = generated;
+            this.reusedContentId = null;
+        }
+
+        private ResolvedFlow(String reusedContentId) {
+            this.flow = null;
+            this.content = null;
+            this.generated = false;
+            this.reusedContentId = reusedContentId;
+        }
+
+        static ResolvedFlow reused(String contentId) {
+            return new ResolvedFlow(contentId);
+        }
+    }
+
+    /**
+     * 待解析的入口点及其追踪上下文
+     */
+    @Getter
+    private static class PendingFlow {
+
+        private final EntryPoint entryPoint;
+        private final String entryKey;
+        private final ProjectStructure structure;
+
+        /**
+         * 同一项目的入口点共享的子树缓存
+         */
+        private final TraceCache traceCache;
+
+        PendingFlow(EntryPoint entryPoint, String entryKey, ProjectStructure structure, TraceCache traceCache) {
+            this.entryPoint = entryPoint;
+            this.entryKey = entryKey;
+            this.structure = structure;
+            this.traceCache = traceCache;
+        }
+    }
+
+    /**
+     * 扫描会话
+     * 一次请求内同一项目只扫描一次，并统计实际扫描次数
+     */
+    private class ScanSession {
+
+        private final Map<String, ProjectStructure> structures = new HashMap<>();
+        private int scanCount;
+
+        ProjectStructure scan(String projectPath) {
+            return scan(projectPath, null);
+        }
+
+        ProjectStructure scan(String projectPath, String version) {
+            ProjectStructure structure = structures.get(projectPath);
+            if (structure == null) {
+                structure = structureStore.getIfPresent(projectPath, version);
+            }
+            if (structure == null) {
+                structure = structureStore.scan(projectPath, version);
+                scanCount++;
+            }
+            structures.put(projectPath, structure);
+            return structure;
+        }
+
+        int getScanCount() {
+            return scanCount;
+        }
     }
 }
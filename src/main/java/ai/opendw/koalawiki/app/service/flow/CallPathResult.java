@@ -0,0 +1,41 @@
+package ai.opendw.koalawiki.app.service.flow;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 调用路径查询结果
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+public class CallPathResult {
+
+    /**
+     * 起点（类名.方法名）
+     */
+    private String from;
+
+    /**
+     * 终点（类名.方法名）
+     */
+    private String to;
+
+    /**
+     * 是否存在调用路径
+     */
+    private boolean found;
+
+    /**
+     * 最短调用路径（类名.方法签名，含起点和终点）
+     */
+    private List<String> path = new ArrayList<>();
+
+    /**
+     * 查询耗时（毫秒）
+     */
+    private long elapsedMillis;
+}
@@ -0,0 +1,262 @@
+package ai.opendw.koalawiki.app.service.flow;
+
+import ai.opendw.koalawiki.core.analysis.ProjectStructureStore;
+import ai.opendw.koalawiki.core.analysis.model.CallGraph;
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import ai.opendw.koalawiki.core.analysis.model.ServiceNode;
+import ai.opendw.koalawiki.core.git.GitOperationException;
+import ai.opendw.koalawiki.core.git.GitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 流程查询服务
+ * 在预计算的调用图和物化的服务依赖图上回答可达性、调用路径和影响范围查询，不生成调用链：
+ * <ul>
+ *   <li>可达性：哪些入口点能到达指定方法（沿调用边反向按层遍历）</li>
+ *   <li>调用路径：两个方法之间的最短调用路径</li>
+ *   <li>影响范围：方法变更影响的入口点，以及经由本服务提供的接口受影响的服务；
+ *       服务或接口变更影响的下游调用方服务</li>
+ * </ul>
+ * 遍历使用位图记录已访问节点，按层数限制范围。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlowQueryService {
+
+    private final ProjectStructureStore structureStore;
+    private final ServiceDependencyGraphService dependencyGraphService;
+    private final GitService gitService;
+
+    /**
+     * 查询能到达指定方法的入口点，并给出受影响的服务
+     *
+     * @param projectPath 项目路径
+     * @param className   类全限定名（接口时同时包含实现类中的同名方法）
+     * @param methodName  方法名（含所有重载）
+     * @param maxDepth    最大层数，0表示不限制
+     * @return 查询结果
+     */
+    public ReachabilityResult findImpact(String projectPath, String className, String methodName, int maxDepth) {
+        long startTime = System.currentTimeMillis();
+        ProjectStructure structure = loadStructure(projectPath);
+        CallGraph graph = structure.getCallGraph();
+
+        ReachabilityResult result = new ReachabilityResult();
+        result.setTarget(className + "." + methodName);
+        result.setMaxDepth(maxDepth);
+
+        int[] targets = findTargetMethods(structure, graph, className, methodName);
+        if (targets.length == 0) {
+            log.info("影响范围查询目标不存在: {}.{}", className, methodName);
+            result.setElapsedMillis(System.currentTimeMillis() - startTime);
+            return result;
+        }
+
+        List<BitSet> levels = graph.reachLevels(targets, true, maxDepth);
+        Map<Integer, List<EntryPoint>> entryPoints = indexEntryPoints(structure, graph);
+        Set<String> impactedClasses = new LinkedHashSet<>();
+        int reached = 0;
+        for (int depth = 0; depth < levels.size(); depth++) {
+            BitSet level = levels.get(depth);
+            if (depth > 0) {
+                reached += level.cardinality();
+            }
+            for (int m = level.nextSetBit(0); m >= 0; m = level.nextSetBit(m + 1)) {
+                impactedClasses.add(graph.getClassName(m));
+                for (EntryPoint entryPoint : entryPoints.getOrDefault(m, Collections.emptyList())) {
+                    ReachabilityResult.ReachedEntryPoint reachedEntryPoint = new ReachabilityResult.ReachedEntryPoint();
+                    reachedEntryPoint.setEntryPoint(entryPoint);
+                    reachedEntryPoint.setDistance(depth);
+                    result.getEntryPoints().add(reachedEntryPoint);
+                }
+            }
+        }
+        result.setReachedMethodCount(reached);
+
+        ServiceDependencyGraph dependencyGraph = dependencyGraphService.getGraph();
+        Set<String> interfaces = findProvidedInterfaces(structure, dependencyGraph, impactedClasses);
+        if (!interfaces.isEmpty()) {
+            result.setImpactedServices(
+                dependencyGraph.getIndex().findImpactedServicesByInterfaces(interfaces, maxDepth));
+        }
+
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        log.info("影响范围查询完成: {}, 可达方法数={}, 入口点数={}, 受影响服务数={}, 耗时={}ms",
+            result.getTarget(), reached, result.getEntryPoints().size(),
+            result.getImpactedServices().size(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 查询直接或间接依赖指定服务的服务
+     *
+     * @param serviceName 服务名
+     * @param maxDepth    最大层数，0表示不限制
+     * @return 查询结果
+     */
+    public ReachabilityResult findServiceImpact(String serviceName, int maxDepth) {
+        long startTime = System.currentTimeMillis();
+        ReachabilityResult result = new ReachabilityResult();
+        result.setTarget(serviceName);
+        result.setMaxDepth(maxDepth);
+        result.setImpactedServices(
+            dependencyGraphService.getGraph().getIndex().findImpactedServices(serviceName, maxDepth));
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * 查询直接或间接依赖指定接口的服务
+     *
+     * @param interfaceName 接口全限定名
+     * @param maxDepth      最大层数，0表示不限制
+     * @return 查询结果
+     */
+    public ReachabilityResult findInterfaceImpact(String interfaceName, int maxDepth) {
+        long startTime = System.currentTimeMillis();
+        ReachabilityResult result = new ReachabilityResult();
+        result.setTarget(interfaceName);
+        result.setMaxDepth(maxDepth);
+        result.setImpactedServices(dependencyGraphService.getGraph().getIndex()
+            .findImpactedServicesByInterfaces(Collections.singletonList(interfaceName), maxDepth));
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * 查询两个方法之间的最短调用路径
+     *
+     * @param projectPath      项目路径
+     * @param className        起点类全限定名
+     * @param methodName       起点方法名
+     * @param targetClassName  终点类全限定名
+     * @param targetMethodName 终点方法名
+     * @param maxDepth         最大路径长度，0表示不限制
+     * @return 查询结果
+     */
+    public CallPathResult findPath(String projectPath, String className, String methodName,
+                                   String targetClassName, String targetMethodName, int maxDepth) {
+        long startTime = System.currentTimeMillis();
+        ProjectStructure structure = loadStructure(projectPath);
+        CallGraph graph = structure.getCallGraph();
+
+        CallPathResult result = new CallPathResult();
+        result.setFrom(className + "." + methodName);
+        result.setTo(targetClassName + "." + targetMethodName);
+
+        int[] sources = findTargetMethods(structure, graph, className, methodName);
+        int[] targets = findTargetMethods(structure, graph, targetClassName, targetMethodName);
+        if (sources.length > 0 && targets.length > 0) {
+            for (int m : graph.shortestPath(sources, targets, maxDepth)) {
+                result.getPath().add(graph.getClassName(m) + "." + graph.getSignature(m));
+            }
+        }
+        result.setFound(!result.getPath().isEmpty());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * 获取项目结构，能确定提交版本时复用已保存的结构和调用图
+     */
+    private ProjectStructure loadStructure(String projectPath) {
+        String version = null;
+        if (gitService.isGitRepository(projectPath)) {
+            try {
+                version = gitService.getRepositoryInfo(projectPath).getLatestCommitId();
+            } catch (GitOperationException e) {
+                log.warn("获取项目版本失败，重新扫描: {}", projectPath);
+            }
+        }
+        return structureStore.getOrScan(projectPath, version);
+    }
+
+    /**
+     * 查找类中指定名称的方法；类为接口时同时包含实现类中的同名方法
+     */
+    private int[] findTargetMethods(ProjectStructure structure, CallGraph graph, String className, String methodName) {
+        Set<Integer> methods = new LinkedHashSet<>();
+        for (int m : graph.findMethods(className, methodName)) {
+            methods.add(m);
+        }
+        ClassInfo classInfo = structure.getClasses().get(className);
+        if (classInfo != null && classInfo.isInterface()) {
+            for (ClassInfo implementation : structure.getIndex().findImplementations(classInfo.getClassName())) {
+                for (int m : graph.findMethods(implementation.getFullClassName(), methodName)) {
+                    methods.add(m);
+                }
+            }
+        }
+        int[] result = new int[methods.size()];
+        int i = 0;
+        for (Integer m : methods) {
+            result[i++] = m;
+        }
+        return result;
+    }
+
+    /**
+     * 方法ID -> 以该方法为入口的入口点
+     */
+    private Map<Integer, List<EntryPoint>> indexEntryPoints(ProjectStructure structure, CallGraph graph) {
+        Map<Integer, List<EntryPoint>> entryPoints = new HashMap<>();
+        for (EntryPoint entryPoint : structure.getEntryPoints()) {
+            int m = graph.findMethod(entryPoint.getClassName(), entryPoint.getMethodName());
+            if (m != CallGraph.NONE) {
+                entryPoints.computeIfAbsent(m, k -> new ArrayList<>()).add(entryPoint);
+            }
+        }
+        return entryPoints;
+    }
+
+    /**
+     * 受影响的类实现的、由本项目服务对外提供的接口
+     */
+    private Set<String> findProvidedInterfaces(ProjectStructure structure, ServiceDependencyGraph dependencyGraph,
+                                               Set<String> impactedClasses) {
+        ServiceNode service = dependencyGraph.getService(structure.getProjectName());
+        Set<String> interfaces = new LinkedHashSet<>();
+        if (service == null || service.getProvidedInterfaces().isEmpty()) {
+            return interfaces;
+        }
+        for (String className : impactedClasses) {
+            ClassInfo classInfo = structure.getClasses().get(className);
+            if (classInfo == null) {
+                continue;
+            }
+            for (String provided : service.getProvidedInterfaces()) {
+                if (provided.equals(className) || implementsInterface(classInfo, provided)) {
+                    interfaces.add(provided);
+                }
+            }
+        }
+        return interfaces;
+    }
+
+    private boolean implementsInterface(ClassInfo classInfo, String provided) {
+        for (String declared : classInfo.getInterfaces()) {
+            if (provided.equals(declared) || provided.endsWith("." + declared)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package ai.opendw.koalawiki.app.service.flow;
+
+import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 可达性与影响范围查询结果
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+public class ReachabilityResult {
+
+    /**
+     * 查询目标（类名.方法名、服务名或接口名）
+     */
+    private String target;
+
+    /**
+     * 最大层数，0表示不限制
+     */
+    private int maxDepth;
+
+    /**
+     * 能到达目标的方法数（不含目标自身）
+     */
+    private int reachedMethodCount;
+
+    /**
+     * 能到达目标的入口点，按距离排列
+     */
+    private List<ReachedEntryPoint> entryPoints = new ArrayList<>();
+
+    /**
+     * 受影响的服务：服务名 -> 距离，按距离排列
+     */
+    private Map<String, Integer> impactedServices = new LinkedHashMap<>();
+
+    /**
+     * 查询耗时（毫秒）
+     */
+    private long elapsedMillis;
+
+    /**
+     * 能到达目标的入口点
+     */
+    @Data
+    public static class ReachedEntryPoint {
+
+        private EntryPoint entryPoint;
+
+        /**
+         * 入口方法到目标的调用层数
+         */
+        private int distance;
+    }
+}
@@ -0,0 +1,214 @@
+package ai.opendw.koalawiki.app.service.flow;
+
+import ai.opendw.koalawiki.core.analysis.ProjectStructureStore;
+import ai.opendw.koalawiki.core.analysis.ServiceDependencyAnalyzer;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import ai.opendw.koalawiki.core.analysis.model.ServiceNode;
+import ai.opendw.koalawiki.core.event.WarehouseSyncCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 跨仓库服务依赖图服务
+ * 维护一份物化的服务依赖图：启动后首次使用时从数据库加载，
+ * 仓库同步完成时只重算该仓库贡献的服务节点和依赖关系并持久化，
+ * 流程请求直接读取物化图，不再在请求路径上重新分析所有仓库。
+ *
+ * 已发布的图视为只读，刷新在副本上进行，持久化的事务提交后再整体替换，正在进行的追踪不受影响。
+ * 刷新之间通过独立的刷新锁串行执行（避免互相覆盖），读取已发布的图不需要加锁。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ServiceDependencyGraphService {
+
+    private final ServiceDependencyAnalyzer dependencyAnalyzer;
+    private final ProjectStructureStore structureStore;
+    private final ServiceDependencyGraphStore graphStore;
+
+    /**
+     * 当前发布的依赖图（延迟加载）
+     */
+    private volatile ServiceDependencyGraph graph;
+
+    /**
+     * 刷新锁：串行执行刷新，不与首次加载和读取共用
+     */
+    private final Object refreshLock = new Object();
+
+    /**
+     * 获取当前的服务依赖图
+     *
+     * @return 服务依赖图（只读）
+     */
+    public ServiceDependencyGraph getGraph() {
+        ServiceDependencyGraph current = graph;
+        if (current == null) {
+            synchronized (this) {
+                current = graph;
+                if (current == null) {
+                    current = graphStore.load();
+                    current.getIndex();
+                    graph = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取覆盖指定项目的服务依赖图
+     * 项目在图中的版本与给定版本一致时直接复用，否则只刷新该项目对应的部分
+     *
+     * @param structures 项目结构列表
+     * @param versions   对应的提交版本列表（元素为null时总是刷新）
+     * @return 服务依赖图（只读）
+     */
+    public ServiceDependencyGraph resolve(List<ProjectStructure> structures, List<String> versions) {
+        ServiceDependencyGraph current = getGraph();
+        if (findStale(current, structures, versions).isEmpty()) {
+            log.info("复用物化的服务依赖图: 服务数={}", current.getServices().size());
+            return current;
+        }
+
+        synchronized (refreshLock) {
+            // 等待刷新锁期间其他刷新可能已经更新了这些项目
+            current = getGraph();
+            List<Integer> stale = findStale(current, structures, versions);
+            if (stale.isEmpty()) {
+                return current;
+            }
+
+            ServiceDependencyGraph next = current.copy();
+            Set<String> removed = new LinkedHashSet<>();
+            List<ServiceNode> refreshed = new ArrayList<>();
+            for (int i : stale) {
+                refreshed.add(refreshService(next, structures.get(i), null, versions.get(i), removed));
+            }
+            publish(next, removed, refreshed);
+            return next;
+        }
+    }
+
+    /**
+     * 图中版本与给定版本不一致的项目下标
+     */
+    private List<Integer> findStale(ServiceDependencyGraph current, List<ProjectStructure> structures,
+                                    List<String> versions) {
+        List<Integer> stale = new ArrayList<>();
+        for (int i = 0; i < structures.size(); i++) {
+            ServiceNode node = current.getService(structures.get(i).getProjectName());
+            String version = versions.get(i);
+            if (node == null || version == null || !version.equals(node.getSourceCommit())) {
+                stale.add(i);
+            }
+        }
+        return stale;
+    }
+
+    /**
+     * 仓库同步完成后刷新该仓库贡献的部分
+     */
+    @Async
+    @EventListener
+    public void onWarehouseSyncCompleted(WarehouseSyncCompletedEvent event) {
+        log.info("仓库同步完成，刷新服务依赖图: warehouseId={}, version={}",
+                event.getWarehouseId(), event.getToVersion());
+        if (!structureStore.isScannable(event.getLocalPath())) {
+            // 裸镜像扫描不到源码，刷新会用空节点覆盖该服务已有的接口和依赖
+            log.warn("仓库为裸镜像，跳过服务依赖图刷新: warehouseId={}, path={}",
+                    event.getWarehouseId(), event.getLocalPath());
+            return;
+        }
+        try {
+            ProjectStructure structure = structureStore.getOrScan(event.getLocalPath(), event.getToVersion());
+            refresh(structure, event.getWarehouseId(), event.getToVersion());
+        } catch (Exception e) {
+            // 刷新失败不影响同步结果，下次请求时按版本比对再刷新
+            log.error("刷新服务依赖图失败: warehouseId={}", event.getWarehouseId(), e);
+        }
+    }
+
+    /**
+     * 用项目的最新结构刷新依赖图并持久化
+     *
+     * @param structure   项目结构
+     * @param warehouseId 仓库ID，为null时沿用图中已有的值
+     * @param version     提交版本
+     */
+    public void refresh(ProjectStructure structure, String warehouseId, String version) {
+        synchronized (refreshLock) {
+            ServiceDependencyGraph next = getGraph().copy();
+            Set<String> removed = new LinkedHashSet<>();
+            ServiceNode node = refreshService(next, structure, warehouseId, version, removed);
+            publish(next, removed, Collections.singletonList(node));
+        }
+    }
+
+    /**
+     * 在一个事务中持久化刷新结果，提交后发布新的依赖图
+     * 持久化失败时不发布，已发布的图保持不变
+     */
+    private void publish(ServiceDependencyGraph next, Set<String> removed, List<ServiceNode> refreshed) {
+        // 同一批中后刷新的项目可能移除了先刷新的服务，只写入仍在图中的节点
+        List<ServiceNode> nodes = new ArrayList<>();
+        for (ServiceNode node : refreshed) {
+            if (next.getService(node.getServiceName()) == node) {
+                nodes.add(node);
+            }
+        }
+        graphStore.saveServices(removed, nodes, next);
+        next.getIndex();
+        graph = next;
+    }
+
+    /**
+     * 在副本上重算一个服务的部分
+     *
+     * @param removed 收集同一仓库此前以其他服务名登记、需要删除的服务名
+     * @return 刷新后的服务节点
+     */
+    private ServiceNode refreshService(ServiceDependencyGraph next, ProjectStructure structure,
+                                       String warehouseId, String version, Set<String> removed) {
+        long startTime = System.currentTimeMillis();
+        String serviceName = structure.getProjectName();
+        ServiceNode previous = next.getService(serviceName);
+        if (warehouseId == null && previous != null) {
+            warehouseId = previous.getWarehouseId();
+        }
+
+        // 同一仓库此前以其他服务名登记的部分一并移除
+        if (warehouseId != null) {
+            for (ServiceNode node : new ArrayList<>(next.getServices().values())) {
+                if (warehouseId.equals(node.getWarehouseId()) && !serviceName.equals(node.getServiceName())) {
+                    next.removeService(node.getServiceName());
+                    removed.add(node.getServiceName());
+                }
+            }
+        }
+
+        dependencyAnalyzer.refresh(next, structure);
+        ServiceNode node = next.getService(serviceName);
+        node.setWarehouseId(warehouseId);
+        node.setSourceCommit(version);
+        // 本次刷新重新登记的服务名不再删除
+        removed.remove(serviceName);
+
+        log.info("服务依赖图已刷新: {}@{}, 耗时={}ms", serviceName, version,
+                System.currentTimeMillis() - startTime);
+        return node;
+    }
+}
@@ -0,0 +1,171 @@
+package ai.opendw.koalawiki.app.service.flow;
+
+import ai.opendw.koalawiki.core.analysis.model.DependencyType;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependency;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import ai.opendw.koalawiki.core.analysis.model.ServiceNode;
+import ai.opendw.koalawiki.core.util.IdGenerator;
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyEdgeEntity;
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyInterfaceEntity;
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyNodeEntity;
+import ai.opendw.koalawiki.infra.repository.ServiceDependencyEdgeRepository;
+import ai.opendw.koalawiki.infra.repository.ServiceDependencyInterfaceRepository;
+import ai.opendw.koalawiki.infra.repository.ServiceDependencyNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 服务依赖图持久化
+ * 以服务为单位读写依赖图：节点、提供的接口、发起的依赖关系，均记录来源提交版本。
+ * 依赖关系的目标服务不落库，加载时按接口重新关联，始终与当前各服务提供的接口一致。
+ * 一次刷新的删除和写入在同一个独立事务中完成，不随调用方（如流程生成）的事务回滚，
+ * 也不会留下只删除了旧数据的中间状态。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ServiceDependencyGraphStore {
+
+    private final ServiceDependencyNodeRepository nodeRepository;
+    private final ServiceDependencyInterfaceRepository interfaceRepository;
+    private final ServiceDependencyEdgeRepository edgeRepository;
+
+    /**
+     * 加载完整的依赖图
+     *
+     * @return 服务依赖图
+     */
+    @Transactional(readOnly = true)
+    public ServiceDependencyGraph load() {
+        long startTime = System.currentTimeMillis();
+        ServiceDependencyGraph graph = new ServiceDependencyGraph();
+
+        List<ServiceNode> nodes = new ArrayList<>();
+        for (ServiceDependencyNodeEntity entity : nodeRepository.findAll()) {
+            ServiceNode node = new ServiceNode();
+            node.setServiceName(entity.getServiceName());
+            node.setWarehouseId(entity.getWarehouseId());
+            node.setSourceCommit(entity.getSourceCommit());
+            nodes.add(node);
+            graph.getServices().put(node.getServiceName(), node);
+        }
+        for (ServiceDependencyInterfaceEntity entity : interfaceRepository.findAll()) {
+            ServiceNode node = graph.getService(entity.getServiceName());
+            if (node != null) {
+                node.addProvidedInterface(entity.getInterfaceName());
+            }
+        }
+        // 接口写入节点后再注册，建立接口索引
+        for (ServiceNode node : nodes) {
+            graph.addService(node);
+        }
+
+        for (ServiceDependencyEdgeEntity entity : edgeRepository.findAll()) {
+            ServiceDependency dependency = new ServiceDependency();
+            dependency.setSourceService(entity.getSourceService());
+            dependency.setInterfaceName(entity.getInterfaceName());
+            dependency.setType(DependencyType.valueOf(entity.getDependencyType()));
+            dependency.setSourceClass(entity.getSourceClass());
+            dependency.setSourceField(entity.getSourceField());
+            graph.addDependency(dependency);
+        }
+        graph.linkDubboTargets();
+
+        log.info("加载服务依赖图完成: 服务数={}, 依赖关系数={}, 耗时={}ms",
+                graph.getServices().size(), graph.getDependencies().size(),
+                System.currentTimeMillis() - startTime);
+        return graph;
+    }
+
+    /**
+     * 在一个事务中删除被移除的服务并替换刷新后的服务
+     *
+     * @param removedServices 被移除的服务名
+     * @param nodes           刷新后的服务节点
+     * @param graph           包含这些服务发起的依赖关系的依赖图
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void saveServices(Collection<String> removedServices, Collection<ServiceNode> nodes,
+                             ServiceDependencyGraph graph) {
+        for (String serviceName : removedServices) {
+            deleteService(serviceName);
+        }
+        for (ServiceNode node : nodes) {
+            saveService(node, graph.findDependencies(node.getServiceName()));
+        }
+    }
+
+    /**
+     * 替换单个服务贡献的部分（节点、提供的接口、发起的依赖关系）
+     *
+     * @param node         服务节点
+     * @param dependencies 该服务发起的依赖关系
+     */
+    private void saveService(ServiceNode node, List<ServiceDependency> dependencies) {
+        String serviceName = node.getServiceName();
+        String commit = node.getSourceCommit();
+        deleteService(serviceName);
+
+        Date now = new Date();
+        ServiceDependencyNodeEntity nodeEntity = new ServiceDependencyNodeEntity();
+        nodeEntity.setId(IdGenerator.generateId());
+        nodeEntity.setServiceName(serviceName);
+        nodeEntity.setWarehouseId(node.getWarehouseId());
+        nodeEntity.setSourceCommit(commit);
+        nodeEntity.setCreatedAt(now);
+        nodeEntity.setUpdatedAt(now);
+        nodeRepository.save(nodeEntity);
+
+        List<ServiceDependencyInterfaceEntity> interfaceEntities = new ArrayList<>();
+        for (String interfaceName : node.getProvidedInterfaces()) {
+            ServiceDependencyInterfaceEntity entity = new ServiceDependencyInterfaceEntity();
+            entity.setId(IdGenerator.generateId());
+            entity.setServiceName(serviceName);
+            entity.setInterfaceName(interfaceName);
+            entity.setSourceCommit(commit);
+            entity.setCreatedAt(now);
+            interfaceEntities.add(entity);
+        }
+        interfaceRepository.saveAll(interfaceEntities);
+
+        List<ServiceDependencyEdgeEntity> edgeEntities = new ArrayList<>();
+        for (ServiceDependency dependency : dependencies) {
+            ServiceDependencyEdgeEntity entity = new ServiceDependencyEdgeEntity();
+            entity.setId(IdGenerator.generateId());
+            entity.setSourceService(serviceName);
+            entity.setInterfaceName(dependency.getInterfaceName());
+            entity.setDependencyType(dependency.getType().name());
+            entity.setSourceClass(dependency.getSourceClass());
+            entity.setSourceField(dependency.getSourceField());
+            entity.setSourceCommit(commit);
+            entity.setCreatedAt(now);
+            edgeEntities.add(entity);
+        }
+        edgeRepository.saveAll(edgeEntities);
+
+        log.info("服务依赖已持久化: {}@{}, 接口数={}, 依赖关系数={}",
+                serviceName, commit, interfaceEntities.size(), edgeEntities.size());
+    }
+
+    /**
+     * 删除单个服务贡献的部分
+     *
+     * @param serviceName 服务名
+     */
+    private void deleteService(String serviceName) {
+        edgeRepository.deleteBySourceService(serviceName);
+        interfaceRepository.deleteByServiceName(serviceName);
+        nodeRepository.deleteByServiceName(serviceName);
+    }
+}
@@ -0,0 +1,97 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 代码分析配置属性
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "koalawiki.analysis")
+public class AnalysisProperties {
+
+    /**
+     * 是否启用并行解析
+     */
+    private boolean parallelEnabled = true;
+
+    /**
+     * 并行解析线程数，0表示使用CPU核数
+     */
+    private int parallelism = 0;
+
+    /**
+     * 文件数低于该阈值时使用串行解析
+     */
+    private int parallelThreshold = 64;
+
+    /**
+     * 是否启用解析结果磁盘缓存
+     */
+    private boolean cacheEnabled = true;
+
+    /**
+     * 是否启用词法预过滤（不含入口点注解且不被调用的类只解析声明）
+     */
+    private boolean preFilterEnabled = true;
+
+    /**
+     * 是否压缩扫描结果（字符串去重、共享注解实例、收紧列表容量）
+     */
+    private boolean compactModelEnabled = true;
+
+    /**
+     * 是否按提交版本持久化预计算调用图（追踪时映射到内存共享使用）
+     */
+    private boolean callGraphEnabled = true;
+
+    /**
+     * 内存中保留的项目结构数量上限
+     */
+    private int structureCacheSize = 16;
+
+    /**
+     * 流程缓存校验时内存中保留的源文件blob ID数量上限（所有项目共享）
+     */
+    private int blobIdCacheSize = 100000;
+
+    /**
+     * 源码语言级别（ParserConfiguration.LanguageLevel，如JAVA_8、JAVA_17），为空时使用JavaParser默认值
+     */
+    private String languageLevel;
+
+    /**
+     * 是否启用符号解析（解析字段类型的全限定名）
+     */
+    private boolean symbolSolverEnabled = false;
+
+    /**
+     * 符号解析使用的依赖jar（文件或目录）
+     */
+    private List<String> symbolSolverJars = new ArrayList<>();
+
+    /**
+     * 业务流程调用链追踪的资源上限
+     */
+    private TraceLimits trace = new TraceLimits();
+
+    /**
+     * 业务流程时序图的渲染选项
+     */
+    private MermaidRenderOptions mermaid = new MermaidRenderOptions();
+
+    /**
+     * 获取实际并行度
+     */
+    public int getEffectiveParallelism() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -9,7 +9,9 @@ import java.util.*;
 
 /**
  * 业务流程追踪器
- * 从入口点开始递归追踪调用链路
+ * 从入口点开始沿项目的预计算调用图（{@link CallGraph}）追踪调用链路，
+ * 方法内调用已在构建调用图时解析，追踪只做图遍历和远程依赖查找；
+ * 批量追踪时可通过TraceCache复用各入口共同经过的调用子树
  *
  * @author zhourui(V33215020)
  * @since 2025/11/22
@@ -21,6 +23,11 @@ public class BusinessFlowTracer {
 
     private static final int DEFAULT_MAX_DEPTH = 5;
 
+    /**
+     * 每处理一批方法内调用检查一次耗时（2的幂减1）
+     */
+    private static final int TIME_CHECK_MASK = 0xff;
+
     /**
      * 追踪业务流程
      *
@@ -45,6 +52,39 @@ public class BusinessFlowTracer {
      */
     public CallChain trace(EntryPoint entryPoint, ProjectStructure structure,
                            ServiceDependencyGraph dependencyGraph, int maxDepth) {
+        return trace(entryPoint, structure, dependencyGraph, maxDepth, null);
+    }
+
+    /**
+     * 追踪业务流程（复用批次内已追踪的子树）
+     *
+     * @param entryPoint 入口点
+     * @param structure 项目结构
+     * @param dependencyGraph 服务依赖图
+     * @param maxDepth 最大追踪深度
+     * @param traceCache 子树缓存，为null或未绑定到该结构和依赖图时不使用
+     * @return 调用链
+     */
+    public CallChain trace(EntryPoint entryPoint, ProjectStructure structure,
+                           ServiceDependencyGraph dependencyGraph, int maxDepth,
+                           TraceCache traceCache) {
+        return trace(entryPoint, structure, dependencyGraph, maxDepth, traceCache, TraceLimits.unlimited());
+    }
+
+    /**
+     * 追踪业务流程（限制节点数、耗时和单个节点的子调用数）
+     *
+     * @param entryPoint 入口点
+     * @param structure 项目结构
+     * @param dependencyGraph 服务依赖图
+     * @param maxDepth 最大追踪深度
+     * @param traceCache 子树缓存，为null或未绑定到该结构和依赖图时不使用
+     * @param limits 资源上限，达到上限时返回标记为截断的部分结果
+     * @return 调用链
+     */
+    public CallChain trace(EntryPoint entryPoint, ProjectStructure structure,
+                           ServiceDependencyGraph dependencyGraph, int maxDepth,
+                           TraceCache traceCache, TraceLimits limits) {
         log.info("开始追踪业务流程: {}, 最大深度: {}", entryPoint.getPath(), maxDepth);
 
         CallChain chain = new CallChain();
@@ -52,168 +92,216 @@ public class BusinessFlowTracer {
         chain.setEntryPoint(entryPoint);
 
         // 查找入口方法
-        ClassInfo entryClass = structure.getClasses().get(entryPoint.getClassName());
-        if (entryClass == null) {
+        CallGraph callGraph = structure.getCallGraph();
+        if (!callGraph.hasClass(entryPoint.getClassName())) {
             log.warn("未找到入口类: {}", entryPoint.getClassName());
             return chain;
         }
 
-        MethodInfo entryMethod = findMethod(entryClass, entryPoint.getMethodName());
-        if (entryMethod == null) {
+        int entryMethod = callGraph.findMethod(entryPoint.getClassName(), entryPoint.getMethodName());
+        if (entryMethod == CallGraph.NONE) {
             log.warn("未找到入口方法: {}.{}", entryPoint.getClassName(), entryPoint.getMethodName());
             return chain;
         }
 
-        // 开始递归追踪
-        Set<String> visited = new HashSet<>();
-        CallNode root = traceRecursive(
-            entryMethod,
-            entryClass,
-            structure,
-            dependencyGraph,
-            0,
-            maxDepth,
-            visited
-        );
+        if (traceCache != null && !traceCache.isBoundTo(structure, dependencyGraph)) {
+            log.warn("子树缓存与当前项目结构不匹配，忽略缓存: {}", structure.getProjectName());
+            traceCache = null;
+        }
+
+        // 使用显式栈追踪
+        TraceState state = new TraceState(structure, callGraph, dependencyGraph, maxDepth, traceCache, limits);
+        CallNode root = traceIterative(state, entryMethod);
 
         chain.setRoot(root);
+        chain.getTruncations().addAll(state.truncations);
         collectNodes(root, chain);
 
+        if (chain.isTruncated()) {
+            log.warn("业务流程追踪达到上限，返回部分结果: {}, 原因={}, 节点数={}",
+                entryPoint.getPath(), chain.getTruncations(), chain.getNodes().size());
+        }
         log.info("业务流程追踪完成: 节点数={}, 深度={}", chain.getNodes().size(), chain.getMaxDepth());
         return chain;
     }
 
     /**
-     * 递归追踪调用链
+     * 迭代追踪调用链
+     * 每个栈帧对应一个正在展开的本地方法，按调用顺序逐条处理其调用边；
+     * 子方法入栈展开完成后才处理下一条调用边，节点和子节点顺序与逐层递归展开一致。
+     */
+    private CallNode traceIterative(TraceState state, int entryMethod) {
+        CallGraph graph = state.callGraph;
+        Deque<Frame> stack = new ArrayDeque<>();
+        Frame rootFrame = new Frame(null);
+        CallNode root = enter(state, stack, rootFrame, entryMethod, 0);
+
+        while (!stack.isEmpty()) {
+            Frame frame = stack.peek();
+
+            if (!state.stopped && (++state.steps & TIME_CHECK_MASK) == 0) {
+                state.checkTime();
+            }
+            boolean fanOutReached = state.maxFanOut > 0 && frame.node.getChildren().size() >= state.maxFanOut;
+            if (state.stopped || frame.nextEdge >= frame.edgeEnd || fanOutReached) {
+                if (!state.stopped && fanOutReached && hasMoreChildren(state, frame)) {
+                    frame.fanOutTruncated = true;
+                    state.truncations.add(TraceTruncation.FAN_OUT);
+                }
+                stack.pop();
+                exit(state, frame);
+                continue;
+            }
+
+            int edge = frame.nextEdge++;
+
+            // 检查是否是Dubbo/Feign调用
+            ServiceDependency remoteDependency = findRemoteDependency(state, frame, edge);
+            if (remoteDependency != null) {
+                // 跨服务调用
+                if (state.reserve(1)) {
+                    frame.node.addChild(createRemoteCallNode(remoteDependency, frame.depth));
+                    frame.nodeCount++;
+                }
+                continue;
+            }
+
+            // 本地方法调用
+            int target = graph.edgeTarget(edge);
+            if (target != CallGraph.NONE) {
+                frame.node.addChild(enter(state, stack, frame, target, frame.depth + 1));
+            }
+        }
+        return root;
+    }
+
+    /**
+     * 剩余的调用边中是否还有会产生子节点的调用（用于判断子调用数上限是否真正截断了结果）
+     * 判断读取了已访问集合，读取结果记入子树足迹，复用缓存的截断标记时与重新追踪一致
+     */
+    private boolean hasMoreChildren(TraceState state, Frame frame) {
+        for (int edge = frame.nextEdge; edge < frame.edgeEnd; edge++) {
+            if (findRemoteDependency(state, frame, edge) != null) {
+                return true;
+            }
+            int target = state.callGraph.edgeTarget(edge);
+            if (target == CallGraph.NONE || frame.depth + 1 >= state.maxDepth) {
+                continue;
+            }
+            String methodKey = state.callGraph.getVisitKey(target);
+            if (!state.visited.contains(methodKey)) {
+                if (frame.subtree != null) {
+                    frame.subtree.checkedUnvisited(methodKey);
+                }
+                return true;
+            }
+            if (frame.subtree != null) {
+                frame.subtree.pruned(methodKey);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 进入一个本地方法：超过深度、循环调用时返回null；命中子树缓存时直接返回缓存的子树；
+     * 否则创建节点并压入新栈帧，其调用边在后续循环中处理
      */
-    private CallNode traceRecursive(
-        MethodInfo method,
-        ClassInfo currentClass,
-        ProjectStructure structure,
-        ServiceDependencyGraph dependencyGraph,
-        int depth,
-        int maxDepth,
-        Set<String> visited
-    ) {
+    private CallNode enter(TraceState state, Deque<Frame> stack, Frame parent, int method, int depth) {
         // 深度限制
-        if (depth >= maxDepth) {
-            log.debug("达到最大深度: {}", maxDepth);
+        if (depth >= state.maxDepth) {
+            log.debug("达到最大深度: {}", state.maxDepth);
             return null;
         }
 
         // 循环检测
-        String methodKey = currentClass.getFullClassName() + "." + method.getName();
-        if (visited.contains(methodKey)) {
+        CallGraph graph = state.callGraph;
+        String methodKey = graph.getVisitKey(method);
+        if (state.visited.contains(methodKey)) {
             log.debug("检测到循环调用: {}", methodKey);
+            if (parent.subtree != null) {
+                parent.subtree.pruned(methodKey);
+            }
             return null;
         }
-        visited.add(methodKey);
+
+        // 复用已追踪的子树
+        String className = graph.getClassName(method);
+        String signature = graph.getSignature(method);
+        String cacheKey = null;
+        TraceCache.Subtree subtree = null;
+        if (state.traceCache != null) {
+            cacheKey = className + "#" + signature
+                + "@" + depth + "/" + state.maxDepth + "/" + state.maxFanOut;
+            TraceCache.Subtree cached = state.traceCache.lookup(cacheKey, state.visited, state.remainingNodes());
+            if (cached != null) {
+                state.reserve(cached.getNodeCount());
+                state.visited.addAll(cached.getAdded());
+                if (cached.isFanOutTruncated()) {
+                    parent.fanOutTruncated = true;
+                    state.truncations.add(TraceTruncation.FAN_OUT);
+                }
+                if (parent.subtree != null) {
+                    parent.subtree.merge(cached);
+                }
+                parent.nodeCount += cached.getNodeCount();
+                return cached.getNode();
+            }
+            subtree = new TraceCache.Subtree(methodKey);
+        }
+
+        if (!state.reserve(1)) {
+            return null;
+        }
+        state.visited.add(methodKey);
 
         // 创建当前节点
         CallNode node = new CallNode();
-        node.setService(structure.getProjectName());
-        node.setClassName(currentClass.getFullClassName());
-        node.setMethod(method.getSignature());
+        node.setService(state.structure.getProjectName());
+        node.setClassName(className);
+        node.setMethod(signature);
         node.setType(CallType.LOCAL);
         node.setDepth(depth);
 
-        // 分析方法内的调用
-        for (String calledMethod : method.getCalledMethods()) {
-            CallNode childNode = analyzeMethodCall(
-                calledMethod,
-                currentClass,
-                structure,
-                dependencyGraph,
-                depth,
-                maxDepth,
-                visited
-            );
-            node.addChild(childNode);
-        }
-
+        Frame frame = new Frame(parent);
+        frame.method = method;
+        frame.nextEdge = graph.edgeStart(method);
+        frame.edgeEnd = graph.edgeEnd(method);
+        frame.node = node;
+        frame.depth = depth;
+        frame.cacheKey = cacheKey;
+        frame.subtree = subtree;
+        frame.nodeCount = 1;
+        stack.push(frame);
         return node;
     }
 
     /**
-     * 分析方法调用
+     * 方法的子调用处理完毕：完整追踪的子树写入缓存，节点数和访问足迹并入上层
      */
-    private CallNode analyzeMethodCall(
-        String calledMethod,
-        ClassInfo currentClass,
-        ProjectStructure structure,
-        ServiceDependencyGraph dependencyGraph,
-        int depth,
-        int maxDepth,
-        Set<String> visited
-    ) {
-        // 检查是否是Dubbo/Feign调用
-        ServiceDependency remoteDependency = findRemoteDependency(
-            calledMethod,
-            currentClass,
-            dependencyGraph
-        );
-
-        if (remoteDependency != null) {
-            // 跨服务调用
-            return createRemoteCallNode(remoteDependency, depth);
-        }
-
-        // 本地方法调用
-        MethodInfo nextMethod = findMethodInProject(calledMethod, structure);
-        if (nextMethod != null) {
-            ClassInfo nextClass = findClassForMethod(nextMethod, structure);
-            if (nextClass != null) {
-                return traceRecursive(
-                    nextMethod,
-                    nextClass,
-                    structure,
-                    dependencyGraph,
-                    depth + 1,
-                    maxDepth,
-                    visited
-                );
+    private void exit(TraceState state, Frame frame) {
+        Frame parent = frame.parent;
+        parent.nodeCount += frame.nodeCount;
+        parent.fanOutTruncated |= frame.fanOutTruncated;
+
+        // 因节点数或耗时上限提前结束的子树不完整，不缓存
+        if (frame.subtree != null && !state.stopped) {
+            frame.subtree.complete(frame.node, frame.nodeCount, frame.fanOutTruncated);
+            state.traceCache.store(frame.cacheKey, frame.subtree);
+            if (parent.subtree != null) {
+                parent.subtree.merge(frame.subtree);
             }
         }
-
-        return null;
     }
 
     /**
-     * 查找远程依赖
+     * 查找调用边对应的远程依赖（调用经由Dubbo/Feign字段发起且依赖图中存在该依赖）
      */
-    private ServiceDependency findRemoteDependency(
-        String calledMethod,
-        ClassInfo currentClass,
-        ServiceDependencyGraph dependencyGraph
-    ) {
-        // 从方法调用中提取字段名（如：inventoryService.checkStock）
-        String[] parts = calledMethod.split("\\.");
-        if (parts.length < 2) {
+    private ServiceDependency findRemoteDependency(TraceState state, Frame frame, int edge) {
+        String fieldName = state.callGraph.edgeRemoteField(edge);
+        if (fieldName == null) {
             return null;
         }
-
-        String fieldName = parts[0];
-
-        // 查找字段
-        for (FieldInfo field : currentClass.getFields()) {
-            if (field.getName().equals(fieldName)) {
-                // 检查是否是Dubbo/Feign字段
-                if (field.hasAnnotation("Reference") ||
-                    field.hasAnnotation("DubboReference") ||
-                    field.hasAnnotation("FeignClient")) {
-
-                    // 查找对应的依赖关系
-                    for (ServiceDependency dep : dependencyGraph.getDependencies()) {
-                        if (dep.getSourceClass().equals(currentClass.getFullClassName()) &&
-                            dep.getSourceField().equals(fieldName)) {
-                            return dep;
-                        }
-                    }
-                }
-            }
-        }
-
-        return null;
+        return state.dependencyGraph.findDependency(state.callGraph.getClassName(frame.method), fieldName);
     }
 
     /**
@@ -230,61 +318,126 @@ public class BusinessFlowTracer {
     }
 
     /**
-     * 在项目中查找方法
+     * 收集所有节点到扁平列表（先序）
      */
-    private MethodInfo findMethodInProject(String methodCall, ProjectStructure structure) {
-        // 简化处理：从方法调用中提取方法名
-        String[] parts = methodCall.split("\\.");
-        String methodName = parts[parts.length - 1];
-
-        // 移除参数部分
-        if (methodName.contains("(")) {
-            methodName = methodName.substring(0, methodName.indexOf("("));
+    private void collectNodes(CallNode root, CallChain chain) {
+        if (root == null) {
+            return;
         }
-
-        // 在所有类中查找
-        for (ClassInfo classInfo : structure.getClasses().values()) {
-            MethodInfo method = findMethod(classInfo, methodName);
-            if (method != null) {
-                return method;
+        Deque<CallNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            CallNode node = stack.pop();
+            chain.addNode(node);
+            for (int i = node.getChildren().size() - 1; i >= 0; i--) {
+                stack.push(node.getChildren().get(i));
             }
         }
-
-        return null;
     }
 
     /**
-     * 查找方法所属的类
+     * 栈帧：正在展开子调用的本地方法
      */
-    private ClassInfo findClassForMethod(MethodInfo method, ProjectStructure structure) {
-        for (ClassInfo classInfo : structure.getClasses().values()) {
-            if (classInfo.getMethods().contains(method)) {
-                return classInfo;
-            }
+    private static final class Frame {
+
+        private final Frame parent;
+        private int method;
+        private CallNode node;
+        private int depth;
+
+        /**
+         * 下一条待处理的调用边
+         */
+        private int nextEdge;
+
+        /**
+         * 最后一条调用边之后的位置
+         */
+        private int edgeEnd;
+
+        /**
+         * 子树节点数（含自身）
+         */
+        private int nodeCount;
+
+        private boolean fanOutTruncated;
+        private String cacheKey;
+        private TraceCache.Subtree subtree;
+
+        Frame(Frame parent) {
+            this.parent = parent;
         }
-        return null;
     }
 
     /**
-     * 在类中查找方法
+     * 单次追踪的状态：已访问集合、资源预算及截断原因
      */
-    private MethodInfo findMethod(ClassInfo classInfo, String methodName) {
-        return classInfo.getMethods().stream()
-            .filter(m -> m.getName().equals(methodName))
-            .findFirst()
-            .orElse(null);
-    }
+    private static final class TraceState {
+
+        private final ProjectStructure structure;
+        private final CallGraph callGraph;
+        private final ServiceDependencyGraph dependencyGraph;
+        private final int maxDepth;
+        private final TraceCache traceCache;
+        private final int maxNodes;
+        private final int maxFanOut;
+        private final long deadline;
+
+        private final Set<String> visited = new HashSet<>();
+        private final Set<TraceTruncation> truncations = EnumSet.noneOf(TraceTruncation.class);
+        private int nodeCount;
+
+        /**
+         * 已处理的调用边数（用于控制耗时检查频率）
+         */
+        private int steps;
+
+        /**
+         * 达到节点数或耗时上限，停止继续展开
+         */
+        private boolean stopped;
+
+        TraceState(ProjectStructure structure, CallGraph callGraph, ServiceDependencyGraph dependencyGraph,
+                   int maxDepth, TraceCache traceCache, TraceLimits limits) {
+            this.structure = structure;
+            this.callGraph = callGraph;
+            this.dependencyGraph = dependencyGraph;
+            this.maxDepth = maxDepth;
+            this.traceCache = traceCache;
+            this.maxNodes = limits.getMaxNodes() > 0 ? limits.getMaxNodes() : Integer.MAX_VALUE;
+            this.maxFanOut = Math.max(limits.getMaxFanOut(), 0);
+            this.deadline = limits.getTimeoutMillis() > 0
+                ? System.nanoTime() + limits.getTimeoutMillis() * 1_000_000L : Long.MAX_VALUE;
+        }
 
-    /**
-     * 收集所有节点到扁平列表
-     */
-    private void collectNodes(CallNode node, CallChain chain) {
-        if (node == null) {
-            return;
+        int remainingNodes() {
+            return maxNodes - nodeCount;
         }
-        chain.addNode(node);
-        for (CallNode child : node.getChildren()) {
-            collectNodes(child, chain);
+
+        /**
+         * 预占节点预算，不足时停止追踪
+         */
+        boolean reserve(int nodes) {
+            if (stopped) {
+                return false;
+            }
+            if (nodes > remainingNodes()) {
+                stop(TraceTruncation.NODE_BUDGET);
+                return false;
+            }
+            nodeCount += nodes;
+            return true;
+        }
+
+        void checkTime() {
+            if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+                stop(TraceTruncation.TIME_BUDGET);
+            }
+        }
+
+        private void stop(TraceTruncation reason) {
+            stopped = true;
+            truncations.add(reason);
         }
     }
 }
@@ -0,0 +1,191 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.CallGraph;
+import ai.opendw.koalawiki.core.analysis.model.CallResolver;
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 调用图存储
+ * 按项目和提交版本持久化预计算的调用图，并以只读内存映射的方式挂载到对应版本的项目结构上，
+ * 同一版本的所有追踪共享同一份映射；每个项目只保留最新版本的调用图文件。
+ *
+ * <p>调用图文件存放在 {@code koalawiki.git.storage-path/.analysis-cache/call-graph} 下，
+ * 每个项目一个目录，文件名为提交版本加分析配置指纹：符号解析、预过滤等配置以及调用解析实现的变化
+ * 会改变解析出的调用边而类数和方法数不变，指纹不同的文件不会被复用。</p>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CallGraphStore {
+
+    private static final String CACHE_DIR = ".analysis-cache";
+    private static final String GRAPH_DIR = "call-graph";
+    private static final String FILE_SUFFIX = ".cg";
+
+    /**
+     * 调用图构建和解析实现的字节码摘要，解析规则变化但未递增格式版本时同样使旧文件失效
+     */
+    private static final String IMPLEMENTATION_DIGEST = digestClasses(CallGraph.class, CallResolver.class);
+
+    private final AnalysisProperties analysisProperties;
+
+    @Value("${koalawiki.git.storage-path:/data/koalawiki/git}")
+    private String storagePath;
+
+    /**
+     * 为指定版本的项目结构挂载调用图
+     * 已有该版本的调用图文件时直接映射，否则构建后写入文件再映射；
+     * 失败时不挂载，追踪时在内存中构建
+     *
+     * @param projectPath 项目路径
+     * @param version     提交版本，为null时不处理
+     * @param structure   该版本的项目结构
+     */
+    public void attach(String projectPath, String version, ProjectStructure structure) {
+        if (!analysisProperties.isCallGraphEnabled() || version == null || structure.hasCallGraph()) {
+            return;
+        }
+
+        Path dir = resolveDir(projectPath);
+        Path file = dir.resolve(version.replaceAll("[^0-9A-Za-z._-]", "_") + "-" + configFingerprint() + FILE_SUFFIX);
+        long startTime = System.currentTimeMillis();
+        try {
+            CallGraph graph = Files.exists(file) ? mapIfMatches(file, structure) : null;
+            boolean built = graph == null;
+            if (built) {
+                write(CallGraph.build(structure), file);
+                graph = CallGraph.map(file);
+                deleteOtherVersions(dir, file);
+            }
+            structure.attachCallGraph(graph);
+            log.info("挂载调用图: {}@{}, 方法数={}, 调用边数={}, {}, 耗时={}ms",
+                    structure.getProjectName(), version, graph.getMethodCount(), graph.getEdgeCount(),
+                    built ? "新建" : "复用", System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            log.warn("调用图文件不可用，追踪时在内存中构建: {}, 原因: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 映射已有的调用图文件，类数或方法数与项目结构不一致时视为失效
+     */
+    private CallGraph mapIfMatches(Path file, ProjectStructure structure) {
+        try {
+            CallGraph graph = CallGraph.map(file);
+            int methodCount = 0;
+            for (ClassInfo classInfo : structure.getClasses().values()) {
+                methodCount += classInfo.getMethods().size();
+            }
+            if (graph.getClassCount() == structure.getClasses().size() && graph.getMethodCount() == methodCount) {
+                return graph;
+            }
+            log.warn("调用图文件与项目结构不一致，重新构建: {}", file);
+        } catch (IOException e) {
+            log.warn("调用图文件不可用，重新构建: {}, 原因: {}", file, e.getMessage());
+        }
+        return null;
+    }
+
+    private void write(CallGraph graph, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+                graph.writeTo(out);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * 影响调用边的分析配置指纹：文件格式和类模型版本、符号解析、预过滤、调用解析实现
+     */
+    private String configFingerprint() {
+        String config = CallGraph.SCHEMA_VERSION + "|" + ClassInfoCache.SCHEMA_VERSION
+                + "|" + analysisProperties.isSymbolSolverEnabled()
+                + "|" + analysisProperties.isPreFilterEnabled()
+                + "|" + IMPLEMENTATION_DIGEST;
+        return Integer.toHexString(config.hashCode());
+    }
+
+    /**
+     * 类文件内容的摘要，读取不到类文件时返回空串（只按配置区分）
+     */
+    private static String digestClasses(Class<?>... classes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            for (Class<?> type : classes) {
+                try (InputStream in = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+                    if (in == null) {
+                        return "";
+                    }
+                    int read;
+                    while ((read = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, read);
+                    }
+                }
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            log.warn("计算调用解析实现摘要失败: {}", e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * 删除该项目其他版本的调用图文件（已映射的旧版本在引用释放前仍然可用）
+     */
+    private void deleteOtherVersions(Path dir, Path current) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (!file.equals(current)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // 部分平台上仍被映射的文件无法删除，下次写入时再清理
+                        log.debug("删除旧调用图文件失败: {}", file);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("清理旧调用图文件失败: {}", dir);
+        }
+    }
+
+    /**
+     * 项目的调用图目录（目录名 + 绝对路径哈希，避免同名项目冲突）
+     */
+    private Path resolveDir(String projectPath) {
+        Path rootPath = Paths.get(projectPath).toAbsolutePath().normalize();
+        String dirName = rootPath.getFileName() != null ? rootPath.getFileName().toString() : "root";
+        String suffix = Integer.toHexString(rootPath.toString().hashCode());
+        return Paths.get(storagePath, CACHE_DIR, GRAPH_DIR, dirName + "-" + suffix);
+    }
+}
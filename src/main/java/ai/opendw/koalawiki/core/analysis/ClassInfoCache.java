@@ -0,0 +1,455 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 类解析结果缓存
+ * 按文件相对路径 + Git blob id 持久化ClassInfo，文件内容未变化时跳过JavaParser解析
+ *
+ * <p>缓存文件存放在 {@code koalawiki.git.storage-path/.analysis-cache} 下，
+ * 每个项目一个二进制文件，文件头包含魔数和结构版本号，版本不一致时整体失效。</p>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClassInfoCache {
+
+    /**
+     * 文件魔数 "KWPC"
+     */
+    private static final int MAGIC = 0x4B575043;
+
+    /**
+     * 缓存结构版本号，ClassInfo提取逻辑或序列化格式变化时递增
+     */
+    static final int SCHEMA_VERSION = 5;
+
+    private static final String CACHE_DIR = ".analysis-cache";
+
+    private final AnalysisProperties analysisProperties;
+
+    @Value("${koalawiki.git.storage-path:/data/koalawiki/git}")
+    private String storagePath;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * 计算文件内容的Git blob id
+     *
+     * @param content 文件内容
+     * @return blob id（40位十六进制）
+     */
+    public static String blobId(byte[] content) {
+        return new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content).name();
+    }
+
+    /**
+     * 是否启用缓存
+     */
+    public boolean isEnabled() {
+        return analysisProperties.isCacheEnabled();
+    }
+
+    /**
+     * 加载项目缓存
+     *
+     * @param projectPath 项目根路径
+     * @return 项目缓存，文件不存在或版本不匹配时返回空缓存
+     */
+    public ProjectCache load(String projectPath) {
+        Path rootPath = Paths.get(projectPath).toAbsolutePath().normalize();
+        Path cacheFile = resolveCacheFile(rootPath);
+        Map<String, Entry> entries = Collections.emptyMap();
+
+        if (Files.exists(cacheFile)) {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+                entries = readEntries(in);
+                log.debug("加载解析缓存: {}, 条目数: {}", cacheFile, entries.size());
+            } catch (Exception e) {
+                log.warn("解析缓存不可用，将重新解析: {}, 原因: {}", cacheFile, e.getMessage());
+                entries = Collections.emptyMap();
+            }
+        }
+
+        return new ProjectCache(rootPath, cacheFile, entries);
+    }
+
+    /**
+     * 保存项目缓存（无变化时跳过）
+     *
+     * @param cache 项目缓存
+     */
+    public void save(ProjectCache cache) {
+        log.info("解析缓存统计: 项目={}, 命中={}, 未命中={}",
+                cache.rootPath.getFileName(), cache.hits.get(), cache.misses.get());
+
+        if (!cache.isModified()) {
+            return;
+        }
+
+        // 每次保存使用独立的临时文件，并发保存同一项目时互不覆盖，写完后原子替换
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(cache.cacheFile.getParent());
+            tmpFile = Files.createTempFile(
+                    cache.cacheFile.getParent(), cache.cacheFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                writeEntries(out, cache.current);
+            }
+            Files.move(tmpFile, cache.cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("保存解析缓存: {}, 条目数: {}", cache.cacheFile, cache.current.size());
+        } catch (IOException e) {
+            log.warn("保存解析缓存失败: {}", cache.cacheFile, e);
+        } finally {
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ignored) {
+                    // 临时文件清理失败不影响主流程
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("schemaVersion", SCHEMA_VERSION);
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
+
+    /**
+     * 解析缓存文件路径（目录名 + 绝对路径哈希，避免同名项目冲突；
+     * 是否启用符号解析会影响解析结果，两种模式使用不同的缓存文件）
+     */
+    private Path resolveCacheFile(Path rootPath) {
+        String dirName = rootPath.getFileName() != null ? rootPath.getFileName().toString() : "root";
+        String suffix = Integer.toHexString(rootPath.toString().hashCode());
+        String mode = analysisProperties.isSymbolSolverEnabled() ? "-resolved" : "";
+        return Paths.get(storagePath, CACHE_DIR, dirName + "-" + suffix + mode + ".bin");
+    }
+
+    // ===== 序列化 =====
+
+    private void writeEntries(DataOutputStream out, Map<String, Entry> entries) throws IOException {
+        // 先写入正文以收集字符串表，再按 头部 -> 字符串表 -> 正文 的顺序输出
+        StringTable table = new StringTable();
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+
+        body.writeInt(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            body.writeInt(table.id(e.getKey()));
+            body.writeInt(table.id(e.getValue().getBlobId()));
+            ClassInfo classInfo = e.getValue().getClassInfo();
+            body.writeBoolean(classInfo != null);
+            if (classInfo != null) {
+                writeClass(body, classInfo, table);
+            }
+        }
+        body.flush();
+
+        out.writeInt(MAGIC);
+        out.writeInt(SCHEMA_VERSION);
+        out.writeInt(table.values.size());
+        for (String value : table.values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        bodyBytes.writeTo(out);
+    }
+
+    private Map<String, Entry> readEntries(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("invalid cache file");
+        }
+        int version = in.readInt();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("schema version mismatch: " + version);
+        }
+
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int count = in.readInt();
+        Map<String, Entry> entries = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            String path = str(in, strings);
+            String blobId = str(in, strings);
+            ClassInfo classInfo = in.readBoolean() ? readClass(in, strings) : null;
+            entries.put(path, new Entry(blobId, classInfo));
+        }
+        return entries;
+    }
+
+    private void writeClass(DataOutputStream out, ClassInfo c, StringTable t) throws IOException {
+        out.writeInt(t.id(c.getClassName()));
+        out.writeInt(t.id(c.getPackageName()));
+        out.writeInt(t.id(c.getFullClassName()));
+        out.writeInt(t.id(c.getSuperClass()));
+        out.writeBoolean(c.isInterface());
+        out.writeBoolean(c.isAbstract());
+        out.writeBoolean(c.isDeclarationOnly());
+        writeStrings(out, c.getInterfaces(), t);
+        writeStrings(out, c.getStaticImports(), t);
+        writeAnnotations(out, c.getAnnotations(), t);
+
+        out.writeInt(c.getFields().size());
+        for (FieldInfo f : c.getFields()) {
+            out.writeInt(t.id(f.getName()));
+            out.writeInt(t.id(f.getType()));
+            out.writeInt(t.id(f.getResolvedType()));
+            writeAnnotations(out, f.getAnnotations(), t);
+        }
+
+        out.writeInt(c.getMethods().size());
+        for (MethodInfo m : c.getMethods()) {
+            out.writeInt(t.id(m.getName()));
+            out.writeInt(t.id(m.getReturnType()));
+            out.writeInt(t.id(m.getSignature()));
+            out.writeBoolean(m.isPublic());
+            out.writeBoolean(m.isStatic());
+            writeStrings(out, m.getParameters(), t);
+            writeStrings(out, m.getLocalVariables(), t);
+            writeAnnotations(out, m.getAnnotations(), t);
+            writeStrings(out, m.getCalledMethods(), t);
+        }
+    }
+
+    private ClassInfo readClass(DataInputStream in, String[] s) throws IOException {
+        ClassInfo c = new ClassInfo();
+        c.setClassName(str(in, s));
+        c.setPackageName(str(in, s));
+        c.setFullClassName(str(in, s));
+        c.setSuperClass(str(in, s));
+        c.setInterface(in.readBoolean());
+        c.setAbstract(in.readBoolean());
+        c.setDeclarationOnly(in.readBoolean());
+        c.setInterfaces(readStrings(in, s));
+        c.setStaticImports(readStrings(in, s));
+        c.setAnnotations(readAnnotations(in, s));
+
+        int fieldCount = in.readInt();
+        for (int i = 0; i < fieldCount; i++) {
+            FieldInfo f = new FieldInfo();
+            f.setName(str(in, s));
+            f.setType(str(in, s));
+            f.setResolvedType(str(in, s));
+            f.setAnnotations(readAnnotations(in, s));
+            c.addField(f);
+        }
+
+        int methodCount = in.readInt();
+        for (int i = 0; i < methodCount; i++) {
+            MethodInfo m = new MethodInfo();
+            m.setName(str(in, s));
+            m.setReturnType(str(in, s));
+            m.setSignature(str(in, s));
+            m.setPublic(in.readBoolean());
+            m.setStatic(in.readBoolean());
+            m.setParameters(readStrings(in, s));
+            m.setLocalVariables(readStrings(in, s));
+            m.setAnnotations(readAnnotations(in, s));
+            m.setCalledMethods(readStrings(in, s));
+            c.addMethod(m);
+        }
+        return c;
+    }
+
+    private void writeAnnotations(DataOutputStream out, List<AnnotationInfo> annotations, StringTable t)
+            throws IOException {
+        out.writeInt(annotations.size());
+        for (AnnotationInfo a : annotations) {
+            out.writeInt(t.id(a.getName()));
+            out.writeInt(a.getAttributes().size());
+            for (Map.Entry<String, Object> attr : a.getAttributes().entrySet()) {
+                out.writeInt(t.id(attr.getKey()));
+                out.writeInt(t.id(attr.getValue() != null ? attr.getValue().toString() : null));
+            }
+        }
+    }
+
+    private List<AnnotationInfo> readAnnotations(DataInputStream in, String[] s) throws IOException {
+        int count = in.readInt();
+        List<AnnotationInfo> annotations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AnnotationInfo a = new AnnotationInfo();
+            a.setName(str(in, s));
+            int attrCount = in.readInt();
+            for (int j = 0; j < attrCount; j++) {
+                a.addAttribute(str(in, s), str(in, s));
+            }
+            annotations.add(a);
+        }
+        return annotations;
+    }
+
+    private void writeStrings(DataOutputStream out, List<String> values, StringTable t) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(t.id(value));
+        }
+    }
+
+    private List<String> readStrings(DataInputStream in, String[] s) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(str(in, s));
+        }
+        return values;
+    }
+
+    private String str(DataInputStream in, String[] strings) throws IOException {
+        int id = in.readInt();
+        return id < 0 ? null : strings[id];
+    }
+
+    /**
+     * 字符串表，相同字符串只写入一次
+     */
+    private static class StringTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            if (value == null) {
+                return -1;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * 缓存条目
+     */
+    @Data
+    @AllArgsConstructor
+    public static class Entry {
+        /**
+         * 文件内容的Git blob id
+         */
+        private final String blobId;
+
+        /**
+         * 解析结果，文件无类声明或解析失败时为null
+         */
+        private final ClassInfo classInfo;
+    }
+
+    /**
+     * 单个项目的缓存会话
+     * 一次扫描期间使用，线程安全；本次扫描未访问到的文件在保存时被剔除
+     */
+    public class ProjectCache {
+
+        private final Path rootPath;
+        private final Path cacheFile;
+        private final Map<String, Entry> previous;
+        private final Map<String, Entry> current = new ConcurrentHashMap<>();
+        private final AtomicBoolean changed = new AtomicBoolean();
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+
+        ProjectCache(Path rootPath, Path cacheFile, Map<String, Entry> previous) {
+            this.rootPath = rootPath;
+            this.cacheFile = cacheFile;
+            this.previous = previous;
+        }
+
+        /**
+         * 查找缓存条目
+         *
+         * @param file            源文件
+         * @param blobId          当前文件内容的blob id
+         * @param declarationOnly 是否只需要声明（为false时仅声明的缓存结果不算命中）
+         * @return 命中时返回条目，否则返回null
+         */
+        public Entry get(File file, String blobId, boolean declarationOnly) {
+            String key = relativize(file);
+            Entry entry = previous.get(key);
+            if (entry != null && entry.getBlobId().equals(blobId)
+                    && (declarationOnly || entry.getClassInfo() == null
+                        || !entry.getClassInfo().isDeclarationOnly())) {
+                current.put(key, entry);
+                hits.incrementAndGet();
+                hitCount.incrementAndGet();
+                return entry;
+            }
+            misses.incrementAndGet();
+            missCount.incrementAndGet();
+            return null;
+        }
+
+        /**
+         * 写入解析结果
+         */
+        public void put(File file, String blobId, ClassInfo classInfo) {
+            current.put(relativize(file), new Entry(blobId, classInfo));
+            changed.set(true);
+        }
+
+        public long getHits() {
+            return hits.get();
+        }
+
+        public long getMisses() {
+            return misses.get();
+        }
+
+        boolean isModified() {
+            return changed.get() || current.size() != previous.size();
+        }
+
+        private String relativize(File file) {
+            Path path = file.toPath().toAbsolutePath().normalize();
+            return path.startsWith(rootPath)
+                    ? rootPath.relativize(path).toString().replace('\\', '/')
+                    : path.toString();
+        }
+    }
+}
@@ -6,13 +6,20 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * 入口点搜索器
  * 根据关键词智能搜索业务入口点
  *
+ * 搜索基于各项目结构的入口点倒排索引：先按关键词片段从词表召回候选入口点，
+ * 再对候选按原有的包含规则计算分数和匹配原因，最后按BM25F相关度排序。
+ * 索引随项目结构缓存，仓库增量同步时只为变化的入口点重新切分词元。
+ *
  * @author OpenDeepWiki Team
  * @since 2025-11-23
  */
@@ -25,6 +32,35 @@ public class EntryPointFinder {
      */
     private static final int RELEVANCE_THRESHOLD = 15;
 
+    /**
+     * BM25词频饱和参数
+     */
+    private static final double BM25_K1 = 1.2;
+
+    /**
+     * BM25长度归一化参数
+     */
+    private static final double BM25_B = 0.75;
+
+    /**
+     * 词元仅部分匹配（包含关键词词元）时的权重
+     */
+    private static final double PARTIAL_MATCH_WEIGHT = 0.5;
+
+    /**
+     * BM25F字段权重（与各字段匹配的加分成比例）
+     */
+    private static final double[] FIELD_WEIGHTS = new double[EntryPointIndex.Field.values().length];
+
+    static {
+        FIELD_WEIGHTS[EntryPointIndex.Field.CLASS_NAME.ordinal()] = 1.0;
+        FIELD_WEIGHTS[EntryPointIndex.Field.METHOD_NAME.ordinal()] = 2.0;
+        FIELD_WEIGHTS[EntryPointIndex.Field.PATH.ordinal()] = 1.5;
+        FIELD_WEIGHTS[EntryPointIndex.Field.DESCRIPTION.ordinal()] = 0.5;
+        FIELD_WEIGHTS[EntryPointIndex.Field.ANNOTATION.ordinal()] = 0.8;
+        FIELD_WEIGHTS[EntryPointIndex.Field.METHOD_ANNOTATION.ordinal()] = 0.8;
+    }
+
     /**
      * 根据关键词搜索入口点
      *
@@ -37,67 +73,136 @@ public class EntryPointFinder {
             List<ProjectStructure> structures) {
 
         log.info("开始搜索入口点，关键词：{}，项目数量：{}", keywords, structures.size());
+        long startTime = System.nanoTime();
 
         List<EntryPointMatch> allMatches = new ArrayList<>();
 
         // 遍历所有项目结构
         for (ProjectStructure structure : structures) {
-            // 遍历所有入口点
-            for (EntryPoint entryPoint : structure.getEntryPoints()) {
-                // 查找对应的类信息
-                ClassInfo classInfo = structure.getClasses().get(entryPoint.getClassName());
-                if (classInfo == null) {
-                    continue;
-                }
+            EntryPointIndex index = structure.getEntryPointIndex();
 
-                // 查找对应的方法信息
-                MethodInfo methodInfo = findMethodInfo(classInfo, entryPoint.getMethodName());
+            // 召回候选入口点
+            BitSet candidates = new BitSet(index.size());
+            for (String keyword : keywords) {
+                candidates.or(findCandidates(index, keyword));
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            List<QueryTerm> queryTerms = buildQueryTerms(index, keywords);
+            for (int docId = candidates.nextSetBit(0); docId >= 0; docId = candidates.nextSetBit(docId + 1)) {
+                EntryPointIndex.Document document = index.getDocument(docId);
 
                 // 尝试匹配
-                EntryPointMatch match = tryMatch(entryPoint, classInfo, methodInfo, keywords, structure.getProjectName());
+                EntryPointMatch match = tryMatch(document, keywords, structure.getProjectName());
                 if (match != null) {
+                    match.setBm25Score(calculateBm25Score(index, document, queryTerms));
                     allMatches.add(match);
                 }
             }
         }
 
-        // 过滤低分结果并排序
-        List<EntryPointMatch> filteredMatches = allMatches.stream()
-                .filter(match -> match.getRelevanceScore() >= RELEVANCE_THRESHOLD)
-                .sorted(Comparator.comparingInt(EntryPointMatch::getRelevanceScore).reversed())
+        // 按BM25相关度排序，相同时按匹配分数
+        List<EntryPointMatch> sortedMatches = allMatches.stream()
+                .sorted(Comparator.comparingDouble(EntryPointMatch::getBm25Score)
+                        .thenComparingInt(EntryPointMatch::getRelevanceScore)
+                        .reversed())
                 .collect(Collectors.toList());
 
-        log.info("搜索完成，找到 {} 个匹配的入口点", filteredMatches.size());
+        log.info("搜索完成，找到 {} 个匹配的入口点，耗时 {}μs",
+                sortedMatches.size(), (System.nanoTime() - startTime) / 1000);
 
-        return filteredMatches;
+        return sortedMatches;
     }
 
     /**
-     * 查找方法信息
+     * 召回可能包含关键词的入口点
+     * 字段包含关键词时，关键词的每个片段都包含于该字段的某个片段（均已作为词元索引），
+     * 因此按片段求交集得到的候选集合不会遗漏匹配结果
      */
-    private MethodInfo findMethodInfo(ClassInfo classInfo, String methodName) {
-        if (classInfo == null || methodName == null) {
-            return null;
+    private BitSet findCandidates(EntryPointIndex index, String keyword) {
+        BitSet candidates = null;
+        for (String fragment : EntryPointIndex.fragments(keyword)) {
+            BitSet fragmentDocs = new BitSet(index.size());
+            for (int termId : index.findTermsContaining(fragment)) {
+                index.collectDocuments(termId, fragmentDocs);
+            }
+            if (candidates == null) {
+                candidates = fragmentDocs;
+            } else {
+                candidates.and(fragmentDocs);
+            }
+            if (candidates.isEmpty()) {
+                return candidates;
+            }
         }
+        if (candidates == null) {
+            // 关键词不含字母数字时无法通过词表召回，全部作为候选
+            candidates = new BitSet(index.size());
+            candidates.set(0, index.size());
+        }
+        return candidates;
+    }
 
-        return classInfo.getMethods().stream()
-                .filter(m -> m.getName().equals(methodName))
-                .findFirst()
-                .orElse(null);
+    /**
+     * 将关键词切分为词元并展开为索引中的词元（精确匹配及包含该词元的词元）
+     */
+    private List<QueryTerm> buildQueryTerms(EntryPointIndex index, List<String> keywords) {
+        List<QueryTerm> queryTerms = new ArrayList<>();
+        int documentCount = index.size();
+        for (String keyword : keywords) {
+            for (String token : EntryPointIndex.tokenize(keyword)) {
+                int exactTermId = index.findTerm(token);
+                for (int termId : index.findTermsContaining(token)) {
+                    int df = index.getDocumentFrequency(termId);
+                    double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                    double weight = termId == exactTermId ? 1.0 : PARTIAL_MATCH_WEIGHT;
+                    queryTerms.add(new QueryTerm(index.getTerm(termId), idf * weight));
+                }
+            }
+        }
+        return queryTerms;
+    }
+
+    /**
+     * 计算BM25F相关度
+     */
+    private double calculateBm25Score(EntryPointIndex index, EntryPointIndex.Document document,
+                                      List<QueryTerm> queryTerms) {
+        double score = 0;
+        for (QueryTerm queryTerm : queryTerms) {
+            int[] frequencies = document.getFrequencies(queryTerm.getTerm());
+            if (frequencies == null) {
+                continue;
+            }
+            double tf = 0;
+            for (EntryPointIndex.Field field : EntryPointIndex.Field.values()) {
+                int frequency = frequencies[field.ordinal()];
+                if (frequency == 0) {
+                    continue;
+                }
+                double averageLength = index.getAverageFieldLength(field);
+                double norm = averageLength > 0
+                        ? 1 - BM25_B + BM25_B * document.getFieldLength(field) / averageLength
+                        : 1;
+                tf += FIELD_WEIGHTS[field.ordinal()] * frequency / norm;
+            }
+            score += queryTerm.getWeight() * tf * (BM25_K1 + 1) / (BM25_K1 + tf);
+        }
+        return score;
     }
 
     /**
      * 尝试匹配方法
      */
     private EntryPointMatch tryMatch(
-            EntryPoint entryPoint,
-            ClassInfo classInfo,
-            MethodInfo methodInfo,
+            EntryPointIndex.Document document,
             List<String> keywords,
             String projectName) {
 
         // 计算相关度分数
-        ScoreResult scoreResult = calculateRelevanceScore(entryPoint, classInfo, methodInfo, keywords);
+        ScoreResult scoreResult = calculateRelevanceScore(document, keywords);
 
         if (scoreResult.getTotalScore() < RELEVANCE_THRESHOLD) {
             return null;
@@ -105,7 +210,7 @@ public class EntryPointFinder {
 
         // 构建匹配结果
         EntryPointMatch match = new EntryPointMatch();
-        match.setEntryPoint(entryPoint);
+        match.setEntryPoint(document.getEntryPoint());
         match.setRelevanceScore(scoreResult.getTotalScore());
         match.setMatchReasons(scoreResult.getReasons());
         match.setProjectName(projectName);
@@ -117,11 +222,10 @@ public class EntryPointFinder {
      * 计算相关度分数
      */
     private ScoreResult calculateRelevanceScore(
-            EntryPoint entryPoint,
-            ClassInfo classInfo,
-            MethodInfo methodInfo,
+            EntryPointIndex.Document document,
             List<String> keywords) {
 
+        EntryPoint entryPoint = document.getEntryPoint();
         int totalScore = 0;
         List<String> reasons = new ArrayList<>();
 
@@ -129,28 +233,26 @@ public class EntryPointFinder {
             String lowerKeyword = keyword.toLowerCase();
 
             // 1. 类名匹配 +10分
-            if (classInfo != null) {
-                String className = classInfo.getClassName();
-                String fullClassName = classInfo.getFullClassName();
-                if (className != null && className.toLowerCase().contains(lowerKeyword)) {
-                    totalScore += 10;
-                    reasons.add(String.format("类名包含'%s'(+10)", keyword));
-                } else if (fullClassName != null && fullClassName.toLowerCase().contains(lowerKeyword)) {
-                    totalScore += 10;
-                    reasons.add(String.format("类名包含'%s'(+10)", keyword));
-                }
+            String className = document.getLowerClassName();
+            String fullClassName = document.getLowerFullClassName();
+            if (className != null && className.contains(lowerKeyword)) {
+                totalScore += 10;
+                reasons.add(String.format("类名包含'%s'(+10)", keyword));
+            } else if (fullClassName != null && fullClassName.contains(lowerKeyword)) {
+                totalScore += 10;
+                reasons.add(String.format("类名包含'%s'(+10)", keyword));
             }
 
             // 2. 方法名匹配 +20分
-            if (entryPoint.getMethodName() != null &&
-                    entryPoint.getMethodName().toLowerCase().contains(lowerKeyword)) {
+            if (document.getLowerMethodName() != null &&
+                    document.getLowerMethodName().contains(lowerKeyword)) {
                 totalScore += 20;
                 reasons.add(String.format("方法名包含'%s'(+20)", keyword));
             }
 
             // 3. API路径匹配 +15分
-            if (entryPoint.getPath() != null &&
-                    entryPoint.getPath().toLowerCase().contains(lowerKeyword)) {
+            if (document.getLowerPath() != null &&
+                    document.getLowerPath().contains(lowerKeyword)) {
                 totalScore += 15;
                 reasons.add(String.format("API路径包含'%s'(+15)", keyword));
             }
@@ -163,13 +265,13 @@ public class EntryPointFinder {
             }
 
             // 5. 注解值匹配 +8分
-            if (hasAnnotationValueContaining(entryPoint, lowerKeyword)) {
+            if (containsKeyword(document.getLowerAnnotationValues(), lowerKeyword)) {
                 totalScore += 8;
                 reasons.add(String.format("注解值包含'%s'(+8)", keyword));
             }
 
             // 6. 方法注解匹配（如果有方法信息）+8分
-            if (methodInfo != null && hasMethodAnnotationContaining(methodInfo, lowerKeyword)) {
+            if (containsKeyword(document.getLowerMethodAnnotationTexts(), lowerKeyword)) {
                 totalScore += 8;
                 reasons.add(String.format("方法注解包含'%s'(+8)", keyword));
             }
@@ -179,47 +281,25 @@ public class EntryPointFinder {
     }
 
     /**
-     * 检查入口点注解值是否包含关键词
+     * 检查小写文本列表中是否有包含关键词的项
      */
-    private boolean hasAnnotationValueContaining(EntryPoint entryPoint, String keyword) {
-        Map<String, Object> annotations = entryPoint.getAnnotations();
-        if (annotations == null || annotations.isEmpty()) {
-            return false;
-        }
-
-        for (Object value : annotations.values()) {
-            if (value != null && value.toString().toLowerCase().contains(keyword)) {
+    private boolean containsKeyword(List<String> lowerTexts, String keyword) {
+        for (String text : lowerTexts) {
+            if (text.contains(keyword)) {
                 return true;
             }
         }
-
         return false;
     }
 
     /**
-     * 检查方法注解是否包含关键词
+     * 查询词元（索引中的词元及其权重）
      */
-    private boolean hasMethodAnnotationContaining(MethodInfo methodInfo, String keyword) {
-        List<AnnotationInfo> annotations = methodInfo.getAnnotations();
-        if (annotations == null || annotations.isEmpty()) {
-            return false;
-        }
-
-        for (AnnotationInfo annotation : annotations) {
-            if (annotation.getName() != null &&
-                    annotation.getName().toLowerCase().contains(keyword)) {
-                return true;
-            }
-            if (annotation.getAttributes() != null) {
-                for (Object value : annotation.getAttributes().values()) {
-                    if (value != null && value.toString().toLowerCase().contains(keyword)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+    @Data
+    @AllArgsConstructor
+    private static class QueryTerm {
+        private final String term;
+        private final double weight;
     }
 
     /**
@@ -0,0 +1,233 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.CallChain;
+import ai.opendw.koalawiki.core.analysis.model.CallNode;
+import ai.opendw.koalawiki.core.analysis.model.CallType;
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
+import ai.opendw.koalawiki.core.analysis.model.FlowInputs;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependency;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+import ai.opendw.koalawiki.core.analysis.model.TraceTruncation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 业务流程追踪输入收集器
+ * 从调用链收集经过的源文件和本地类，连同这些类的远程依赖和项目的类声明指纹生成流程缓存的内容地址，
+ * 并校验已记录的输入是否仍然有效。
+ *
+ * 源文件以Git blob ID标识（与 git hash-object 结果一致），不依赖工作区是否为Git仓库；
+ * 按文件大小和修改时间缓存已计算的blob ID，未变化的文件不重复读取；
+ * 缓存按最近使用淘汰，条目数不超过 {@code koalawiki.analysis.blob-id-cache-size}。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FlowInputCollector {
+
+    /**
+     * 追踪及渲染规则的版本，规则变化时递增使已有缓存失效
+     */
+    private static final String FORMAT_VERSION = "3";
+
+    private final AnalysisProperties analysisProperties;
+
+    /**
+     * 源文件 -> 已计算的blob ID（LRU）
+     */
+    private final Map<Path, BlobId> blobIds = new LinkedHashMap<Path, BlobId>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, BlobId> eldest) {
+            return size() > analysisProperties.getBlobIdCacheSize();
+        }
+    };
+
+    /**
+     * 生成入口键
+     *
+     * @param entryPoint 入口点
+     * @param structure  入口所在项目结构
+     * @param maxDepth   最大追踪深度
+     * @param limits     追踪资源上限
+     * @param options    渲染选项
+     * @return 入口键
+     */
+    public String entryKey(EntryPoint entryPoint, ProjectStructure structure, int maxDepth,
+                           TraceLimits limits, MermaidRenderOptions options) {
+        FlowInputs key = new FlowInputs();
+        // 耗时上限不影响完整追踪的结果，不计入入口键
+        key.setEntryKey(String.join("|", FORMAT_VERSION, structure.getProjectName(),
+                entryPoint.getClassName(), entryPoint.getMethodName(), String.valueOf(entryPoint.getPath()),
+                String.valueOf(maxDepth), String.valueOf(limits.getMaxNodes()), String.valueOf(limits.getMaxFanOut()),
+                options.toString()));
+        return key.contentHash();
+    }
+
+    /**
+     * 收集调用链的追踪输入
+     *
+     * @param entryKey  入口键
+     * @param chain           调用链
+     * @param structure       入口所在项目结构
+     * @param dependencyGraph 追踪使用的服务依赖图
+     * @return 追踪输入，入口未找到（调用链为空）或因耗时上限截断（结果不确定）时返回null
+     */
+    public FlowInputs collect(String entryKey, CallChain chain, ProjectStructure structure,
+                              ServiceDependencyGraph dependencyGraph) {
+        if (chain.getRoot() == null || chain.getTruncations().contains(TraceTruncation.TIME_BUDGET)) {
+            return null;
+        }
+        FlowInputs inputs = new FlowInputs();
+        inputs.setEntryKey(entryKey);
+        Path root = projectRoot(structure);
+
+        Deque<CallNode> stack = new ArrayDeque<>();
+        stack.push(chain.getRoot());
+        while (!stack.isEmpty()) {
+            CallNode node = stack.pop();
+
+            if (node.getType() == CallType.LOCAL) {
+                ClassInfo classInfo = structure.getClasses().get(node.getClassName());
+                if (classInfo == null || classInfo.getFilePath() == null) {
+                    return null;
+                }
+                Path file = Paths.get(classInfo.getFilePath()).toAbsolutePath().normalize();
+                String blobId = blobId(file);
+                if (blobId == null) {
+                    return null;
+                }
+                inputs.getFiles().put(relativize(root, file), blobId);
+                inputs.getClasses().add(node.getClassName());
+            }
+
+            for (CallNode child : node.getChildren()) {
+                stack.push(child);
+            }
+        }
+        inputs.setDependencies(dependencyFingerprint(inputs.getClasses(), dependencyGraph));
+        inputs.setDeclarations(structure.getDeclarationFingerprint());
+        return inputs;
+    }
+
+    /**
+     * 校验记录的追踪输入在当前项目和依赖图下是否仍然有效
+     *
+     * @param inputs          记录的追踪输入
+     * @param structure       入口所在项目结构
+     * @param dependencyGraph 当前服务依赖图
+     * @return 项目类声明、经过的源文件和经过的类的远程依赖都未变化时返回true
+     */
+    public boolean isUpToDate(FlowInputs inputs, ProjectStructure structure, ServiceDependencyGraph dependencyGraph) {
+        // 声明指纹最先比对：新增实现类、同名类或同名方法即使不在经过的文件中也会改变解析结果
+        if (!structure.getDeclarationFingerprint().equals(inputs.getDeclarations())) {
+            return false;
+        }
+        Path root = projectRoot(structure);
+        for (Map.Entry<String, String> file : inputs.getFiles().entrySet()) {
+            if (!file.getValue().equals(blobId(root.resolve(file.getKey()).normalize()))) {
+                return false;
+            }
+        }
+        return dependencyFingerprint(inputs.getClasses(), dependencyGraph).equals(inputs.getDependencies());
+    }
+
+    /**
+     * 经过的类在依赖图中全部远程依赖的指纹
+     * 追踪按调用方类和字段查找远程依赖，依赖的新增、删除或变化都会改变追踪结果
+     */
+    private static String dependencyFingerprint(Set<String> classes, ServiceDependencyGraph dependencyGraph) {
+        List<String> dependencies = new ArrayList<>();
+        for (ServiceDependency dependency : dependencyGraph.getDependencies()) {
+            if (classes.contains(dependency.getSourceClass())) {
+                dependencies.add(String.join("|", dependency.getSourceClass(),
+                        nullToEmpty(dependency.getSourceField()), nullToEmpty(dependency.getInterfaceName()),
+                        String.valueOf(dependency.getType()), nullToEmpty(dependency.getTargetService())));
+            }
+        }
+        Collections.sort(dependencies);
+        return FlowInputs.fingerprint(dependencies);
+    }
+
+    /**
+     * 计算文件的Git blob ID
+     *
+     * @return blob ID，文件不存在或读取失败时返回null
+     */
+    String blobId(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long modified = attributes.lastModifiedTime().toMillis();
+            BlobId cached;
+            synchronized (blobIds) {
+                cached = blobIds.get(file);
+            }
+            if (cached != null && cached.size == size && cached.modified == modified) {
+                return cached.id;
+            }
+
+            byte[] content = Files.readAllBytes(file);
+            String id = new ObjectInserter.Formatter().idFor(Constants.OBJ_BLOB, content).name();
+            synchronized (blobIds) {
+                blobIds.put(file, new BlobId(content.length, modified, id));
+            }
+            return id;
+        } catch (IOException e) {
+            log.debug("读取源文件失败: {}", file, e);
+            synchronized (blobIds) {
+                blobIds.remove(file);
+            }
+            return null;
+        }
+    }
+
+    private static Path projectRoot(ProjectStructure structure) {
+        return Paths.get(structure.getProjectPath()).toAbsolutePath().normalize();
+    }
+
+    private static String relativize(Path root, Path file) {
+        return file.startsWith(root) ? root.relativize(file).toString().replace('\\', '/') : file.toString();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * 已计算的blob ID及对应的文件大小和修改时间
+     */
+    private static final class BlobId {
+
+        private final long size;
+        private final long modified;
+        private final String id;
+
+        BlobId(long size, long modified, String id) {
+            this.size = size;
+            this.modified = modified;
+            this.id = id;
+        }
+    }
+}
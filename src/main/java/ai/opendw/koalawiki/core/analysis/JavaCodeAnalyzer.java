@@ -1,51 +1,151 @@
 package ai.opendw.koalawiki.core.analysis;
 
 import ai.opendw.koalawiki.core.analysis.model.*;
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Modifier;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.FieldDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.MemberValuePair;
 import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Java代码分析器
- * 使用JavaParser解析Java源代码
+ * 使用JavaParser解析Java源代码，可选基于JavaSymbolSolver解析字段类型的全限定名
  *
  * @author OpenDeepWiki Team
  * @since 2025-11-16
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JavaCodeAnalyzer {
 
-    private final JavaParser javaParser;
+    private final AnalysisProperties analysisProperties;
 
-    public JavaCodeAnalyzer() {
-        this.javaParser = new JavaParser();
+    /**
+     * 不做符号解析的默认会话（JavaParser非线程安全，每个线程持有独立实例）
+     */
+    private volatile ParseSession defaultSession;
+
+    /**
+     * 为一次项目扫描创建解析会话
+     * 启用符号解析时，以JDK、各模块源码目录和配置的依赖jar构建共享的类型求解器
+     *
+     * @param modules 项目模块
+     * @return 解析会话
+     */
+    public ParseSession openSession(List<ModuleInfo> modules) {
+        if (!analysisProperties.isSymbolSolverEnabled()) {
+            return getDefaultSession();
+        }
+
+        long startTime = System.currentTimeMillis();
+        CombinedTypeSolver typeSolver = new CombinedTypeSolver();
+        typeSolver.add(new ReflectionTypeSolver());
+
+        ParserConfiguration solverConfiguration = new ParserConfiguration()
+                .setLanguageLevel(getLanguageLevel())
+                .setAttributeComments(false)
+                .setStoreTokens(false);
+        for (ModuleInfo module : modules) {
+            Path sourceRoot = Paths.get(module.getPath(), "src", "main", "java");
+            if (Files.isDirectory(sourceRoot)) {
+                typeSolver.add(new JavaParserTypeSolver(sourceRoot, solverConfiguration));
+            }
+        }
+
+        int jarCount = 0;
+        for (Path jar : findDependencyJars()) {
+            try {
+                typeSolver.add(new JarTypeSolver(jar));
+                jarCount++;
+            } catch (IOException e) {
+                log.warn("加载依赖jar失败: {}", jar, e);
+            }
+        }
+
+        log.info("符号解析已启用: 源码目录={}, 依赖jar={}, 耗时={}ms",
+                modules.size(), jarCount, System.currentTimeMillis() - startTime);
+        return new ParseSession(getLanguageLevel(), typeSolver);
     }
 
     /**
-     * 解析Java文件
+     * 解析Java文件（线程安全）
      *
      * @param javaFile Java源文件
      * @return ClassInfo对象，解析失败返回null
      */
     public ClassInfo analyzeFile(File javaFile) {
-        try (FileInputStream in = new FileInputStream(javaFile)) {
-            ParseResult<CompilationUnit> parseResult = javaParser.parse(in, StandardCharsets.UTF_8);
+        try {
+            return analyzeSource(Files.readAllBytes(javaFile.toPath()), javaFile);
+        } catch (Exception e) {
+            log.error("读取Java文件异常: {}", javaFile.getPath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 解析已读入内存的Java源码（线程安全）
+     *
+     * @param content  源码内容（UTF-8）
+     * @param javaFile 源码对应的文件
+     * @return ClassInfo对象，解析失败返回null
+     */
+    public ClassInfo analyzeSource(byte[] content, File javaFile) {
+        return analyzeSource(content, javaFile, getDefaultSession());
+    }
+
+    /**
+     * 在指定会话中解析已读入内存的Java源码（线程安全）
+     *
+     * @param content  源码内容（UTF-8）
+     * @param javaFile 源码对应的文件
+     * @param session  解析会话
+     * @return ClassInfo对象，解析失败返回null
+     */
+    public ClassInfo analyzeSource(byte[] content, File javaFile, ParseSession session) {
+        return analyzeSource(content, javaFile, session, false);
+    }
+
+    /**
+     * 在指定会话中解析已读入内存的Java源码（线程安全）
+     *
+     * @param content         源码内容（UTF-8）
+     * @param javaFile        源码对应的文件
+     * @param session         解析会话
+     * @param declarationOnly 是否只解析声明（清空方法体后解析，不提取方法调用）
+     * @return ClassInfo对象，解析失败返回null
+     */
+    public ClassInfo analyzeSource(byte[] content, File javaFile, ParseSession session, boolean declarationOnly) {
+        byte[] source = declarationOnly ? SourcePreFilter.stripMethodBodies(content) : content;
+        try (InputStream in = new ByteArrayInputStream(source)) {
+            ParseResult<CompilationUnit> parseResult = session.parse(in);
 
             if (!parseResult.isSuccessful()) {
                 log.warn("解析Java文件失败: {}", javaFile.getPath());
@@ -58,7 +158,11 @@ public class JavaCodeAnalyzer {
             }
 
             CompilationUnit cu = cuOpt.get();
-            return extractClassInfo(cu, javaFile);
+            ClassInfo classInfo = extractClassInfo(cu, javaFile, session);
+            if (classInfo != null) {
+                classInfo.setDeclarationOnly(declarationOnly);
+            }
+            return classInfo;
 
         } catch (Exception e) {
             log.error("分析Java文件异常: {}", javaFile.getPath(), e);
@@ -66,10 +170,55 @@ public class JavaCodeAnalyzer {
         }
     }
 
+    private ParseSession getDefaultSession() {
+        ParseSession session = defaultSession;
+        if (session == null) {
+            synchronized (this) {
+                session = defaultSession;
+                if (session == null) {
+                    session = new ParseSession(getLanguageLevel(), null);
+                    defaultSession = session;
+                }
+            }
+        }
+        return session;
+    }
+
+    private ParserConfiguration.LanguageLevel getLanguageLevel() {
+        String languageLevel = analysisProperties.getLanguageLevel();
+        if (languageLevel == null || languageLevel.trim().isEmpty()) {
+            return new ParserConfiguration().getLanguageLevel();
+        }
+        return ParserConfiguration.LanguageLevel.valueOf(languageLevel.trim().toUpperCase());
+    }
+
+    /**
+     * 收集配置的依赖jar（文件或包含jar的目录）
+     */
+    private List<Path> findDependencyJars() {
+        List<Path> jars = new ArrayList<>();
+        for (String location : analysisProperties.getSymbolSolverJars()) {
+            Path path = Paths.get(location);
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> paths = Files.walk(path)) {
+                    paths.filter(p -> p.toString().endsWith(".jar"))
+                            .filter(Files::isRegularFile)
+                            .sorted()
+                            .forEach(jars::add);
+                } catch (IOException e) {
+                    log.warn("扫描依赖jar目录失败: {}", path, e);
+                }
+            } else if (Files.isRegularFile(path)) {
+                jars.add(path);
+            }
+        }
+        return jars;
+    }
+
     /**
      * 从CompilationUnit提取类信息
      */
-    private ClassInfo extractClassInfo(CompilationUnit cu, File javaFile) {
+    private ClassInfo extractClassInfo(CompilationUnit cu, File javaFile, ParseSession session) {
         // 获取第一个类或接口声明
         Optional<ClassOrInterfaceDeclaration> classOpt = cu.findFirst(ClassOrInterfaceDeclaration.class);
         if (!classOpt.isPresent()) {
@@ -103,9 +252,15 @@ public class JavaCodeAnalyzer {
 
         // 实现的接口
         classDecl.getImplementedTypes().forEach(type ->
-                classInfo.getInterfaces().add(type.getNameAsString())
+                classInfo.addInterface(type.getNameAsString())
         );
 
+        // 静态导入（无作用域的调用可能指向静态导入的方法）
+        cu.getImports().stream()
+                .filter(ImportDeclaration::isStatic)
+                .forEach(imp -> classInfo.addStaticImport(
+                        imp.isAsterisk() ? imp.getNameAsString() + ".*" : imp.getNameAsString()));
+
         // 类注解
         classDecl.getAnnotations().forEach(ann ->
                 classInfo.addAnnotation(extractAnnotation(ann))
@@ -113,7 +268,7 @@ public class JavaCodeAnalyzer {
 
         // 字段
         classDecl.getFields().forEach(field ->
-                classInfo.addField(extractFieldInfo(field))
+                classInfo.addField(extractFieldInfo(field, session))
         );
 
         // 方法
@@ -140,7 +295,7 @@ public class JavaCodeAnalyzer {
 
         // 参数
         method.getParameters().forEach(param ->
-                methodInfo.getParameters().add(param.getTypeAsString() + " " + param.getNameAsString())
+                methodInfo.addParameter(param.getTypeAsString() + " " + param.getNameAsString())
         );
 
         // 访问修饰符
@@ -157,6 +312,20 @@ public class JavaCodeAnalyzer {
                 methodInfo.addAnnotation(extractAnnotation(ann))
         );
 
+        // 局部变量声明类型，用于按作用域类型解析方法调用（var和未声明类型的lambda参数无法静态确定，跳过）
+        method.getBody().ifPresent(body -> {
+            body.findAll(VariableDeclarator.class).forEach(variable -> {
+                if (!variable.getType().isVarType()) {
+                    methodInfo.addLocalVariable(variable.getTypeAsString() + " " + variable.getNameAsString());
+                }
+            });
+            body.findAll(Parameter.class).forEach(param -> {
+                if (!param.getType().isUnknownType() && !param.getType().isVarType()) {
+                    methodInfo.addLocalVariable(param.getTypeAsString() + " " + param.getNameAsString());
+                }
+            });
+        });
+
         // 提取方法调用
         method.findAll(MethodCallExpr.class).forEach(call -> {
             String calledMethod = call.getScope()
@@ -171,7 +340,7 @@ public class JavaCodeAnalyzer {
     /**
      * 提取字段信息
      */
-    private FieldInfo extractFieldInfo(FieldDeclaration field) {
+    private FieldInfo extractFieldInfo(FieldDeclaration field, ParseSession session) {
         FieldInfo fieldInfo = new FieldInfo();
 
         // 字段可能声明多个变量，取第一个
@@ -179,6 +348,12 @@ public class JavaCodeAnalyzer {
         fieldInfo.setName(variable.getNameAsString());
         fieldInfo.setType(variable.getTypeAsString());
 
+        // 解析字段类型的全限定名（仅引用类型）
+        if (session.isSymbolResolutionEnabled() && variable.getType().isClassOrInterfaceType()) {
+            fieldInfo.setResolvedType(session.resolve(() ->
+                    variable.getType().resolve().asReferenceType().getQualifiedName()));
+        }
+
         // 字段注解
         field.getAnnotations().forEach(ann ->
                 fieldInfo.addAnnotation(extractAnnotation(ann))
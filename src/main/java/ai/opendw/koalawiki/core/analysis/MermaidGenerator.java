@@ -6,13 +6,22 @@ import ai.opendw.koalawiki.core.analysis.model.CallType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Set;
 
 /**
  * Mermaid时序图生成器
  * 将调用链转换为Mermaid DSL
  *
+ * 渲染直接写入{@link Appendable}，调用树使用显式栈迭代遍历，深层调用链不会栈溢出；
+ * 可通过{@link MermaidRenderOptions}限制参与者数量、步骤行数，折叠过深的子树，合并连续重复的本地调用。
+ *
  * @author zhourui(V33215020)
  * @since 2025/11/22
  */
@@ -21,106 +30,175 @@ import java.util.Set;
 public class MermaidGenerator {
 
     /**
-     * 生成Mermaid时序图
+     * 超出参与者上限的服务合并后的参与者名
+     */
+    static final String OTHER_PARTICIPANT = "其他服务";
+
+    /**
+     * 生成Mermaid时序图（不限制规模、不合并重复调用）
      *
      * @param chain 调用链
      * @return Mermaid DSL字符串
      */
     public String generateSequenceDiagram(CallChain chain) {
+        return generateSequenceDiagram(chain, MermaidRenderOptions.unlimited());
+    }
+
+    /**
+     * 按渲染选项生成Mermaid时序图
+     *
+     * @param chain   调用链
+     * @param options 渲染选项
+     * @return Mermaid DSL字符串
+     */
+    public String generateSequenceDiagram(CallChain chain, MermaidRenderOptions options) {
         log.info("开始生成Mermaid时序图: {}", chain.getChainId());
 
         StringBuilder sb = new StringBuilder();
-        sb.append("sequenceDiagram\n");
+        try {
+            render(chain, options, sb);
+        } catch (IOException e) {
+            // StringBuilder不会抛出IOException
+            throw new UncheckedIOException(e);
+        }
+
+        log.info("Mermaid时序图生成完成，长度: {}", sb.length());
+        return sb.toString();
+    }
 
-        // 收集所有参与者
-        Set<String> participants = collectParticipants(chain);
+    /**
+     * 将Mermaid时序图流式写入输出
+     *
+     * @param chain   调用链
+     * @param options 渲染选项
+     * @param out     输出（如HTTP响应的Writer）
+     * @throws IOException 写入失败
+     */
+    public void render(CallChain chain, MermaidRenderOptions options, Appendable out) throws IOException {
+        CallNode root = chain.getRoot();
+        out.append("sequenceDiagram\n");
+
+        // 收集并声明参与者
+        Participants participants = collectParticipants(root, options.getMaxParticipants());
+        out.append("    participant 用户\n");
+        for (String participant : participants.declared) {
+            out.append("    participant ").append(participant).append("\n");
+        }
+        out.append("\n");
 
-        // 声明参与者
-        sb.append("    participant 用户\n");
-        for (String participant : participants) {
-            sb.append("    participant ").append(participant).append("\n");
+        if (root == null) {
+            return;
         }
-        sb.append("\n");
+        String rootService = participants.map(root.getService());
 
         // 生成入口调用
         if (chain.getEntryPoint() != null) {
-            sb.append("    用户->>").append(chain.getRoot().getService())
+            out.append("    用户->>").append(rootService)
               .append(": ").append(chain.getEntryPoint().getPath()).append("\n");
         }
 
         // 生成调用步骤
-        if (chain.getRoot() != null) {
-            generateNodeCalls(chain.getRoot(), sb, chain.getRoot().getService());
-        }
+        DiagramWriter writer = new DiagramWriter(out, options);
+        generateNodeCalls(root, rootService, participants, options, writer);
+        writer.flush();
 
-        // 返回给用户
-        if (chain.getRoot() != null) {
-            sb.append("    ").append(chain.getRoot().getService())
-              .append("-->>用户: 响应\n");
+        // 追踪达到上限时提示调用链不完整
+        if (chain.isTruncated()) {
+            out.append("    Note over ").append(rootService).append(": ⋯ 调用链追踪达到上限，仅展示部分调用\n");
         }
 
-        log.info("Mermaid时序图生成完成，长度: {}", sb.length());
-        return sb.toString();
+        // 返回给用户
+        out.append("    ").append(rootService).append("-->>用户: 响应\n");
     }
 
     /**
-     * 收集所有参与者（服务）
+     * 收集所有参与者（服务），按首次出现的顺序
      */
-    private Set<String> collectParticipants(CallChain chain) {
-        Set<String> participants = new HashSet<>();
-        if (chain.getRoot() != null) {
-            collectParticipantsRecursive(chain.getRoot(), participants);
-        }
-        return participants;
-    }
-
-    private void collectParticipantsRecursive(CallNode node, Set<String> participants) {
-        if (node.getService() != null) {
-            participants.add(node.getService());
-        }
-        for (CallNode child : node.getChildren()) {
-            collectParticipantsRecursive(child, participants);
+    private Participants collectParticipants(CallNode root, int maxParticipants) {
+        Set<String> services = new LinkedHashSet<>();
+        if (root != null) {
+            Deque<CallNode> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                CallNode node = stack.pop();
+                if (node.getService() != null) {
+                    services.add(node.getService());
+                }
+                for (int i = node.getChildren().size() - 1; i >= 0; i--) {
+                    stack.push(node.getChildren().get(i));
+                }
+            }
         }
+        return new Participants(services, maxParticipants);
     }
 
     /**
      * 生成节点调用
+     * 本地调用展开其子调用，远程调用和MQ只生成一次往返
      */
-    private void generateNodeCalls(CallNode node, StringBuilder sb, String caller) {
-        for (CallNode child : node.getChildren()) {
-            String callee = child.getService();
+    private void generateNodeCalls(CallNode root, String caller, Participants participants,
+                                   MermaidRenderOptions options, DiagramWriter writer) throws IOException {
+        Deque<Iterator<CallNode>> stack = new ArrayDeque<>();
+        stack.push(root.getChildren().iterator());
+
+        while (!stack.isEmpty() && !writer.isTruncated()) {
+            Iterator<CallNode> siblings = stack.peek();
+            if (!siblings.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            CallNode child = siblings.next();
+            String callee = participants.map(child.getService());
 
             if (child.getType() == CallType.LOCAL) {
                 // 本地调用，使用Note
-                sb.append("    Note over ").append(caller)
-                  .append(": ").append(extractMethodName(child.getMethod()))
-                  .append("\n");
+                writer.note(caller, extractMethodName(child.getMethod()));
+                if (child.getChildren().isEmpty()) {
+                    continue;
+                }
 
-                // 递归处理子调用
-                generateNodeCalls(child, sb, caller);
+                // 超过折叠深度的子树只输出被折叠的调用数量，否则继续处理子调用
+                if (options.getFoldDepth() > 0 && stack.size() >= options.getFoldDepth()) {
+                    writer.note(caller, "⋯ 已折叠" + countDescendants(child) + "个调用");
+                } else {
+                    stack.push(child.getChildren().iterator());
+                }
 
             } else if (child.getType() == CallType.DUBBO || child.getType() == CallType.FEIGN) {
-                // 远程调用
+                // 远程调用及返回
                 String callType = child.getType() == CallType.DUBBO ? "[Dubbo]" : "[Feign]";
-                sb.append("    ").append(caller)
-                  .append("->>").append(callee)
-                  .append(": ").append(callType).append(" ")
-                  .append(extractInterfaceName(child.getClassName()))
-                  .append("\n");
-
-                // 返回
-                sb.append("    ").append(callee)
-                  .append("-->>").append(caller)
-                  .append(": 返回结果\n");
+                writer.lines(
+                    "    " + caller + "->>" + callee + ": " + callType + " "
+                        + extractInterfaceName(child.getClassName()) + "\n",
+                    "    " + callee + "-->>" + caller + ": 返回结果\n");
 
             } else if (child.getType() == CallType.MQ) {
                 // MQ异步调用
-                sb.append("    ").append(caller)
-                  .append("->>MQ: 发送消息\n");
-                sb.append("    MQ->>").append(callee)
-                  .append(": 消费消息\n");
+                writer.lines(
+                    "    " + caller + "->>MQ: 发送消息\n",
+                    "    MQ->>" + callee + ": 消费消息\n");
+            }
+        }
+
+        if (writer.isTruncated()) {
+            writer.truncationNote(caller);
+        }
+    }
+
+    /**
+     * 统计子树中的调用数量（不含自身）
+     */
+    private int countDescendants(CallNode node) {
+        int count = 0;
+        Deque<CallNode> stack = new ArrayDeque<>(node.getChildren());
+        while (!stack.isEmpty()) {
+            CallNode current = stack.pop();
+            count++;
+            for (CallNode child : current.getChildren()) {
+                stack.push(child);
             }
         }
+        return count;
     }
 
     /**
@@ -152,4 +230,121 @@ public class MermaidGenerator {
         }
         return fullClassName;
     }
+
+    /**
+     * 参与者声明及超出上限时的名称映射
+     */
+    private static final class Participants {
+
+        private final Set<String> declared;
+        private final boolean overflow;
+
+        Participants(Set<String> services, int maxParticipants) {
+            if (maxParticipants <= 0 || services.size() <= maxParticipants) {
+                this.declared = services;
+                this.overflow = false;
+                return;
+            }
+            // 保留先出现的服务，其余合并；合并后的参与者占一个名额
+            Set<String> kept = new LinkedHashSet<>();
+            Iterator<String> iterator = services.iterator();
+            while (kept.size() < Math.max(1, maxParticipants - 1)) {
+                kept.add(iterator.next());
+            }
+            kept.add(OTHER_PARTICIPANT);
+            this.declared = kept;
+            this.overflow = true;
+        }
+
+        String map(String service) {
+            if (!overflow || service == null || declared.contains(service)) {
+                return service;
+            }
+            return OTHER_PARTICIPANT;
+        }
+    }
+
+    /**
+     * 按行写入调用步骤：合并连续重复的本地调用，并在超出行数上限时停止
+     */
+    private static final class DiagramWriter {
+
+        private final Appendable out;
+        private final int maxLines;
+        private final boolean collapseRepeats;
+        private int lineCount;
+        private boolean truncated;
+
+        /**
+         * 待输出的本地调用及其连续重复次数
+         */
+        private String pendingCaller;
+        private String pendingText;
+        private int pendingCount;
+
+        DiagramWriter(Appendable out, MermaidRenderOptions options) {
+            this.out = out;
+            this.maxLines = options.getMaxLines();
+            this.collapseRepeats = options.isCollapseRepeats();
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+
+        void note(String caller, String text) throws IOException {
+            if (collapseRepeats && pendingText != null
+                    && text.equals(pendingText) && Objects.equals(caller, pendingCaller)) {
+                pendingCount++;
+                return;
+            }
+            flush();
+            if (reserve(1)) {
+                pendingCaller = caller;
+                pendingText = text;
+                pendingCount = 1;
+            }
+        }
+
+        void lines(String... lines) throws IOException {
+            flush();
+            if (reserve(lines.length)) {
+                for (String line : lines) {
+                    out.append(line);
+                }
+            }
+        }
+
+        void flush() throws IOException {
+            if (pendingText == null) {
+                return;
+            }
+            out.append("    Note over ").append(pendingCaller).append(": ").append(pendingText);
+            if (pendingCount > 1) {
+                out.append(" ×").append(String.valueOf(pendingCount));
+            }
+            out.append("\n");
+            pendingText = null;
+            pendingCaller = null;
+            pendingCount = 0;
+        }
+
+        void truncationNote(String caller) throws IOException {
+            flush();
+            out.append("    Note over ").append(caller).append(": ⋯ 调用步骤超过").append(String.valueOf(maxLines))
+               .append("行，已截断\n");
+        }
+
+        private boolean reserve(int lines) {
+            if (truncated) {
+                return false;
+            }
+            if (maxLines > 0 && lineCount + lines > maxLines) {
+                truncated = true;
+                return false;
+            }
+            lineCount += lines;
+            return true;
+        }
+    }
 }
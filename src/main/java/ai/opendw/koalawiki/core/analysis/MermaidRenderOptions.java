@@ -0,0 +1,42 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import lombok.Data;
+
+/**
+ * Mermaid时序图渲染选项
+ * 各项上限为0时表示不限制
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+public class MermaidRenderOptions {
+
+    /**
+     * 参与者数量上限，超出的服务合并为一个“其他服务”参与者
+     */
+    private int maxParticipants = 0;
+
+    /**
+     * 调用步骤行数上限（不含参与者声明），超出后输出截断提示并结束
+     */
+    private int maxLines = 0;
+
+    /**
+     * 折叠深度，深度超过该值的本地调用子树折叠为一行提示
+     */
+    private int foldDepth = 0;
+
+    /**
+     * 是否合并连续重复的本地调用
+     * 默认关闭，输出与不带选项的渲染一致；服务配置中显式开启
+     */
+    private boolean collapseRepeats = false;
+
+    /**
+     * 不限制任何规模、不合并重复调用的选项（与不带选项的渲染结果一致）
+     */
+    public static MermaidRenderOptions unlimited() {
+        return new MermaidRenderOptions();
+    }
+}
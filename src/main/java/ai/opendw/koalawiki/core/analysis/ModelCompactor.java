@@ -0,0 +1,180 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.AnnotationInfo;
+import ai.opendw.koalawiki.core.analysis.model.ClassInfo;
+import ai.opendw.koalawiki.core.analysis.model.FieldInfo;
+import ai.opendw.koalawiki.core.analysis.model.MethodInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 代码模型压缩器
+ * 扫描完成后对ClassInfo做一次遍历，降低大项目结构的常驻内存：
+ * <ul>
+ *   <li>符号表：类型名、方法名、参数、calledMethods等重复字符串只保留一份</li>
+ *   <li>注解：名称和属性相同的注解共享同一个实例，属性表不可修改</li>
+ *   <li>列表：空列表替换为共享的不可变空列表，其余列表去掉多余容量</li>
+ * </ul>
+ * 压缩后的模型视为只读：getter返回的列表可能是共享的不可变空列表，不能直接修改，
+ * 需要追加时使用模型的add方法（首次写入时换成可修改的列表）；注解实例在类之间共享，属性表不可修改。
+ * 扫描器之外没有修改已扫描模型的调用方，增量更新重新解析的类是新对象，压缩前完成构建。
+ * 非线程安全，每次扫描使用独立实例，扫描结束后符号表随之释放。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+public class ModelCompactor {
+
+    /**
+     * 字符串符号表
+     */
+    private final Map<String, String> symbols = new HashMap<>();
+
+    /**
+     * 共享的注解实例
+     */
+    private final Map<AnnotationKey, AnnotationInfo> annotations = new HashMap<>();
+
+    /**
+     * 压缩类信息（原地修改）
+     *
+     * @param classInfo 类信息
+     */
+    public void compact(ClassInfo classInfo) {
+        classInfo.setClassName(intern(classInfo.getClassName()));
+        classInfo.setPackageName(intern(classInfo.getPackageName()));
+        classInfo.setFullClassName(intern(classInfo.getFullClassName()));
+        classInfo.setSuperClass(intern(classInfo.getSuperClass()));
+        classInfo.setInterfaces(internAll(classInfo.getInterfaces()));
+        classInfo.setStaticImports(internAll(classInfo.getStaticImports()));
+        classInfo.setAnnotations(shareAll(classInfo.getAnnotations()));
+
+        for (FieldInfo field : classInfo.getFields()) {
+            field.setName(intern(field.getName()));
+            field.setType(intern(field.getType()));
+            field.setResolvedType(intern(field.getResolvedType()));
+            field.setAnnotations(shareAll(field.getAnnotations()));
+        }
+        classInfo.setFields(trim(classInfo.getFields()));
+
+        for (MethodInfo method : classInfo.getMethods()) {
+            method.setName(intern(method.getName()));
+            method.setReturnType(intern(method.getReturnType()));
+            method.setSignature(intern(method.getSignature()));
+            method.setParameters(internAll(method.getParameters()));
+            method.setLocalVariables(internAll(method.getLocalVariables()));
+            method.setCalledMethods(internAll(method.getCalledMethods()));
+            method.setAnnotations(shareAll(method.getAnnotations()));
+        }
+        classInfo.setMethods(trim(classInfo.getMethods()));
+    }
+
+    /**
+     * 符号表中的字符串数量
+     */
+    public int getSymbolCount() {
+        return symbols.size();
+    }
+
+    /**
+     * 共享的注解实例数量
+     */
+    public int getAnnotationCount() {
+        return annotations.size();
+    }
+
+    private String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String existing = symbols.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private List<String> internAll(List<String> values) {
+        for (int i = 0; i < values.size(); i++) {
+            values.set(i, intern(values.get(i)));
+        }
+        return trim(values);
+    }
+
+    private List<AnnotationInfo> shareAll(List<AnnotationInfo> values) {
+        for (int i = 0; i < values.size(); i++) {
+            values.set(i, share(values.get(i)));
+        }
+        return trim(values);
+    }
+
+    /**
+     * 获取与给定注解等价的共享实例
+     */
+    private AnnotationInfo share(AnnotationInfo annotation) {
+        AnnotationKey key = new AnnotationKey(annotation.getName(), annotation.getAttributes());
+        AnnotationInfo shared = annotations.get(key);
+        if (shared != null) {
+            return shared;
+        }
+
+        Map<String, Object> attributes = Collections.emptyMap();
+        if (!annotation.getAttributes().isEmpty()) {
+            Map<String, Object> copy = new LinkedHashMap<>(annotation.getAttributes().size() * 2);
+            for (Map.Entry<String, Object> e : annotation.getAttributes().entrySet()) {
+                Object value = e.getValue() instanceof String ? intern((String) e.getValue()) : e.getValue();
+                copy.put(intern(e.getKey()), value);
+            }
+            attributes = Collections.unmodifiableMap(copy);
+        }
+
+        shared = new AnnotationInfo();
+        shared.setName(intern(annotation.getName()));
+        shared.setAttributes(attributes);
+        annotations.put(new AnnotationKey(shared.getName(), attributes), shared);
+        return shared;
+    }
+
+    private static <T> List<T> trim(List<T> values) {
+        if (values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (values instanceof ArrayList) {
+            ((ArrayList<T>) values).trimToSize();
+        }
+        return values;
+    }
+
+    /**
+     * 注解去重键
+     */
+    private static final class AnnotationKey {
+        private final String name;
+        private final Map<String, Object> attributes;
+
+        AnnotationKey(String name, Map<String, Object> attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AnnotationKey)) {
+                return false;
+            }
+            AnnotationKey other = (AnnotationKey) o;
+            return Objects.equals(name, other.name) && attributes.equals(other.attributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, attributes);
+        }
+    }
+}
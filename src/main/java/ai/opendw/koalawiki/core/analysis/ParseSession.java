@@ -0,0 +1,99 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * 解析会话
+ * 一次项目扫描内共享的解析上下文：JavaParser非线程安全，每次解析从会话借出一个空闲的解析器，
+ * 解析完成后归还，解析器数量等于并发解析的线程数；启用符号解析时所有解析器共享同一个类型求解器
+ * （源码目录和依赖jar只加载一次）。
+ *
+ * 解析器只由会话持有（不使用ThreadLocal），扫描线程池的线程长期存活也不会留下解析器和类型求解器，
+ * 会话不再使用后随会话一起回收。
+ *
+ * 类型求解器内部的缓存和AST节点数据均非线程安全，符号解析调用在会话内串行执行，
+ * 源码解析本身仍然并行；不同扫描使用各自的会话，互不影响。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+public class ParseSession {
+
+    private final ParserConfiguration.LanguageLevel languageLevel;
+    private final TypeSolver typeSolver;
+    private final Queue<JavaParser> idleParsers = new ConcurrentLinkedQueue<>();
+    private final Object resolveLock = new Object();
+
+    /**
+     * @param languageLevel 语言级别
+     * @param typeSolver    类型求解器，为null时不做符号解析
+     */
+    ParseSession(ParserConfiguration.LanguageLevel languageLevel, TypeSolver typeSolver) {
+        this.languageLevel = languageLevel;
+        this.typeSolver = typeSolver;
+    }
+
+    /**
+     * 是否启用符号解析
+     */
+    public boolean isSymbolResolutionEnabled() {
+        return typeSolver != null;
+    }
+
+    /**
+     * 使用一个空闲的解析器解析源码
+     *
+     * @param in 源码输入流（UTF-8）
+     * @return 解析结果
+     */
+    ParseResult<CompilationUnit> parse(InputStream in) {
+        JavaParser parser = idleParsers.poll();
+        if (parser == null) {
+            parser = createParser();
+        }
+        try {
+            return parser.parse(in, StandardCharsets.UTF_8);
+        } finally {
+            idleParsers.offer(parser);
+        }
+    }
+
+    /**
+     * 执行符号解析，失败时返回null
+     */
+    <T> T resolve(Supplier<T> resolver) {
+        if (typeSolver == null) {
+            return null;
+        }
+        synchronized (resolveLock) {
+            try {
+                return resolver.get();
+            } catch (RuntimeException | StackOverflowError e) {
+                // 依赖缺失等原因无法解析时按未解析处理
+                return null;
+            }
+        }
+    }
+
+    private JavaParser createParser() {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(languageLevel)
+                .setAttributeComments(false)
+                .setStoreTokens(false);
+        if (typeSolver != null) {
+            configuration.setSymbolResolver(new JavaSymbolSolver(typeSolver));
+        }
+        return new JavaParser(configuration);
+    }
+}
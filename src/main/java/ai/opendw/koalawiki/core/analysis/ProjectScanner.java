@@ -5,20 +5,38 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 /**
  * 项目扫描器
  * 扫描整个Java项目，构建项目结构
  * 支持单模块和多模块Maven项目
+ * 大项目的源码解析在独立的ForkJoinPool中并行执行；
+ * 不含入口点注解的文件先只解析声明，被调用到时再补全方法体
  *
  * @author OpenDeepWiki Team
  * @since 2025-11-16
@@ -31,6 +49,13 @@ public class ProjectScanner {
     private final JavaCodeAnalyzer codeAnalyzer;
     private final EntryPointDetector entryPointDetector;
     private final MavenPomParser pomParser;
+    private final AnalysisProperties analysisProperties;
+    private final ClassInfoCache classInfoCache;
+
+    /**
+     * 源码解析线程池
+     */
+    private volatile ForkJoinPool parsePool;
 
     /**
      * 扫描项目
@@ -72,21 +97,35 @@ public class ProjectScanner {
 
             log.info("总共扫描到 {} 个Java文件", allJavaFiles.size());
 
-            // 3. 解析每个Java文件
+            // 3. 解析每个Java文件（结果按文件顺序合并，保证输出与串行一致）
+            long parseStart = System.currentTimeMillis();
+            ClassInfoCache.ProjectCache cache = classInfoCache.isEnabled()
+                    ? classInfoCache.load(projectPath) : null;
+            ParseSession session = codeAnalyzer.openSession(modules);
+            ClassInfo[] parsedClasses = parseFiles(allJavaFiles, session, cache,
+                    analysisProperties.isPreFilterEnabled());
+            resolveReachableBodies(allJavaFiles, parsedClasses, session, cache);
+            if (cache != null) {
+                classInfoCache.save(cache);
+            }
+            log.info("Java文件解析耗时: {}ms", System.currentTimeMillis() - parseStart);
+
             int parsedCount = 0;
             int entryPointCount = 0;
+            ModelCompactor compactor = newCompactor();
 
-            for (File javaFile : allJavaFiles) {
-                ClassInfo classInfo = codeAnalyzer.analyzeFile(javaFile);
+            for (int i = 0; i < parsedClasses.length; i++) {
+                ClassInfo classInfo = parsedClasses[i];
 
                 if (classInfo != null) {
-                    // 添加模块信息
-                    String moduleName = fileToModuleMap.get(javaFile.getAbsolutePath());
-                    if (moduleName != null) {
-                        // 可以在ClassInfo中添加module字段，或者通过其他方式关联
-                        // 这里暂时通过文件路径判断
+                    // 压缩模型（入口点检测之前，入口点直接引用共享的字符串）
+                    if (compactor != null) {
+                        compactor.compact(classInfo);
                     }
 
+                    // 添加模块信息
+                    String moduleName = fileToModuleMap.get(allJavaFiles.get(i).getAbsolutePath());
+
                     // 添加到项目结构
                     structure.addClass(classInfo);
                     parsedCount++;
@@ -105,6 +144,13 @@ public class ProjectScanner {
                 }
             }
 
+            // 4. 预先构建查找索引，后续并行追踪直接复用
+            structure.getIndex();
+
+            if (compactor != null) {
+                log.info("模型压缩: 符号数={}, 共享注解数={}", compactor.getSymbolCount(), compactor.getAnnotationCount());
+            }
+
             log.info("项目扫描完成: 解析{}个类, 检测到{}个入口点", parsedCount, entryPointCount);
             log.info("统计信息: {}", structure.getStatistics());
 
@@ -117,28 +163,361 @@ public class ProjectScanner {
     }
 
     /**
-     * 扫描指定路径下的Java文件
+     * 增量更新项目结构
+     * 只重新解析变更的文件，其余类信息和入口点沿用上一次的扫描结果；
+     * pom.xml变化可能改变模块划分，此时退化为全量扫描
+     *
+     * @param previous 上一次的项目结构（不会被修改）
+     * @param added    新增的文件（相对项目根路径）
+     * @param modified 修改的文件（相对项目根路径）
+     * @param deleted  删除的文件（相对项目根路径）
+     * @return 新的项目结构
      */
-    private List<File> scanJavaFiles(String path) {
-        List<File> javaFiles = new ArrayList<>();
+    public ProjectStructure updateProject(ProjectStructure previous,
+                                          Collection<String> added,
+                                          Collection<String> modified,
+                                          Collection<String> deleted) {
+        String projectPath = previous.getProjectPath();
+        long startTime = System.currentTimeMillis();
+
+        boolean pomChanged = Stream.of(added, modified, deleted)
+                .flatMap(Collection::stream)
+                .anyMatch(p -> p.equals("pom.xml") || p.endsWith("/pom.xml"));
+        if (pomChanged) {
+            log.info("检测到pom.xml变更，执行全量扫描: {}", projectPath);
+            return scanProject(projectPath);
+        }
 
+        Path rootPath = Paths.get(projectPath).toAbsolutePath().normalize();
+
+        // 1. 删除和修改的文件对应的旧类需要移除
+        Set<Path> staleFiles = new HashSet<>();
+        Stream.concat(modified.stream(), deleted.stream())
+                .forEach(p -> staleFiles.add(rootPath.resolve(p).normalize()));
+
+        // 2. 新增和修改的文件需要重新解析
+        List<File> changedFiles = new ArrayList<>();
+        Stream.concat(added.stream(), modified.stream())
+                .map(p -> rootPath.resolve(p).normalize())
+                .filter(this::isSourceFile)
+                .filter(Files::isRegularFile)
+                .filter(p -> findModule(previous.getModules(), p) != null)
+                .forEach(p -> changedFiles.add(p.toFile()));
+
+        // 3. 解析变更文件（变更文件总是完整解析）
+        boolean hasDeclarationOnly = previous.getClasses().values().stream()
+                .anyMatch(ClassInfo::isDeclarationOnly);
+        ParseSession session = changedFiles.isEmpty() && !hasDeclarationOnly
+                ? null : codeAnalyzer.openSession(previous.getModules());
+        ModelCompactor compactor = newCompactor();
+        Map<Path, ClassInfo> reparsed = new LinkedHashMap<>();
+        for (File javaFile : changedFiles) {
+            ClassInfo classInfo = parseFile(javaFile, session, null, false);
+            if (classInfo == null) {
+                continue;
+            }
+            if (compactor != null) {
+                compactor.compact(classInfo);
+            }
+            reparsed.put(javaFile.toPath().toAbsolutePath().normalize(), classInfo);
+        }
+
+        // 4. 合并后按全量扫描的文件顺序（模块顺序、路径）排列类，
+        //    索引中同名方法、实现类和同名类的候选顺序与全量扫描一致
+        ProjectStructure structure = new ProjectStructure();
+        structure.setProjectPath(projectPath);
+        structure.setProjectName(previous.getProjectName());
+        structure.setModules(previous.getModules());
+
+        Set<String> removedClasses = new HashSet<>();
+        List<ClassInfo> merged = new ArrayList<>();
+        for (ClassInfo classInfo : previous.getClasses().values()) {
+            if (classInfo.getFilePath() != null
+                    && staleFiles.contains(Paths.get(classInfo.getFilePath()).toAbsolutePath().normalize())) {
+                removedClasses.add(classInfo.getFullClassName());
+            } else {
+                merged.add(classInfo);
+            }
+        }
+        merged.addAll(reparsed.values());
+        merged.sort(sourceOrder(previous.getModules()));
+        for (ClassInfo classInfo : merged) {
+            structure.addClass(classInfo);
+        }
+
+        for (EntryPoint ep : previous.getEntryPoints()) {
+            if (!removedClasses.contains(ep.getClassName())) {
+                structure.addEntryPoint(ep);
+            }
+        }
+
+        int entryPointCount = 0;
+        for (ClassInfo classInfo : reparsed.values()) {
+            ModuleInfo module = findModule(previous.getModules(), Paths.get(classInfo.getFilePath()));
+            for (EntryPoint ep : entryPointDetector.detectEntryPoints(classInfo)) {
+                if (module != null) {
+                    ep.addAnnotation("module", module.getName());
+                }
+                structure.addEntryPoint(ep);
+                entryPointCount++;
+            }
+        }
+
+        // 5. 变更后的调用可能到达仅解析了声明的类
+        if (hasDeclarationOnly) {
+            List<ClassInfo> classes = new ArrayList<>(structure.getClasses().values());
+            List<File> classFiles = new ArrayList<>(classes.size());
+            for (ClassInfo classInfo : classes) {
+                classFiles.add(new File(classInfo.getFilePath()));
+            }
+            ClassInfo[] slots = classes.toArray(new ClassInfo[0]);
+            resolveReachableBodies(classFiles, slots, session, null);
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != classes.get(i)) {
+                    if (compactor != null) {
+                        compactor.compact(slots[i]);
+                    }
+                    structure.addClass(slots[i]);
+                }
+            }
+        }
+
+        structure.getIndex();
+        structure.deriveEntryPointIndex(previous);
+
+        log.info("增量更新项目结构完成: {}, 移除{}个类, 重新解析{}个文件, 新增{}个入口点, 耗时{}ms",
+                projectPath, removedClasses.size(), changedFiles.size(), entryPointCount,
+                System.currentTimeMillis() - startTime);
+
+        return structure;
+    }
+
+    /**
+     * 全量扫描时类的顺序：先按所属模块在模块列表中的位置，再按文件路径
+     */
+    private Comparator<ClassInfo> sourceOrder(List<ModuleInfo> modules) {
+        Map<ModuleInfo, Integer> moduleOrder = new HashMap<>();
+        for (int i = 0; i < modules.size(); i++) {
+            moduleOrder.putIfAbsent(modules.get(i), i);
+        }
+        Map<ClassInfo, Path> files = new IdentityHashMap<>();
+        Function<ClassInfo, Path> file = c -> files.computeIfAbsent(c, k -> k.getFilePath() != null
+                ? Paths.get(k.getFilePath()).toAbsolutePath().normalize() : Paths.get(""));
+        Map<ClassInfo, Integer> moduleIndex = new IdentityHashMap<>();
+        Function<ClassInfo, Integer> module = c -> moduleIndex.computeIfAbsent(c, k -> {
+            ModuleInfo owner = findModule(modules, file.apply(k));
+            return owner != null ? moduleOrder.get(owner) : Integer.MAX_VALUE;
+        });
+        return Comparator.comparing(module).thenComparing(file);
+    }
+
+    /**
+     * 查找文件所属模块（源码根目录最长前缀匹配）
+     */
+    private ModuleInfo findModule(List<ModuleInfo> modules, Path file) {
+        ModuleInfo matched = null;
+        int matchedLength = -1;
+        for (ModuleInfo module : modules) {
+            Path sourceRoot = resolveSourceRoot(module.getPath()).toAbsolutePath().normalize();
+            if (file.startsWith(sourceRoot) && sourceRoot.getNameCount() > matchedLength) {
+                matched = module;
+                matchedLength = sourceRoot.getNameCount();
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 解析Java文件列表
+     * 文件数超过阈值时在独立的ForkJoinPool中并行解析，结果下标与文件下标一一对应
+     *
+     * @param javaFiles            Java文件列表
+     * @param session              解析会话
+     * @param cache                解析缓存（可为null）
+     * @param allowDeclarationOnly 是否允许不含入口点注解的文件只解析声明
+     * @return 解析结果数组，解析失败的位置为null
+     */
+    private ClassInfo[] parseFiles(List<File> javaFiles, ParseSession session, ClassInfoCache.ProjectCache cache,
+                                   boolean allowDeclarationOnly) {
+        ClassInfo[] results = new ClassInfo[javaFiles.size()];
+        IntFunction<ClassInfo> parser = i -> parseFile(javaFiles.get(i), session, cache, allowDeclarationOnly);
+
+        if (!analysisProperties.isParallelEnabled()
+                || javaFiles.size() < analysisProperties.getParallelThreshold()) {
+            for (int i = 0; i < javaFiles.size(); i++) {
+                results[i] = parser.apply(i);
+            }
+            return results;
+        }
+
+        ForkJoinPool pool = getParsePool();
+        log.info("并行解析Java文件: 文件数={}, 并行度={}", javaFiles.size(), pool.getParallelism());
         try {
-            Path rootPath = Paths.get(path);
+            pool.submit(new ParseTask(parser, results, 0, javaFiles.size())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("并行解析被中断", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("并行解析失败: " + e.getCause().getMessage(), e.getCause());
+        }
+        return results;
+    }
 
-            // 只扫描src/main/java目录（如果存在）
-            Path srcPath = rootPath.resolve("src/main/java");
-            if (!Files.exists(srcPath)) {
-                // 如果没有标准Maven结构，扫描整个目录
-                srcPath = rootPath;
+    /**
+     * 补全可达类的方法体
+     * 按调用图的本地调用解析规则（{@link CallResolver}），从已完整解析的类出发查找被调用到的仅声明类，
+     * 重新完整解析，直到不再出现新的可达类。
+     * 索引与{@link ProjectStructure#getClasses()}使用同样的类顺序（文件顺序，同名类后者覆盖前者），
+     * 同名方法、实现类和同名类的候选与调用图构建时一致，从完整解析的类出发能追踪到的方法都带有调用信息。
+     * 仅声明类与完整解析结果的类型、字段和方法声明相同，解析只需基于首轮结果建立一次索引。
+     *
+     * @param javaFiles 文件列表，与classes下标一一对应
+     * @param classes   解析结果，可达的仅声明类会被替换为完整解析结果
+     * @param session   解析会话
+     * @param cache     解析缓存（可为null）
+     */
+    private void resolveReachableBodies(List<File> javaFiles, ClassInfo[] classes, ParseSession session,
+                                        ClassInfoCache.ProjectCache cache) {
+        // 与ProjectStructure一致：同名类后者覆盖前者，位置保持首次出现的位置
+        Map<String, Integer> slotByClass = new LinkedHashMap<>();
+        boolean hasDeclarationOnly = false;
+        for (int i = 0; i < classes.length; i++) {
+            if (classes[i] != null) {
+                slotByClass.put(classes[i].getFullClassName(), i);
+                hasDeclarationOnly |= classes[i].isDeclarationOnly();
             }
+        }
+        if (!hasDeclarationOnly) {
+            return;
+        }
 
-            try (Stream<Path> paths = Files.walk(srcPath)) {
+        Map<String, ClassInfo> classByName = new LinkedHashMap<>();
+        List<Integer> pending = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : slotByClass.entrySet()) {
+            classByName.put(entry.getKey(), classes[entry.getValue()]);
+            if (!classes[entry.getValue()].isDeclarationOnly()) {
+                pending.add(entry.getValue());
+            }
+        }
+        ProjectIndex index = ProjectIndex.build(classByName.values());
+        CallResolver resolver = new CallResolver(index, classByName);
+
+        int upgradedCount = 0;
+        while (!pending.isEmpty()) {
+            Set<Integer> reachable = new LinkedHashSet<>();
+            for (int slot : pending) {
+                for (MethodInfo method : classes[slot].getMethods()) {
+                    for (MethodInfo target : resolver.resolveAll(classes[slot], method)) {
+                        ClassInfo owner = target != null ? index.findOwner(target) : null;
+                        Integer ownerSlot = owner != null ? slotByClass.get(owner.getFullClassName()) : null;
+                        if (ownerSlot != null && classes[ownerSlot].isDeclarationOnly()) {
+                            reachable.add(ownerSlot);
+                        }
+                    }
+                }
+            }
+
+            pending = new ArrayList<>(reachable);
+            List<File> files = new ArrayList<>(pending.size());
+            for (int slot : pending) {
+                files.add(javaFiles.get(slot));
+            }
+            ClassInfo[] reparsed = parseFiles(files, session, cache, false);
+            for (int i = 0; i < reparsed.length; i++) {
+                if (reparsed[i] != null) {
+                    classes[pending.get(i)] = reparsed[i];
+                    upgradedCount++;
+                }
+            }
+        }
+
+        log.info("可达类补全方法体: {}个", upgradedCount);
+    }
+
+    /**
+     * 解析单个文件，内容未变化时直接使用缓存结果
+     */
+    private ClassInfo parseFile(File javaFile, ParseSession session, ClassInfoCache.ProjectCache cache,
+                                boolean allowDeclarationOnly) {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(javaFile.toPath());
+        } catch (IOException e) {
+            log.error("读取Java文件异常: {}", javaFile.getPath(), e);
+            return null;
+        }
+
+        boolean declarationOnly = allowDeclarationOnly && !SourcePreFilter.hasEntryAnnotation(content);
+        if (cache == null) {
+            return codeAnalyzer.analyzeSource(content, javaFile, session, declarationOnly);
+        }
+
+        String blobId = ClassInfoCache.blobId(content);
+        ClassInfoCache.Entry entry = cache.get(javaFile, blobId, declarationOnly);
+        if (entry != null) {
+            ClassInfo cached = entry.getClassInfo();
+            if (cached != null) {
+                cached.setFilePath(javaFile.getAbsolutePath());
+            }
+            return cached;
+        }
+
+        ClassInfo classInfo = codeAnalyzer.analyzeSource(content, javaFile, session, declarationOnly);
+        cache.put(javaFile, blobId, classInfo);
+        return classInfo;
+    }
+
+    /**
+     * 创建模型压缩器，未启用时返回null
+     */
+    private ModelCompactor newCompactor() {
+        return analysisProperties.isCompactModelEnabled() ? new ModelCompactor() : null;
+    }
+
+    /**
+     * 获取解析线程池（延迟创建）
+     */
+    private ForkJoinPool getParsePool() {
+        ForkJoinPool pool = parsePool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = parsePool;
+                if (pool == null) {
+                    pool = new ForkJoinPool(
+                            analysisProperties.getEffectiveParallelism(),
+                            new ParseThreadFactory(),
+                            null,
+                            false);
+                    parsePool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * 关闭解析线程池
+     */
+    @PreDestroy
+    public void shutdown() {
+        ForkJoinPool pool = parsePool;
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 扫描指定路径下的Java文件
+     */
+    private List<File> scanJavaFiles(String path) {
+        List<File> javaFiles = new ArrayList<>();
+
+        try {
+            try (Stream<Path> paths = Files.walk(resolveSourceRoot(path))) {
+                // 按路径排序，类的顺序不依赖文件系统的遍历顺序，增量更新可以还原同样的顺序
                 paths.filter(Files::isRegularFile)
-                     .filter(p -> p.toString().endsWith(".java"))
-                     .filter(p -> !p.toString().contains("/test/"))  // 排除测试
-                     .filter(p -> !p.toString().contains("\\test\\"))  // 排除测试(Windows)
-                     .filter(p -> !p.toString().contains("/target/"))  // 排除编译输出
-                     .filter(p -> !p.toString().contains("\\target\\"))
+                     .filter(this::isSourceFile)
+                     .sorted()
                      .forEach(p -> javaFiles.add(p.toFile()));
             }
 
@@ -149,6 +528,28 @@ public class ProjectScanner {
         return javaFiles;
     }
 
+    /**
+     * 获取模块的源码根目录
+     * 只扫描src/main/java目录（如果存在），否则扫描整个模块目录
+     */
+    private Path resolveSourceRoot(String modulePath) {
+        Path rootPath = Paths.get(modulePath);
+        Path srcPath = rootPath.resolve("src/main/java");
+        return Files.exists(srcPath) ? srcPath : rootPath;
+    }
+
+    /**
+     * 判断是否为需要解析的源码文件（排除测试和编译输出）
+     */
+    private boolean isSourceFile(Path path) {
+        String p = path.toString();
+        return p.endsWith(".java")
+                && !p.contains("/test/")
+                && !p.contains("\\test\\")
+                && !p.contains("/target/")
+                && !p.contains("\\target\\");
+    }
+
     /**
      * 从路径中提取项目名称
      */
@@ -187,4 +588,54 @@ public class ProjectScanner {
         log.info("过滤后关键类数量: {} (原始: {})", keyClasses.size(), structure.getClasses().size());
         return keyClasses;
     }
+
+    /**
+     * 分治解析任务
+     * 按文件下标区间拆分，每个子任务只写入自己区间内的结果槽位
+     */
+    private static class ParseTask extends RecursiveAction {
+
+        private static final int BATCH_SIZE = 16;
+
+        private final IntFunction<ClassInfo> parser;
+        private final ClassInfo[] results;
+        private final int from;
+        private final int to;
+
+        ParseTask(IntFunction<ClassInfo> parser, ClassInfo[] results, int from, int to) {
+            this.parser = parser;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = parser.apply(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(
+                    new ParseTask(parser, results, from, mid),
+                    new ParseTask(parser, results, mid, to));
+        }
+    }
+
+    /**
+     * 解析线程工厂
+     */
+    private static class ParseThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("project-scan-" + counter.incrementAndGet());
+            return thread;
+        }
+    }
 }
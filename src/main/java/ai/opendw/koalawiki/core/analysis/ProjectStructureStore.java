@@ -0,0 +1,185 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.git.FileChangeSet;
+import ai.opendw.koalawiki.core.git.GitService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 项目结构存储
+ * 按项目路径保存最近一次分析得到的项目结构及其对应的提交版本，
+ * 仓库同步时基于Git差异增量更新，避免每次全量扫描；
+ * 保存带版本的结构时同时挂载该版本的预计算调用图；
+ * 裸镜像没有源码工作区，扫描结果恒为空，拒绝分析而不是返回空结构
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectStructureStore {
+
+    private final ProjectScanner projectScanner;
+    private final CallGraphStore callGraphStore;
+    private final AnalysisProperties analysisProperties;
+    private final GitService gitService;
+
+    /**
+     * 项目结构快照（LRU，key: 规范化的项目路径）
+     */
+    private final Map<String, Snapshot> snapshots = new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > analysisProperties.getStructureCacheSize();
+        }
+    };
+
+    /**
+     * 获取指定版本的项目结构，不存在时全量扫描并保存
+     *
+     * @param projectPath 项目路径
+     * @param version     提交版本，为null时总是重新扫描且不保存
+     * @return 项目结构
+     */
+    public ProjectStructure getOrScan(String projectPath, String version) {
+        ProjectStructure structure = getIfPresent(projectPath, version);
+        if (structure != null) {
+            return structure;
+        }
+
+        return scan(projectPath, version);
+    }
+
+    /**
+     * 全量扫描项目并保存指定版本的结构
+     *
+     * @param projectPath 项目路径
+     * @param version     提交版本，为null时不保存
+     * @return 项目结构
+     * @throws IllegalStateException 项目路径为裸镜像，没有可扫描的源码
+     */
+    public ProjectStructure scan(String projectPath, String version) {
+        if (!isScannable(projectPath)) {
+            throw new IllegalStateException("裸镜像没有源码工作区，无法分析代码（需使用worktree存储方式）: " + projectPath);
+        }
+        ProjectStructure structure = projectScanner.scanProject(projectPath);
+        put(projectPath, version, structure);
+        return structure;
+    }
+
+    /**
+     * 项目路径是否有可扫描的源码（裸镜像没有工作区）
+     *
+     * @param projectPath 项目路径
+     * @return 是否可扫描
+     */
+    public boolean isScannable(String projectPath) {
+        return !gitService.isBareRepository(projectPath);
+    }
+
+    /**
+     * 获取指定版本的项目结构
+     *
+     * @param projectPath 项目路径
+     * @param version     提交版本
+     * @return 项目结构，不存在或版本不一致时返回null
+     */
+    public ProjectStructure getIfPresent(String projectPath, String version) {
+        if (version == null) {
+            return null;
+        }
+        Snapshot snapshot = getSnapshot(normalize(projectPath));
+        if (snapshot != null && version.equals(snapshot.version)) {
+            log.debug("复用项目结构: {}@{}", projectPath, version);
+            return snapshot.structure;
+        }
+        return null;
+    }
+
+    /**
+     * 保存指定版本的项目结构
+     *
+     * @param projectPath 项目路径
+     * @param version     提交版本，为null时不保存
+     * @param structure   项目结构
+     */
+    public void put(String projectPath, String version, ProjectStructure structure) {
+        if (version != null) {
+            callGraphStore.attach(projectPath, version, structure);
+            putSnapshot(normalize(projectPath), new Snapshot(version, structure));
+        }
+    }
+
+    /**
+     * 基于文件变更增量更新项目结构
+     * 仅当已保存的结构恰好处于fromVersion时执行，否则忽略（下次访问时再全量扫描）
+     *
+     * @param projectPath 项目路径
+     * @param fromVersion 起始版本
+     * @param toVersion   目标版本
+     * @param changes     两个版本之间的文件变更
+     * @return 更新后的项目结构，未执行更新时返回null
+     */
+    public ProjectStructure applyChanges(String projectPath, String fromVersion, String toVersion,
+                                         FileChangeSet changes) {
+        String key = normalize(projectPath);
+        Snapshot snapshot = getSnapshot(key);
+        if (snapshot == null || fromVersion == null || !fromVersion.equals(snapshot.version)) {
+            log.debug("无可增量更新的项目结构: {}@{}", projectPath, fromVersion);
+            return null;
+        }
+
+        ProjectStructure structure = changes.isEmpty()
+                ? snapshot.structure
+                : projectScanner.updateProject(snapshot.structure,
+                        changes.getAdded(), changes.getModified(), changes.getDeleted());
+        callGraphStore.attach(projectPath, toVersion, structure);
+        putSnapshot(key, new Snapshot(toVersion, structure));
+        return structure;
+    }
+
+    /**
+     * 移除项目结构
+     */
+    public void evict(String projectPath) {
+        synchronized (snapshots) {
+            snapshots.remove(normalize(projectPath));
+        }
+    }
+
+    private Snapshot getSnapshot(String key) {
+        synchronized (snapshots) {
+            return snapshots.get(key);
+        }
+    }
+
+    private void putSnapshot(String key, Snapshot snapshot) {
+        synchronized (snapshots) {
+            snapshots.put(key, snapshot);
+        }
+    }
+
+    private String normalize(String projectPath) {
+        return Paths.get(projectPath).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * 项目结构快照
+     */
+    private static class Snapshot {
+        private final String version;
+        private final ProjectStructure structure;
+
+        Snapshot(String version, ProjectStructure structure) {
+            this.version = version;
+            this.structure = structure;
+        }
+    }
+}
@@ -46,9 +46,32 @@ public class ServiceDependencyAnalyzer {
             graph.getServices().size(),
             graph.getDependencies().size());
 
+        graph.getIndex();
         return graph;
     }
 
+    /**
+     * 用单个项目的最新结构刷新依赖图
+     * 只重算该项目贡献的服务节点和依赖关系，其余服务保持不变
+     *
+     * @param graph     已有的服务依赖图（原地更新）
+     * @param structure 项目的最新结构
+     */
+    public void refresh(ServiceDependencyGraph graph, ProjectStructure structure) {
+        String serviceName = structure.getProjectName();
+        graph.removeService(serviceName);
+
+        ServiceNode serviceNode = buildServiceNode(structure);
+        graph.addService(serviceNode);
+        analyzeDependencies(structure, graph);
+
+        // 其他服务指向本服务接口的Dubbo依赖重新关联目标服务
+        graph.linkDubboTargets();
+
+        log.info("服务依赖刷新完成: {}, 提供接口数: {}, 依赖关系总数: {}",
+            serviceName, serviceNode.getProvidedInterfaces().size(), graph.getDependencies().size());
+    }
+
     /**
      * 构建服务节点
      */
@@ -0,0 +1,256 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 源码词法预过滤
+ * 在完整解析之前对源码字节做一次线性扫描（不解码、不建AST）：
+ * <ul>
+ *   <li>判断文件是否包含入口点注解，决定是否需要完整解析方法体</li>
+ *   <li>移除方法体内容（保留换行），得到仅含声明的源码，行号保持不变</li>
+ * </ul>
+ * 只处理ASCII范围内的语法字符，UTF-8多字节字符不会与之冲突。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+public final class SourcePreFilter {
+
+    /**
+     * 入口点注解简单名（与EntryPointDetector的判断保持一致）
+     */
+    private static final Set<String> ENTRY_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "RestController", "Controller", "RequestMapping",
+            "GetMapping", "PostMapping", "PutMapping", "DeleteMapping", "PatchMapping",
+            "DubboService", "Service", "Scheduled",
+            "RabbitListener", "KafkaListener", "RocketMQMessageListener", "JmsListener"
+    ));
+
+    private SourcePreFilter() {
+    }
+
+    /**
+     * 是否包含入口点注解（注释和字符串中的写法也按包含处理，只会多做完整解析）
+     *
+     * @param src 源码字节
+     * @return 包含时返回true
+     */
+    public static boolean hasEntryAnnotation(byte[] src) {
+        int n = src.length;
+        for (int i = 0; i < n; i++) {
+            if (src[i] != '@') {
+                continue;
+            }
+            // 读取注解名，支持全限定写法（取最后一段）
+            int j = skipWhitespace(src, i + 1);
+            int start = j;
+            int lastSegment = j;
+            while (j < n) {
+                if (isIdentifierPart(src[j])) {
+                    j++;
+                } else if (src[j] == '.') {
+                    j++;
+                    lastSegment = j;
+                } else {
+                    break;
+                }
+            }
+            if (j > start && ENTRY_ANNOTATIONS.contains(ascii(src, lastSegment, j))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 清空方法和构造器的方法体
+     * 位于类型体内、紧跟在右括号或throws子句之后的代码块视为方法体，只保留其中的换行
+     * （不替换为空格：JavaParser逐个字符产生空白记号，大段空白反而拖慢解析）；
+     * 匿名类、枚举常量体等同样被清空，不影响顶层类的声明
+     *
+     * @param src 源码字节
+     * @return 清空方法体后的源码字节（新数组）
+     */
+    public static byte[] stripMethodBodies(byte[] src) {
+        byte[] out = new byte[src.length];
+        int length = 0;
+        int copied = 0;
+        int n = src.length;
+        int depth = 0;
+        // 上一个有效记号是 ")"，或处于 ") throws ..." 子句中
+        boolean afterParen = false;
+        boolean inThrows = false;
+
+        int i = 0;
+        while (i < n) {
+            byte c = src[i];
+            if (c == '/' && i + 1 < n && (src[i + 1] == '/' || src[i + 1] == '*')) {
+                i = skipComment(src, i);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(src, i);
+                afterParen = false;
+                inThrows = false;
+                continue;
+            }
+            if (isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (isIdentifierPart(c)) {
+                int j = i;
+                while (j < n && isIdentifierPart(src[j])) {
+                    j++;
+                }
+                if (afterParen && (inThrows || "throws".equals(ascii(src, i, j)))) {
+                    inThrows = true;
+                } else {
+                    afterParen = false;
+                }
+                i = j;
+                continue;
+            }
+
+            if (c == '{') {
+                if (afterParen && depth >= 1) {
+                    int end = findClosingBrace(src, i);
+                    if (end < 0) {
+                        break;
+                    }
+                    System.arraycopy(src, copied, out, length, i + 1 - copied);
+                    length += i + 1 - copied;
+                    for (int k = i + 1; k < end; k++) {
+                        if (src[k] == '\n') {
+                            out[length++] = '\n';
+                        }
+                    }
+                    copied = end;
+                    i = end + 1;
+                } else {
+                    depth++;
+                    i++;
+                }
+                afterParen = false;
+                inThrows = false;
+                continue;
+            }
+
+            if (c == '}') {
+                depth--;
+            }
+            if (c == ')') {
+                afterParen = true;
+                inThrows = false;
+            } else if (!(inThrows && isThrowsPunctuation(c))) {
+                afterParen = false;
+                inThrows = false;
+            }
+            i++;
+        }
+        System.arraycopy(src, copied, out, length, n - copied);
+        length += n - copied;
+        return length == n ? out : Arrays.copyOf(out, length);
+    }
+
+    /**
+     * 查找与start处 "{" 匹配的 "}"
+     */
+    private static int findClosingBrace(byte[] src, int start) {
+        int n = src.length;
+        int depth = 0;
+        int i = start;
+        while (i < n) {
+            byte c = src[i];
+            if (c == '/' && i + 1 < n && (src[i + 1] == '/' || src[i + 1] == '*')) {
+                i = skipComment(src, i);
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(src, i);
+                continue;
+            }
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                depth--;
+                if (depth == 0) {
+                    return i;
+                }
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    /**
+     * 跳过注释，返回注释之后的位置
+     */
+    private static int skipComment(byte[] src, int i) {
+        int n = src.length;
+        if (src[i + 1] == '/') {
+            while (i < n && src[i] != '\n') {
+                i++;
+            }
+            return i;
+        }
+        i += 2;
+        while (i + 1 < n && !(src[i] == '*' && src[i + 1] == '/')) {
+            i++;
+        }
+        return Math.min(n, i + 2);
+    }
+
+    /**
+     * 跳过字符串、字符或文本块字面量，返回字面量之后的位置
+     */
+    private static int skipLiteral(byte[] src, int i) {
+        int n = src.length;
+        byte quote = src[i];
+        if (quote == '"' && i + 2 < n && src[i + 1] == '"' && src[i + 2] == '"') {
+            i += 3;
+            while (i + 2 < n && !(src[i] == '"' && src[i + 1] == '"' && src[i + 2] == '"')) {
+                i += src[i] == '\\' ? 2 : 1;
+            }
+            return Math.min(n, i + 3);
+        }
+        i++;
+        while (i < n && src[i] != quote && src[i] != '\n') {
+            i += src[i] == '\\' ? 2 : 1;
+        }
+        return Math.min(n, i + 1);
+    }
+
+    private static int skipWhitespace(byte[] src, int i) {
+        while (i < src.length && isWhitespace(src[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    /**
+     * 标识符字符（非ASCII字节按标识符处理）
+     */
+    private static boolean isIdentifierPart(byte c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '_' || c == '$' || c < 0;
+    }
+
+    private static boolean isThrowsPunctuation(byte c) {
+        return c == '.' || c == ',' || c == '<' || c == '>' || c == '?';
+    }
+
+    private static String ascii(byte[] src, int from, int to) {
+        char[] chars = new char[to - from];
+        for (int i = from; i < to; i++) {
+            chars[i - from] = (char) (src[i] & 0xff);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,217 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import ai.opendw.koalawiki.core.analysis.model.CallNode;
+import ai.opendw.koalawiki.core.analysis.model.ProjectStructure;
+import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 调用链子树缓存
+ * 在一次批量追踪内复用已计算的调用子树，只对绑定的项目结构和依赖图生效，线程安全。
+ *
+ * 追踪使用全局的已访问集合做循环检测，子树的形状依赖于进入时的已访问集合，
+ * 因此每个缓存条目同时记录：
+ * <ul>
+ *   <li>子树追踪过程中新加入已访问集合的方法（要求复用时均未访问）</li>
+ *   <li>子树追踪过程中因已访问而被剪枝的外部方法（要求复用时均已访问）</li>
+ *   <li>判断子调用数上限是否真正截断时确认未访问的外部方法（要求复用时均未访问）</li>
+ * </ul>
+ * 两个条件都满足时，重新追踪得到的子树与缓存的子树完全一致。
+ * 因节点数或耗时上限而未追踪完整的子树不会缓存。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-16
+ */
+public class TraceCache {
+
+    /**
+     * 同一方法在不同访问上下文下保留的子树数量上限
+     */
+    private static final int MAX_VARIANTS = 4;
+
+    private final ProjectStructure structure;
+    private final ServiceDependencyGraph dependencyGraph;
+
+    /**
+     * key: 类名#方法签名@深度/最大深度/子调用数上限
+     */
+    private final Map<String, List<Subtree>> subtrees = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * @param structure       项目结构
+     * @param dependencyGraph 服务依赖图
+     */
+    public TraceCache(ProjectStructure structure, ServiceDependencyGraph dependencyGraph) {
+        this.structure = structure;
+        this.dependencyGraph = dependencyGraph;
+    }
+
+    /**
+     * 是否可用于指定的项目结构和依赖图
+     */
+    public boolean isBoundTo(ProjectStructure structure, ServiceDependencyGraph dependencyGraph) {
+        return this.structure == structure && this.dependencyGraph == dependencyGraph;
+    }
+
+    /**
+     * 缓存命中次数
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * 缓存未命中次数
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * 缓存的子树数量
+     */
+    public int size() {
+        return subtrees.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * 查找在当前已访问集合下可直接复用、且节点数不超过剩余预算的子树
+     */
+    Subtree lookup(String key, Set<String> visited, int remainingNodes) {
+        List<Subtree> variants = subtrees.get(key);
+        if (variants != null) {
+            for (Subtree subtree : variants) {
+                if (subtree.nodeCount <= remainingNodes && subtree.isReusable(visited)) {
+                    hitCount.incrementAndGet();
+                    return subtree;
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 保存追踪完成的子树
+     */
+    void store(String key, Subtree subtree) {
+        List<Subtree> variants = subtrees.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>());
+        if (variants.size() < MAX_VARIANTS) {
+            variants.add(subtree);
+        }
+    }
+
+    /**
+     * 调用子树及其访问足迹
+     */
+    static class Subtree {
+
+        private CallNode node;
+
+        /**
+         * 子树节点数
+         */
+        private int nodeCount;
+
+        /**
+         * 子树内是否有节点因子调用数上限被截断
+         */
+        private boolean fanOutTruncated;
+
+        /**
+         * 追踪过程中加入已访问集合的方法
+         */
+        private final Set<String> added = new HashSet<>();
+
+        /**
+         * 追踪过程中因外部已访问而被剪枝的方法
+         */
+        private final Set<String> required = new HashSet<>();
+
+        /**
+         * 判断子调用数上限是否截断时确认为未访问的方法
+         */
+        private final Set<String> unvisited = new HashSet<>();
+
+        Subtree(String methodKey) {
+            added.add(methodKey);
+        }
+
+        CallNode getNode() {
+            return node;
+        }
+
+        int getNodeCount() {
+            return nodeCount;
+        }
+
+        boolean isFanOutTruncated() {
+            return fanOutTruncated;
+        }
+
+        Set<String> getAdded() {
+            return Collections.unmodifiableSet(added);
+        }
+
+        /**
+         * 记录一次因已访问而发生的剪枝
+         */
+        void pruned(String methodKey) {
+            if (!added.contains(methodKey)) {
+                required.add(methodKey);
+            }
+        }
+
+        /**
+         * 记录一次依赖于方法未访问的判断
+         */
+        void checkedUnvisited(String methodKey) {
+            unvisited.add(methodKey);
+        }
+
+        /**
+         * 合并子调用的足迹
+         */
+        void merge(Subtree child) {
+            added.addAll(child.added);
+            for (String methodKey : child.required) {
+                pruned(methodKey);
+            }
+            unvisited.addAll(child.unvisited);
+        }
+
+        /**
+         * 完成追踪
+         */
+        void complete(CallNode node, int nodeCount, boolean fanOutTruncated) {
+            this.node = node;
+            this.nodeCount = nodeCount;
+            this.fanOutTruncated = fanOutTruncated;
+        }
+
+        boolean isReusable(Set<String> visited) {
+            for (String methodKey : added) {
+                if (visited.contains(methodKey)) {
+                    return false;
+                }
+            }
+            for (String methodKey : unvisited) {
+                if (visited.contains(methodKey)) {
+                    return false;
+                }
+            }
+            return visited.containsAll(required);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ai.opendw.koalawiki.core.analysis;
+
+import lombok.Data;
+
+/**
+ * 调用链追踪的资源上限
+ * 各项上限为0时表示不限制；达到上限时追踪提前结束，返回标记为截断的部分结果
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+public class TraceLimits {
+
+    /**
+     * 单条调用链的节点数上限
+     */
+    private int maxNodes = 0;
+
+    /**
+     * 单条调用链的追踪耗时上限（毫秒）
+     */
+    private long timeoutMillis = 0;
+
+    /**
+     * 单个节点的子调用数上限
+     */
+    private int maxFanOut = 0;
+
+    /**
+     * 不限制任何资源的上限
+     */
+    public static TraceLimits unlimited() {
+        return new TraceLimits();
+    }
+}
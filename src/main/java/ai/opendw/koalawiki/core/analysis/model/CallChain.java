@@ -3,7 +3,9 @@ package ai.opendw.koalawiki.core.analysis.model;
 import lombok.Data;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 调用链
@@ -34,6 +36,11 @@ public class CallChain {
      */
     private List<CallNode> nodes = new ArrayList<>();
 
+    /**
+     * 截断原因（为空表示追踪完整）
+     */
+    private Set<TraceTruncation> truncations = EnumSet.noneOf(TraceTruncation.class);
+
     /**
      * 添加节点
      */
@@ -41,6 +48,13 @@ public class CallChain {
         this.nodes.add(node);
     }
 
+    /**
+     * 是否因达到追踪上限而只包含部分结果
+     */
+    public boolean isTruncated() {
+        return !truncations.isEmpty();
+    }
+
     /**
      * 获取调用链深度
      */
@@ -0,0 +1,634 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预计算调用图（不可变）
+ * 每个方法内调用在构建时解析一次：本地调用解析为目标方法ID，经Dubbo/Feign字段发起的调用记录字段名，
+ * 无法解析的调用直接丢弃。调用边以CSR形式存放在int数组中，可写入文件后按只读方式映射到内存，
+ * 多个追踪线程共享同一份调用图。
+ *
+ * <p>文件格式（大端）：头部 {@code [魔数, 版本, 字符串数, 类数, 方法数, 调用边数]}，
+ * 随后是int区（类名、类的方法起始位置、方法所属类、方法名、方法签名、循环检测键、
+ * 方法的调用边起始位置、调用目标、远程字段），最后是字符串表（长度 + UTF-8字节）。
+ * 字符串表在映射时解码到堆内，int区直接使用映射内存。</p>
+ *
+ * <p>可达性查询（按层遍历、最短路径）只沿本地调用边进行，已访问集合使用位图，
+ * 反向查询用到的入边数组在首次使用时生成并常驻堆内。</p>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public final class CallGraph {
+
+    /**
+     * 文件魔数 "KWCG"
+     */
+    private static final int MAGIC = 0x4B574347;
+
+    /**
+     * 文件格式版本号，调用解析规则或格式变化时递增
+     */
+    public static final int SCHEMA_VERSION = 3;
+
+    /**
+     * 无目标方法 / 非远程调用
+     */
+    public static final int NONE = -1;
+
+    private static final int HEADER_INTS = 6;
+
+    private final String[] strings;
+    private final int classCount;
+    private final int methodCount;
+    private final int edgeCount;
+
+    /**
+     * int区，各段按类数、方法数、调用边数依次排列
+     */
+    private final IntBuffer ints;
+
+    private final int classNameBase;
+    private final int classMethodBase;
+    private final int methodClassBase;
+    private final int methodNameBase;
+    private final int methodSignatureBase;
+    private final int methodVisitKeyBase;
+    private final int edgeStartBase;
+    private final int edgeTargetBase;
+    private final int edgeRemoteBase;
+
+    /**
+     * 全限定类名 -> 类ID（延迟构建）
+     */
+    private volatile Map<String, Integer> classIds;
+
+    /**
+     * 本地调用入边（CSR，延迟构建）：调用方法i的方法为 callers[callerOffsets[i] .. callerOffsets[i+1])
+     */
+    private volatile int[] callerOffsets;
+    private volatile int[] callers;
+
+    private CallGraph(String[] strings, int classCount, int methodCount, int edgeCount, IntBuffer ints) {
+        this.strings = strings;
+        this.classCount = classCount;
+        this.methodCount = methodCount;
+        this.edgeCount = edgeCount;
+        this.ints = ints;
+        this.classNameBase = 0;
+        this.classMethodBase = classNameBase + classCount;
+        this.methodClassBase = classMethodBase + classCount + 1;
+        this.methodNameBase = methodClassBase + methodCount;
+        this.methodSignatureBase = methodNameBase + methodCount;
+        this.methodVisitKeyBase = methodSignatureBase + methodCount;
+        this.edgeStartBase = methodVisitKeyBase + methodCount;
+        this.edgeTargetBase = edgeStartBase + methodCount + 1;
+        this.edgeRemoteBase = edgeTargetBase + edgeCount;
+    }
+
+    private static int intCount(int classCount, int methodCount, int edgeCount) {
+        return 2 * classCount + 1 + 5 * methodCount + 1 + 2 * edgeCount;
+    }
+
+    // ===== 构建 =====
+
+    /**
+     * 根据项目结构构建调用图
+     * 字段带有Dubbo/Feign注解时记录为远程调用，本地目标按作用域类型解析（见 {@link CallResolver}），
+     * 远程依赖不存在时回退为本地调用
+     *
+     * @param structure 项目结构
+     * @return 调用图
+     */
+    public static CallGraph build(ProjectStructure structure) {
+        ProjectIndex index = structure.getIndex();
+        CallResolver resolver = new CallResolver(index, structure.getClasses());
+        List<ClassInfo> classes = new ArrayList<>(structure.getClasses().values());
+
+        Map<MethodInfo, Integer> methodIds = new IdentityHashMap<>();
+        for (ClassInfo classInfo : classes) {
+            for (MethodInfo method : classInfo.getMethods()) {
+                methodIds.put(method, methodIds.size());
+            }
+        }
+
+        StringTable table = new StringTable();
+        int classCount = classes.size();
+        int methodCount = methodIds.size();
+        int[] classNames = new int[classCount];
+        int[] classMethods = new int[classCount + 1];
+        int[] methodClass = new int[methodCount];
+        int[] methodName = new int[methodCount];
+        int[] methodSignature = new int[methodCount];
+        int[] methodVisitKey = new int[methodCount];
+        int[] edgeStart = new int[methodCount + 1];
+        IntList edgeTargets = new IntList();
+        IntList edgeRemotes = new IntList();
+
+        int m = 0;
+        for (int c = 0; c < classCount; c++) {
+            ClassInfo classInfo = classes.get(c);
+            String className = classInfo.getFullClassName();
+            classNames[c] = table.id(className);
+            classMethods[c] = m;
+
+            for (MethodInfo method : classInfo.getMethods()) {
+                methodClass[m] = c;
+                methodName[m] = table.id(method.getName());
+                methodSignature[m] = table.id(method.getSignature());
+                methodVisitKey[m] = table.id(className + "." + method.getName());
+                edgeStart[m] = edgeTargets.size();
+
+                List<String> calls = method.getCalledMethods();
+                List<MethodInfo> resolved = resolver.resolveAll(classInfo, method);
+                for (int i = 0; i < calls.size(); i++) {
+                    String calledMethod = calls.get(i);
+                    int remote = NONE;
+                    String[] parts = calledMethod.split("\\.");
+                    if (parts.length >= 2 && isRemoteField(index.findField(className, parts[0]))) {
+                        remote = table.id(parts[0]);
+                    }
+
+                    MethodInfo resolvedMethod = resolved.get(i);
+                    int target = resolvedMethod != null && index.findOwner(resolvedMethod) != null
+                            ? methodIds.get(resolvedMethod) : NONE;
+
+                    if (remote != NONE || target != NONE) {
+                        edgeTargets.add(target);
+                        edgeRemotes.add(remote);
+                    }
+                }
+                m++;
+            }
+        }
+        classMethods[classCount] = m;
+        edgeStart[methodCount] = edgeTargets.size();
+
+        int edgeCount = edgeTargets.size();
+        int[] data = new int[intCount(classCount, methodCount, edgeCount)];
+        int pos = 0;
+        pos = copy(classNames, data, pos);
+        pos = copy(classMethods, data, pos);
+        pos = copy(methodClass, data, pos);
+        pos = copy(methodName, data, pos);
+        pos = copy(methodSignature, data, pos);
+        pos = copy(methodVisitKey, data, pos);
+        pos = copy(edgeStart, data, pos);
+        pos = edgeTargets.copyTo(data, pos);
+        edgeRemotes.copyTo(data, pos);
+
+        return new CallGraph(table.toArray(), classCount, methodCount, edgeCount, IntBuffer.wrap(data));
+    }
+
+    /**
+     * 从方法调用中提取方法名（简化处理：取最后一段并移除参数部分）
+     */
+    public static String calledMethodName(String methodCall) {
+        String[] parts = methodCall.split("\\.");
+        String methodName = parts[parts.length - 1];
+
+        if (methodName.contains("(")) {
+            methodName = methodName.substring(0, methodName.indexOf("("));
+        }
+        return methodName;
+    }
+
+    private static boolean isRemoteField(FieldInfo field) {
+        return field != null && (field.hasAnnotation("Reference")
+                || field.hasAnnotation("DubboReference")
+                || field.hasAnnotation("FeignClient"));
+    }
+
+    private static int copy(int[] source, int[] target, int pos) {
+        System.arraycopy(source, 0, target, pos, source.length);
+        return pos + source.length;
+    }
+
+    // ===== 读写 =====
+
+    /**
+     * 写出调用图
+     *
+     * @param output 输出流（调用方负责关闭）
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeInt(SCHEMA_VERSION);
+        out.writeInt(strings.length);
+        out.writeInt(classCount);
+        out.writeInt(methodCount);
+        out.writeInt(edgeCount);
+
+        int total = intCount(classCount, methodCount, edgeCount);
+        for (int i = 0; i < total; i++) {
+            out.writeInt(ints.get(i));
+        }
+        for (String value : strings) {
+            if (value == null) {
+                out.writeInt(NONE);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 以只读方式映射调用图文件
+     *
+     * @param file 调用图文件
+     * @return 调用图，int区直接引用映射内存
+     * @throws IOException 文件不可读、魔数或版本不匹配、长度不完整
+     */
+    public static CallGraph map(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("调用图文件魔数不匹配: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != SCHEMA_VERSION) {
+                throw new IOException("调用图文件版本不匹配: " + version);
+            }
+            int stringCount = buffer.getInt();
+            int classCount = buffer.getInt();
+            int methodCount = buffer.getInt();
+            int edgeCount = buffer.getInt();
+
+            int total = intCount(classCount, methodCount, edgeCount);
+            // 通过Buffer调用position/limit，避免链接到JDK 9+新增的协变重载
+            ByteBuffer intRegion = buffer.duplicate();
+            ((Buffer) intRegion).position(HEADER_INTS * 4);
+            ((Buffer) intRegion).limit(HEADER_INTS * 4 + total * 4);
+            IntBuffer ints = intRegion.slice().asIntBuffer();
+
+            ((Buffer) buffer).position(HEADER_INTS * 4 + total * 4);
+            String[] strings = new String[stringCount];
+            for (int i = 0; i < stringCount; i++) {
+                int length = buffer.getInt();
+                if (length != NONE) {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    strings[i] = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return new CallGraph(strings, classCount, methodCount, edgeCount, ints);
+        } catch (RuntimeException e) {
+            throw new IOException("调用图文件不完整: " + file, e);
+        }
+    }
+
+    // ===== 查询 =====
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public int getMethodCount() {
+        return methodCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * 类是否存在
+     */
+    public boolean hasClass(String fullClassName) {
+        return classIds().containsKey(fullClassName);
+    }
+
+    /**
+     * 在类中按方法名查找方法（取声明顺序中的第一个）
+     *
+     * @return 方法ID，类或方法不存在时返回 {@link #NONE}
+     */
+    public int findMethod(String fullClassName, String methodName) {
+        Integer classId = classIds().get(fullClassName);
+        if (classId == null) {
+            return NONE;
+        }
+        int end = ints.get(classMethodBase + classId + 1);
+        for (int m = ints.get(classMethodBase + classId); m < end; m++) {
+            if (methodName.equals(string(ints.get(methodNameBase + m)))) {
+                return m;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * 类中指定名称的所有方法（含重载，按声明顺序）
+     *
+     * @return 方法ID数组，类或方法不存在时返回空数组
+     */
+    public int[] findMethods(String fullClassName, String methodName) {
+        Integer classId = classIds().get(fullClassName);
+        if (classId == null) {
+            return new int[0];
+        }
+        int start = ints.get(classMethodBase + classId);
+        int end = ints.get(classMethodBase + classId + 1);
+        int[] matched = new int[end - start];
+        int count = 0;
+        for (int m = start; m < end; m++) {
+            if (methodName.equals(string(ints.get(methodNameBase + m)))) {
+                matched[count++] = m;
+            }
+        }
+        return Arrays.copyOf(matched, count);
+    }
+
+    /**
+     * 方法所属类的全限定名
+     */
+    public String getClassName(int method) {
+        return string(ints.get(classNameBase + ints.get(methodClassBase + method)));
+    }
+
+    public String getMethodName(int method) {
+        return string(ints.get(methodNameBase + method));
+    }
+
+    public String getSignature(int method) {
+        return string(ints.get(methodSignatureBase + method));
+    }
+
+    /**
+     * 循环检测键（类名.方法名，重载方法共用）
+     */
+    public String getVisitKey(int method) {
+        return string(ints.get(methodVisitKeyBase + method));
+    }
+
+    /**
+     * 方法的第一条调用边
+     */
+    public int edgeStart(int method) {
+        return ints.get(edgeStartBase + method);
+    }
+
+    /**
+     * 方法最后一条调用边之后的位置
+     */
+    public int edgeEnd(int method) {
+        return ints.get(edgeStartBase + method + 1);
+    }
+
+    /**
+     * 调用边的本地目标方法
+     *
+     * @return 方法ID，无本地目标时返回 {@link #NONE}
+     */
+    public int edgeTarget(int edge) {
+        return ints.get(edgeTargetBase + edge);
+    }
+
+    /**
+     * 调用边经由的远程调用字段
+     *
+     * @return 字段名，非远程调用时返回null
+     */
+    public String edgeRemoteField(int edge) {
+        return string(ints.get(edgeRemoteBase + edge));
+    }
+
+    // ===== 可达性 =====
+
+    /**
+     * 从一组方法出发按层广度优先遍历本地调用边
+     *
+     * @param sources  起点方法
+     * @param reverse  为true时沿调用方向反向遍历（谁调用了起点）
+     * @param maxDepth 最大层数，0表示不限制
+     * @return 每层新到达的方法，第0层为起点
+     */
+    public List<BitSet> reachLevels(int[] sources, boolean reverse, int maxDepth) {
+        int[] offsets = reverse ? callerOffsets() : null;
+        int[] adjacent = reverse ? callers : null;
+
+        BitSet visited = new BitSet(methodCount);
+        BitSet frontier = new BitSet(methodCount);
+        for (int source : sources) {
+            frontier.set(source);
+        }
+        visited.or(frontier);
+
+        List<BitSet> levels = new ArrayList<>();
+        levels.add(frontier);
+        while (!frontier.isEmpty() && (maxDepth <= 0 || levels.size() <= maxDepth)) {
+            BitSet next = new BitSet(methodCount);
+            for (int m = frontier.nextSetBit(0); m >= 0; m = frontier.nextSetBit(m + 1)) {
+                int start = reverse ? offsets[m] : edgeStart(m);
+                int end = reverse ? offsets[m + 1] : edgeEnd(m);
+                for (int i = start; i < end; i++) {
+                    int neighbor = reverse ? adjacent[i] : edgeTarget(i);
+                    if (neighbor != NONE && !visited.get(neighbor)) {
+                        visited.set(neighbor);
+                        next.set(neighbor);
+                    }
+                }
+            }
+            if (next.isEmpty()) {
+                break;
+            }
+            levels.add(next);
+            frontier = next;
+        }
+        return levels;
+    }
+
+    /**
+     * 两组方法之间沿本地调用边的最短调用路径
+     *
+     * @param sources  起点方法
+     * @param targets  终点方法
+     * @param maxDepth 最大路径长度（调用次数），0表示不限制
+     * @return 路径上的方法ID（含起点和终点），不可达时返回空数组
+     */
+    public int[] shortestPath(int[] sources, int[] targets, int maxDepth) {
+        BitSet goal = new BitSet(methodCount);
+        for (int target : targets) {
+            goal.set(target);
+        }
+        int[] parent = new int[methodCount];
+        Arrays.fill(parent, NONE);
+        BitSet visited = new BitSet(methodCount);
+        int[] queue = new int[methodCount];
+        int head = 0;
+        int tail = 0;
+        for (int source : sources) {
+            if (!visited.get(source)) {
+                visited.set(source);
+                queue[tail++] = source;
+            }
+        }
+
+        int depth = 0;
+        while (head < tail) {
+            int levelEnd = tail;
+            for (; head < levelEnd; head++) {
+                int m = queue[head];
+                if (goal.get(m)) {
+                    return path(parent, m);
+                }
+                if (maxDepth > 0 && depth >= maxDepth) {
+                    continue;
+                }
+                for (int i = edgeStart(m); i < edgeEnd(m); i++) {
+                    int next = edgeTarget(i);
+                    if (next != NONE && !visited.get(next)) {
+                        visited.set(next);
+                        parent[next] = m;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            depth++;
+        }
+        return new int[0];
+    }
+
+    private static int[] path(int[] parent, int end) {
+        int length = 1;
+        for (int m = end; parent[m] != NONE; m = parent[m]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int m = end, i = length - 1; i >= 0; m = parent[m], i--) {
+            path[i] = m;
+        }
+        return path;
+    }
+
+    /**
+     * 生成本地调用入边（计数后按方法顺序填充）
+     */
+    private int[] callerOffsets() {
+        int[] offsets = callerOffsets;
+        if (offsets == null) {
+            synchronized (this) {
+                offsets = callerOffsets;
+                if (offsets == null) {
+                    offsets = new int[methodCount + 1];
+                    for (int e = 0; e < edgeCount; e++) {
+                        int target = edgeTarget(e);
+                        if (target != NONE) {
+                            offsets[target + 1]++;
+                        }
+                    }
+                    for (int m = 0; m < methodCount; m++) {
+                        offsets[m + 1] += offsets[m];
+                    }
+                    int[] fill = Arrays.copyOf(offsets, methodCount);
+                    int[] sources = new int[offsets[methodCount]];
+                    for (int m = 0; m < methodCount; m++) {
+                        for (int e = edgeStart(m); e < edgeEnd(m); e++) {
+                            int target = edgeTarget(e);
+                            if (target != NONE) {
+                                sources[fill[target]++] = m;
+                            }
+                        }
+                    }
+                    callers = sources;
+                    callerOffsets = offsets;
+                }
+            }
+        }
+        return offsets;
+    }
+
+    private String string(int id) {
+        return id == NONE ? null : strings[id];
+    }
+
+    private Map<String, Integer> classIds() {
+        Map<String, Integer> current = classIds;
+        if (current == null) {
+            current = new HashMap<>(classCount * 2);
+            for (int c = 0; c < classCount; c++) {
+                current.putIfAbsent(strings[ints.get(classNameBase + c)], c);
+            }
+            classIds = current;
+        }
+        return current;
+    }
+
+    /**
+     * 字符串表（构建时去重）
+     */
+    private static final class StringTable {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value) {
+            if (value == null) {
+                return NONE;
+            }
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+
+        String[] toArray() {
+            return values.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * 可增长的int列表
+     */
+    private static final class IntList {
+
+        private int[] values = new int[256];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                int[] grown = new int[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int copyTo(int[] target, int pos) {
+            System.arraycopy(values, 0, target, pos, size);
+            return pos + size;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 方法调用解析器
+ * 先确定调用作用域的类型，再在该类型中查找方法：
+ * <ul>
+ *   <li>作用域类型依次取局部变量和参数、当前类及父类的字段（构造器注入的依赖同样落在字段上）、
+ *       类名（静态调用）；无作用域或this时为当前类，super时为父类；字段链逐段按字段类型解析</li>
+ *   <li>无作用域的调用在当前类及父类中找不到时，按静态导入（单个方法或通配符）查找</li>
+ *   <li>类型为接口时优先取实现类中的方法，没有实现类时取接口方法本身；类型为类时沿父类链查找</li>
+ *   <li>作用域类型不在项目内（如List、Logger）或类型中没有该方法时不产生调用目标</li>
+ *   <li>作用域无法静态确定类型（方法调用链、未声明类型的lambda参数等）时，
+ *       退回按方法简单名取第一个同名方法</li>
+ * </ul>
+ * 同一类型上的同名方法只解析一次。非线程安全，每次构建调用图或补全方法体时各自创建。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public final class CallResolver {
+
+    /**
+     * 标识符链（a、a.b、com.foo.Bar）
+     */
+    private static final Pattern NAME_CHAIN = Pattern.compile("[A-Za-z_$][\\w$]*(\\.[A-Za-z_$][\\w$]*)*");
+
+    /**
+     * 父类链的最大长度（防止错误的继承声明成环）
+     */
+    private static final int MAX_HIERARCHY_DEPTH = 16;
+
+    /**
+     * 作用域类型在项目外
+     */
+    private static final ClassInfo EXTERNAL = new ClassInfo();
+
+    private final ProjectIndex index;
+    private final Map<String, ClassInfo> classes;
+
+    /**
+     * 类型全限定名#方法名 -> 目标方法（不存在时为null）
+     */
+    private final Map<String, MethodInfo> targets = new HashMap<>();
+
+    /**
+     * @param index   项目查找索引
+     * @param classes 全限定类名 -> 类信息（与索引来自同一组类）
+     */
+    public CallResolver(ProjectIndex index, Map<String, ClassInfo> classes) {
+        this.index = index;
+        this.classes = classes;
+    }
+
+    /**
+     * 解析方法内的所有调用
+     *
+     * @param caller 调用方所属类
+     * @param method 调用方方法
+     * @return 与 {@link MethodInfo#getCalledMethods()} 一一对应的目标方法，无法解析的位置为null
+     */
+    public List<MethodInfo> resolveAll(ClassInfo caller, MethodInfo method) {
+        List<String> calls = method.getCalledMethods();
+        if (calls.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, String> locals = localTypes(method);
+        List<MethodInfo> result = new ArrayList<>(calls.size());
+        for (String call : calls) {
+            result.add(resolve(caller, locals, call));
+        }
+        return result;
+    }
+
+    private MethodInfo resolve(ClassInfo caller, Map<String, String> locals, String call) {
+        String methodName = CallGraph.calledMethodName(call);
+        int dot = call.lastIndexOf('.');
+        ClassInfo scopeType = dot < 0 ? caller : scopeType(caller, locals, call.substring(0, dot));
+
+        if (scopeType == null) {
+            List<MethodInfo> candidates = index.findMethodsByName(methodName);
+            return candidates.isEmpty() ? null : candidates.get(0);
+        }
+        if (scopeType == EXTERNAL) {
+            return null;
+        }
+        MethodInfo target = findInType(scopeType, methodName);
+        if (target == null && dot < 0) {
+            target = findStaticImport(caller, methodName);
+        }
+        return target;
+    }
+
+    /**
+     * 在静态导入的项目内类中查找方法，单个方法的导入优先于通配符导入
+     */
+    private MethodInfo findStaticImport(ClassInfo caller, String methodName) {
+        List<String> imports = caller.getStaticImports();
+        if (imports.isEmpty()) {
+            return null;
+        }
+        String single = "." + methodName;
+        for (String imported : imports) {
+            if (imported.endsWith(single)) {
+                ClassInfo type = classes.get(imported.substring(0, imported.length() - single.length()));
+                MethodInfo target = type != null ? findInHierarchy(type, methodName) : null;
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+        for (String imported : imports) {
+            if (imported.endsWith(".*")) {
+                ClassInfo type = classes.get(imported.substring(0, imported.length() - 2));
+                MethodInfo target = type != null ? findInHierarchy(type, methodName) : null;
+                if (target != null) {
+                    return target;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 确定调用作用域的类型
+     *
+     * @return 项目内的类；作用域类型在项目外时返回 {@link #EXTERNAL}；无法确定时返回null
+     */
+    private ClassInfo scopeType(ClassInfo caller, Map<String, String> locals, String scope) {
+        if (!NAME_CHAIN.matcher(scope).matches()) {
+            return null;
+        }
+        String[] segments = scope.split("\\.");
+
+        ClassInfo current;
+        String first = segments[0];
+        if ("this".equals(first)) {
+            current = caller;
+        } else if ("super".equals(first)) {
+            current = orExternal(superClass(caller));
+        } else if (locals.containsKey(first)) {
+            current = orExternal(findClass(locals.get(first), caller));
+        } else {
+            FieldInfo field = findField(caller, first);
+            if (field != null) {
+                current = fieldType(field, caller);
+            } else if (Character.isUpperCase(first.charAt(0))) {
+                current = orExternal(findClass(first, caller));
+            } else {
+                // 可能是全限定类名（com.foo.Bar）
+                return findQualifiedClass(segments);
+            }
+        }
+
+        for (int i = 1; i < segments.length && current != EXTERNAL; i++) {
+            FieldInfo field = findField(current, segments[i]);
+            if (field == null) {
+                return EXTERNAL;
+            }
+            current = fieldType(field, current);
+        }
+        return current;
+    }
+
+    /**
+     * 在类型中查找方法：接口优先取实现类中的方法，类沿父类链查找
+     */
+    private MethodInfo findInType(ClassInfo type, String methodName) {
+        String key = type.getFullClassName() + "#" + methodName;
+        if (targets.containsKey(key)) {
+            return targets.get(key);
+        }
+
+        MethodInfo target = null;
+        if (type.isInterface()) {
+            for (ClassInfo implementation : index.findImplementations(type.getClassName())) {
+                target = findInHierarchy(implementation, methodName);
+                if (target != null) {
+                    break;
+                }
+            }
+        }
+        if (target == null) {
+            target = findInHierarchy(type, methodName);
+        }
+        targets.put(key, target);
+        return target;
+    }
+
+    private MethodInfo findInHierarchy(ClassInfo type, String methodName) {
+        ClassInfo current = type;
+        for (int depth = 0; current != null && depth < MAX_HIERARCHY_DEPTH; depth++) {
+            for (MethodInfo method : current.getMethods()) {
+                if (method.getName().equals(methodName)) {
+                    return method;
+                }
+            }
+            current = superClass(current);
+        }
+        return null;
+    }
+
+    private FieldInfo findField(ClassInfo type, String fieldName) {
+        ClassInfo current = type;
+        for (int depth = 0; current != null && depth < MAX_HIERARCHY_DEPTH; depth++) {
+            FieldInfo field = index.findField(current.getFullClassName(), fieldName);
+            if (field != null) {
+                return field;
+            }
+            current = superClass(current);
+        }
+        return null;
+    }
+
+    private ClassInfo fieldType(FieldInfo field, ClassInfo owner) {
+        if (field.getResolvedType() != null) {
+            ClassInfo resolved = classes.get(field.getResolvedType());
+            return resolved != null ? resolved : EXTERNAL;
+        }
+        return orExternal(findClass(field.getType(), owner));
+    }
+
+    private ClassInfo superClass(ClassInfo type) {
+        return type.getSuperClass() != null ? findClass(type.getSuperClass(), type) : null;
+    }
+
+    private ClassInfo findQualifiedClass(String[] segments) {
+        StringBuilder name = new StringBuilder(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            name.append('.').append(segments[i]);
+            if (Character.isUpperCase(segments[i].charAt(0))) {
+                ClassInfo type = classes.get(name.toString());
+                if (type == null) {
+                    return EXTERNAL;
+                }
+                // 全限定类名之后仍有字段访问的写法较少见，按无法确定处理
+                return i == segments.length - 1 ? type : null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按类型名查找项目内的类
+     * 去掉泛型参数后，全限定名直接匹配；简单名有多个同名类时优先取与引用方同包的类
+     *
+     * @return 类信息，数组或不在项目内时返回null
+     */
+    private ClassInfo findClass(String typeName, ClassInfo context) {
+        if (typeName == null) {
+            return null;
+        }
+        int generic = typeName.indexOf('<');
+        String name = (generic >= 0 ? typeName.substring(0, generic) : typeName).trim();
+        if (name.isEmpty() || name.endsWith("]") || name.endsWith("...")) {
+            return null;
+        }
+        if (name.indexOf('.') >= 0) {
+            ClassInfo type = classes.get(name);
+            if (type != null) {
+                return type;
+            }
+            name = name.substring(name.lastIndexOf('.') + 1);
+        }
+
+        List<ClassInfo> candidates = index.findClassesBySimpleName(name);
+        if (candidates.size() > 1 && context.getPackageName() != null) {
+            for (ClassInfo candidate : candidates) {
+                if (context.getPackageName().equals(candidate.getPackageName())) {
+                    return candidate;
+                }
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    private static ClassInfo orExternal(ClassInfo type) {
+        return type != null ? type : EXTERNAL;
+    }
+
+    /**
+     * 参数和局部变量的声明类型（变量名 -> 类型；同名变量取先声明的）
+     */
+    private static Map<String, String> localTypes(MethodInfo method) {
+        Map<String, String> locals = new HashMap<>();
+        addDeclarations(locals, method.getParameters());
+        addDeclarations(locals, method.getLocalVariables());
+        return locals;
+    }
+
+    private static void addDeclarations(Map<String, String> locals, List<String> declarations) {
+        for (String declaration : declarations) {
+            int space = declaration.lastIndexOf(' ');
+            if (space > 0) {
+                locals.putIfAbsent(declaration.substring(space + 1), declaration.substring(0, space));
+            }
+        }
+    }
+}
@@ -54,6 +54,11 @@ public class ClassInfo {
      */
     private List<String> interfaces = new ArrayList<>();
 
+    /**
+     * 静态导入（com.foo.Util.method 或 com.foo.Util.*）
+     */
+    private List<String> staticImports = new ArrayList<>();
+
     /**
      * 是否是接口
      */
@@ -69,10 +74,16 @@ public class ClassInfo {
      */
     private String filePath;
 
+    /**
+     * 是否仅解析了声明（方法体未解析，方法的calledMethods为空）
+     */
+    private boolean declarationOnly;
+
     /**
      * 添加注解
      */
     public void addAnnotation(AnnotationInfo annotation) {
+        this.annotations = ModelLists.writable(this.annotations);
         this.annotations.add(annotation);
     }
 
@@ -80,6 +91,7 @@ public class ClassInfo {
      * 添加字段
      */
     public void addField(FieldInfo field) {
+        this.fields = ModelLists.writable(this.fields);
         this.fields.add(field);
     }
 
@@ -87,9 +99,26 @@ public class ClassInfo {
      * 添加方法
      */
     public void addMethod(MethodInfo method) {
+        this.methods = ModelLists.writable(this.methods);
         this.methods.add(method);
     }
 
+    /**
+     * 添加实现的接口
+     */
+    public void addInterface(String interfaceName) {
+        this.interfaces = ModelLists.writable(this.interfaces);
+        this.interfaces.add(interfaceName);
+    }
+
+    /**
+     * 添加静态导入
+     */
+    public void addStaticImport(String staticImport) {
+        this.staticImports = ModelLists.writable(this.staticImports);
+        this.staticImports.add(staticImport);
+    }
+
     /**
      * 检查是否有指定注解
      */
@@ -0,0 +1,528 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 入口点倒排索引（不可变）
+ * 以入口点为文档、以词元为索引项，供关键词搜索快速召回候选入口点并计算BM25相关度：
+ * <ul>
+ *   <li>词元：各字段按非字母数字字符切分为片段，片段再按驼峰切分，统一小写；
+ *       片段整体也作为词元，保证"子串包含"的匹配语义可以通过词表召回</li>
+ *   <li>词表：词元 -> 入口点列表，另建三元组 -> 词元索引，用于按子串查找词元</li>
+ *   <li>文档：保存小写后的各字段原文，用于按原有规则校验候选并生成匹配原因</li>
+ * </ul>
+ * 项目增量更新时，未变化入口点的文档直接复用，只为新增入口点切分词元。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public final class EntryPointIndex {
+
+    /**
+     * 索引字段
+     */
+    public enum Field {
+        CLASS_NAME, METHOD_NAME, PATH, DESCRIPTION, ANNOTATION, METHOD_ANNOTATION
+    }
+
+    private static final int FIELD_COUNT = Field.values().length;
+
+    private final List<Document> documents;
+
+    /**
+     * 词表（词元编号 -> 词元）
+     */
+    private final String[] terms;
+
+    /**
+     * 词元 -> 词元编号
+     */
+    private final Map<String, Integer> termIds;
+
+    /**
+     * 词元编号 -> 包含该词元的文档编号（升序）
+     */
+    private final int[][] postings;
+
+    /**
+     * 三元组 -> 包含该三元组的词元编号（升序）
+     */
+    private final Map<String, int[]> trigrams;
+
+    /**
+     * 各字段的平均词元数
+     */
+    private final double[] averageFieldLengths;
+
+    private EntryPointIndex(List<Document> documents, String[] terms, Map<String, Integer> termIds,
+                            int[][] postings, Map<String, int[]> trigrams, double[] averageFieldLengths) {
+        this.documents = documents;
+        this.terms = terms;
+        this.termIds = termIds;
+        this.postings = postings;
+        this.trigrams = trigrams;
+        this.averageFieldLengths = averageFieldLengths;
+    }
+
+    /**
+     * 根据项目结构构建索引
+     *
+     * @param structure 项目结构
+     * @return 索引
+     */
+    public static EntryPointIndex build(ProjectStructure structure) {
+        return build(structure, Collections.emptyMap());
+    }
+
+    /**
+     * 基于当前索引为新版本的项目结构构建索引
+     * 入口点及其所属类均未变化（同一对象）时复用原文档
+     *
+     * @param structure 新版本的项目结构
+     * @return 新索引
+     */
+    public EntryPointIndex update(ProjectStructure structure) {
+        Map<EntryPoint, Document> reusable = new IdentityHashMap<>(documents.size() * 2);
+        for (Document document : documents) {
+            reusable.put(document.entryPoint, document);
+        }
+        return build(structure, reusable);
+    }
+
+    private static EntryPointIndex build(ProjectStructure structure, Map<EntryPoint, Document> reusable) {
+        List<Document> documents = new ArrayList<>(structure.getEntryPoints().size());
+        for (EntryPoint entryPoint : structure.getEntryPoints()) {
+            ClassInfo classInfo = structure.getClasses().get(entryPoint.getClassName());
+            if (classInfo == null) {
+                continue;
+            }
+            Document document = reusable.get(entryPoint);
+            if (document == null || document.classInfo != classInfo) {
+                document = new Document(entryPoint, classInfo);
+            }
+            documents.add(document);
+        }
+
+        Map<String, Integer> termIds = new HashMap<>();
+        List<List<Integer>> postingLists = new ArrayList<>();
+        long[] fieldLengthSums = new long[FIELD_COUNT];
+        for (int docId = 0; docId < documents.size(); docId++) {
+            Document document = documents.get(docId);
+            for (String term : document.termFrequencies.keySet()) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    termId = postingLists.size();
+                    termIds.put(term, termId);
+                    postingLists.add(new ArrayList<>());
+                }
+                postingLists.get(termId).add(docId);
+            }
+            for (int f = 0; f < FIELD_COUNT; f++) {
+                fieldLengthSums[f] += document.fieldLengths[f];
+            }
+        }
+
+        String[] terms = new String[termIds.size()];
+        int[][] postings = new int[termIds.size()][];
+        for (Map.Entry<String, Integer> e : termIds.entrySet()) {
+            terms[e.getValue()] = e.getKey();
+            postings[e.getValue()] = toArray(postingLists.get(e.getValue()));
+        }
+
+        Map<String, List<Integer>> trigramLists = new HashMap<>();
+        for (int termId = 0; termId < terms.length; termId++) {
+            String term = terms[termId];
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i + 3 <= term.length(); i++) {
+                String trigram = term.substring(i, i + 3);
+                if (seen.add(trigram)) {
+                    trigramLists.computeIfAbsent(trigram, k -> new ArrayList<>()).add(termId);
+                }
+            }
+        }
+        Map<String, int[]> trigrams = new HashMap<>(trigramLists.size() * 2);
+        for (Map.Entry<String, List<Integer>> e : trigramLists.entrySet()) {
+            trigrams.put(e.getKey(), toArray(e.getValue()));
+        }
+
+        double[] averageFieldLengths = new double[FIELD_COUNT];
+        for (int f = 0; f < FIELD_COUNT; f++) {
+            averageFieldLengths[f] = documents.isEmpty() ? 0 : (double) fieldLengthSums[f] / documents.size();
+        }
+
+        return new EntryPointIndex(Collections.unmodifiableList(documents), terms,
+                termIds, postings, trigrams, averageFieldLengths);
+    }
+
+    /**
+     * 文档数量
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * 获取文档
+     */
+    public Document getDocument(int docId) {
+        return documents.get(docId);
+    }
+
+    /**
+     * 获取词元
+     */
+    public String getTerm(int termId) {
+        return terms[termId];
+    }
+
+    /**
+     * 包含指定词元的文档数
+     */
+    public int getDocumentFrequency(int termId) {
+        return postings[termId].length;
+    }
+
+    /**
+     * 字段的平均词元数
+     */
+    public double getAverageFieldLength(Field field) {
+        return averageFieldLengths[field.ordinal()];
+    }
+
+    /**
+     * 查找包含指定片段（小写）的词元
+     * 片段长度不小于3时先按三元组求交集缩小范围，否则扫描词表
+     *
+     * @param fragment 小写片段
+     * @return 词元编号（升序）
+     */
+    public int[] findTermsContaining(String fragment) {
+        if (fragment.length() < 3) {
+            int[] matched = new int[terms.length];
+            int count = 0;
+            for (int termId = 0; termId < terms.length; termId++) {
+                if (terms[termId].contains(fragment)) {
+                    matched[count++] = termId;
+                }
+            }
+            return Arrays.copyOf(matched, count);
+        }
+
+        int[] candidates = null;
+        for (int i = 0; i + 3 <= fragment.length(); i++) {
+            int[] termList = trigrams.get(fragment.substring(i, i + 3));
+            if (termList == null) {
+                return new int[0];
+            }
+            candidates = candidates == null ? termList : intersect(candidates, termList);
+            if (candidates.length == 0) {
+                return candidates;
+            }
+        }
+        if (fragment.length() == 3) {
+            return candidates;
+        }
+
+        int[] matched = new int[candidates.length];
+        int count = 0;
+        for (int termId : candidates) {
+            if (terms[termId].contains(fragment)) {
+                matched[count++] = termId;
+            }
+        }
+        return Arrays.copyOf(matched, count);
+    }
+
+    /**
+     * 查找精确匹配的词元
+     *
+     * @return 词元编号，不存在时返回-1
+     */
+    public int findTerm(String term) {
+        Integer termId = termIds.get(term);
+        return termId == null ? -1 : termId;
+    }
+
+    /**
+     * 将词元的文档列表并入集合
+     */
+    public void collectDocuments(int termId, BitSet target) {
+        for (int docId : postings[termId]) {
+            target.set(docId);
+        }
+    }
+
+    /**
+     * 按非字母数字字符切分并小写，得到片段
+     * 关键词的片段都包含于某个词元时，字段才可能包含该关键词
+     *
+     * @param text 文本
+     * @return 小写片段列表
+     */
+    public static List<String> fragments(String text) {
+        List<String> fragments = new ArrayList<>();
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                fragments.add(text.substring(start, i).toLowerCase());
+            }
+        }
+        return fragments;
+    }
+
+    /**
+     * 切分为小写词元（片段再按驼峰切分）
+     *
+     * @param text 文本
+     * @return 词元列表（按出现顺序，可重复）
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, tokens, null);
+        return tokens;
+    }
+
+    /**
+     * 切分词元
+     *
+     * @param text      文本
+     * @param tokens    驼峰切分后的词元
+     * @param compounds 多个词元组成的片段整体，为null时不收集
+     */
+    private static void tokenize(String text, List<String> tokens, List<String> compounds) {
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            int partStart = i;
+            int parts = 0;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                if (i > partStart && isCamelBoundary(text, i)) {
+                    tokens.add(text.substring(partStart, i).toLowerCase());
+                    partStart = i;
+                    parts++;
+                }
+                i++;
+            }
+            if (i > start) {
+                tokens.add(text.substring(partStart, i).toLowerCase());
+                if (parts > 0 && compounds != null) {
+                    compounds.add(text.substring(start, i).toLowerCase());
+                }
+            }
+        }
+    }
+
+    /**
+     * 驼峰边界：小写或数字后接大写（orderId），或连续大写后接小写（HTTPServer中的S）
+     */
+    private static boolean isCamelBoundary(String text, int i) {
+        char previous = text.charAt(i - 1);
+        char current = text.charAt(i);
+        if (!Character.isUpperCase(current)) {
+            return false;
+        }
+        if (Character.isLowerCase(previous) || Character.isDigit(previous)) {
+            return true;
+        }
+        return Character.isUpperCase(previous) && i + 1 < text.length()
+                && Character.isLowerCase(text.charAt(i + 1));
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        int[] result = new int[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * 索引文档（一个入口点）
+     */
+    @Getter
+    public static final class Document {
+
+        private final EntryPoint entryPoint;
+
+        private final ClassInfo classInfo;
+
+        /**
+         * 入口方法（按方法名取第一个）
+         */
+        private final MethodInfo methodInfo;
+
+        private final String lowerClassName;
+        private final String lowerFullClassName;
+        private final String lowerMethodName;
+        private final String lowerPath;
+
+        /**
+         * 入口点注解值（小写）
+         */
+        private final List<String> lowerAnnotationValues;
+
+        /**
+         * 入口方法注解名及属性值（小写）
+         */
+        private final List<String> lowerMethodAnnotationTexts;
+
+        /**
+         * 词元 -> 各字段中的出现次数
+         */
+        private final Map<String, int[]> termFrequencies = new HashMap<>();
+
+        /**
+         * 各字段的词元数
+         */
+        private final int[] fieldLengths = new int[FIELD_COUNT];
+
+        Document(EntryPoint entryPoint, ClassInfo classInfo) {
+            this.entryPoint = entryPoint;
+            this.classInfo = classInfo;
+            this.methodInfo = findMethod(classInfo, entryPoint.getMethodName());
+            this.lowerClassName = lower(classInfo.getClassName());
+            this.lowerFullClassName = lower(classInfo.getFullClassName());
+            this.lowerMethodName = lower(entryPoint.getMethodName());
+            this.lowerPath = lower(entryPoint.getPath());
+
+            List<String> annotationValues = new ArrayList<>();
+            if (entryPoint.getAnnotations() != null) {
+                for (Object value : entryPoint.getAnnotations().values()) {
+                    if (value != null) {
+                        annotationValues.add(value.toString().toLowerCase());
+                    }
+                }
+            }
+            this.lowerAnnotationValues = annotationValues;
+
+            List<String> methodAnnotationTexts = new ArrayList<>();
+            if (methodInfo != null && methodInfo.getAnnotations() != null) {
+                for (AnnotationInfo annotation : methodInfo.getAnnotations()) {
+                    if (annotation.getName() != null) {
+                        methodAnnotationTexts.add(annotation.getName().toLowerCase());
+                    }
+                    if (annotation.getAttributes() != null) {
+                        for (Object value : annotation.getAttributes().values()) {
+                            if (value != null) {
+                                methodAnnotationTexts.add(value.toString().toLowerCase());
+                            }
+                        }
+                    }
+                }
+            }
+            this.lowerMethodAnnotationTexts = methodAnnotationTexts;
+
+            // 类名字段同时覆盖简单名和全限定名
+            index(Field.CLASS_NAME, classInfo.getFullClassName() != null
+                    ? classInfo.getFullClassName() : classInfo.getClassName());
+            index(Field.METHOD_NAME, entryPoint.getMethodName());
+            index(Field.PATH, entryPoint.getPath());
+            index(Field.DESCRIPTION, entryPoint.getDescription());
+            if (entryPoint.getAnnotations() != null) {
+                for (Object value : entryPoint.getAnnotations().values()) {
+                    if (value != null) {
+                        index(Field.ANNOTATION, value.toString());
+                    }
+                }
+            }
+            if (methodInfo != null && methodInfo.getAnnotations() != null) {
+                for (AnnotationInfo annotation : methodInfo.getAnnotations()) {
+                    index(Field.METHOD_ANNOTATION, annotation.getName());
+                    if (annotation.getAttributes() != null) {
+                        for (Object value : annotation.getAttributes().values()) {
+                            if (value != null) {
+                                index(Field.METHOD_ANNOTATION, value.toString());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 词元在各字段中的出现次数，未出现时返回null
+         */
+        public int[] getFrequencies(String term) {
+            return termFrequencies.get(term);
+        }
+
+        public int getFieldLength(Field field) {
+            return fieldLengths[field.ordinal()];
+        }
+
+        private void index(Field field, String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            List<String> tokens = new ArrayList<>();
+            List<String> compounds = new ArrayList<>();
+            tokenize(text, tokens, compounds);
+            for (String token : tokens) {
+                termFrequencies.computeIfAbsent(token, k -> new int[FIELD_COUNT])[field.ordinal()]++;
+            }
+            for (String compound : compounds) {
+                // 片段整体只用于召回，不计入词频
+                termFrequencies.computeIfAbsent(compound, k -> new int[FIELD_COUNT]);
+            }
+            fieldLengths[field.ordinal()] += tokens.size();
+        }
+
+        private static MethodInfo findMethod(ClassInfo classInfo, String methodName) {
+            if (methodName == null) {
+                return null;
+            }
+            for (MethodInfo method : classInfo.getMethods()) {
+                if (methodName.equals(method.getName())) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        private static String lower(String value) {
+            return value == null ? null : value.toLowerCase();
+        }
+    }
+}
@@ -24,6 +24,11 @@ public class EntryPointMatch {
      */
     private int relevanceScore;
 
+    /**
+     * BM25相关度（结果按此排序）
+     */
+    private double bm25Score;
+
     /**
      * 匹配原因列表
      */
@@ -24,6 +24,11 @@ public class FieldInfo {
      */
     private String type;
 
+    /**
+     * 字段类型的全限定名（启用符号解析且解析成功时存在）
+     */
+    private String resolvedType;
+
     /**
      * 字段注解
      */
@@ -33,6 +38,7 @@ public class FieldInfo {
      * 添加注解
      */
     public void addAnnotation(AnnotationInfo annotation) {
+        this.annotations = ModelLists.writable(this.annotations);
         this.annotations.add(annotation);
     }
 
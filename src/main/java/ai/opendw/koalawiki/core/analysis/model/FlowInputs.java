@@ -0,0 +1,139 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 业务流程的追踪输入
+ * 记录一次追踪实际经过的源文件（相对项目根目录的路径及其Git blob ID）、经过的类的远程依赖，
+ * 以及项目全部类声明的指纹，输入不变时追踪和渲染结果不变，因此可作为流程缓存的内容地址。
+ *
+ * 调用解析会在整个项目中查找候选（实现类、同名类、同名方法），未经过的文件中新增或修改的声明
+ * 也可能改变追踪结果，因此除经过的文件外还需要比对项目的声明指纹。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+public class FlowInputs {
+
+    /**
+     * 入口键（入口所在项目、入口方法、追踪深度及渲染选项的摘要）
+     */
+    private String entryKey;
+
+    /**
+     * 经过的源文件：相对路径 -> blob ID
+     */
+    private Map<String, String> files = new TreeMap<>();
+
+    /**
+     * 经过的本地类（全限定类名）
+     */
+    private TreeSet<String> classes = new TreeSet<>();
+
+    /**
+     * 经过的本地类在服务依赖图中的远程依赖指纹
+     */
+    private String dependencies;
+
+    /**
+     * 项目类声明指纹（见{@link #declarationFingerprint(Collection)}）
+     */
+    private String declarations;
+
+    /**
+     * 内容哈希（SHA-256）
+     */
+    public String contentHash() {
+        MessageDigest digest = sha256();
+        update(digest, entryKey);
+        for (Map.Entry<String, String> file : files.entrySet()) {
+            update(digest, file.getKey());
+            update(digest, file.getValue());
+        }
+        for (String className : classes) {
+            update(digest, className);
+        }
+        update(digest, dependencies);
+        update(digest, declarations);
+        return hex(digest);
+    }
+
+    /**
+     * 计算类声明指纹
+     * 覆盖调用解析用到的全部声明：类的顺序、继承关系、静态导入、字段类型和方法声明，不含方法体
+     *
+     * @param classes 类信息集合（按项目结构中的顺序）
+     * @return 指纹（SHA-256）
+     */
+    public static String declarationFingerprint(Collection<ClassInfo> classes) {
+        MessageDigest digest = sha256();
+        for (ClassInfo classInfo : classes) {
+            update(digest, classInfo.getFullClassName());
+            update(digest, classInfo.getSuperClass());
+            update(digest, String.join(",", classInfo.getInterfaces()));
+            update(digest, String.join(",", classInfo.getStaticImports()));
+            update(digest, classInfo.isInterface() + "," + classInfo.isAbstract());
+            for (FieldInfo field : classInfo.getFields()) {
+                update(digest, field.getName());
+                update(digest, field.getType());
+                update(digest, field.getResolvedType());
+            }
+            for (MethodInfo method : classInfo.getMethods()) {
+                update(digest, method.getName());
+                update(digest, method.getSignature());
+                update(digest, method.getReturnType());
+                update(digest, String.join(",", method.getParameters()));
+                update(digest, String.valueOf(method.isStatic()));
+            }
+            // 类之间的分隔
+            digest.update((byte) 1);
+        }
+        return hex(digest);
+    }
+
+    /**
+     * 计算依赖描述的指纹
+     *
+     * @param values 依赖描述（已排序）
+     * @return 指纹（SHA-256）
+     */
+    public static String fingerprint(Collection<String> values) {
+        MessageDigest digest = sha256();
+        for (String value : values) {
+            update(digest, value);
+        }
+        return hex(digest);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    private static String hex(MessageDigest digest) {
+        StringBuilder hex = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+}
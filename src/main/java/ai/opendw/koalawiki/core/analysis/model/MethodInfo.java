@@ -24,6 +24,11 @@ public class MethodInfo {
      */
     private List<String> parameters = new ArrayList<>();
 
+    /**
+     * 方法体内声明的局部变量（"类型 变量名"，含for、try资源、catch及显式声明类型的lambda参数）
+     */
+    private List<String> localVariables = new ArrayList<>();
+
     /**
      * 返回类型
      */
@@ -58,13 +63,31 @@ public class MethodInfo {
      * 添加注解
      */
     public void addAnnotation(AnnotationInfo annotation) {
+        this.annotations = ModelLists.writable(this.annotations);
         this.annotations.add(annotation);
     }
 
+    /**
+     * 添加参数
+     */
+    public void addParameter(String parameter) {
+        this.parameters = ModelLists.writable(this.parameters);
+        this.parameters.add(parameter);
+    }
+
+    /**
+     * 添加局部变量
+     */
+    public void addLocalVariable(String localVariable) {
+        this.localVariables = ModelLists.writable(this.localVariables);
+        this.localVariables.add(localVariable);
+    }
+
     /**
      * 添加调用的方法
      */
     public void addCalledMethod(String method) {
+        this.calledMethods = ModelLists.writable(this.calledMethods);
         this.calledMethods.add(method);
     }
 
@@ -0,0 +1,25 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 模型列表工具
+ * 压缩后的模型中空列表被替换为共享的不可变空列表（见ModelCompactor），
+ * 模型的add方法写入前通过{@link #writable(List)}换成可修改的列表。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+final class ModelLists {
+
+    private ModelLists() {
+    }
+
+    /**
+     * 返回可修改的列表：已是ArrayList时直接返回，否则复制为新的ArrayList
+     */
+    static <T> List<T> writable(List<T> list) {
+        return list instanceof ArrayList ? list : new ArrayList<>(list);
+    }
+}
@@ -0,0 +1,166 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 项目结构查找索引（不可变）
+ * 在项目结构构建完成后一次性生成，供调用链追踪做O(1)解析
+ *
+ * @author zhourui(V33215020)
+ * @since 2025/11/22
+ */
+public final class ProjectIndex {
+
+    /**
+     * 方法简单名 -> 方法列表（按类遍历顺序、类内声明顺序）
+     */
+    private final Map<String, List<MethodInfo>> methodsByName;
+
+    /**
+     * 方法 -> 所属类（按对象身份）
+     */
+    private final Map<MethodInfo, ClassInfo> ownerByMethod;
+
+    /**
+     * 全限定类名 -> (字段名 -> 字段)
+     */
+    private final Map<String, Map<String, FieldInfo>> fieldsByClass;
+
+    /**
+     * 接口名（声明时写法及简单名）-> 实现类列表
+     */
+    private final Map<String, List<ClassInfo>> implementations;
+
+    /**
+     * 类简单名 -> 类列表
+     */
+    private final Map<String, List<ClassInfo>> classesBySimpleName;
+
+    private ProjectIndex(Map<String, List<MethodInfo>> methodsByName,
+                         Map<MethodInfo, ClassInfo> ownerByMethod,
+                         Map<String, Map<String, FieldInfo>> fieldsByClass,
+                         Map<String, List<ClassInfo>> implementations,
+                         Map<String, List<ClassInfo>> classesBySimpleName) {
+        this.methodsByName = methodsByName;
+        this.ownerByMethod = ownerByMethod;
+        this.fieldsByClass = fieldsByClass;
+        this.implementations = implementations;
+        this.classesBySimpleName = classesBySimpleName;
+    }
+
+    /**
+     * 根据类集合构建索引
+     *
+     * @param classes 类信息集合（遍历顺序决定同名方法的优先级）
+     * @return 索引
+     */
+    public static ProjectIndex build(Collection<ClassInfo> classes) {
+        Map<String, List<MethodInfo>> methodsByName = new HashMap<>();
+        Map<MethodInfo, ClassInfo> ownerByMethod = new IdentityHashMap<>();
+        Map<String, Map<String, FieldInfo>> fieldsByClass = new HashMap<>(classes.size() * 2);
+        Map<String, List<ClassInfo>> implementations = new HashMap<>();
+        Map<String, List<ClassInfo>> classesBySimpleName = new HashMap<>(classes.size() * 2);
+
+        for (ClassInfo classInfo : classes) {
+            for (MethodInfo method : classInfo.getMethods()) {
+                methodsByName.computeIfAbsent(method.getName(), k -> new ArrayList<>()).add(method);
+                ownerByMethod.put(method, classInfo);
+            }
+
+            Map<String, FieldInfo> fields = new LinkedHashMap<>();
+            for (FieldInfo field : classInfo.getFields()) {
+                fields.putIfAbsent(field.getName(), field);
+            }
+            fieldsByClass.put(classInfo.getFullClassName(), Collections.unmodifiableMap(fields));
+
+            for (String interfaceName : classInfo.getInterfaces()) {
+                implementations.computeIfAbsent(interfaceName, k -> new ArrayList<>()).add(classInfo);
+                String simpleName = simpleName(interfaceName);
+                if (!simpleName.equals(interfaceName)) {
+                    implementations.computeIfAbsent(simpleName, k -> new ArrayList<>()).add(classInfo);
+                }
+            }
+
+            classesBySimpleName.computeIfAbsent(classInfo.getClassName(), k -> new ArrayList<>()).add(classInfo);
+        }
+
+        return new ProjectIndex(
+                freeze(methodsByName),
+                Collections.unmodifiableMap(ownerByMethod),
+                Collections.unmodifiableMap(fieldsByClass),
+                freeze(implementations),
+                freeze(classesBySimpleName));
+    }
+
+    /**
+     * 按简单名查找方法
+     *
+     * @return 方法列表，不存在时返回空列表
+     */
+    public List<MethodInfo> findMethodsByName(String methodName) {
+        return methodsByName.getOrDefault(methodName, Collections.emptyList());
+    }
+
+    /**
+     * 查找方法所属的类
+     */
+    public ClassInfo findOwner(MethodInfo method) {
+        return ownerByMethod.get(method);
+    }
+
+    /**
+     * 查找类中的字段
+     *
+     * @param fullClassName 全限定类名
+     * @param fieldName     字段名
+     * @return 字段信息，不存在时返回null
+     */
+    public FieldInfo findField(String fullClassName, String fieldName) {
+        Map<String, FieldInfo> fields = fieldsByClass.get(fullClassName);
+        return fields != null ? fields.get(fieldName) : null;
+    }
+
+    /**
+     * 查找类中字段的声明类型
+     */
+    public String findFieldType(String fullClassName, String fieldName) {
+        FieldInfo field = findField(fullClassName, fieldName);
+        return field != null ? field.getType() : null;
+    }
+
+    /**
+     * 查找接口的实现类
+     *
+     * @param interfaceName 接口名（简单名或声明时的写法）
+     * @return 实现类列表，不存在时返回空列表
+     */
+    public List<ClassInfo> findImplementations(String interfaceName) {
+        return implementations.getOrDefault(interfaceName, Collections.emptyList());
+    }
+
+    /**
+     * 按简单类名查找类
+     */
+    public List<ClassInfo> findClassesBySimpleName(String simpleName) {
+        return classesBySimpleName.getOrDefault(simpleName, Collections.emptyList());
+    }
+
+    private static <T> Map<String, List<T>> freeze(Map<String, List<T>> map) {
+        for (Map.Entry<String, List<T>> entry : map.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private static String simpleName(String typeName) {
+        int lastDot = typeName.lastIndexOf('.');
+        return lastDot >= 0 ? typeName.substring(lastDot + 1) : typeName;
+    }
+}
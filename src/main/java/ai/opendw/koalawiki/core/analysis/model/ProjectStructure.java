@@ -1,9 +1,16 @@
 package ai.opendw.koalawiki.core.analysis.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,8 +45,46 @@ public class ProjectStructure {
 
     /**
      * 类信息Map (key: 全限定类名)
+     * 按源文件顺序排列：索引中同名方法、实现类和同名类的候选顺序取决于该顺序，
+     * 扫描时补全方法体和构建调用图需要看到相同的候选顺序
      */
-    private Map<String, ClassInfo> classes = new HashMap<>();
+    private Map<String, ClassInfo> classes = new LinkedHashMap<>();
+
+    /**
+     * 查找索引（延迟构建，类信息变化后失效）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile ProjectIndex index;
+
+    /**
+     * 入口点倒排索引（延迟构建，入口点或类信息变化后失效）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile EntryPointIndex entryPointIndex;
+
+    /**
+     * 预计算调用图（延迟构建或由调用图存储挂载，类信息变化后失效）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile CallGraph callGraph;
+
+    /**
+     * 类声明指纹（延迟计算，类信息变化后失效）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile String declarationFingerprint;
 
     /**
      * 添加模块
@@ -53,6 +98,15 @@ public class ProjectStructure {
      */
     public void addEntryPoint(EntryPoint entryPoint) {
         this.entryPoints.add(entryPoint);
+        this.entryPointIndex = null;
+    }
+
+    /**
+     * 设置入口点列表
+     */
+    public void setEntryPoints(List<EntryPoint> entryPoints) {
+        this.entryPoints = entryPoints;
+        this.entryPointIndex = null;
     }
 
     /**
@@ -60,6 +114,131 @@ public class ProjectStructure {
      */
     public void addClass(ClassInfo classInfo) {
         this.classes.put(classInfo.getFullClassName(), classInfo);
+        this.index = null;
+        this.callGraph = null;
+        this.entryPointIndex = null;
+        this.declarationFingerprint = null;
+    }
+
+    /**
+     * 设置类信息Map
+     */
+    public void setClasses(Map<String, ClassInfo> classes) {
+        this.classes = classes;
+        this.index = null;
+        this.callGraph = null;
+        this.entryPointIndex = null;
+        this.declarationFingerprint = null;
+    }
+
+    /**
+     * 获取查找索引
+     * 首次访问时根据当前类信息构建，之后直接复用
+     */
+    @JsonIgnore
+    public ProjectIndex getIndex() {
+        ProjectIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = ProjectIndex.build(classes.values());
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取类声明指纹
+     * 首次访问时根据当前类信息计算，之后直接复用
+     */
+    @JsonIgnore
+    public String getDeclarationFingerprint() {
+        String current = declarationFingerprint;
+        if (current == null) {
+            synchronized (this) {
+                current = declarationFingerprint;
+                if (current == null) {
+                    current = FlowInputs.declarationFingerprint(classes.values());
+                    declarationFingerprint = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 获取调用图
+     * 未挂载预计算的调用图时，首次访问根据当前类信息在内存中构建
+     */
+    @JsonIgnore
+    public CallGraph getCallGraph() {
+        CallGraph current = callGraph;
+        if (current == null) {
+            synchronized (this) {
+                current = callGraph;
+                if (current == null) {
+                    current = CallGraph.build(this);
+                    callGraph = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 是否已有调用图（内存构建或挂载）
+     */
+    @JsonIgnore
+    public boolean hasCallGraph() {
+        return callGraph != null;
+    }
+
+    /**
+     * 挂载与当前类信息对应的预计算调用图
+     *
+     * @param callGraph 调用图
+     */
+    public void attachCallGraph(CallGraph callGraph) {
+        synchronized (this) {
+            this.callGraph = callGraph;
+        }
+    }
+
+    /**
+     * 获取入口点倒排索引
+     * 首次访问时根据当前入口点构建，之后直接复用
+     */
+    @JsonIgnore
+    public EntryPointIndex getEntryPointIndex() {
+        EntryPointIndex current = entryPointIndex;
+        if (current == null) {
+            synchronized (this) {
+                current = entryPointIndex;
+                if (current == null) {
+                    current = EntryPointIndex.build(this);
+                    entryPointIndex = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 基于上一版本的入口点索引增量构建本版本的索引
+     * 上一版本尚未建立索引时不做处理，首次查询时再全量构建
+     *
+     * @param previous 上一版本的项目结构
+     */
+    public void deriveEntryPointIndex(ProjectStructure previous) {
+        EntryPointIndex base = previous.entryPointIndex;
+        if (base != null) {
+            synchronized (this) {
+                entryPointIndex = base.update(this);
+            }
+        }
     }
 
     /**
@@ -1,15 +1,21 @@
 package ai.opendw.koalawiki.core.analysis.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * 服务依赖图
+ * 依赖关系的查找走延迟构建的索引，图发生变更（增删服务、依赖或重新关联目标服务）后索引失效
  *
  * @author zhourui(V33215020)
  * @since 2025/11/22
@@ -32,6 +38,31 @@ public class ServiceDependencyGraph {
      */
     private List<ServiceDependency> dependencies = new ArrayList<>();
 
+    /**
+     * 查找索引（延迟构建，图变更后失效）
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private volatile ServiceDependencyIndex index;
+
+    /**
+     * 设置服务节点映射
+     */
+    public void setServices(Map<String, ServiceNode> services) {
+        this.services = services;
+        this.index = null;
+    }
+
+    /**
+     * 设置依赖关系列表
+     */
+    public void setDependencies(List<ServiceDependency> dependencies) {
+        this.dependencies = dependencies;
+        this.index = null;
+    }
+
     /**
      * 添加服务节点
      */
@@ -42,6 +73,39 @@ public class ServiceDependencyGraph {
         for (String interfaceName : service.getProvidedInterfaces()) {
             interfaceIndex.put(interfaceName, service);
         }
+        index = null;
+    }
+
+    /**
+     * 移除服务节点及其发起的依赖关系
+     * 指向该服务的依赖关系保留，但解除目标服务关联；
+     * 该服务登记的接口如仍有其他服务提供，接口索引改为指向其他提供方，以便重新关联Dubbo依赖
+     */
+    public void removeService(String serviceName) {
+        ServiceNode removed = services.remove(serviceName);
+        if (removed != null) {
+            for (String interfaceName : removed.getProvidedInterfaces()) {
+                if (interfaceIndex.get(interfaceName) == removed) {
+                    interfaceIndex.remove(interfaceName);
+                    for (ServiceNode service : services.values()) {
+                        if (service.getProvidedInterfaces().contains(interfaceName)) {
+                            interfaceIndex.put(interfaceName, service);
+                            break;
+                        }
+                    }
+                }
+            }
+            // 节点的接口列表在登记后被修改时可能残留指向已移除服务的条目
+            interfaceIndex.values().removeIf(node -> node == removed);
+        }
+
+        dependencies.removeIf(d -> serviceName.equals(d.getSourceService()));
+        for (ServiceDependency dependency : dependencies) {
+            if (serviceName.equals(dependency.getTargetService())) {
+                dependency.setTargetService(null);
+            }
+        }
+        index = null;
     }
 
     /**
@@ -49,15 +113,109 @@ public class ServiceDependencyGraph {
      */
     public void addDependency(ServiceDependency dependency) {
         dependencies.add(dependency);
+        index = null;
+    }
+
+    /**
+     * 为尚未关联目标服务的Dubbo依赖按接口重新关联提供方
+     *
+     * @return 新关联的依赖数
+     */
+    public int linkDubboTargets() {
+        int linked = 0;
+        for (ServiceDependency dependency : dependencies) {
+            if (dependency.getType() == DependencyType.DUBBO && dependency.getTargetService() == null) {
+                ServiceNode target = interfaceIndex.get(dependency.getInterfaceName());
+                if (target != null) {
+                    dependency.setTargetService(target.getServiceName());
+                    linked++;
+                }
+            }
+        }
+        if (linked > 0) {
+            index = null;
+        }
+        return linked;
     }
 
     /**
-     * 根据服务名查找依赖
+     * 根据服务名查找依赖（该服务发起的依赖）
      */
     public List<ServiceDependency> findDependencies(String serviceName) {
-        return dependencies.stream()
-                .filter(d -> d.getSourceService().equals(serviceName))
-                .collect(Collectors.toList());
+        return getIndex().findBySourceService(serviceName);
+    }
+
+    /**
+     * 根据服务名查找被依赖关系（指向该服务的依赖）
+     */
+    public List<ServiceDependency> findDependents(String serviceName) {
+        return getIndex().findByTargetService(serviceName);
+    }
+
+    /**
+     * 根据调用方类和字段查找依赖
+     */
+    public ServiceDependency findDependency(String sourceClass, String sourceField) {
+        return getIndex().findBySourceField(sourceClass, sourceField);
+    }
+
+    /**
+     * 根据接口名查找依赖
+     */
+    public List<ServiceDependency> findDependenciesByInterface(String interfaceName) {
+        return getIndex().findByInterface(interfaceName);
+    }
+
+    /**
+     * 深拷贝（服务节点和依赖关系均为新对象，在副本上修改不影响原图）
+     */
+    public ServiceDependencyGraph copy() {
+        ServiceDependencyGraph copy = new ServiceDependencyGraph();
+        for (ServiceNode service : services.values()) {
+            ServiceNode node = new ServiceNode();
+            node.setServiceName(service.getServiceName());
+            node.setWarehouseId(service.getWarehouseId());
+            node.setSourceCommit(service.getSourceCommit());
+            node.setProvidedInterfaces(new ArrayList<>(service.getProvidedInterfaces()));
+            node.setRequiredInterfaces(new ArrayList<>(service.getRequiredInterfaces()));
+            copy.services.put(node.getServiceName(), node);
+        }
+        for (Map.Entry<String, ServiceNode> e : interfaceIndex.entrySet()) {
+            ServiceNode node = copy.services.get(e.getValue().getServiceName());
+            if (node != null) {
+                copy.interfaceIndex.put(e.getKey(), node);
+            }
+        }
+        for (ServiceDependency dependency : dependencies) {
+            ServiceDependency d = new ServiceDependency();
+            d.setSourceService(dependency.getSourceService());
+            d.setTargetService(dependency.getTargetService());
+            d.setInterfaceName(dependency.getInterfaceName());
+            d.setType(dependency.getType());
+            d.setSourceClass(dependency.getSourceClass());
+            d.setSourceField(dependency.getSourceField());
+            copy.dependencies.add(d);
+        }
+        return copy;
+    }
+
+    /**
+     * 获取查找索引
+     * 首次访问时根据当前服务和依赖关系构建，之后直接复用
+     */
+    @JsonIgnore
+    public ServiceDependencyIndex getIndex() {
+        ServiceDependencyIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = ServiceDependencyIndex.build(services.keySet(), dependencies);
+                    index = current;
+                }
+            }
+        }
+        return current;
     }
 
     /**
@@ -0,0 +1,370 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 服务依赖图查找索引（不可变）
+ * 在依赖图构建或变更后延迟生成：
+ * <ul>
+ *   <li>按 (调用方类, 调用方字段)、接口、调用方服务、被调用方服务查找依赖关系，O(1)</li>
+ *   <li>服务之间的紧凑邻接表（CSR：偏移数组 + 目标数组，服务以连续整数编号），
+ *       供传递依赖、影响范围等图算法使用</li>
+ * </ul>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public final class ServiceDependencyIndex {
+
+    /**
+     * 调用方类 -> (调用方字段 -> 依赖)
+     */
+    private final Map<String, Map<String, ServiceDependency>> bySourceField;
+    private final Map<String, List<ServiceDependency>> byInterface;
+    private final Map<String, List<ServiceDependency>> bySourceService;
+    private final Map<String, List<ServiceDependency>> byTargetService;
+
+    /**
+     * 服务编号 -> 服务名
+     */
+    private final String[] serviceNames;
+
+    /**
+     * 服务名 -> 服务编号
+     */
+    private final Map<String, Integer> serviceIds;
+
+    /**
+     * 出边：服务i依赖的服务为 successors[successorOffsets[i] .. successorOffsets[i+1])
+     */
+    private final int[] successorOffsets;
+    private final int[] successors;
+
+    /**
+     * 入边：依赖服务i的服务为 predecessors[predecessorOffsets[i] .. predecessorOffsets[i+1])
+     */
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    private ServiceDependencyIndex(Map<String, Map<String, ServiceDependency>> bySourceField,
+                                   Map<String, List<ServiceDependency>> byInterface,
+                                   Map<String, List<ServiceDependency>> bySourceService,
+                                   Map<String, List<ServiceDependency>> byTargetService,
+                                   String[] serviceNames, Map<String, Integer> serviceIds,
+                                   int[] successorOffsets, int[] successors,
+                                   int[] predecessorOffsets, int[] predecessors) {
+        this.bySourceField = bySourceField;
+        this.byInterface = byInterface;
+        this.bySourceService = bySourceService;
+        this.byTargetService = byTargetService;
+        this.serviceNames = serviceNames;
+        this.serviceIds = serviceIds;
+        this.successorOffsets = successorOffsets;
+        this.successors = successors;
+        this.predecessorOffsets = predecessorOffsets;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * 构建索引
+     *
+     * @param services     服务节点名称
+     * @param dependencies 依赖关系（同一调用方字段有多条时以第一条为准）
+     * @return 索引
+     */
+    public static ServiceDependencyIndex build(Collection<String> services, List<ServiceDependency> dependencies) {
+        Map<String, Map<String, ServiceDependency>> bySourceField = new HashMap<>();
+        Map<String, List<ServiceDependency>> byInterface = new HashMap<>();
+        Map<String, List<ServiceDependency>> bySourceService = new HashMap<>();
+        Map<String, List<ServiceDependency>> byTargetService = new HashMap<>();
+
+        Map<String, Integer> serviceIds = new HashMap<>(services.size() * 2);
+        List<String> serviceNames = new ArrayList<>(services.size());
+        for (String service : services) {
+            register(service, serviceIds, serviceNames);
+        }
+
+        for (ServiceDependency dependency : dependencies) {
+            if (dependency.getSourceClass() != null && dependency.getSourceField() != null) {
+                bySourceField.computeIfAbsent(dependency.getSourceClass(), k -> new HashMap<>(4))
+                        .putIfAbsent(dependency.getSourceField(), dependency);
+            }
+            append(byInterface, dependency.getInterfaceName(), dependency);
+            append(bySourceService, dependency.getSourceService(), dependency);
+            append(byTargetService, dependency.getTargetService(), dependency);
+            register(dependency.getSourceService(), serviceIds, serviceNames);
+            register(dependency.getTargetService(), serviceIds, serviceNames);
+        }
+
+        // 服务级邻接（去重、去自环），边编码为 source<<32|target 排序后生成CSR
+        int serviceCount = serviceNames.size();
+        long[] edges = new long[dependencies.size()];
+        int edgeCount = 0;
+        for (ServiceDependency dependency : dependencies) {
+            if (dependency.getSourceService() == null || dependency.getTargetService() == null) {
+                continue;
+            }
+            int source = serviceIds.get(dependency.getSourceService());
+            int target = serviceIds.get(dependency.getTargetService());
+            if (source != target) {
+                edges[edgeCount++] = (long) source << 32 | target;
+            }
+        }
+        edgeCount = sortDistinct(edges, edgeCount);
+
+        int[] successorOffsets = new int[serviceCount + 1];
+        int[] successors = toCsr(edges, edgeCount, serviceCount, successorOffsets);
+        for (int i = 0; i < edgeCount; i++) {
+            edges[i] = edges[i] << 32 | edges[i] >>> 32;
+        }
+        edgeCount = sortDistinct(edges, edgeCount);
+        int[] predecessorOffsets = new int[serviceCount + 1];
+        int[] predecessors = toCsr(edges, edgeCount, serviceCount, predecessorOffsets);
+
+        freeze(byInterface);
+        freeze(bySourceService);
+        freeze(byTargetService);
+        return new ServiceDependencyIndex(bySourceField, byInterface, bySourceService, byTargetService,
+                serviceNames.toArray(new String[0]), serviceIds,
+                successorOffsets, successors, predecessorOffsets, predecessors);
+    }
+
+    /**
+     * 按调用方类和字段查找依赖
+     */
+    public ServiceDependency findBySourceField(String sourceClass, String sourceField) {
+        Map<String, ServiceDependency> fields = bySourceField.get(sourceClass);
+        return fields == null ? null : fields.get(sourceField);
+    }
+
+    /**
+     * 按接口查找依赖
+     */
+    public List<ServiceDependency> findByInterface(String interfaceName) {
+        return byInterface.getOrDefault(interfaceName, Collections.emptyList());
+    }
+
+    /**
+     * 按调用方服务查找依赖
+     */
+    public List<ServiceDependency> findBySourceService(String serviceName) {
+        return bySourceService.getOrDefault(serviceName, Collections.emptyList());
+    }
+
+    /**
+     * 按被调用方服务查找依赖
+     */
+    public List<ServiceDependency> findByTargetService(String serviceName) {
+        return byTargetService.getOrDefault(serviceName, Collections.emptyList());
+    }
+
+    /**
+     * 服务数量
+     */
+    public int getServiceCount() {
+        return serviceNames.length;
+    }
+
+    /**
+     * 服务编号
+     *
+     * @return 编号，不存在时返回-1
+     */
+    public int getServiceId(String serviceName) {
+        Integer id = serviceName == null ? null : serviceIds.get(serviceName);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 服务名
+     */
+    public String getServiceName(int serviceId) {
+        return serviceNames[serviceId];
+    }
+
+    /**
+     * 直接依赖的服务编号
+     */
+    public int[] successors(int serviceId) {
+        return Arrays.copyOfRange(successors, successorOffsets[serviceId], successorOffsets[serviceId + 1]);
+    }
+
+    /**
+     * 直接依赖该服务的服务编号
+     */
+    public int[] predecessors(int serviceId) {
+        return Arrays.copyOfRange(predecessors, predecessorOffsets[serviceId], predecessorOffsets[serviceId + 1]);
+    }
+
+    /**
+     * 传递依赖：从指定服务出发可达的服务（不含自身）
+     */
+    public Set<String> findTransitiveDependencies(String serviceName) {
+        return traverse(serviceName, successorOffsets, successors);
+    }
+
+    /**
+     * 影响范围：直接或间接依赖指定服务的服务（不含自身）
+     */
+    public Set<String> findImpactedServices(String serviceName) {
+        return traverse(serviceName, predecessorOffsets, predecessors);
+    }
+
+    /**
+     * 有界影响范围：在指定层数内直接或间接依赖指定服务的服务
+     *
+     * @param serviceName 服务名
+     * @param maxDepth    最大层数，0表示不限制
+     * @return 服务名 -> 距离（按距离排列，不含自身）
+     */
+    public Map<String, Integer> findImpactedServices(String serviceName, int maxDepth) {
+        int start = getServiceId(serviceName);
+        if (start < 0) {
+            return Collections.emptyMap();
+        }
+        BitSet sources = new BitSet(serviceNames.length);
+        sources.set(start);
+        return traverseLevels(sources, 0, maxDepth);
+    }
+
+    /**
+     * 有界影响范围：依赖指定接口的服务（距离为1）及在指定层数内间接依赖它们的服务
+     *
+     * @param interfaceNames 接口全限定名
+     * @param maxDepth       最大层数，0表示不限制
+     * @return 服务名 -> 距离（按距离排列）
+     */
+    public Map<String, Integer> findImpactedServicesByInterfaces(Collection<String> interfaceNames, int maxDepth) {
+        BitSet dependents = new BitSet(serviceNames.length);
+        for (String interfaceName : interfaceNames) {
+            for (ServiceDependency dependency : findByInterface(interfaceName)) {
+                int source = getServiceId(dependency.getSourceService());
+                if (source >= 0) {
+                    dependents.set(source);
+                }
+            }
+        }
+        if (dependents.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return traverseLevels(dependents, 1, maxDepth);
+    }
+
+    /**
+     * 从一组服务出发沿入边按层遍历，已访问集合和每层的前沿均使用位图
+     *
+     * @param sources    起点服务（计入结果，距离为startDepth；startDepth为0时不计入）
+     * @param startDepth 起点的距离
+     * @param maxDepth   最大距离，0表示不限制
+     */
+    private Map<String, Integer> traverseLevels(BitSet sources, int startDepth, int maxDepth) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        BitSet visited = (BitSet) sources.clone();
+        BitSet frontier = sources;
+        int depth = startDepth;
+        if (depth > 0) {
+            for (int s = frontier.nextSetBit(0); s >= 0; s = frontier.nextSetBit(s + 1)) {
+                result.put(serviceNames[s], depth);
+            }
+        }
+        while (!frontier.isEmpty() && (maxDepth <= 0 || depth < maxDepth)) {
+            depth++;
+            BitSet next = new BitSet(serviceNames.length);
+            for (int s = frontier.nextSetBit(0); s >= 0; s = frontier.nextSetBit(s + 1)) {
+                for (int i = predecessorOffsets[s]; i < predecessorOffsets[s + 1]; i++) {
+                    int p = predecessors[i];
+                    if (!visited.get(p)) {
+                        visited.set(p);
+                        next.set(p);
+                        result.put(serviceNames[p], depth);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return result;
+    }
+
+    /**
+     * 按邻接数组做广度优先遍历，已访问集合使用位图
+     */
+    private Set<String> traverse(String serviceName, int[] offsets, int[] targets) {
+        int start = getServiceId(serviceName);
+        if (start < 0) {
+            return Collections.emptySet();
+        }
+        BitSet visited = new BitSet(serviceNames.length);
+        visited.set(start);
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        Set<String> result = new LinkedHashSet<>();
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+                int next = targets[i];
+                if (!visited.get(next)) {
+                    visited.set(next);
+                    result.add(serviceNames[next]);
+                    queue.add(next);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void append(Map<String, List<ServiceDependency>> index, String key,
+                               ServiceDependency dependency) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(dependency);
+        }
+    }
+
+    private static void freeze(Map<String, List<ServiceDependency>> index) {
+        index.replaceAll((key, list) -> Collections.unmodifiableList(list));
+    }
+
+    private static void register(String service, Map<String, Integer> serviceIds, List<String> serviceNames) {
+        if (service != null && !serviceIds.containsKey(service)) {
+            serviceIds.put(service, serviceNames.size());
+            serviceNames.add(service);
+        }
+    }
+
+    private static int sortDistinct(long[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || values[i] != values[distinct - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * 由按起点排序的边生成CSR邻接数组
+     */
+    private static int[] toCsr(long[] edges, int edgeCount, int nodeCount, int[] offsets) {
+        int[] targets = new int[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[(int) (edges[i] >>> 32) + 1]++;
+            targets[i] = (int) edges[i];
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        return targets;
+    }
+}
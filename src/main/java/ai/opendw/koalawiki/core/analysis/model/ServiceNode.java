@@ -24,6 +24,11 @@ public class ServiceNode {
      */
     private String warehouseId;
 
+    /**
+     * 节点信息对应的提交版本
+     */
+    private String sourceCommit;
+
     /**
      * 提供的接口列表（全限定名）
      */
@@ -0,0 +1,25 @@
+package ai.opendw.koalawiki.core.analysis.model;
+
+/**
+ * 调用链截断原因
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public enum TraceTruncation {
+
+    /**
+     * 节点数达到上限
+     */
+    NODE_BUDGET,
+
+    /**
+     * 追踪耗时达到上限
+     */
+    TIME_BUDGET,
+
+    /**
+     * 节点的子调用数达到上限
+     */
+    FAN_OUT
+}
@@ -165,4 +165,31 @@ public class TaskConfig implements AsyncConfigurer, SchedulingConfigurer {
 
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * 业务流程追踪执行器
+     * 同一批次内的多个入口点并行追踪
+     */
+    @Bean(name = "flowTraceExecutor")
+    public Executor flowTraceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+        int processors = Runtime.getRuntime().availableProcessors();
+        executor.setCorePoolSize(processors);
+        executor.setMaxPoolSize(processors);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("flow-trace-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setKeepAliveSeconds(60);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+
+        executor.initialize();
+
+        log.info("业务流程追踪执行器初始化完成: 核心线程数={}, 最大线程数={}",
+            executor.getCorePoolSize(), executor.getMaxPoolSize());
+
+        return executor;
+    }
+}
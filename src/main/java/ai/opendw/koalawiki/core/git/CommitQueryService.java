@@ -18,6 +18,8 @@ import org.springframework.stereotype.Service;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
 
 /**
@@ -28,15 +30,22 @@ import java.util.*;
 @Service
 public class CommitQueryService {
 
+    /**
+     * 浅克隆仓库上单次查询最多加深历史的次数
+     */
+    private static final int MAX_DEEPEN_ATTEMPTS = 3;
+
     private final GitService gitService;
+    private final GitRepositoryPool repositoryPool;
 
     @Autowired
-    public CommitQueryService(GitService gitService) {
+    public CommitQueryService(GitService gitService, GitRepositoryPool repositoryPool) {
         this.gitService = gitService;
+        this.repositoryPool = repositoryPool;
     }
 
     /**
-     * 获取指定范围的提交记录
+     * 获取指定范围的提交记录（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param fromCommitId 起始提交ID（不包含）
@@ -46,21 +55,42 @@ public class CommitQueryService {
      */
     public List<CommitInfo> getCommitRange(String repoPath, String fromCommitId,
                                           String toCommitId, int maxCount) throws IOException, GitAPIException {
+        return getCommitRange(repoPath, fromCommitId, toCommitId, maxCount, null);
+    }
+
+    /**
+     * 获取指定范围的提交记录
+     *
+     * @param repoPath     仓库路径
+     * @param fromCommitId 起始提交ID（不包含）
+     * @param toCommitId   结束提交ID（包含）
+     * @param maxCount     最大数量
+     * @param credentials  认证信息（可选，加深浅克隆历史时使用）
+     * @return 提交信息列表
+     */
+    public List<CommitInfo> getCommitRange(String repoPath, String fromCommitId,
+                                          String toCommitId, int maxCount,
+                                          GitCredentials credentials) throws IOException, GitAPIException {
         log.info("获取提交范围: repoPath={}, from={}, to={}, maxCount={}",
                 repoPath, fromCommitId, toCommitId, maxCount);
 
-        try (Git git = Git.open(new File(repoPath))) {
-            Repository repository = git.getRepository();
+        return queryHistory(repoPath, credentials, (git, scope) -> {
             LogCommand logCommand = git.log();
 
             // 设置范围
             if (toCommitId != null && !toCommitId.isEmpty()) {
-                ObjectId toId = repository.resolve(toCommitId);
+                ObjectId toId = scope.resolve(toCommitId);
+                if (toId == null && scope.isTruncated()) {
+                    return Collections.<CommitInfo>emptyList();
+                }
                 logCommand.add(toId);
             }
 
             if (fromCommitId != null && !fromCommitId.isEmpty()) {
-                ObjectId fromId = repository.resolve(fromCommitId);
+                ObjectId fromId = scope.resolve(fromCommitId);
+                if (fromId == null && scope.isTruncated()) {
+                    return Collections.<CommitInfo>emptyList();
+                }
                 logCommand.not(fromId);
             }
 
@@ -69,15 +99,17 @@ public class CommitQueryService {
 
             List<CommitInfo> commits = new ArrayList<>();
             for (RevCommit revCommit : logCommand.call()) {
+                scope.visit(revCommit);
                 commits.add(convertToCommitInfo(revCommit));
             }
+            scope.truncatedIf(commits.size() < maxCount);
 
             return commits;
-        }
+        });
     }
 
     /**
-     * 获取指定文件的提交历史
+     * 获取指定文件的提交历史（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param filePath 文件路径
@@ -86,25 +118,42 @@ public class CommitQueryService {
      */
     public List<CommitInfo> getFileHistory(String repoPath, String filePath, int maxCount)
             throws IOException, GitAPIException {
+        return getFileHistory(repoPath, filePath, maxCount, null);
+    }
+
+    /**
+     * 获取指定文件的提交历史
+     *
+     * @param repoPath    仓库路径
+     * @param filePath    文件路径
+     * @param maxCount    最大数量
+     * @param credentials 认证信息（可选，加深浅克隆历史时使用）
+     * @return 提交信息列表
+     */
+    public List<CommitInfo> getFileHistory(String repoPath, String filePath, int maxCount, GitCredentials credentials)
+            throws IOException, GitAPIException {
         log.info("获取文件历史: repoPath={}, filePath={}, maxCount={}",
                 repoPath, filePath, maxCount);
 
-        try (Git git = Git.open(new File(repoPath))) {
+        return queryHistory(repoPath, credentials, (git, scope) -> {
             LogCommand logCommand = git.log()
                     .addPath(filePath)
                     .setMaxCount(maxCount);
 
+            // 文件在浅克隆边界提交中存在时，边界提交会作为新增该文件的提交出现
             List<CommitInfo> commits = new ArrayList<>();
             for (RevCommit revCommit : logCommand.call()) {
+                scope.visit(revCommit);
                 commits.add(convertToCommitInfo(revCommit));
             }
+            scope.truncatedIf(commits.size() < maxCount);
 
             return commits;
-        }
+        });
     }
 
     /**
-     * 获取提交详情
+     * 获取提交详情（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param commitId 提交ID
@@ -112,19 +161,42 @@ public class CommitQueryService {
      */
     public CommitDetail getCommitDetail(String repoPath, String commitId)
             throws IOException, GitAPIException {
+        return getCommitDetail(repoPath, commitId, null);
+    }
+
+    /**
+     * 获取提交详情
+     *
+     * @param repoPath    仓库路径
+     * @param commitId    提交ID
+     * @param credentials 认证信息（可选，加深浅克隆历史时使用）
+     * @return 提交详情
+     */
+    public CommitDetail getCommitDetail(String repoPath, String commitId, GitCredentials credentials)
+            throws IOException, GitAPIException {
         log.info("获取提交详情: repoPath={}, commitId={}", repoPath, commitId);
 
-        try (Git git = Git.open(new File(repoPath))) {
+        return queryHistory(repoPath, credentials, (git, scope) -> {
             Repository repository = git.getRepository();
-            ObjectId objectId = repository.resolve(commitId);
+            ObjectId objectId = scope.resolve(commitId);
 
             if (objectId == null) {
+                if (scope.isTruncated()) {
+                    return null;
+                }
                 throw new IllegalArgumentException("提交不存在: " + commitId);
             }
 
             try (RevWalk revWalk = new RevWalk(repository)) {
                 RevCommit commit = revWalk.parseCommit(objectId);
 
+                // 浅克隆边界提交缺少父提交，无法计算变更
+                scope.visit(commit);
+                scope.truncatedIf(true);
+                if (scope.isTruncated()) {
+                    return null;
+                }
+
                 CommitDetail detail = new CommitDetail();
                 detail.setCommitInfo(convertToCommitInfo(commit));
                 detail.setChangedFiles(getChangedFiles(repository, commit));
@@ -132,11 +204,11 @@ public class CommitQueryService {
 
                 return detail;
             }
-        }
+        });
     }
 
     /**
-     * 获取两个提交之间的差异
+     * 获取两个提交之间的差异（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param oldCommitId 旧提交ID
@@ -145,16 +217,34 @@ public class CommitQueryService {
      */
     public List<FileDiff> getCommitDiff(String repoPath, String oldCommitId, String newCommitId)
             throws IOException, GitAPIException {
+        return getCommitDiff(repoPath, oldCommitId, newCommitId, null);
+    }
+
+    /**
+     * 获取两个提交之间的差异
+     *
+     * @param repoPath    仓库路径
+     * @param oldCommitId 旧提交ID
+     * @param newCommitId 新提交ID
+     * @param credentials 认证信息（可选，加深浅克隆历史时使用）
+     * @return 差异列表
+     */
+    public List<FileDiff> getCommitDiff(String repoPath, String oldCommitId, String newCommitId,
+                                        GitCredentials credentials)
+            throws IOException, GitAPIException {
         log.info("获取提交差异: repoPath={}, oldCommit={}, newCommit={}",
                 repoPath, oldCommitId, newCommitId);
 
-        try (Git git = Git.open(new File(repoPath))) {
+        return queryHistory(repoPath, credentials, (git, scope) -> {
             Repository repository = git.getRepository();
 
-            ObjectId oldId = repository.resolve(oldCommitId);
-            ObjectId newId = repository.resolve(newCommitId);
+            ObjectId oldId = scope.resolve(oldCommitId);
+            ObjectId newId = scope.resolve(newCommitId);
 
             if (oldId == null || newId == null) {
+                if (scope.isTruncated()) {
+                    return Collections.<FileDiff>emptyList();
+                }
                 throw new IllegalArgumentException("提交ID无效");
             }
 
@@ -179,11 +269,11 @@ public class CommitQueryService {
             }
 
             return diffs;
-        }
+        });
     }
 
     /**
-     * 搜索提交消息
+     * 搜索提交消息（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param keyword 关键词
@@ -192,16 +282,31 @@ public class CommitQueryService {
      */
     public List<CommitInfo> searchCommits(String repoPath, String keyword, int maxCount)
             throws IOException, GitAPIException {
+        return searchCommits(repoPath, keyword, maxCount, null);
+    }
+
+    /**
+     * 搜索提交消息
+     *
+     * @param repoPath    仓库路径
+     * @param keyword     关键词
+     * @param maxCount    最大数量
+     * @param credentials 认证信息（可选，加深浅克隆历史时使用）
+     * @return 匹配的提交列表
+     */
+    public List<CommitInfo> searchCommits(String repoPath, String keyword, int maxCount, GitCredentials credentials)
+            throws IOException, GitAPIException {
         log.info("搜索提交: repoPath={}, keyword={}, maxCount={}",
                 repoPath, keyword, maxCount);
 
-        try (Git git = Git.open(new File(repoPath))) {
+        return queryHistory(repoPath, credentials, (git, scope) -> {
             LogCommand logCommand = git.log().setMaxCount(maxCount * 10); // 获取更多以便过滤
 
             List<CommitInfo> matchedCommits = new ArrayList<>();
             String lowerKeyword = keyword.toLowerCase();
 
             for (RevCommit revCommit : logCommand.call()) {
+                scope.visit(revCommit);
                 String message = revCommit.getFullMessage();
                 if (message.toLowerCase().contains(lowerKeyword)) {
                     matchedCommits.add(convertToCommitInfo(revCommit));
@@ -210,13 +315,14 @@ public class CommitQueryService {
                     }
                 }
             }
+            scope.truncatedIf(matchedCommits.size() < maxCount);
 
             return matchedCommits;
-        }
+        });
     }
 
     /**
-     * 获取分支间的提交差异
+     * 获取分支间的提交差异（公开仓库，不使用认证信息）
      *
      * @param repoPath 仓库路径
      * @param sourceBranch 源分支
@@ -225,16 +331,32 @@ public class CommitQueryService {
      */
     public List<CommitInfo> getBranchDifference(String repoPath, String sourceBranch,
                                                 String targetBranch) throws IOException, GitAPIException {
+        return getBranchDifference(repoPath, sourceBranch, targetBranch, null);
+    }
+
+    /**
+     * 获取分支间的提交差异
+     *
+     * @param repoPath     仓库路径
+     * @param sourceBranch 源分支
+     * @param targetBranch 目标分支
+     * @param credentials  认证信息（可选，加深浅克隆历史时使用）
+     * @return 提交列表
+     */
+    public List<CommitInfo> getBranchDifference(String repoPath, String sourceBranch,
+                                                String targetBranch,
+                                                GitCredentials credentials) throws IOException, GitAPIException {
         log.info("获取分支差异: repoPath={}, source={}, target={}",
                 repoPath, sourceBranch, targetBranch);
 
-        try (Git git = Git.open(new File(repoPath))) {
-            Repository repository = git.getRepository();
-
-            ObjectId sourceId = repository.resolve(sourceBranch);
-            ObjectId targetId = repository.resolve(targetBranch);
+        return queryHistory(repoPath, credentials, (git, scope) -> {
+            ObjectId sourceId = scope.resolve(sourceBranch);
+            ObjectId targetId = scope.resolve(targetBranch);
 
             if (sourceId == null || targetId == null) {
+                if (scope.isTruncated()) {
+                    return Collections.<CommitInfo>emptyList();
+                }
                 throw new IllegalArgumentException("分支不存在");
             }
 
@@ -242,12 +364,40 @@ public class CommitQueryService {
                     .add(sourceId)
                     .not(targetId);
 
+            // 到达浅克隆边界说明两个分支的共同祖先不在本地历史中
             List<CommitInfo> commits = new ArrayList<>();
             for (RevCommit revCommit : logCommand.call()) {
+                scope.visit(revCommit);
                 commits.add(convertToCommitInfo(revCommit));
             }
+            scope.truncatedIf(true);
 
             return commits;
+        });
+    }
+
+    /**
+     * 在仓库上执行历史查询
+     * 浅克隆仓库上查询结果受历史边界影响时加深历史后重新查询，最多加深 {@link #MAX_DEEPEN_ATTEMPTS} 次；
+     * 无法继续加深时返回基于现有历史的结果，加深失败（如认证失败）时抛出 {@link GitOperationException}
+     */
+    private <T> T queryHistory(String repoPath, GitCredentials credentials, HistoryQuery<T> query)
+            throws IOException, GitAPIException {
+        boolean deepen = gitService.isShallow(repoPath);
+        for (int attempt = 0; ; attempt++) {
+            HistoryScope scope;
+            T result;
+            try (GitRepositoryPool.Lease lease = repositoryPool.acquire(repoPath)) {
+                scope = new HistoryScope(lease.getRepository(), deepen && attempt < MAX_DEEPEN_ATTEMPTS);
+                result = query.run(lease.git(), scope);
+            }
+            if (!scope.isTruncated()) {
+                return result;
+            }
+            log.info("浅克隆历史不足，加深后重新查询: repoPath={}, attempt={}", repoPath, attempt + 1);
+            if (!gitService.deepenRepository(repoPath, credentials)) {
+                deepen = false;
+            }
         }
     }
 
@@ -345,6 +495,75 @@ public class CommitQueryService {
         return summary;
     }
 
+    /**
+     * 历史查询
+     */
+    @FunctionalInterface
+    private interface HistoryQuery<T> {
+        T run(Git git, HistoryScope scope) throws IOException, GitAPIException;
+    }
+
+    /**
+     * 一次历史查询的浅克隆边界
+     * 查询过程中记录是否因本地历史不完整而得不到完整结果（仅在允许加深时记录）
+     */
+    private static class HistoryScope {
+
+        private final Repository repository;
+        private final boolean deepenAllowed;
+        private final Set<ObjectId> boundary = new HashSet<>();
+        private boolean boundaryReached;
+        private boolean truncated;
+
+        HistoryScope(Repository repository, boolean deepenAllowed) throws IOException {
+            this.repository = repository;
+            this.deepenAllowed = deepenAllowed;
+            if (deepenAllowed) {
+                File shallowFile = new File(repository.getDirectory(), "shallow");
+                if (shallowFile.isFile()) {
+                    for (String line : Files.readAllLines(shallowFile.toPath(), StandardCharsets.UTF_8)) {
+                        if (ObjectId.isId(line.trim())) {
+                            boundary.add(ObjectId.fromString(line.trim()));
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * 解析提交，浅克隆中找不到时记为历史不足
+         */
+        ObjectId resolve(String revision) throws IOException {
+            ObjectId objectId = repository.resolve(revision);
+            if (objectId == null && deepenAllowed) {
+                truncated = true;
+            }
+            return objectId;
+        }
+
+        /**
+         * 记录查询经过的提交
+         */
+        void visit(RevCommit commit) {
+            if (!boundary.isEmpty() && boundary.contains(commit)) {
+                boundaryReached = true;
+            }
+        }
+
+        /**
+         * 查询经过了浅克隆边界且结果可能不完整时记为历史不足
+         */
+        void truncatedIf(boolean incomplete) {
+            if (incomplete && boundaryReached) {
+                truncated = true;
+            }
+        }
+
+        boolean isTruncated() {
+            return truncated;
+        }
+    }
+
     /**
      * 提交详情
      */
@@ -0,0 +1,46 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 两个提交之间的文件变更集合
+ * 路径均为相对仓库根目录的路径，重命名拆分为删除旧路径 + 新增新路径
+ *
+ * @author OpenDeepWiki Team
+ * @since 0.1.0
+ */
+@Data
+public class FileChangeSet {
+
+    /**
+     * 新增的文件
+     */
+    private List<String> added = new ArrayList<>();
+
+    /**
+     * 修改的文件
+     */
+    private List<String> modified = new ArrayList<>();
+
+    /**
+     * 删除的文件
+     */
+    private List<String> deleted = new ArrayList<>();
+
+    /**
+     * 变更文件总数
+     */
+    public int size() {
+        return added.size() + modified.size() + deleted.size();
+    }
+
+    /**
+     * 是否没有任何变更
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
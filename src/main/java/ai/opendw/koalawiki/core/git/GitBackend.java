@@ -0,0 +1,104 @@
+package ai.opendw.koalawiki.core.git;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Git操作后端
+ * 抽象 {@link GitService} 使用的仓库操作，所有方法失败时抛出 {@link GitOperationException}。
+ * 目录参数为仓库工作区目录，或裸镜像仓库的目录。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public interface GitBackend {
+
+    /**
+     * 后端类型
+     */
+    GitBackendType getType();
+
+    /**
+     * 克隆远程仓库（只克隆默认分支）
+     *
+     * @param remoteUrl   远程仓库URL
+     * @param directory   本地目录
+     * @param credentials 认证信息（可选）
+     * @param depth       克隆深度，0表示完整克隆
+     */
+    void cloneRepository(String remoteUrl, File directory, GitCredentials credentials, int depth);
+
+    /**
+     * 克隆远程仓库的裸镜像（所有引用，不检出工作区）
+     *
+     * @param remoteUrl   远程仓库URL
+     * @param directory   本地目录
+     * @param credentials 认证信息（可选）
+     * @param depth       克隆深度，0表示完整克隆
+     */
+    void cloneMirror(String remoteUrl, File directory, GitCredentials credentials, int depth);
+
+    /**
+     * 拉取当前分支的最新提交
+     *
+     * @param directory   本地仓库目录
+     * @param credentials 认证信息（可选）
+     */
+    void pull(File directory, GitCredentials credentials);
+
+    /**
+     * 更新裸镜像的所有引用（删除远程已删除的引用），不涉及工作区
+     *
+     * @param directory   本地仓库目录
+     * @param credentials 认证信息（可选）
+     */
+    void fetch(File directory, GitCredentials credentials);
+
+    /**
+     * 从HEAD开始的提交历史
+     *
+     * @param directory 本地仓库目录
+     * @param maxCount  最大数量
+     * @return 提交列表（从新到旧）
+     */
+    List<CommitInfo> log(File directory, int maxCount);
+
+    /**
+     * 两个提交之间的文件变更（不做重命名检测）
+     *
+     * @param directory  本地仓库目录
+     * @param fromCommit 起始提交
+     * @param toCommit   结束提交
+     * @return 文件变更列表
+     */
+    List<GitFileChange> diff(File directory, String fromCommit, String toCommit);
+
+    /**
+     * 指定版本中的所有文件路径
+     *
+     * @param directory 本地仓库目录
+     * @param revision  版本（提交ID、分支名等）
+     * @return 相对仓库根目录的文件路径
+     */
+    List<String> listFiles(File directory, String revision);
+
+    /**
+     * 指定版本中某个目录的直接子条目
+     *
+     * @param directory 本地仓库目录
+     * @param revision  版本（提交ID、分支名等）
+     * @param path      相对仓库根目录的目录路径，空字符串表示根目录
+     * @return 子条目列表，目录不存在或不是目录时返回null
+     */
+    List<GitTreeEntry> listTree(File directory, String revision, String path);
+
+    /**
+     * 读取指定版本中的文件内容
+     *
+     * @param directory 本地仓库目录
+     * @param revision  版本（提交ID、分支名等）
+     * @param path      相对仓库根目录的文件路径
+     * @return 文件内容，文件不存在时返回null
+     */
+    byte[] readBlob(File directory, String revision, String path);
+}
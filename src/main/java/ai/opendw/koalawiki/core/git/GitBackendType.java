@@ -0,0 +1,38 @@
+package ai.opendw.koalawiki.core.git;
+
+/**
+ * Git操作后端类型
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public enum GitBackendType {
+
+    /**
+     * 进程内的JGit实现
+     */
+    JGIT,
+
+    /**
+     * 调用本地git命令行，大仓库的克隆和拉取更快、内存占用更低
+     */
+    NATIVE;
+
+    /**
+     * 按名称解析后端类型（忽略大小写）
+     *
+     * @param name         后端名称
+     * @param defaultType  名称为空或无法识别时使用的类型
+     * @return 后端类型
+     */
+    public static GitBackendType fromName(String name, GitBackendType defaultType) {
+        if (name != null) {
+            for (GitBackendType type : values()) {
+                if (type.name().equalsIgnoreCase(name.trim())) {
+                    return type;
+                }
+            }
+        }
+        return defaultType;
+    }
+}
@@ -0,0 +1,25 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.eclipse.jgit.diff.DiffEntry;
+
+/**
+ * 两个提交之间的单个文件变更
+ * 与JGit一致：新增文件的旧路径和删除文件的新路径为 {@link DiffEntry#DEV_NULL}
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GitFileChange {
+
+    private DiffEntry.ChangeType changeType;
+
+    private String oldPath;
+
+    private String newPath;
+}
@@ -21,10 +21,31 @@ public class GitProperties {
     private String storagePath = "/data/koalawiki/git";
 
     /**
-     * 克隆深度，0表示完整克隆
+     * 克隆深度，0表示完整克隆；大于0时使用git命令行浅克隆
      */
     private int maxDepth = 0;
 
+    /**
+     * 浅克隆仓库需要更早的历史时每次加深的提交数，0表示直接获取完整历史
+     */
+    private int deepenStep = 500;
+
+    /**
+     * git命令行可执行文件
+     */
+    private String nativeExecutable = "git";
+
+    /**
+     * 默认Git后端（jgit/native），仓库可单独指定
+     */
+    private String backend = "jgit";
+
+    /**
+     * 新克隆仓库的存储方式（worktree/bare），bare只保留裸镜像，
+     * 需要扫描源码目录的代码分析功能依赖worktree
+     */
+    private String storageMode = "worktree";
+
     /**
      * 操作超时时间（毫秒）
      */
@@ -65,6 +86,47 @@ public class GitProperties {
      */
     private String sshKeyDirectory = "~/.ssh";
 
+    /**
+     * 仓库句柄池配置
+     */
+    private PoolConfig pool = new PoolConfig();
+
+    /**
+     * 仓库句柄池配置
+     */
+    @Data
+    public static class PoolConfig {
+        /**
+         * 池中保持打开的最大仓库数
+         */
+        private int maxSize = 32;
+
+        /**
+         * 空闲仓库的关闭时间（毫秒）
+         */
+        private long idleTimeoutMillis = 600000;
+
+        /**
+         * packfile窗口缓存大小（MB），0表示按最大堆内存的1/8估算（不超过512MB）
+         */
+        private long packedGitLimitMb = 0;
+
+        /**
+         * 增量基对象缓存大小（MB），0表示按最大堆内存的1/32估算（不超过64MB）
+         */
+        private long deltaBaseCacheLimitMb = 0;
+
+        /**
+         * 同时打开的packfile数上限
+         */
+        private int packedGitOpenFiles = 256;
+
+        /**
+         * 是否以内存映射方式读取packfile
+         */
+        private boolean packedGitMmap = false;
+    }
+
     /**
      * 代理配置
      */
@@ -56,17 +56,17 @@ public class GitRepositoryInfo {
     private String latestCommitAuthor;
 
     /**
-     * 仓库大小（字节）
+     * 仓库大小（字节，HEAD中文件的总大小），已通过 {@link GitService#getRepositoryStats} 计算时填充，否则为null
      */
     private Long repositorySize;
 
     /**
-     * 文件数量
+     * 文件数量（HEAD中的文件），已通过 {@link GitService#getRepositoryStats} 计算时填充，否则为null
      */
     private Integer fileCount;
 
     /**
-     * 是否有未提交的更改
+     * 是否有未提交的更改，按需通过 {@link GitService#hasUncommittedChanges} 检查，未检查时为null
      */
     private Boolean hasUncommittedChanges;
 
@@ -25,6 +25,7 @@ public class GitRepositoryManager {
 
     private final GitService gitService;
     private final GitPathResolver pathResolver;
+    private final GitRepositoryPool repositoryPool;
 
     /**
      * 仓库缓存（remoteUrl -> GitRepositoryInfo）
@@ -49,6 +50,19 @@ public class GitRepositoryManager {
      * @return 仓库信息
      */
     public GitRepositoryInfo getOrCloneRepository(String remoteUrl, GitCredentials credentials) {
+        return getOrCloneRepository(remoteUrl, credentials, null);
+    }
+
+    /**
+     * 获取或克隆仓库
+     *
+     * @param remoteUrl   远程仓库URL
+     * @param credentials 认证信息（可选）
+     * @param backendType 该仓库使用的Git后端，为null时使用默认后端
+     * @return 仓库信息
+     */
+    public GitRepositoryInfo getOrCloneRepository(String remoteUrl, GitCredentials credentials,
+                                                  GitBackendType backendType) {
         log.debug("Getting or cloning repository: {}", remoteUrl);
 
         // 从缓存获取
@@ -64,14 +78,14 @@ public class GitRepositoryManager {
 
         if (localDir.exists() && isValidRepository(localDir)) {
             log.info("Repository exists locally, pulling latest changes: {}", localPath);
-            GitRepositoryInfo info = gitService.pullRepository(localPath, credentials);
+            GitRepositoryInfo info = gitService.pullRepository(localPath, credentials, backendType);
             repositoryCache.put(remoteUrl, info);
             return info;
         }
 
         // 克隆新仓库
         log.info("Cloning new repository: {}", remoteUrl);
-        GitRepositoryInfo info = gitService.cloneRepository(remoteUrl, credentials);
+        GitRepositoryInfo info = gitService.cloneRepository(remoteUrl, credentials, backendType);
         repositoryCache.put(remoteUrl, info);
         return info;
     }
@@ -133,6 +147,7 @@ public class GitRepositoryManager {
         File localDir = new File(localPath);
 
         if (localDir.exists()) {
+            repositoryPool.invalidate(localPath);
             boolean deleted = deleteDirectory(localDir);
             if (deleted) {
                 repositoryCache.remove(remoteUrl);
@@ -227,7 +242,7 @@ public class GitRepositoryManager {
      */
     private boolean isValidRepository(File directory) {
         File gitDir = new File(directory, ".git");
-        return gitDir.exists() && gitDir.isDirectory();
+        return (gitDir.exists() && gitDir.isDirectory()) || gitService.isBareRepository(directory.getPath());
     }
 
     /**
@@ -0,0 +1,318 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.util.FS;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Git仓库句柄池
+ * 按本地路径缓存长期打开的JGit仓库，同一仓库的查询复用已加载的配置、引用和packfile索引，
+ * 不再每次操作都重新打开仓库。
+ *
+ * <ul>
+ *   <li>借出的句柄按引用计数管理，归还后保留在池中，空闲超时或超出池容量时关闭</li>
+ *   <li>仓库目录被删除或重新克隆前需调用 {@link #invalidate(String)}，仍在使用的句柄在归还后关闭</li>
+ *   <li>启动时按配置安装全局的packfile窗口缓存和增量基对象缓存，未配置时按最大堆内存估算</li>
+ * </ul>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GitRepositoryPool {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final GitProperties gitProperties;
+
+    /**
+     * 规范化的本地路径 -> 池中的仓库（按访问顺序排列）
+     */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 移出仓库的次数（invalidate/shutdown时递增），用于识别锁外打开期间发生的移出
+     */
+    private long invalidations;
+
+    /**
+     * 安装JGit全局缓存配置
+     */
+    @PostConstruct
+    public void init() {
+        GitProperties.PoolConfig pool = gitProperties.getPool();
+        long maxMemory = Runtime.getRuntime().maxMemory();
+
+        WindowCacheConfig config = new WindowCacheConfig();
+        long packedGitLimit = pool.getPackedGitLimitMb() > 0
+            ? pool.getPackedGitLimitMb() * MB
+            : Math.max(config.getPackedGitLimit(), Math.min(maxMemory / 8, 512 * MB));
+        long deltaBaseCacheLimit = pool.getDeltaBaseCacheLimitMb() > 0
+            ? pool.getDeltaBaseCacheLimitMb() * MB
+            : Math.max(config.getDeltaBaseCacheLimit(), Math.min(maxMemory / 32, 64 * MB));
+        config.setPackedGitLimit(packedGitLimit);
+        config.setDeltaBaseCacheLimit((int) deltaBaseCacheLimit);
+        config.setPackedGitOpenFiles(pool.getPackedGitOpenFiles());
+        config.setPackedGitMMAP(pool.isPackedGitMmap());
+        config.install();
+
+        log.info("Git仓库句柄池初始化: 容量={}, 空闲超时={}ms, packfile窗口缓存={}MB, 增量基对象缓存={}MB, 最大打开packfile数={}",
+            pool.getMaxSize(), pool.getIdleTimeoutMillis(), packedGitLimit / MB, deltaBaseCacheLimit / MB,
+            pool.getPackedGitOpenFiles());
+    }
+
+    /**
+     * 借出仓库句柄，使用完毕后必须关闭（归还）
+     * 仓库在锁外打开，避免慢速磁盘上打开仓库阻塞其他路径的借还；并发打开同一路径时保留先放入池中的句柄，
+     * 关闭多余的句柄；打开期间该路径被移出池时，句柄不放入池中，归还后关闭
+     *
+     * @param localPath 本地仓库路径（工作区目录或裸仓库目录）
+     * @return 仓库句柄
+     * @throws IOException 仓库不存在或无法打开
+     */
+    public Lease acquire(String localPath) throws IOException {
+        String key = normalize(localPath);
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.refCount++;
+                return new Lease(entry);
+            }
+            generation = invalidations;
+        }
+
+        Repository opened = RepositoryCache.FileKey.lenient(new File(key), FS.DETECTED).open(true);
+        Repository duplicate = null;
+        List<Repository> closing = null;
+        Lease lease;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                duplicate = opened;
+            } else {
+                entry = new Entry(key, opened);
+                if (generation == invalidations) {
+                    entries.put(key, entry);
+                    log.debug("打开Git仓库: {}", key);
+                } else {
+                    entry.retired = true;
+                }
+            }
+            entry.refCount++;
+            lease = new Lease(entry);
+            if (duplicate == null) {
+                closing = evictOverflow();
+            }
+        }
+        if (duplicate != null) {
+            duplicate.close();
+        }
+        closeAll(closing);
+        return lease;
+    }
+
+    /**
+     * 将仓库移出池（目录被删除或重新克隆前调用），仍在使用的句柄在归还后关闭
+     *
+     * @param localPath 本地仓库路径
+     */
+    public void invalidate(String localPath) {
+        Repository closing = null;
+        synchronized (this) {
+            invalidations++;
+            Entry entry = entries.remove(normalize(localPath));
+            if (entry != null) {
+                entry.retired = true;
+                if (entry.refCount == 0) {
+                    closing = entry.repository;
+                }
+            }
+        }
+        if (closing != null) {
+            closing.close();
+        }
+    }
+
+    /**
+     * 关闭空闲超时的仓库（每分钟执行一次）
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void evictIdle() {
+        long deadline = System.currentTimeMillis() - gitProperties.getPool().getIdleTimeoutMillis();
+        List<Repository> closing = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.refCount == 0 && entry.lastReleased < deadline) {
+                    iterator.remove();
+                    entry.retired = true;
+                    closing.add(entry.repository);
+                }
+            }
+        }
+        if (!closing.isEmpty()) {
+            log.debug("关闭空闲的Git仓库: {}个", closing.size());
+            closeAll(closing);
+        }
+    }
+
+    /**
+     * 池中的仓库数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 关闭池中所有仓库
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Repository> closing = new ArrayList<>();
+        synchronized (this) {
+            invalidations++;
+            for (Entry entry : entries.values()) {
+                entry.retired = true;
+                if (entry.refCount == 0) {
+                    closing.add(entry.repository);
+                }
+            }
+            entries.clear();
+        }
+        closeAll(closing);
+    }
+
+    /**
+     * 超出池容量时按最久未使用的顺序移出空闲仓库，调用方持有锁
+     */
+    private List<Repository> evictOverflow() {
+        int maxSize = gitProperties.getPool().getMaxSize();
+        if (entries.size() <= maxSize) {
+            return null;
+        }
+        List<Repository> closing = new ArrayList<>();
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.refCount == 0) {
+                iterator.remove();
+                entry.retired = true;
+                closing.add(entry.repository);
+            }
+        }
+        return closing;
+    }
+
+    private void release(Entry entry) {
+        boolean close;
+        synchronized (this) {
+            entry.refCount--;
+            entry.lastReleased = System.currentTimeMillis();
+            close = entry.retired && entry.refCount == 0;
+        }
+        if (close) {
+            entry.repository.close();
+        }
+    }
+
+    private static void closeAll(List<Repository> repositories) {
+        if (repositories != null) {
+            for (Repository repository : repositories) {
+                repository.close();
+            }
+        }
+    }
+
+    private static String normalize(String localPath) {
+        return new File(localPath).getAbsoluteFile().toPath().normalize().toString();
+    }
+
+    /**
+     * 池中的仓库
+     */
+    private static class Entry {
+
+        private final String path;
+        private final Repository repository;
+
+        /**
+         * 借出未归还的句柄数
+         */
+        private int refCount;
+
+        /**
+         * 最近一次归还的时间
+         */
+        private long lastReleased = System.currentTimeMillis();
+
+        /**
+         * 已移出池，引用归零时关闭
+         */
+        private boolean retired;
+
+        Entry(String path, Repository repository) {
+            this.path = path;
+            this.repository = repository;
+        }
+    }
+
+    /**
+     * 借出的仓库句柄
+     * 关闭时归还到池中，不关闭底层仓库；同一句柄只能关闭一次
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final Entry entry;
+        private boolean released;
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public Repository getRepository() {
+            return entry.repository;
+        }
+
+        /**
+         * 包装为Git命令入口（关闭Git对象不会关闭仓库）
+         */
+        public Git git() {
+            return Git.wrap(entry.repository);
+        }
+
+        /**
+         * 本地仓库路径
+         */
+        public String getPath() {
+            return entry.path;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(entry);
+            }
+        }
+    }
+}
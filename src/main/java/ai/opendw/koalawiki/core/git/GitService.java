@@ -1,17 +1,18 @@
 package ai.opendw.koalawiki.core.git;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.eclipse.jgit.api.*;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
 import org.eclipse.jgit.lib.ObjectId;
-import org.eclipse.jgit.lib.ProgressMonitor;
-import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
-import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.transport.CredentialsProvider;
-import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -21,19 +22,36 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Git操作服务
  * 提供Git仓库的克隆、拉取、提交历史查询等功能
  *
+ * <p>克隆、拉取、提交历史、差异、文件列表和文件内容读取委托给 {@link GitBackend}：
+ * 默认后端由 {@code koalawiki.git.backend} 配置，克隆或拉取时可按仓库指定，
+ * 之后对该仓库的读操作沿用同一后端。git命令行不可用时使用JGit；
+ * 浅克隆、在浅克隆上拉取和加深历史总是使用git命令行（JGit 5.x不支持）。</p>
+ *
+ * <p>{@code koalawiki.git.storage-mode=bare} 时新克隆的仓库只保存裸镜像，同步只更新引用和对象，
+ * 文件列表和内容通过 {@link #listDirectory}/{@link #readFile} 从对象库按提交读取，可读取任意历史版本。
+ * 已有仓库按磁盘上的实际布局处理，不会自动转换。</p>
+ *
+ * <p>仓库信息不再遍历目录：文件数量和大小由 {@link #getRepositoryStats} 从HEAD提交树按需计算，
+ * 按提交缓存；工作区状态由 {@link #hasUncommittedChanges} 按需检查。</p>
+ *
  * @author OpenDeepWiki Team
  * @since 0.1.0
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GitService {
 
+    private final GitRepositoryPool repositoryPool;
+    private final JGitBackend jgitBackend;
+    private final NativeGitBackend nativeBackend;
+
     @Value("${koalawiki.git.storage-path:/data/koalawiki/git}")
     private String storagePath;
 
@@ -46,14 +64,50 @@ public class GitService {
     @Value("${koalawiki.git.cache-cleanup-days:30}")
     private int cacheCleanupDays;
 
+    @Value("${koalawiki.git.deepen-step:500}")
+    private int deepenStep;
+
+    @Value("${koalawiki.git.backend:jgit}")
+    private String defaultBackend;
+
+    @Value("${koalawiki.git.storage-mode:worktree}")
+    private String storageMode;
+
     /**
-     * 克隆Git仓库
+     * 按仓库指定的后端（规范化的本地路径 -> 后端类型）
+     */
+    private final Map<String, GitBackendType> repositoryBackends = new ConcurrentHashMap<>();
+
+    /**
+     * 仓库统计缓存（规范化的本地路径 -> 最近一次计算的统计），HEAD变化后重新计算
+     */
+    private final Map<String, RepositoryStats> statsCache = new ConcurrentHashMap<>();
+
+    /**
+     * 加深历史的锁（规范化的本地路径 -> 锁），同一仓库的加深串行执行，不同仓库互不阻塞
+     */
+    private final Map<String, Object> deepenLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 克隆Git仓库（使用默认后端）
      *
      * @param remoteUrl   远程仓库URL
      * @param credentials 认证信息（可选）
      * @return 仓库信息
      */
     public GitRepositoryInfo cloneRepository(String remoteUrl, GitCredentials credentials) {
+        return cloneRepository(remoteUrl, credentials, null);
+    }
+
+    /**
+     * 克隆Git仓库
+     *
+     * @param remoteUrl   远程仓库URL
+     * @param credentials 认证信息（可选）
+     * @param backendType 该仓库使用的后端，为null时使用默认后端
+     * @return 仓库信息
+     */
+    public GitRepositoryInfo cloneRepository(String remoteUrl, GitCredentials credentials, GitBackendType backendType) {
         log.info("Starting to clone repository: {}", remoteUrl);
 
         try {
@@ -64,36 +118,28 @@ public class GitService {
             // 如果目录已存在，先尝试更新
             if (localDir.exists() && isGitRepository(localDir)) {
                 log.info("Repository already exists, pulling latest changes: {}", localPath);
-                return pullRepository(localPath, credentials);
+                return pullRepository(localPath, credentials, backendType);
             }
 
+            // 目录已不是有效仓库时，丢弃池中的旧句柄
+            repositoryPool.invalidate(localPath);
+            selectBackend(localPath, backendType);
+
             // 创建目录
             Files.createDirectories(Paths.get(localPath));
 
-            // 设置克隆命令
-            CloneCommand cloneCommand = Git.cloneRepository()
-                    .setURI(remoteUrl)
-                    .setDirectory(localDir)
-                    .setCloneAllBranches(false)
-                    .setProgressMonitor(new LogProgressMonitor());
-
-            // 设置克隆深度
-            // JGit 5.x 版本不支持 setDepth，需要通过其他方式实现浅克隆
-            // if (maxDepth > 0) {
-            //     cloneCommand.setDepth(maxDepth);
-            // }
-
-            // 设置认证
-            CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
-            if (credentialsProvider != null) {
-                cloneCommand.setCredentialsProvider(credentialsProvider);
+            // JGit 5.x 不支持浅克隆，配置了克隆深度时使用git命令行
+            GitBackend backend = maxDepth > 0 && nativeBackend.isAvailable() ? nativeBackend : backend(localPath);
+            GitStorageMode mode = GitStorageMode.fromName(storageMode, GitStorageMode.WORKTREE);
+            if (mode == GitStorageMode.BARE) {
+                backend.cloneMirror(remoteUrl, localDir, credentials, maxDepth);
+            } else {
+                backend.cloneRepository(remoteUrl, localDir, credentials, maxDepth);
             }
+            log.info("Repository cloned successfully: {}, backend={}, depth={}, storage={}",
+                    localPath, backend.getType(), maxDepth, mode);
 
-            // 执行克隆
-            try (Git git = cloneCommand.call()) {
-                log.info("Repository cloned successfully: {}", localPath);
-                return buildRepositoryInfo(git, remoteUrl);
-            }
+            return readRepositoryInfo(localPath, remoteUrl);
 
         } catch (Exception e) {
             log.error("Failed to clone repository: {}", remoteUrl, e);
@@ -109,6 +155,18 @@ public class GitService {
      * @return 仓库信息
      */
     public GitRepositoryInfo pullRepository(String localPath, GitCredentials credentials) {
+        return pullRepository(localPath, credentials, null);
+    }
+
+    /**
+     * 拉取最新代码
+     *
+     * @param localPath   本地仓库路径
+     * @param credentials 认证信息（可选）
+     * @param backendType 该仓库使用的后端，为null时沿用之前指定的后端或默认后端
+     * @return 仓库信息
+     */
+    public GitRepositoryInfo pullRepository(String localPath, GitCredentials credentials, GitBackendType backendType) {
         log.info("Pulling latest changes for repository: {}", localPath);
 
         try {
@@ -116,33 +174,24 @@ public class GitService {
             if (!localDir.exists() || !isGitRepository(localDir)) {
                 throw new GitOperationException("Not a valid Git repository: " + localPath);
             }
-
-            try (Git git = Git.open(localDir)) {
-                // 设置拉取命令
-                PullCommand pullCommand = git.pull();
-
-                // 设置认证
-                CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
-                if (credentialsProvider != null) {
-                    pullCommand.setCredentialsProvider(credentialsProvider);
-                }
-
-                // 执行拉取
-                PullResult pullResult = pullCommand.call();
-
-                if (pullResult.isSuccessful()) {
-                    log.info("Repository pulled successfully: {}", localPath);
-                } else {
-                    log.warn("Pull was not successful: {}", pullResult.toString());
-                }
-
-                // 获取远程URL
-                String remoteUrl = git.getRepository()
-                        .getConfig()
-                        .getString("remote", "origin", "url");
-
-                return buildRepositoryInfo(git, remoteUrl);
+            selectBackend(localPath, backendType);
+
+            // JGit 5.x 无法在浅克隆上正确拉取，使用git命令行
+            GitBackend backend = isShallow(localPath) && nativeBackend.isAvailable()
+                    ? nativeBackend : backend(localPath);
+            if (isBareRepository(localPath)) {
+                // 裸镜像只更新引用和对象，不涉及工作区
+                backend.fetch(localDir, credentials);
+            } else {
+                backend.pull(localDir, credentials);
             }
+            if (backend.getType() == GitBackendType.NATIVE) {
+                // 外部进程写入了新的引用和packfile
+                repositoryPool.invalidate(localPath);
+            }
+            log.info("Repository pulled successfully: {}, backend={}", localPath, backend.getType());
+
+            return readRepositoryInfo(localPath, null);
 
         } catch (Exception e) {
             log.error("Failed to pull repository: {}", localPath, e);
@@ -166,30 +215,7 @@ public class GitService {
                 throw new GitOperationException("Not a valid Git repository: " + localPath);
             }
 
-            List<CommitInfo> commits = new ArrayList<>();
-
-            try (Git git = Git.open(localDir)) {
-                Iterable<RevCommit> revCommits = git.log()
-                        .setMaxCount(limit)
-                        .call();
-
-                for (RevCommit revCommit : revCommits) {
-                    CommitInfo commitInfo = CommitInfo.builder()
-                            .commitId(revCommit.getId().getName())
-                            .message(revCommit.getFullMessage())
-                            .author(revCommit.getAuthorIdent().getName())
-                            .authorEmail(revCommit.getAuthorIdent().getEmailAddress())
-                            .commitTime(new Date(revCommit.getCommitTime() * 1000L))
-                            .parentIds(Arrays.stream(revCommit.getParents())
-                                    .map(parent -> parent.getId().getName())
-                                    .collect(Collectors.toList()))
-                            .build();
-
-                    commits.add(commitInfo);
-                }
-            }
-
-            return commits;
+            return backend(localPath).log(localDir, limit);
 
         } catch (Exception e) {
             log.error("Failed to get commit history: {}", localPath, e);
@@ -215,34 +241,125 @@ public class GitService {
             }
 
             List<String> changedFiles = new ArrayList<>();
+            for (GitFileChange change : backend(localPath).diff(localDir, fromCommit, toCommit)) {
+                changedFiles.add(change.getNewPath());
+            }
+            return changedFiles;
 
-            try (Git git = Git.open(localDir)) {
-                Repository repository = git.getRepository();
-
-                ObjectId fromId = repository.resolve(fromCommit);
-                ObjectId toId = repository.resolve(toCommit);
+        } catch (Exception e) {
+            log.error("Failed to get commit diff: {}", localPath, e);
+            throw new GitOperationException("Failed to get commit diff: " + e.getMessage(), e);
+        }
+    }
 
-                if (fromId == null || toId == null) {
-                    throw new GitOperationException("Invalid commit IDs");
-                }
+    /**
+     * 获取两个提交之间按变更类型分类的文件列表
+     *
+     * @param localPath  本地仓库路径
+     * @param fromCommit 起始提交ID
+     * @param toCommit   结束提交ID
+     * @return 文件变更集合
+     */
+    public FileChangeSet getCommitChanges(String localPath, String fromCommit, String toCommit) {
+        log.debug("Getting changes between {} and {} for repository: {}", fromCommit, toCommit, localPath);
 
-                DiffCommand diffCommand = git.diff()
-                        .setOldTree(prepareTreeParser(repository, fromId))
-                        .setNewTree(prepareTreeParser(repository, toId));
+        try {
+            File localDir = new File(localPath);
+            if (!localDir.exists() || !isGitRepository(localDir)) {
+                throw new GitOperationException("Not a valid Git repository: " + localPath);
+            }
 
-                diffCommand.call().forEach(diff -> {
-                    changedFiles.add(diff.getNewPath());
-                });
+            FileChangeSet changes = new FileChangeSet();
+
+            for (GitFileChange diff : backend(localPath).diff(localDir, fromCommit, toCommit)) {
+                switch (diff.getChangeType()) {
+                    case ADD:
+                    case COPY:
+                        changes.getAdded().add(diff.getNewPath());
+                        break;
+                    case MODIFY:
+                        changes.getModified().add(diff.getNewPath());
+                        break;
+                    case DELETE:
+                        changes.getDeleted().add(diff.getOldPath());
+                        break;
+                    case RENAME:
+                        changes.getDeleted().add(diff.getOldPath());
+                        changes.getAdded().add(diff.getNewPath());
+                        break;
+                    default:
+                        break;
+                }
             }
 
-            return changedFiles;
+            return changes;
 
         } catch (Exception e) {
-            log.error("Failed to get commit diff: {}", localPath, e);
-            throw new GitOperationException("Failed to get commit diff: " + e.getMessage(), e);
+            log.error("Failed to get commit changes: {}", localPath, e);
+            throw new GitOperationException("Failed to get commit changes: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * 获取指定版本中的所有文件路径
+     *
+     * @param localPath 本地仓库路径
+     * @param revision  版本（提交ID、分支名等）
+     * @return 相对仓库根目录的文件路径
+     */
+    public List<String> listFiles(String localPath, String revision) {
+        log.debug("Listing files at {} for repository: {}", revision, localPath);
+        return backend(localPath).listFiles(new File(localPath), revision);
+    }
+
+    /**
+     * 读取指定版本中的文件内容
+     *
+     * @param localPath 本地仓库路径
+     * @param revision  版本（提交ID、分支名等）
+     * @param path      相对仓库根目录的文件路径
+     * @return 文件内容，文件不存在时返回null
+     */
+    public byte[] readFile(String localPath, String revision, String path) {
+        return backend(localPath).readBlob(new File(localPath), revision, path);
+    }
+
+    /**
+     * 读取指定版本中某个目录的直接子条目，不需要检出工作区
+     *
+     * @param localPath 本地仓库路径
+     * @param revision  版本（提交ID、分支名等）
+     * @param path      相对仓库根目录的目录路径，空字符串表示根目录
+     * @return 子条目列表，目录不存在或不是目录时返回null
+     */
+    public List<GitTreeEntry> listDirectory(String localPath, String revision, String path) {
+        log.debug("Listing directory {} at {} for repository: {}", path, revision, localPath);
+        return backend(localPath).listTree(new File(localPath), revision, path);
+    }
+
+    /**
+     * 是否为Git仓库（带工作区的仓库或裸仓库）
+     *
+     * @param localPath 本地路径
+     * @return 是否为Git仓库
+     */
+    public boolean isGitRepository(String localPath) {
+        return isGitRepository(new File(localPath));
+    }
+
+    /**
+     * 是否为裸仓库（没有工作区）
+     *
+     * @param localPath 本地仓库路径
+     * @return 是否为裸仓库
+     */
+    public boolean isBareRepository(String localPath) {
+        File directory = new File(localPath);
+        return !new File(directory, ".git").exists()
+                && new File(directory, "HEAD").isFile()
+                && new File(directory, "objects").isDirectory();
+    }
+
     /**
      * 获取仓库信息
      *
@@ -258,13 +375,7 @@ public class GitService {
                 throw new GitOperationException("Not a valid Git repository: " + localPath);
             }
 
-            try (Git git = Git.open(localDir)) {
-                String remoteUrl = git.getRepository()
-                        .getConfig()
-                        .getString("remote", "origin", "url");
-
-                return buildRepositoryInfo(git, remoteUrl);
-            }
+            return readRepositoryInfo(localPath, null);
 
         } catch (Exception e) {
             log.error("Failed to get repository info: {}", localPath, e);
@@ -272,6 +383,108 @@ public class GitService {
         }
     }
 
+    /**
+     * 获取仓库HEAD提交的文件数量和总大小
+     * 首次调用时遍历HEAD提交树计算（只读取对象大小，不读取内容），之后同一提交直接返回缓存
+     *
+     * @param localPath 本地仓库路径
+     * @return 仓库统计
+     */
+    public RepositoryStats getRepositoryStats(String localPath) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(localPath)) {
+            Repository repository = lease.getRepository();
+            ObjectId head = repository.resolve(Constants.HEAD);
+            if (head == null) {
+                return new RepositoryStats(null, 0, 0L);
+            }
+
+            String key = normalize(localPath);
+            RepositoryStats cached = statsCache.get(key);
+            if (cached != null && head.getName().equals(cached.getCommitId())) {
+                return cached;
+            }
+
+            long startTime = System.currentTimeMillis();
+            RepositoryStats stats = computeStats(repository, head);
+            statsCache.put(key, stats);
+            log.debug("Repository stats computed: {}, commit={}, files={}, size={}, took {}ms", localPath,
+                    stats.getCommitId(), stats.getFileCount(), stats.getTotalSize(),
+                    System.currentTimeMillis() - startTime);
+            return stats;
+
+        } catch (IOException e) {
+            log.error("Failed to get repository stats: {}", localPath, e);
+            throw new GitOperationException("Failed to get repository stats: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 工作区是否有未提交的更改（需要扫描工作区，裸仓库始终返回false）
+     *
+     * @param localPath 本地仓库路径
+     * @return 是否有未提交的更改
+     */
+    public boolean hasUncommittedChanges(String localPath) {
+        if (isBareRepository(localPath)) {
+            return false;
+        }
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(localPath)) {
+            Status status = lease.git().status().call();
+            return !status.isClean();
+        } catch (Exception e) {
+            log.error("Failed to get repository status: {}", localPath, e);
+            throw new GitOperationException("Failed to get repository status: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 是否为浅克隆仓库
+     *
+     * @param localPath 本地仓库路径
+     * @return 是否只包含部分提交历史
+     */
+    public boolean isShallow(String localPath) {
+        return new File(gitDirectory(localPath), "shallow").isFile();
+    }
+
+    /**
+     * 加深浅克隆仓库的提交历史
+     * 每次向前获取 {@code koalawiki.git.deepen-step} 个提交，配置为0时获取完整历史
+     *
+     * @param localPath   本地仓库路径
+     * @param credentials 认证信息（可选）
+     * @return 是否获取了更多历史；非浅克隆仓库或git命令行不可用时返回false
+     * @throws GitOperationException 获取失败（如认证失败、网络错误）
+     */
+    public boolean deepenRepository(String localPath, GitCredentials credentials) {
+        if (!isShallow(localPath)) {
+            return false;
+        }
+        if (!nativeBackend.isAvailable()) {
+            log.warn("git command line is not available, cannot deepen shallow repository: {}", localPath);
+            return false;
+        }
+
+        synchronized (deepenLocks.computeIfAbsent(normalize(localPath), k -> new Object())) {
+            if (!isShallow(localPath)) {
+                // 等待期间其他线程已获取完整历史
+                return false;
+            }
+            long startTime = System.currentTimeMillis();
+            try {
+                nativeBackend.deepen(new File(localPath), credentials, deepenStep);
+            } catch (GitOperationException e) {
+                log.warn("Failed to deepen repository: {}, reason: {}", localPath, e.getMessage());
+                throw e;
+            } finally {
+                repositoryPool.invalidate(localPath);
+            }
+            log.info("Repository deepened: {}, step={}, shallow={}, took {}ms",
+                    localPath, deepenStep, isShallow(localPath), System.currentTimeMillis() - startTime);
+            return true;
+        }
+    }
+
     /**
      * 清理过期的仓库缓存
      *
@@ -294,6 +507,8 @@ public class GitService {
                 for (File repo : repositories) {
                     if (repo.lastModified() < expirationTime) {
                         log.info("Cleaning up expired repository: {}", repo.getAbsolutePath());
+                        repositoryPool.invalidate(repo.getAbsolutePath());
+                        statsCache.remove(normalize(repo.getAbsolutePath()));
                         deleteDirectory(repo);
                         cleanedCount++;
                     }
@@ -324,50 +539,60 @@ public class GitService {
     }
 
     /**
-     * 检查目录是否为Git仓库
+     * 记录仓库指定的后端
      */
-    private boolean isGitRepository(File directory) {
-        File gitDir = new File(directory, ".git");
-        return gitDir.exists() && gitDir.isDirectory();
+    private void selectBackend(String localPath, GitBackendType backendType) {
+        if (backendType != null) {
+            repositoryBackends.put(normalize(localPath), backendType);
+        }
     }
 
     /**
-     * 创建认证提供者
+     * 仓库使用的后端：按仓库指定的后端，否则为默认后端；git命令行不可用时使用JGit
      */
-    private CredentialsProvider createCredentialsProvider(GitCredentials credentials) {
-        if (credentials == null || credentials.getType() == GitCredentials.CredentialType.NONE) {
-            return null;
+    private GitBackend backend(String localPath) {
+        GitBackendType type = repositoryBackends.get(normalize(localPath));
+        if (type == null) {
+            type = GitBackendType.fromName(defaultBackend, GitBackendType.JGIT);
         }
+        return type == GitBackendType.NATIVE && nativeBackend.isAvailable() ? nativeBackend : jgitBackend;
+    }
 
-        switch (credentials.getType()) {
-            case HTTP_BASIC:
-                return new UsernamePasswordCredentialsProvider(
-                        credentials.getUsername(),
-                        credentials.getPassword()
-                );
-
-            case OAUTH_TOKEN:
-                return new UsernamePasswordCredentialsProvider(
-                        "token",
-                        credentials.getPassword()
-                );
-
-            case SSH_KEY:
-                // SSH密钥认证需要额外配置
-                configureSshAuth(credentials);
-                return null;
-
-            default:
-                return null;
+    private static String normalize(String localPath) {
+        return new File(localPath).getAbsoluteFile().toPath().normalize().toString();
+    }
+
+    /**
+     * 读取仓库信息
+     *
+     * @param remoteUrl 远程URL，为null时从仓库配置读取
+     */
+    private GitRepositoryInfo readRepositoryInfo(String localPath, String remoteUrl)
+            throws IOException, GitAPIException {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(localPath)) {
+            Git git = lease.git();
+            if (remoteUrl == null) {
+                remoteUrl = git.getRepository()
+                        .getConfig()
+                        .getString("remote", "origin", "url");
+            }
+            return buildRepositoryInfo(git, remoteUrl);
         }
     }
 
     /**
-     * 配置SSH认证
+     * 检查目录是否为Git仓库（带工作区的仓库或裸仓库）
+     */
+    private boolean isGitRepository(File directory) {
+        File gitDir = new File(directory, ".git");
+        return (gitDir.exists() && gitDir.isDirectory()) || isBareRepository(directory.getPath());
+    }
+
+    /**
+     * 仓库的Git目录：工作区下的.git，裸仓库为仓库目录本身
      */
-    private void configureSshAuth(GitCredentials credentials) {
-        // TODO: 实现SSH密钥认证配置
-        log.warn("SSH authentication not yet implemented");
+    private File gitDirectory(String localPath) {
+        return isBareRepository(localPath) ? new File(localPath) : new File(localPath, ".git");
     }
 
     /**
@@ -377,7 +602,8 @@ public class GitService {
         Repository repository = git.getRepository();
 
         GitRepositoryInfo info = GitRepositoryInfo.fromUrl(remoteUrl);
-        info.setLocalPath(repository.getDirectory().getParentFile().getAbsolutePath());
+        File repoDir = repository.isBare() ? repository.getDirectory() : repository.getWorkTree();
+        info.setLocalPath(repoDir.getAbsolutePath());
         info.setCurrentBranch(repository.getBranch());
         info.setStatus(GitRepositoryInfo.RepositoryStatus.READY);
         info.setLastSyncTime(new Date());
@@ -393,66 +619,36 @@ public class GitService {
             log.warn("No commits found in repository");
         }
 
-        // 获取仓库大小和文件数量
-        File repoDir = repository.getDirectory().getParentFile();
-        info.setRepositorySize(calculateDirectorySize(repoDir));
-        info.setFileCount(countFiles(repoDir));
-
-        // 检查状态
-        Status status = git.status().call();
-        info.setHasUncommittedChanges(!status.isClean());
-
-        return info;
-    }
-
-    /**
-     * 准备树解析器
-     */
-    private org.eclipse.jgit.treewalk.AbstractTreeIterator prepareTreeParser(
-            Repository repository, ObjectId objectId) throws IOException {
-        try (RevWalk walk = new RevWalk(repository)) {
-            RevCommit commit = walk.parseCommit(objectId);
-            org.eclipse.jgit.treewalk.TreeWalk treeWalk = new org.eclipse.jgit.treewalk.TreeWalk(repository);
-            treeWalk.addTree(commit.getTree());
-            treeWalk.setRecursive(false);
-            return new org.eclipse.jgit.treewalk.CanonicalTreeParser(null, repository.newObjectReader(), commit.getTree());
+        // 文件统计只取已缓存的结果，按需通过 getRepositoryStats 计算
+        RepositoryStats stats = statsCache.get(normalize(repoDir.getPath()));
+        if (stats != null && stats.getCommitId() != null && stats.getCommitId().equals(info.getLatestCommitId())) {
+            info.setRepositorySize(stats.getTotalSize());
+            info.setFileCount(stats.getFileCount());
         }
-    }
 
-    /**
-     * 计算目录大小
-     */
-    private long calculateDirectorySize(File directory) {
-        long size = 0;
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    size += file.length();
-                } else if (file.isDirectory() && !".git".equals(file.getName())) {
-                    size += calculateDirectorySize(file);
-                }
-            }
-        }
-        return size;
+        return info;
     }
 
     /**
-     * 统计文件数量
+     * 遍历提交树统计文件数量和总大小
      */
-    private int countFiles(File directory) {
-        int count = 0;
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isFile()) {
-                    count++;
-                } else if (file.isDirectory() && !".git".equals(file.getName())) {
-                    count += countFiles(file);
+    private RepositoryStats computeStats(Repository repository, ObjectId commitId) throws IOException {
+        int fileCount = 0;
+        long totalSize = 0;
+        try (ObjectReader reader = repository.newObjectReader();
+             RevWalk walk = new RevWalk(reader);
+             TreeWalk treeWalk = new TreeWalk(reader)) {
+            treeWalk.addTree(walk.parseCommit(commitId).getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                if (treeWalk.getFileMode(0) == FileMode.GITLINK) {
+                    continue;
                 }
+                fileCount++;
+                totalSize += reader.getObjectSize(treeWalk.getObjectId(0), Constants.OBJ_BLOB);
             }
         }
-        return count;
+        return new RepositoryStats(commitId.getName(), fileCount, totalSize);
     }
 
     /**
@@ -464,33 +660,4 @@ public class GitService {
                 .map(Path::toFile)
                 .forEach(File::delete);
     }
-
-    /**
-     * 进度监控器
-     */
-    private static class LogProgressMonitor implements ProgressMonitor {
-        @Override
-        public void start(int totalTasks) {
-            log.info("Starting {} tasks", totalTasks);
-        }
-
-        @Override
-        public void beginTask(String title, int totalWork) {
-            log.info("Beginning task: {} (total work: {})", title, totalWork);
-        }
-
-        @Override
-        public void update(int completed) {
-        }
-
-        @Override
-        public void endTask() {
-            log.info("Task completed");
-        }
-
-        @Override
-        public boolean isCancelled() {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package ai.opendw.koalawiki.core.git;
+
+/**
+ * 本地仓库存储方式
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public enum GitStorageMode {
+
+    /**
+     * 带工作区的普通克隆，代码分析等需要扫描源码目录的功能依赖工作区
+     */
+    WORKTREE,
+
+    /**
+     * 只保留裸镜像，文件列表和内容直接从对象库读取，同步时不检出工作区；
+     * 代码分析（业务流程、调用图、服务依赖图）拒绝裸镜像，依赖图同步刷新时跳过
+     */
+    BARE;
+
+    /**
+     * 按名称解析存储方式（忽略大小写）
+     *
+     * @param name        存储方式名称
+     * @param defaultMode 名称为空或无法识别时使用的存储方式
+     * @return 存储方式
+     */
+    public static GitStorageMode fromName(String name, GitStorageMode defaultMode) {
+        if (name != null) {
+            for (GitStorageMode mode : values()) {
+                if (mode.name().equalsIgnoreCase(name.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return defaultMode;
+    }
+}
@@ -0,0 +1,42 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 提交树中的一个条目（文件、目录或子模块）
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GitTreeEntry {
+
+    /**
+     * 条目名称
+     */
+    private String name;
+
+    /**
+     * 相对仓库根目录的路径
+     */
+    private String path;
+
+    /**
+     * 是否为目录
+     */
+    private boolean directory;
+
+    /**
+     * 文件大小（字节），目录和子模块为0
+     */
+    private long size;
+
+    /**
+     * 对象ID
+     */
+    private String objectId;
+}
@@ -0,0 +1,346 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.api.CloneCommand;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.PullCommand;
+import org.eclipse.jgit.api.PullResult;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * JGit后端
+ * 读操作使用仓库句柄池中的长期句柄，文件列表和内容通过 {@link TreeWalk}/{@link ObjectReader} 直接读取对象库；
+ * 不支持浅克隆，指定克隆深度时执行完整克隆。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JGitBackend implements GitBackend {
+
+    private final GitRepositoryPool repositoryPool;
+
+    @Override
+    public GitBackendType getType() {
+        return GitBackendType.JGIT;
+    }
+
+    @Override
+    public void cloneRepository(String remoteUrl, File directory, GitCredentials credentials, int depth) {
+        if (depth > 0) {
+            // JGit 5.x 不支持浅克隆
+            log.warn("JGit does not support shallow clone, cloning full history: {}", remoteUrl);
+        }
+
+        CloneCommand cloneCommand = Git.cloneRepository()
+                .setURI(remoteUrl)
+                .setDirectory(directory)
+                .setCloneAllBranches(false)
+                .setProgressMonitor(new LogProgressMonitor());
+
+        CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
+        if (credentialsProvider != null) {
+            cloneCommand.setCredentialsProvider(credentialsProvider);
+        }
+
+        try (Git git = cloneCommand.call()) {
+            log.debug("Repository cloned with JGit: {}", directory);
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to clone repository: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void cloneMirror(String remoteUrl, File directory, GitCredentials credentials, int depth) {
+        if (depth > 0) {
+            log.warn("JGit does not support shallow clone, mirroring full history: {}", remoteUrl);
+        }
+
+        CloneCommand cloneCommand = Git.cloneRepository()
+                .setURI(remoteUrl)
+                .setDirectory(directory)
+                .setMirror(true)
+                .setProgressMonitor(new LogProgressMonitor());
+
+        CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
+        if (credentialsProvider != null) {
+            cloneCommand.setCredentialsProvider(credentialsProvider);
+        }
+
+        try (Git git = cloneCommand.call()) {
+            log.debug("Repository mirrored with JGit: {}", directory);
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to mirror repository: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void pull(File directory, GitCredentials credentials) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath())) {
+            PullCommand pullCommand = lease.git().pull();
+
+            CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
+            if (credentialsProvider != null) {
+                pullCommand.setCredentialsProvider(credentialsProvider);
+            }
+
+            PullResult pullResult = pullCommand.call();
+            if (!pullResult.isSuccessful()) {
+                log.warn("Pull was not successful: {}", pullResult.toString());
+            }
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to pull repository: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void fetch(File directory, GitCredentials credentials) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath())) {
+            FetchCommand fetchCommand = lease.git().fetch().setRemoveDeletedRefs(true);
+
+            CredentialsProvider credentialsProvider = createCredentialsProvider(credentials);
+            if (credentialsProvider != null) {
+                fetchCommand.setCredentialsProvider(credentialsProvider);
+            }
+
+            fetchCommand.call();
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to fetch repository: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<CommitInfo> log(File directory, int maxCount) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath())) {
+            List<CommitInfo> commits = new ArrayList<>();
+            for (RevCommit revCommit : lease.git().log().setMaxCount(maxCount).call()) {
+                commits.add(CommitInfo.builder()
+                        .commitId(revCommit.getId().getName())
+                        .message(revCommit.getFullMessage())
+                        .author(revCommit.getAuthorIdent().getName())
+                        .authorEmail(revCommit.getAuthorIdent().getEmailAddress())
+                        .commitTime(new Date(revCommit.getCommitTime() * 1000L))
+                        .parentIds(Arrays.stream(revCommit.getParents())
+                                .map(parent -> parent.getId().getName())
+                                .collect(Collectors.toList()))
+                        .build());
+            }
+            return commits;
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to get commit history: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<GitFileChange> diff(File directory, String fromCommit, String toCommit) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath());
+             ObjectReader reader = lease.getRepository().newObjectReader();
+             RevWalk walk = new RevWalk(reader)) {
+            Repository repository = lease.getRepository();
+            ObjectId fromId = repository.resolve(fromCommit);
+            ObjectId toId = repository.resolve(toCommit);
+
+            if (fromId == null || toId == null) {
+                throw new GitOperationException("Invalid commit IDs");
+            }
+
+            List<DiffEntry> diffs = lease.git().diff()
+                    .setOldTree(new CanonicalTreeParser(null, reader, walk.parseCommit(fromId).getTree()))
+                    .setNewTree(new CanonicalTreeParser(null, reader, walk.parseCommit(toId).getTree()))
+                    .call();
+
+            List<GitFileChange> changes = new ArrayList<>(diffs.size());
+            for (DiffEntry diff : diffs) {
+                changes.add(new GitFileChange(diff.getChangeType(), diff.getOldPath(), diff.getNewPath()));
+            }
+            return changes;
+        } catch (GitOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to get commit diff: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<String> listFiles(File directory, String revision) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath());
+             RevWalk walk = new RevWalk(lease.getRepository())) {
+            ObjectId commitId = lease.getRepository().resolve(revision);
+            if (commitId == null) {
+                throw new GitOperationException("Invalid revision: " + revision);
+            }
+
+            List<String> files = new ArrayList<>();
+            try (TreeWalk treeWalk = new TreeWalk(lease.getRepository())) {
+                treeWalk.addTree(walk.parseCommit(commitId).getTree());
+                treeWalk.setRecursive(true);
+                while (treeWalk.next()) {
+                    files.add(treeWalk.getPathString());
+                }
+            }
+            return files;
+        } catch (GitOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to list files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<GitTreeEntry> listTree(File directory, String revision, String path) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath());
+             ObjectReader reader = lease.getRepository().newObjectReader();
+             RevWalk walk = new RevWalk(reader)) {
+            ObjectId commitId = lease.getRepository().resolve(revision);
+            if (commitId == null) {
+                throw new GitOperationException("Invalid revision: " + revision);
+            }
+
+            ObjectId treeId = walk.parseCommit(commitId).getTree();
+            String prefix = "";
+            if (!path.isEmpty()) {
+                try (TreeWalk pathWalk = TreeWalk.forPath(reader, path, treeId)) {
+                    if (pathWalk == null || !pathWalk.isSubtree()) {
+                        return null;
+                    }
+                    treeId = pathWalk.getObjectId(0);
+                }
+                prefix = path + "/";
+            }
+
+            List<GitTreeEntry> entries = new ArrayList<>();
+            try (TreeWalk treeWalk = new TreeWalk(reader)) {
+                treeWalk.addTree(treeId);
+                while (treeWalk.next()) {
+                    ObjectId objectId = treeWalk.getObjectId(0);
+                    FileMode mode = treeWalk.getFileMode(0);
+                    boolean isDirectory = mode == FileMode.TREE;
+                    long size = isDirectory || mode == FileMode.GITLINK
+                            ? 0L : reader.getObjectSize(objectId, Constants.OBJ_BLOB);
+                    entries.add(new GitTreeEntry(treeWalk.getNameString(), prefix + treeWalk.getPathString(),
+                            isDirectory, size, objectId.getName()));
+                }
+            }
+            return entries;
+        } catch (GitOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to list tree: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public byte[] readBlob(File directory, String revision, String path) {
+        try (GitRepositoryPool.Lease lease = repositoryPool.acquire(directory.getPath());
+             ObjectReader reader = lease.getRepository().newObjectReader();
+             RevWalk walk = new RevWalk(reader)) {
+            ObjectId commitId = lease.getRepository().resolve(revision);
+            if (commitId == null) {
+                throw new GitOperationException("Invalid revision: " + revision);
+            }
+
+            try (TreeWalk treeWalk = TreeWalk.forPath(reader, path, walk.parseCommit(commitId).getTree())) {
+                if (treeWalk == null || treeWalk.isSubtree() || treeWalk.getFileMode(0) == FileMode.GITLINK) {
+                    return null;
+                }
+                return reader.open(treeWalk.getObjectId(0), Constants.OBJ_BLOB).getBytes(Integer.MAX_VALUE);
+            }
+        } catch (GitOperationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new GitOperationException("Failed to read file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 创建认证提供者
+     */
+    private CredentialsProvider createCredentialsProvider(GitCredentials credentials) {
+        if (credentials == null || credentials.getType() == GitCredentials.CredentialType.NONE) {
+            return null;
+        }
+
+        switch (credentials.getType()) {
+            case HTTP_BASIC:
+                return new UsernamePasswordCredentialsProvider(
+                        credentials.getUsername(),
+                        credentials.getPassword()
+                );
+
+            case OAUTH_TOKEN:
+                return new UsernamePasswordCredentialsProvider(
+                        "token",
+                        credentials.getPassword()
+                );
+
+            case SSH_KEY:
+                // SSH密钥认证需要额外配置
+                configureSshAuth(credentials);
+                return null;
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 配置SSH认证
+     */
+    private void configureSshAuth(GitCredentials credentials) {
+        // TODO: 实现SSH密钥认证配置
+        log.warn("SSH authentication not yet implemented");
+    }
+
+    /**
+     * 进度监控器
+     */
+    private static class LogProgressMonitor implements ProgressMonitor {
+        @Override
+        public void start(int totalTasks) {
+            log.info("Starting {} tasks", totalTasks);
+        }
+
+        @Override
+        public void beginTask(String title, int totalWork) {
+            log.info("Beginning task: {} (total work: {})", title, totalWork);
+        }
+
+        @Override
+        public void update(int completed) {
+        }
+
+        @Override
+        public void endTask() {
+            log.info("Task completed");
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    }
+}
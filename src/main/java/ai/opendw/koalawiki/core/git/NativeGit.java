@@ -0,0 +1,274 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地git命令行
+ * 供原生git后端以及JGit 5.x不支持的操作（浅克隆、加深浅克隆的历史、在浅克隆上拉取）使用，
+ * 标准输出在命令运行期间流式读取。
+ *
+ * <p>HTTP认证信息通过 {@code GIT_ASKPASS} 脚本从环境变量读取，不出现在命令行参数中；
+ * 命令不允许交互式提示，超时后强制结束。</p>
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+public class NativeGit {
+
+    private static final String USERNAME_ENV = "KOALAWIKI_GIT_USERNAME";
+    private static final String PASSWORD_ENV = "KOALAWIKI_GIT_PASSWORD";
+
+    /**
+     * 错误信息中保留的输出长度
+     */
+    private static final int MAX_OUTPUT_LENGTH = 2000;
+
+    /**
+     * 超时后强制结束命令的计时器
+     */
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "native-git-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${koalawiki.git.native-executable:git}")
+    private String executable;
+
+    @Value("${koalawiki.git.timeout:300000}")
+    private int timeout;
+
+    /**
+     * 命令行是否可用（首次检查后缓存）
+     */
+    private volatile Boolean available;
+
+    /**
+     * 本地是否安装了可用的git命令行
+     */
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            try {
+                String version = run(null, null, "--version").trim();
+                log.info("检测到git命令行: {}", version);
+                result = true;
+            } catch (GitOperationException e) {
+                log.warn("git命令行不可用，相关操作退回使用JGit（浅克隆退回完整克隆）: {}", e.getMessage());
+                result = false;
+            }
+            available = result;
+        }
+        return result;
+    }
+
+    /**
+     * 执行git命令
+     *
+     * @param workDir     工作目录，为null时使用当前目录
+     * @param credentials 认证信息（可选，仅支持HTTP用户名密码和令牌）
+     * @param args        git子命令及参数
+     * @return 标准输出
+     * @throws GitOperationException 命令无法启动、超时或退出码非0
+     */
+    public String run(File workDir, GitCredentials credentials, String... args) {
+        return execute(workDir, credentials, null, NativeGit::readText, args);
+    }
+
+    /**
+     * 执行git命令并在命令运行期间流式读取标准输出
+     *
+     * @param workDir     工作目录，为null时使用当前目录
+     * @param credentials 认证信息（可选，仅支持HTTP用户名密码和令牌）
+     * @param input       写入标准输入的内容（可选）
+     * @param reader      标准输出读取器，需读取到流结束
+     * @param args        git子命令及参数
+     * @return 读取器的结果
+     * @throws GitOperationException 命令无法启动、超时、读取失败或退出码非0
+     */
+    public <T> T execute(File workDir, GitCredentials credentials, byte[] input, OutputReader<T> reader,
+                         String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(executable);
+        command.addAll(Arrays.asList(args));
+
+        Path askPass = null;
+        Process process = null;
+        ScheduledFuture<?> watchdog = null;
+        try {
+            ProcessBuilder builder = new ProcessBuilder(command);
+            if (workDir != null) {
+                builder.directory(workDir);
+            }
+            Map<String, String> env = builder.environment();
+            env.put("GIT_TERMINAL_PROMPT", "0");
+            env.put("LC_ALL", "C");
+            if (hasHttpCredentials(credentials)) {
+                askPass = createAskPassScript();
+                env.put("GIT_ASKPASS", askPass.toString());
+                env.put(USERNAME_ENV, credentials.getType() == GitCredentials.CredentialType.OAUTH_TOKEN
+                        ? "token" : credentials.getUsername());
+                env.put(PASSWORD_ENV, credentials.getPassword());
+            }
+
+            log.debug("执行git命令: {}", String.join(" ", command));
+            process = builder.start();
+            Process started = process;
+            watchdog = WATCHDOG.schedule(started::destroyForcibly, timeout, TimeUnit.MILLISECONDS);
+            ErrorCollector errors = new ErrorCollector(process.getErrorStream());
+            errors.start();
+
+            try (OutputStream stdin = process.getOutputStream()) {
+                if (input != null) {
+                    stdin.write(input);
+                }
+            }
+            T result;
+            try (InputStream stdout = process.getInputStream()) {
+                result = reader.read(stdout);
+            }
+
+            process.waitFor();
+            errors.join(TimeUnit.SECONDS.toMillis(10));
+            if (watchdog.isDone()) {
+                throw new GitOperationException("git " + args[0] + " timed out after " + timeout + "ms");
+            }
+            if (process.exitValue() != 0) {
+                throw new GitOperationException("git " + args[0] + " failed (exit " + process.exitValue() + "): "
+                        + truncate(errors.getText()));
+            }
+            return result;
+
+        } catch (IOException e) {
+            if (watchdog != null && watchdog.isDone()) {
+                throw new GitOperationException("git " + args[0] + " timed out after " + timeout + "ms", e);
+            }
+            throw new GitOperationException("Failed to run git " + args[0] + ": " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitOperationException("Interrupted while running git " + args[0], e);
+        } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (askPass != null) {
+                try {
+                    Files.deleteIfExists(askPass);
+                } catch (IOException e) {
+                    log.debug("删除临时认证脚本失败: {}", askPass);
+                }
+            }
+        }
+    }
+
+    private boolean hasHttpCredentials(GitCredentials credentials) {
+        return credentials != null && credentials.getPassword() != null
+                && (credentials.getType() == GitCredentials.CredentialType.HTTP_BASIC
+                || credentials.getType() == GitCredentials.CredentialType.OAUTH_TOKEN);
+    }
+
+    /**
+     * 创建只对当前用户可读可执行的认证脚本，按提示内容输出用户名或密码
+     */
+    private Path createAskPassScript() throws IOException {
+        Path script = Files.createTempFile("koalawiki-askpass", ".sh");
+        String content = "#!/bin/sh\n"
+                + "case \"$1\" in\n"
+                + "  Username*) printf '%s\\n' \"$" + USERNAME_ENV + "\" ;;\n"
+                + "  *) printf '%s\\n' \"$" + PASSWORD_ENV + "\" ;;\n"
+                + "esac\n";
+        Files.write(script, content.getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.setPosixFilePermissions(script,
+                    EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_EXECUTE));
+        } catch (UnsupportedOperationException e) {
+            script.toFile().setExecutable(true, true);
+        }
+        return script;
+    }
+
+    private static String truncate(String text) {
+        String trimmed = text.trim();
+        return trimmed.length() <= MAX_OUTPUT_LENGTH ? trimmed : trimmed.substring(trimmed.length() - MAX_OUTPUT_LENGTH);
+    }
+
+    private static String readText(InputStream input) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 标准输出读取器
+     */
+    @FunctionalInterface
+    public interface OutputReader<T> {
+        T read(InputStream stdout) throws IOException;
+    }
+
+    /**
+     * 在后台读取标准错误，避免缓冲区写满导致进程阻塞
+     */
+    private static class ErrorCollector extends Thread {
+
+        private final InputStream input;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        ErrorCollector(InputStream input) {
+            super("native-git-stderr");
+            setDaemon(true);
+            this.input = input;
+        }
+
+        @Override
+        public void run() {
+            byte[] chunk = new byte[8192];
+            try {
+                int read;
+                while ((read = input.read(chunk)) != -1) {
+                    synchronized (buffer) {
+                        buffer.write(chunk, 0, read);
+                    }
+                }
+            } catch (IOException e) {
+                // 进程结束时流被关闭
+            }
+        }
+
+        String getText() {
+            synchronized (buffer) {
+                return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 原生git后端
+ * 调用本地git命令行，命令输出在运行期间按分隔符流式解析，不在内存中保留完整输出。
+ *
+ * <ul>
+ *   <li>提交历史使用 {@code git log} 的自定义格式，字段以0x1F分隔、记录以0x1E结束</li>
+ *   <li>文件变更、文件列表和目录条目使用 {@code -z} 输出，以NUL分隔</li>
+ *   <li>文件内容使用 {@code git cat-file --batch} 读取，文件不存在时不视为错误</li>
+ * </ul>
+ * 拉取只做快进合并，避免在服务端产生合并提交。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NativeGitBackend implements GitBackend {
+
+    private static final char FIELD_SEPARATOR = 0x1F;
+    private static final int RECORD_SEPARATOR = 0x1E;
+    private static final String LOG_FORMAT = "--format=%H%x1f%P%x1f%an%x1f%ae%x1f%ct%x1f%B%x1e";
+
+    private final NativeGit nativeGit;
+
+    @Override
+    public GitBackendType getType() {
+        return GitBackendType.NATIVE;
+    }
+
+    /**
+     * 本地是否安装了可用的git命令行
+     */
+    public boolean isAvailable() {
+        return nativeGit.isAvailable();
+    }
+
+    @Override
+    public void cloneRepository(String remoteUrl, File directory, GitCredentials credentials, int depth) {
+        List<String> args = new ArrayList<>(Arrays.asList("clone", "--quiet"));
+        if (depth > 0) {
+            args.addAll(Arrays.asList("--depth", String.valueOf(depth), "--single-branch", "--no-tags"));
+        }
+        args.addAll(Arrays.asList("--", remoteUrl, directory.getPath()));
+        nativeGit.run(null, credentials, args.toArray(new String[0]));
+    }
+
+    @Override
+    public void cloneMirror(String remoteUrl, File directory, GitCredentials credentials, int depth) {
+        List<String> args = new ArrayList<>(Arrays.asList("clone", "--quiet", "--mirror"));
+        if (depth > 0) {
+            args.addAll(Arrays.asList("--depth", String.valueOf(depth)));
+        }
+        args.addAll(Arrays.asList("--", remoteUrl, directory.getPath()));
+        nativeGit.run(null, credentials, args.toArray(new String[0]));
+    }
+
+    @Override
+    public void pull(File directory, GitCredentials credentials) {
+        nativeGit.run(directory, credentials, "pull", "--quiet", "--ff-only", "--no-tags");
+    }
+
+    @Override
+    public void fetch(File directory, GitCredentials credentials) {
+        nativeGit.run(directory, credentials, "fetch", "--quiet", "--prune");
+    }
+
+    /**
+     * 加深浅克隆仓库的提交历史
+     *
+     * @param directory   本地仓库目录
+     * @param credentials 认证信息（可选）
+     * @param step        向前获取的提交数，0表示获取完整历史
+     */
+    public void deepen(File directory, GitCredentials credentials, int step) {
+        if (step > 0) {
+            nativeGit.run(directory, credentials, "fetch", "--quiet", "--no-tags", "--deepen=" + step);
+        } else {
+            nativeGit.run(directory, credentials, "fetch", "--quiet", "--no-tags", "--unshallow");
+        }
+    }
+
+    @Override
+    public List<CommitInfo> log(File directory, int maxCount) {
+        return nativeGit.execute(directory, null, null, stdout -> {
+            InputStream input = new BufferedInputStream(stdout);
+            ByteArrayOutputStream record = new ByteArrayOutputStream();
+            List<CommitInfo> commits = new ArrayList<>();
+            while (readUntil(input, RECORD_SEPARATOR, record)) {
+                commits.add(parseCommit(record.toString(StandardCharsets.UTF_8.name())));
+            }
+            return commits;
+        }, "log", "--no-color", "-n", String.valueOf(maxCount), LOG_FORMAT, "HEAD", "--");
+    }
+
+    @Override
+    public List<GitFileChange> diff(File directory, String fromCommit, String toCommit) {
+        return nativeGit.execute(directory, null, null, stdout -> {
+            InputStream input = new BufferedInputStream(stdout);
+            ByteArrayOutputStream token = new ByteArrayOutputStream();
+            List<GitFileChange> changes = new ArrayList<>();
+            while (readUntil(input, 0, token)) {
+                String status = token.toString(StandardCharsets.UTF_8.name());
+                if (!readUntil(input, 0, token)) {
+                    break;
+                }
+                String path = token.toString(StandardCharsets.UTF_8.name());
+                switch (status.charAt(0)) {
+                    case 'A':
+                        changes.add(new GitFileChange(DiffEntry.ChangeType.ADD, DiffEntry.DEV_NULL, path));
+                        break;
+                    case 'D':
+                        changes.add(new GitFileChange(DiffEntry.ChangeType.DELETE, path, DiffEntry.DEV_NULL));
+                        break;
+                    default:
+                        // M、T（类型变更）
+                        changes.add(new GitFileChange(DiffEntry.ChangeType.MODIFY, path, path));
+                        break;
+                }
+            }
+            return changes;
+        }, "diff", "--no-color", "--no-renames", "--name-status", "-z", fromCommit, toCommit, "--");
+    }
+
+    @Override
+    public List<String> listFiles(File directory, String revision) {
+        requireRevision(revision);
+        return nativeGit.execute(directory, null, null, stdout -> {
+            InputStream input = new BufferedInputStream(stdout);
+            ByteArrayOutputStream token = new ByteArrayOutputStream();
+            List<String> files = new ArrayList<>();
+            while (readUntil(input, 0, token)) {
+                files.add(token.toString(StandardCharsets.UTF_8.name()));
+            }
+            return files;
+        }, "ls-tree", "-r", "-z", "--name-only", revision);
+    }
+
+    @Override
+    public List<GitTreeEntry> listTree(File directory, String revision, String path) {
+        requireRevision(revision);
+        List<String> args = new ArrayList<>(Arrays.asList("ls-tree", "-z", "-l", revision));
+        if (!path.isEmpty()) {
+            args.addAll(Arrays.asList("--", path + "/"));
+        }
+        List<GitTreeEntry> entries = nativeGit.execute(directory, null, null, stdout -> {
+            InputStream input = new BufferedInputStream(stdout);
+            ByteArrayOutputStream token = new ByteArrayOutputStream();
+            List<GitTreeEntry> result = new ArrayList<>();
+            while (readUntil(input, 0, token)) {
+                result.add(parseTreeEntry(token.toString(StandardCharsets.UTF_8.name())));
+            }
+            return result;
+        }, args.toArray(new String[0]));
+        // 非空目录才会出现在树中，没有输出说明路径不存在或不是目录
+        return entries.isEmpty() && !path.isEmpty() ? null : entries;
+    }
+
+    @Override
+    public byte[] readBlob(File directory, String revision, String path) {
+        requireRevision(revision);
+        byte[] request = (revision + ":" + path + "\n").getBytes(StandardCharsets.UTF_8);
+        return nativeGit.execute(directory, null, request, stdout -> {
+            InputStream input = new BufferedInputStream(stdout);
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            if (!readUntil(input, '\n', header)) {
+                return null;
+            }
+            // <oid> <type> <size>，不存在时为 <object> missing
+            String[] fields = header.toString(StandardCharsets.UTF_8.name()).split(" ");
+            if (fields.length != 3) {
+                drain(input);
+                return null;
+            }
+            byte[] content = readFully(input, Integer.parseInt(fields[2]));
+            drain(input);
+            return "blob".equals(fields[1]) ? content : null;
+        }, "cat-file", "--batch");
+    }
+
+    /**
+     * 版本作为位置参数传给git，以"-"开头时会被解析为选项，含换行时会在cat-file批量请求中插入额外请求
+     */
+    private static void requireRevision(String revision) {
+        if (revision == null || revision.isEmpty() || revision.startsWith("-")
+                || revision.indexOf('\n') >= 0 || revision.indexOf('\r') >= 0) {
+            throw new GitOperationException("Invalid revision: " + revision);
+        }
+    }
+
+    /**
+     * 解析 {@code <mode> <type> <oid> <size>\t<path>}，目录和子模块的大小为 "-"
+     */
+    private GitTreeEntry parseTreeEntry(String line) {
+        int tab = line.indexOf('\t');
+        String[] fields = line.substring(0, tab).trim().split(" +");
+        String path = line.substring(tab + 1);
+        boolean isDirectory = "tree".equals(fields[1]);
+        long size = "-".equals(fields[3]) ? 0L : Long.parseLong(fields[3]);
+        return new GitTreeEntry(path.substring(path.lastIndexOf('/') + 1), path, isDirectory, size, fields[2]);
+    }
+
+    private CommitInfo parseCommit(String record) {
+        // 记录之间的换行
+        String text = record.startsWith("\n") ? record.substring(1) : record;
+        String[] fields = text.split(String.valueOf(FIELD_SEPARATOR), 6);
+        List<String> parents = fields[1].isEmpty()
+                ? Collections.<String>emptyList() : Arrays.asList(fields[1].split(" "));
+        return CommitInfo.builder()
+                .commitId(fields[0])
+                .parentIds(new ArrayList<>(parents))
+                .author(fields[2])
+                .authorEmail(fields[3])
+                .commitTime(new Date(Long.parseLong(fields[4]) * 1000L))
+                .message(fields.length > 5 ? fields[5] : "")
+                .build();
+    }
+
+    /**
+     * 读取到分隔符为止（不含分隔符）
+     *
+     * @return 是否读到了内容；流已结束且没有剩余内容时返回false
+     */
+    private static boolean readUntil(InputStream input, int delimiter, ByteArrayOutputStream buffer)
+            throws IOException {
+        buffer.reset();
+        int b;
+        while ((b = input.read()) != -1) {
+            if (b == delimiter) {
+                return true;
+            }
+            buffer.write(b);
+        }
+        return buffer.size() > 0 && !isBlank(buffer);
+    }
+
+    private static boolean isBlank(ByteArrayOutputStream buffer) {
+        for (byte b : buffer.toByteArray()) {
+            if (!Character.isWhitespace(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] readFully(InputStream input, int size) throws IOException {
+        byte[] content = new byte[size];
+        int offset = 0;
+        while (offset < size) {
+            int read = input.read(content, offset, size - offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of cat-file output");
+            }
+            offset += read;
+        }
+        return content;
+    }
+
+    private static void drain(InputStream input) throws IOException {
+        byte[] chunk = new byte[8192];
+        while (input.read(chunk) != -1) {
+            // 丢弃剩余输出
+        }
+    }
+}
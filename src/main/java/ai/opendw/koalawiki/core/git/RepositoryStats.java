@@ -0,0 +1,33 @@
+package ai.opendw.koalawiki.core.git;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 仓库在某个提交下的文件统计
+ * 由提交树计算，同一提交的统计不会变化
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepositoryStats {
+
+    /**
+     * 统计对应的提交ID，空仓库为null
+     */
+    private String commitId;
+
+    /**
+     * 文件数量（不含子模块）
+     */
+    private int fileCount;
+
+    /**
+     * 文件总大小（字节）
+     */
+    private long totalSize;
+}
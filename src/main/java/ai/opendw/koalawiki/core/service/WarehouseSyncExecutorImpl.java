@@ -1,5 +1,6 @@
 package ai.opendw.koalawiki.core.service;
 
+import ai.opendw.koalawiki.core.analysis.ProjectStructureStore;
 import ai.opendw.koalawiki.core.git.*;
 import ai.opendw.koalawiki.domain.warehouse.Warehouse;
 import ai.opendw.koalawiki.domain.warehouse.WarehouseSyncRecord;
@@ -11,7 +12,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -32,6 +32,7 @@ public class WarehouseSyncExecutorImpl implements IWarehouseSyncExecutor {
     private final GitPathResolver pathResolver;
     private final WarehouseRepository warehouseRepository;
     private final ObjectMapper objectMapper;
+    private final ProjectStructureStore structureStore;
 
     @Value("${koalawiki.git.default-username:}")
     private String defaultGitUsername;
@@ -79,7 +80,8 @@ public class WarehouseSyncExecutorImpl implements IWarehouseSyncExecutor {
 
             // 获取或克隆仓库
             GitCredentials credentials = buildCredentials(warehouse);
-            GitRepositoryInfo repoInfo = repositoryManager.getOrCloneRepository(repositoryUrl, credentials);
+            GitRepositoryInfo repoInfo = repositoryManager.getOrCloneRepository(repositoryUrl, credentials,
+                GitBackendType.fromName(warehouse.getGitBackend(), null));
 
             // 更新进度：获取提交历史
             updateProgress(progress, "GET_COMMITS", 2, 5, "Getting commit history");
@@ -253,13 +255,20 @@ public class WarehouseSyncExecutorImpl implements IWarehouseSyncExecutor {
      */
     private void analyzeChanges(String localPath, String fromVersion, String toVersion, SyncExecutionResult result) {
         try {
-            List<String> changedFiles = gitService.getCommitDiff(localPath, fromVersion, toVersion);
-
-            // 简单统计（实际应该更详细地分析每个文件的状态）
-            result.setFileCount(changedFiles.size());
-            result.setUpdatedCount(changedFiles.size());
-
-            // TODO: 更详细的变更分析
+            FileChangeSet changes = gitService.getCommitChanges(localPath, fromVersion, toVersion);
+
+            result.setFileCount(changes.size());
+            result.setAddedCount(changes.getAdded().size());
+            result.setUpdatedCount(changes.getModified().size());
+            result.setDeletedCount(changes.getDeleted().size());
+
+            // 增量更新已缓存的项目结构（失败不影响同步结果）
+            try {
+                structureStore.applyChanges(localPath, fromVersion, toVersion, changes);
+            } catch (Exception e) {
+                log.warn("Failed to update project structure incrementally: {}", localPath, e);
+                structureStore.evict(localPath);
+            }
 
         } catch (Exception e) {
             log.error("Failed to analyze changes", e);
@@ -272,39 +281,11 @@ public class WarehouseSyncExecutorImpl implements IWarehouseSyncExecutor {
      * 统计所有文件
      */
     private void countAllFiles(String localPath, SyncExecutionResult result) {
-        File directory = new File(localPath);
-        int fileCount = countFiles(directory, 0);
+        int fileCount = gitService.getRepositoryStats(localPath).getFileCount();
         result.setFileCount(fileCount);
         result.setAddedCount(fileCount); // 首次同步，所有文件都是新增
     }
 
-    /**
-     * 递归统计文件数量
-     */
-    private int countFiles(File directory, int currentCount) {
-        if (currentCount > 10000) {
-            // 防止文件过多导致栈溢出
-            return currentCount;
-        }
-
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                // 跳过.git目录
-                if (".git".equals(file.getName())) {
-                    continue;
-                }
-
-                if (file.isFile()) {
-                    currentCount++;
-                } else if (file.isDirectory()) {
-                    currentCount = countFiles(file, currentCount);
-                }
-            }
-        }
-        return currentCount;
-    }
-
     /**
      * 初始化进度信息
      */
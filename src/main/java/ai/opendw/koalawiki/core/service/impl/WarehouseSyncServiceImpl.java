@@ -1,5 +1,6 @@
 package ai.opendw.koalawiki.core.service.impl;
 
+import ai.opendw.koalawiki.core.git.GitBackendType;
 import ai.opendw.koalawiki.core.git.GitRepositoryInfo;
 import ai.opendw.koalawiki.core.git.GitRepositoryManager;
 import ai.opendw.koalawiki.core.git.GitCredentials;
@@ -249,7 +250,8 @@ public class WarehouseSyncServiceImpl implements IWarehouseSyncService {
             syncRecordRepository.save(syncRecord);
 
             GitRepositoryInfo repoInfo = gitRepositoryManager.getOrCloneRepository(
-                    warehouse.getAddress(), credentials
+                    warehouse.getAddress(), credentials,
+                    GitBackendType.fromName(warehouse.getGitBackend(), null)
             );
 
             syncRecord.setProgress(60);
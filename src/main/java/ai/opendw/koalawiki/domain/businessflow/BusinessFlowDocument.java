@@ -56,6 +56,11 @@ public class BusinessFlowDocument extends BaseEntity {
      */
     private String methodSignature;
 
+    /**
+     * 流程内容哈希（内容按追踪输入寻址，多个关键词和提交共享）
+     */
+    private String contentHash;
+
     /**
      * 调用链JSON（CallChain序列化）
      */
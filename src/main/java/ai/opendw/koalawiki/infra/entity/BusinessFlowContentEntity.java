@@ -0,0 +1,122 @@
+package ai.opendw.koalawiki.infra.entity;
+
+import javax.persistence.*;
+
+/**
+ * 业务流程内容JPA实体
+ * 主键为追踪输入的内容哈希，相同输入的流程只存储一份
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Entity
+@Table(name = "business_flow_contents",
+        indexes = {
+                @Index(name = "idx_business_flow_contents_entry_key", columnList = "entry_key, created_at")
+        })
+public class BusinessFlowContentEntity extends BaseJpaEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 入口键
+     */
+    @Column(name = "entry_key", nullable = false, length = 64)
+    private String entryKey;
+
+    /**
+     * 追踪输入（JSON）
+     */
+    @Column(name = "inputs_json", columnDefinition = "LONGTEXT")
+    @Lob
+    private String inputsJson;
+
+    /**
+     * 调用链JSON
+     */
+    @Column(name = "call_chain_json", columnDefinition = "LONGTEXT")
+    @Lob
+    private String callChainJson;
+
+    /**
+     * Mermaid流程图
+     */
+    @Column(name = "mermaid_diagram", columnDefinition = "LONGTEXT")
+    @Lob
+    private String mermaidDiagram;
+
+    /**
+     * 节点数量
+     */
+    @Column(name = "node_count")
+    private Integer nodeCount;
+
+    /**
+     * 最大深度
+     */
+    @Column(name = "max_depth")
+    private Integer maxDepth;
+
+    /**
+     * 关联服务列表（JSON）
+     */
+    @Column(name = "related_services", columnDefinition = "TEXT")
+    @Lob
+    private String relatedServices;
+
+    public String getEntryKey() {
+        return entryKey;
+    }
+
+    public void setEntryKey(String entryKey) {
+        this.entryKey = entryKey;
+    }
+
+    public String getInputsJson() {
+        return inputsJson;
+    }
+
+    public void setInputsJson(String inputsJson) {
+        this.inputsJson = inputsJson;
+    }
+
+    public String getCallChainJson() {
+        return callChainJson;
+    }
+
+    public void setCallChainJson(String callChainJson) {
+        this.callChainJson = callChainJson;
+    }
+
+    public String getMermaidDiagram() {
+        return mermaidDiagram;
+    }
+
+    public void setMermaidDiagram(String mermaidDiagram) {
+        this.mermaidDiagram = mermaidDiagram;
+    }
+
+    public Integer getNodeCount() {
+        return nodeCount;
+    }
+
+    public void setNodeCount(Integer nodeCount) {
+        this.nodeCount = nodeCount;
+    }
+
+    public Integer getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMaxDepth(Integer maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public String getRelatedServices() {
+        return relatedServices;
+    }
+
+    public void setRelatedServices(String relatedServices) {
+        this.relatedServices = relatedServices;
+    }
+}
@@ -70,6 +70,12 @@ public class BusinessFlowDocumentEntity extends BaseJpaEntity {
     @Column(name = "method_signature", length = 500)
     private String methodSignature;
 
+    /**
+     * 流程内容哈希（引用business_flow_contents，为空时内容直接存储在本表）
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     /**
      * 调用链JSON
      */
@@ -193,6 +199,14 @@ public class BusinessFlowDocumentEntity extends BaseJpaEntity {
         this.methodSignature = methodSignature;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public String getCallChainJson() {
         return callChainJson;
     }
@@ -0,0 +1,105 @@
+package ai.opendw.koalawiki.infra.entity;
+
+import javax.persistence.*;
+
+/**
+ * 服务依赖关系JPA实体
+ * 目标服务不落库，加载时按接口关联提供方
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Entity
+@Table(name = "service_dependency_edges",
+        indexes = {
+                @Index(name = "idx_service_dependency_edges_source_service", columnList = "source_service"),
+                @Index(name = "idx_service_dependency_edges_interface_name", columnList = "interface_name")
+        })
+public class ServiceDependencyEdgeEntity extends BaseJpaEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 调用方服务名
+     */
+    @Column(name = "source_service", nullable = false, length = 255)
+    private String sourceService;
+
+    /**
+     * 接口全限定名
+     */
+    @Column(name = "interface_name", length = 512)
+    private String interfaceName;
+
+    /**
+     * 依赖类型
+     */
+    @Column(name = "dependency_type", nullable = false, length = 20)
+    private String dependencyType;
+
+    /**
+     * 调用方类名
+     */
+    @Column(name = "source_class", length = 512)
+    private String sourceClass;
+
+    /**
+     * 调用方字段名
+     */
+    @Column(name = "source_field", length = 255)
+    private String sourceField;
+
+    /**
+     * 来源提交版本
+     */
+    @Column(name = "source_commit", length = 64)
+    private String sourceCommit;
+
+    public String getSourceService() {
+        return sourceService;
+    }
+
+    public void setSourceService(String sourceService) {
+        this.sourceService = sourceService;
+    }
+
+    public String getInterfaceName() {
+        return interfaceName;
+    }
+
+    public void setInterfaceName(String interfaceName) {
+        this.interfaceName = interfaceName;
+    }
+
+    public String getDependencyType() {
+        return dependencyType;
+    }
+
+    public void setDependencyType(String dependencyType) {
+        this.dependencyType = dependencyType;
+    }
+
+    public String getSourceClass() {
+        return sourceClass;
+    }
+
+    public void setSourceClass(String sourceClass) {
+        this.sourceClass = sourceClass;
+    }
+
+    public String getSourceField() {
+        return sourceField;
+    }
+
+    public void setSourceField(String sourceField) {
+        this.sourceField = sourceField;
+    }
+
+    public String getSourceCommit() {
+        return sourceCommit;
+    }
+
+    public void setSourceCommit(String sourceCommit) {
+        this.sourceCommit = sourceCommit;
+    }
+}
@@ -0,0 +1,62 @@
+package ai.opendw.koalawiki.infra.entity;
+
+import javax.persistence.*;
+
+/**
+ * 服务提供的接口JPA实体
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Entity
+@Table(name = "service_dependency_interfaces",
+        indexes = {
+                @Index(name = "idx_service_dependency_interfaces_service_name", columnList = "service_name"),
+                @Index(name = "idx_service_dependency_interfaces_interface_name", columnList = "interface_name")
+        })
+public class ServiceDependencyInterfaceEntity extends BaseJpaEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 提供方服务名
+     */
+    @Column(name = "service_name", nullable = false, length = 255)
+    private String serviceName;
+
+    /**
+     * 接口全限定名
+     */
+    @Column(name = "interface_name", nullable = false, length = 512)
+    private String interfaceName;
+
+    /**
+     * 来源提交版本
+     */
+    @Column(name = "source_commit", length = 64)
+    private String sourceCommit;
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getInterfaceName() {
+        return interfaceName;
+    }
+
+    public void setInterfaceName(String interfaceName) {
+        this.interfaceName = interfaceName;
+    }
+
+    public String getSourceCommit() {
+        return sourceCommit;
+    }
+
+    public void setSourceCommit(String sourceCommit) {
+        this.sourceCommit = sourceCommit;
+    }
+}
@@ -0,0 +1,83 @@
+package ai.opendw.koalawiki.infra.entity;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * 服务依赖图节点JPA实体
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Entity
+@Table(name = "service_dependency_nodes",
+        indexes = {
+                @Index(name = "idx_service_dependency_nodes_warehouse_id", columnList = "warehouse_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(
+                        name = "uk_service_dependency_nodes_service_name",
+                        columnNames = {"service_name"}
+                )
+        })
+public class ServiceDependencyNodeEntity extends BaseJpaEntity {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 服务名
+     */
+    @Column(name = "service_name", nullable = false, length = 255)
+    private String serviceName;
+
+    /**
+     * 仓库ID
+     */
+    @Column(name = "warehouse_id", length = 64)
+    private String warehouseId;
+
+    /**
+     * 来源提交版本
+     */
+    @Column(name = "source_commit", length = 64)
+    private String sourceCommit;
+
+    /**
+     * 更新时间
+     */
+    @Column(name = "updated_at")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date updatedAt;
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public String getWarehouseId() {
+        return warehouseId;
+    }
+
+    public void setWarehouseId(String warehouseId) {
+        this.warehouseId = warehouseId;
+    }
+
+    public String getSourceCommit() {
+        return sourceCommit;
+    }
+
+    public void setSourceCommit(String sourceCommit) {
+        this.sourceCommit = sourceCommit;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
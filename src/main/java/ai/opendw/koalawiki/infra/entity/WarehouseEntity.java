@@ -134,6 +134,12 @@ public class WarehouseEntity extends BaseJpaEntity {
     @Column(name = "enable_sync", nullable = false)
     private Boolean enableSync = true;
 
+    /**
+     * Git后端（jgit/native），为空时使用全局默认后端
+     */
+    @Column(name = "git_backend", length = 32)
+    private String gitBackend;
+
     /**
      * 删除时间（软删除）
      */
@@ -287,6 +293,14 @@ public class WarehouseEntity extends BaseJpaEntity {
         this.enableSync = enableSync;
     }
 
+    public String getGitBackend() {
+        return gitBackend;
+    }
+
+    public void setGitBackend(String gitBackend) {
+        this.gitBackend = gitBackend;
+    }
+
     public Date getDeletedAt() {
         return deletedAt;
     }
@@ -30,6 +30,7 @@ public class BusinessFlowDocumentMapper {
         domain.setClassName(entity.getClassName());
         domain.setMethodName(entity.getMethodName());
         domain.setMethodSignature(entity.getMethodSignature());
+        domain.setContentHash(entity.getContentHash());
         domain.setCallChainJson(entity.getCallChainJson());
         domain.setMermaidDiagram(entity.getMermaidDiagram());
         domain.setNodeCount(entity.getNodeCount());
@@ -62,6 +63,7 @@ public class BusinessFlowDocumentMapper {
         entity.setClassName(domain.getClassName());
         entity.setMethodName(domain.getMethodName());
         entity.setMethodSignature(domain.getMethodSignature());
+        entity.setContentHash(domain.getContentHash());
         entity.setCallChainJson(domain.getCallChainJson());
         entity.setMermaidDiagram(domain.getMermaidDiagram());
         entity.setNodeCount(domain.getNodeCount());
@@ -0,0 +1,38 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.BusinessFlowContentEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 业务流程内容Repository
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Repository
+public interface BusinessFlowContentRepository extends JpaRepository<BusinessFlowContentEntity, String>,
+        BusinessFlowContentRepositoryCustom {
+
+    /**
+     * 批量按入口键查询流程内容的ID（不加载追踪输入、调用链和流程图）
+     *
+     * @return [id, entryKey]，同一入口键按创建时间倒序
+     */
+    @Query("SELECT c.id, c.entryKey FROM BusinessFlowContentEntity c "
+            + "WHERE c.entryKey IN :entryKeys ORDER BY c.entryKey, c.createdAt DESC")
+    List<Object[]> findIdsByEntryKeyIn(@Param("entryKeys") Collection<String> entryKeys);
+
+    /**
+     * 批量查询流程内容的追踪输入（不加载调用链和流程图）
+     *
+     * @return [id, inputsJson]
+     */
+    @Query("SELECT c.id, c.inputsJson FROM BusinessFlowContentEntity c WHERE c.id IN :ids")
+    List<Object[]> findInputsByIdIn(@Param("ids") Collection<String> ids);
+}
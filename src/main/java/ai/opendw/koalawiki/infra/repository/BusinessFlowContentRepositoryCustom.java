@@ -0,0 +1,21 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.BusinessFlowContentEntity;
+
+import java.util.List;
+
+/**
+ * 业务流程内容Repository扩展：JDBC批量写入
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public interface BusinessFlowContentRepositoryCustom {
+
+    /**
+     * 批量插入流程内容，内容哈希已存在的行保持不变
+     *
+     * @param entities 流程内容（需已设置ID和创建时间）
+     */
+    void batchInsertIgnoringDuplicates(List<BusinessFlowContentEntity> entities);
+}
@@ -0,0 +1,60 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.BusinessFlowContentEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 业务流程内容批量写入实现
+ * 内容按哈希寻址，主键冲突说明相同内容已写入，保留已有行即可
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@RequiredArgsConstructor
+public class BusinessFlowContentRepositoryImpl implements BusinessFlowContentRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO business_flow_contents ("
+            + "id, entry_key, inputs_json, call_chain_json, mermaid_diagram, node_count, max_depth, "
+            + "related_services, created_at"
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void batchInsertIgnoringDuplicates(List<BusinessFlowContentEntity> entities) {
+        if (!entities.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, entities, entities.size(), this::bind);
+        }
+    }
+
+    private void bind(PreparedStatement ps, BusinessFlowContentEntity entity) throws SQLException {
+        ps.setString(1, entity.getId());
+        ps.setString(2, entity.getEntryKey());
+        ps.setString(3, entity.getInputsJson());
+        ps.setString(4, entity.getCallChainJson());
+        ps.setString(5, entity.getMermaidDiagram());
+        setInteger(ps, 6, entity.getNodeCount());
+        setInteger(ps, 7, entity.getMaxDepth());
+        ps.setString(8, entity.getRelatedServices());
+        ps.setTimestamp(9, new Timestamp(entity.getCreatedAt().getTime()));
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,7 +19,8 @@ import java.util.Optional;
  * @since 2025-11-23
  */
 @Repository
-public interface BusinessFlowDocumentRepository extends JpaRepository<BusinessFlowDocumentEntity, String> {
+public interface BusinessFlowDocumentRepository extends JpaRepository<BusinessFlowDocumentEntity, String>,
+        BusinessFlowDocumentRepositoryCustom {
 
     /**
      * 按关键词查询
@@ -44,6 +46,15 @@ public interface BusinessFlowDocumentRepository extends JpaRepository<BusinessFl
             String apiPath
     );
 
+    /**
+     * 按关键词和仓库版本批量查询已存在的API路径对应的流程（去重检查）
+     */
+    List<BusinessFlowDocumentEntity> findByKeywordAndRepositoryVersionAndApiPathIn(
+            String keyword,
+            String repositoryVersion,
+            Collection<String> apiPaths
+    );
+
     /**
      * 按服务名查询（JSON LIKE查询）
      */
@@ -0,0 +1,21 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.BusinessFlowDocumentEntity;
+
+import java.util.List;
+
+/**
+ * 业务流程文档Repository扩展：JDBC批量写入
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+public interface BusinessFlowDocumentRepositoryCustom {
+
+    /**
+     * 批量插入流程文档，(关键词, 仓库版本, API路径) 已存在的行保持不变
+     *
+     * @param entities 流程文档（需已设置ID和创建时间）
+     */
+    void batchInsertIgnoringDuplicates(List<BusinessFlowDocumentEntity> entities);
+}
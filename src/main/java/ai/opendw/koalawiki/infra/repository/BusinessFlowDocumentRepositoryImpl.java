@@ -0,0 +1,73 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.BusinessFlowDocumentEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 业务流程文档批量写入实现
+ * 使用JDBC批处理，每批在独立的短事务中提交；
+ * 唯一键冲突（并发请求已写入同一流程）时保留已有行。
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@RequiredArgsConstructor
+public class BusinessFlowDocumentRepositoryImpl implements BusinessFlowDocumentRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO business_flow_documents ("
+            + "id, keyword, relevance_score, entry_type, api_path, class_name, method_name, method_signature, "
+            + "content_hash, call_chain_json, mermaid_diagram, node_count, max_depth, related_services, "
+            + "primary_repository, repository_version, dependency_repositories, description, created_at, updated_at"
+            + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    public void batchInsertIgnoringDuplicates(List<BusinessFlowDocumentEntity> entities) {
+        if (!entities.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, entities, entities.size(), this::bind);
+        }
+    }
+
+    private void bind(PreparedStatement ps, BusinessFlowDocumentEntity entity) throws SQLException {
+        ps.setString(1, entity.getId());
+        ps.setString(2, entity.getKeyword());
+        setInteger(ps, 3, entity.getRelevanceScore());
+        ps.setString(4, entity.getEntryType());
+        ps.setString(5, entity.getApiPath());
+        ps.setString(6, entity.getClassName());
+        ps.setString(7, entity.getMethodName());
+        ps.setString(8, entity.getMethodSignature());
+        ps.setString(9, entity.getContentHash());
+        ps.setString(10, entity.getCallChainJson());
+        ps.setString(11, entity.getMermaidDiagram());
+        setInteger(ps, 12, entity.getNodeCount());
+        setInteger(ps, 13, entity.getMaxDepth());
+        ps.setString(14, entity.getRelatedServices());
+        ps.setString(15, entity.getPrimaryRepository());
+        ps.setString(16, entity.getRepositoryVersion());
+        ps.setString(17, entity.getDependencyRepositories());
+        ps.setString(18, entity.getDescription());
+        ps.setTimestamp(19, new Timestamp(entity.getCreatedAt().getTime()));
+        ps.setTimestamp(20, entity.getUpdatedAt() != null ? new Timestamp(entity.getUpdatedAt().getTime()) : null);
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
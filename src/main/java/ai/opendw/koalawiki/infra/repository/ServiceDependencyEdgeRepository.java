@@ -0,0 +1,25 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyEdgeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 服务依赖关系Repository
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Repository
+public interface ServiceDependencyEdgeRepository extends JpaRepository<ServiceDependencyEdgeEntity, String> {
+
+    /**
+     * 按调用方服务删除依赖关系
+     */
+    @Modifying
+    @Query("DELETE FROM ServiceDependencyEdgeEntity e WHERE e.sourceService = :sourceService")
+    int deleteBySourceService(@Param("sourceService") String sourceService);
+}
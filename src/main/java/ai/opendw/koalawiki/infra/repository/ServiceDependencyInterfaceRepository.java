@@ -0,0 +1,25 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyInterfaceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 服务提供的接口Repository
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Repository
+public interface ServiceDependencyInterfaceRepository extends JpaRepository<ServiceDependencyInterfaceEntity, String> {
+
+    /**
+     * 按服务名删除接口
+     */
+    @Modifying
+    @Query("DELETE FROM ServiceDependencyInterfaceEntity i WHERE i.serviceName = :serviceName")
+    int deleteByServiceName(@Param("serviceName") String serviceName);
+}
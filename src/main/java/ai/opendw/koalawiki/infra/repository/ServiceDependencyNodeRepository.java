@@ -0,0 +1,32 @@
+package ai.opendw.koalawiki.infra.repository;
+
+import ai.opendw.koalawiki.infra.entity.ServiceDependencyNodeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 服务依赖图节点Repository
+ *
+ * @author OpenDeepWiki Team
+ * @since 2025-11-23
+ */
+@Repository
+public interface ServiceDependencyNodeRepository extends JpaRepository<ServiceDependencyNodeEntity, String> {
+
+    /**
+     * 按仓库ID查询节点
+     */
+    List<ServiceDependencyNodeEntity> findByWarehouseId(String warehouseId);
+
+    /**
+     * 按服务名删除节点
+     */
+    @Modifying
+    @Query("DELETE FROM ServiceDependencyNodeEntity n WHERE n.serviceName = :serviceName")
+    int deleteByServiceName(@Param("serviceName") String serviceName);
+}
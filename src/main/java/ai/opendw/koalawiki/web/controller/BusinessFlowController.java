@@ -2,14 +2,26 @@ package ai.opendw.koalawiki.web.controller;
 
 import ai.opendw.koalawiki.app.service.flow.BusinessFlowResult;
 import ai.opendw.koalawiki.app.service.flow.BusinessFlowService;
+import ai.opendw.koalawiki.app.service.flow.CallPathResult;
+import ai.opendw.koalawiki.app.service.flow.FlowQueryService;
+import ai.opendw.koalawiki.app.service.flow.ReachabilityResult;
+import ai.opendw.koalawiki.core.analysis.AnalysisProperties;
+import ai.opendw.koalawiki.core.analysis.MermaidRenderOptions;
 import ai.opendw.koalawiki.core.analysis.model.EntryPoint;
 import ai.opendw.koalawiki.core.analysis.model.ServiceDependencyGraph;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 业务流程API控制器
@@ -24,6 +36,8 @@ import java.util.List;
 public class BusinessFlowController {
 
     private final BusinessFlowService businessFlowService;
+    private final FlowQueryService flowQueryService;
+    private final AnalysisProperties analysisProperties;
 
     /**
      * 分析服务依赖
@@ -41,18 +55,45 @@ public class BusinessFlowController {
     public BusinessFlowResult generateFlow(@RequestBody FlowRequest request) {
         log.info("生成业务流程: entryPoint={}", request.getEntryPoint().getPath());
 
-        // 先分析依赖
-        ServiceDependencyGraph graph = businessFlowService.analyzeDependencies(request.getProjectPaths());
-
-        // 生成流程
+        // 依赖分析与流程追踪共享同一批扫描结果
         return businessFlowService.generateFlow(
             request.getEntryPoint(),
             request.getProjectPath(),
-            graph,
+            request.getProjectPaths(),
             request.getMaxDepth() != null ? request.getMaxDepth() : 5
         );
     }
 
+    /**
+     * 生成业务流程时序图，Mermaid DSL直接流式写入响应
+     */
+    @PostMapping("/diagram")
+    public void streamDiagram(@RequestBody FlowRequest request, HttpServletResponse response) throws IOException {
+        log.info("生成业务流程时序图: entryPoint={}", request.getEntryPoint().getPath());
+
+        MermaidRenderOptions defaults = analysisProperties.getMermaid();
+        MermaidRenderOptions options = new MermaidRenderOptions();
+        options.setMaxParticipants(request.getMaxParticipants() != null
+            ? request.getMaxParticipants() : defaults.getMaxParticipants());
+        options.setMaxLines(request.getMaxLines() != null ? request.getMaxLines() : defaults.getMaxLines());
+        options.setFoldDepth(request.getFoldDepth() != null ? request.getFoldDepth() : defaults.getFoldDepth());
+        options.setCollapseRepeats(request.getCollapseRepeats() != null
+            ? request.getCollapseRepeats() : defaults.isCollapseRepeats());
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        Writer writer = response.getWriter();
+        businessFlowService.renderFlowDiagram(
+            request.getEntryPoint(),
+            request.getProjectPath(),
+            request.getProjectPaths(),
+            request.getMaxDepth() != null ? request.getMaxDepth() : 5,
+            options,
+            writer
+        );
+        writer.flush();
+    }
+
     /**
      * 为仓库生成所有业务流程
      */
@@ -60,27 +101,125 @@ public class BusinessFlowController {
     public List<BusinessFlowResult> generateAllFlows(@RequestBody FlowRequest request) {
         log.info("生成所有业务流程: projectPath={}", request.getProjectPath());
 
-        // 先分析依赖
-        ServiceDependencyGraph graph = businessFlowService.analyzeDependencies(request.getProjectPaths());
-
-        // 生成所有流程
+        // 依赖分析与所有入口点的追踪共享同一批扫描结果
         return businessFlowService.generateAllFlows(
             request.getProjectPath(),
-            graph,
+            request.getProjectPaths(),
             request.getMaxDepth() != null ? request.getMaxDepth() : 5
         );
     }
 
+    /**
+     * 查询能到达指定方法的入口点（可达性）
+     */
+    @PostMapping("/reachability")
+    public ReachabilityResult findReachability(@RequestBody QueryRequest request) {
+        log.info("可达性查询: {}.{}", request.getClassName(), request.getMethodName());
+        return flowQueryService.findImpact(
+            request.getProjectPath(),
+            request.getClassName(),
+            request.getMethodName(),
+            request.getMaxDepth() != null ? request.getMaxDepth() : 0
+        );
+    }
+
+    /**
+     * 查询两个方法之间的最短调用路径
+     */
+    @PostMapping("/path")
+    public CallPathResult findPath(@RequestBody QueryRequest request) {
+        log.info("调用路径查询: {}.{} -> {}.{}", request.getClassName(), request.getMethodName(),
+            request.getTargetClassName(), request.getTargetMethodName());
+        return flowQueryService.findPath(
+            request.getProjectPath(),
+            request.getClassName(),
+            request.getMethodName(),
+            request.getTargetClassName(),
+            request.getTargetMethodName(),
+            request.getMaxDepth() != null ? request.getMaxDepth() : 0
+        );
+    }
+
+    /**
+     * 查询影响范围：指定方法时查询受影响的入口点和服务，否则按服务名或接口名查询受影响的服务；
+     * 三者都未指定时返回400
+     */
+    @PostMapping("/impact")
+    public ResponseEntity<ReachabilityResult> findImpact(@RequestBody QueryRequest request) {
+        int maxDepth = request.getMaxDepth() != null ? request.getMaxDepth() : 0;
+        if (request.getClassName() != null) {
+            return ResponseEntity.ok(findReachability(request));
+        }
+        if (request.getServiceName() != null) {
+            log.info("服务影响范围查询: {}", request.getServiceName());
+            return ResponseEntity.ok(flowQueryService.findServiceImpact(request.getServiceName(), maxDepth));
+        }
+        if (request.getInterfaceName() != null) {
+            log.info("接口影响范围查询: {}", request.getInterfaceName());
+            return ResponseEntity.ok(flowQueryService.findInterfaceImpact(request.getInterfaceName(), maxDepth));
+        }
+        log.warn("影响范围查询缺少目标: className、serviceName、interfaceName均为空");
+        return ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * 查询解析缓存命中统计
+     */
+    @GetMapping("/parse-cache/stats")
+    public Map<String, Object> getParseCacheStatistics() {
+        return businessFlowService.getParseCacheStatistics();
+    }
+
+    /**
+     * 查询每个请求的项目扫描次数统计
+     */
+    @GetMapping("/scan-stats")
+    public Map<String, Object> getScanStatistics() {
+        return businessFlowService.getScanStatistics();
+    }
+
     @Data
     public static class DependencyRequest {
         private List<String> projectPaths;
     }
 
+    @Data
+    public static class QueryRequest {
+        private String projectPath;
+        private String className;
+        private String methodName;
+
+        /**
+         * 调用路径查询的终点
+         */
+        private String targetClassName;
+        private String targetMethodName;
+
+        /**
+         * 服务或接口影响范围查询的目标
+         */
+        private String serviceName;
+        private String interfaceName;
+
+        /**
+         * 最大层数，为空时不限制
+         */
+        private Integer maxDepth;
+    }
+
     @Data
     public static class FlowRequest {
         private List<String> projectPaths;
         private String projectPath;
         private EntryPoint entryPoint;
         private Integer maxDepth;
+
+        /**
+         * 时序图渲染选项，为空时使用配置的默认值
+         */
+        private Integer maxParticipants;
+        private Integer maxLines;
+        private Integer foldDepth;
+        private Boolean collapseRepeats;
     }
 }
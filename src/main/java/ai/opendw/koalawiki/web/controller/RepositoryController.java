@@ -1,5 +1,8 @@
 package ai.opendw.koalawiki.web.controller;
 
+import ai.opendw.koalawiki.core.git.GitBackendType;
+import ai.opendw.koalawiki.core.git.GitService;
+import ai.opendw.koalawiki.core.git.GitTreeEntry;
 import ai.opendw.koalawiki.core.service.IWarehouseSyncService;
 import ai.opendw.koalawiki.domain.warehouse.WarehouseStatus;
 import ai.opendw.koalawiki.infra.entity.WarehouseEntity;
@@ -54,6 +57,7 @@ public class RepositoryController {
     private final WarehouseRepository warehouseRepository;
     private final IWarehouseSyncService warehouseSyncService;
     private final ai.opendw.koalawiki.core.git.GitPathResolver gitPathResolver;
+    private final GitService gitService;
 
     /**
      * 获取仓库详情
@@ -237,6 +241,11 @@ public class RepositoryController {
             if (request.getEnableSync() != null) {
                 warehouse.setEnableSync(request.getEnableSync());
             }
+            if (request.getGitBackend() != null) {
+                // 空字符串或无法识别的名称恢复为全局默认后端
+                GitBackendType backendType = GitBackendType.fromName(request.getGitBackend(), null);
+                warehouse.setGitBackend(backendType != null ? backendType.name() : null);
+            }
 
             warehouse = warehouseRepository.save(warehouse);
 
@@ -290,13 +299,19 @@ public class RepositoryController {
 
     /**
      * 获取文件列表
+     * 指定ref或仓库为裸镜像时从对象库读取对应版本的目录，否则读取工作区
      */
     @GetMapping("/Files")
     public ResponseEntity<Result<FileListResponse>> getFiles(
             @RequestParam @NotBlank String warehouseId,
-            @RequestParam(required = false, defaultValue = "") String path) {
+            @RequestParam(required = false, defaultValue = "") String path,
+            @RequestParam(required = false) String ref) {
+
+        log.debug("获取文件列表: warehouseId={}, path={}, ref={}", warehouseId, path, ref);
 
-        log.debug("获取文件列表: warehouseId={}, path={}", warehouseId, path);
+        if (!isValidRef(ref)) {
+            return ResponseEntity.ok(Result.error("无效的版本: " + ref));
+        }
 
         try {
             // 查找仓库
@@ -309,6 +324,22 @@ public class RepositoryController {
 
             // 构建文件路径
             String storagePath = gitPathResolver.getStoragePath() + "/" + getRepositoryIdentifier(warehouse.getAddress());
+
+            if (isObjectDatabaseRead(storagePath, ref)) {
+                String treePath = trimSlashes(path);
+                List<FileListResponse.FileInfo> fileInfos =
+                        listTreeFiles(storagePath, ref != null ? ref : "HEAD", treePath);
+                if (fileInfos == null) {
+                    return ResponseEntity.ok(Result.error("目录不存在: " + path));
+                }
+                FileListResponse response = FileListResponse.builder()
+                        .files(fileInfos)
+                        .currentPath(path)
+                        .totalCount(fileInfos.size())
+                        .build();
+                return ResponseEntity.ok(Result.success(response));
+            }
+
             Path dirPath = Paths.get(storagePath, path);
 
             // 检查目录是否存在
@@ -349,12 +380,7 @@ public class RepositoryController {
                             }
                         })
                         .filter(Objects::nonNull)
-                        .sorted((a, b) -> {
-                            // 目录排在前面
-                            if (a.getIsDirectory() && !b.getIsDirectory()) return -1;
-                            if (!a.getIsDirectory() && b.getIsDirectory()) return 1;
-                            return a.getName().compareTo(b.getName());
-                        })
+                        .sorted(RepositoryController::compareFileInfo)
                         .collect(Collectors.toList());
             }
 
@@ -374,12 +400,14 @@ public class RepositoryController {
 
     /**
      * 获取文件内容
+     * 指定ref或仓库为裸镜像时从对象库读取对应版本的文件，否则读取工作区
      */
     @GetMapping("/FileContent")
     public ResponseEntity<Result<FileContentResponse>> getFileContent(
             @RequestParam(required = false) String warehouseId,
             @RequestParam(required = false) String path,
-            @RequestParam(required = false) String id) {
+            @RequestParam(required = false) String id,
+            @RequestParam(required = false) String ref) {
 
         try {
             // 兼容三种调用方式：
@@ -413,7 +441,11 @@ public class RepositoryController {
                 path = path.replace("\\", "/");
             }
 
-            log.debug("获取文件内容: warehouseId={}, path={}", warehouseId, path);
+            log.debug("获取文件内容: warehouseId={}, path={}, ref={}", warehouseId, path, ref);
+
+            if (!isValidRef(ref)) {
+                return ResponseEntity.ok(Result.error("无效的版本: " + ref));
+            }
 
             // 查找仓库
             Optional<WarehouseEntity> warehouseOpt = warehouseRepository.findById(warehouseId);
@@ -423,30 +455,38 @@ public class RepositoryController {
 
             WarehouseEntity warehouse = warehouseOpt.get();
 
-            // 临时方案：直接使用实际目录名
-            // TODO: 需要规范化仓库存储目录的命名规则
-            String repoDir = "user-growing_uc-datax-willow";
-            String repoPath = Paths.get(gitPathResolver.getStoragePath(), repoDir).toString();
+            String repoPath = findRepositoryPath(warehouse.getAddress());
+            if (repoPath == null) {
+                return ResponseEntity.ok(Result.error("仓库尚未同步到本地"));
+            }
+
+            byte[] bytes;
+            if (isObjectDatabaseRead(repoPath, ref)) {
+                bytes = gitService.readFile(repoPath, ref != null ? ref : "HEAD", path);
+                if (bytes == null) {
+                    return ResponseEntity.ok(Result.error("文件不存在或不是文件: " + path));
+                }
+            } else {
+                Path filePath = Paths.get(repoPath, path);
+                log.debug("完整文件路径: repoPath={}, path={}, result={}", repoPath, path, filePath.toAbsolutePath());
 
-            Path filePath = Paths.get(repoPath, path);
-            log.debug("完整文件路径: repoPath={}, path={}, result={}", repoPath, path, filePath.toAbsolutePath());
+                // 检查文件是否存在
+                if (!Files.exists(filePath)) {
+                    return ResponseEntity.ok(Result.error("文件不存在: " + path + ", 完整路径: " + filePath.toAbsolutePath()));
+                }
 
-            // 检查文件是否存在
-            if (!Files.exists(filePath)) {
-                return ResponseEntity.ok(Result.error("文件不存在: " + path + ", 完整路径: " + filePath.toAbsolutePath()));
-            }
+                // 检查是否为文件
+                if (Files.isDirectory(filePath)) {
+                    return ResponseEntity.ok(Result.error("指定路径是目录，不是文件"));
+                }
 
-            // 检查是否为文件
-            if (Files.isDirectory(filePath)) {
-                return ResponseEntity.ok(Result.error("指定路径是目录，不是文件"));
+                // 读取文件内容
+                bytes = Files.readAllBytes(filePath);
             }
-
-            // 读取文件内容
-            byte[] bytes = Files.readAllBytes(filePath);
             String content = new String(bytes, java.nio.charset.StandardCharsets.UTF_8);
 
             // 获取文件信息
-            String fileName = filePath.getFileName().toString();
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
             String fileType = fileName.contains(".") ?
                 fileName.substring(fileName.lastIndexOf(".") + 1) : "";
 
@@ -505,6 +545,9 @@ public class RepositoryController {
 
             // 构建文件路径
             String storagePath = gitPathResolver.getStoragePath() + "/" + getRepositoryIdentifier(warehouse.getAddress());
+            if (gitService.isBareRepository(storagePath)) {
+                return ResponseEntity.ok(Result.error("仓库以裸镜像存储，没有可修改的工作区"));
+            }
             Path filePath = Paths.get(storagePath, path);
 
             // 确保父目录存在
@@ -790,6 +833,81 @@ public class RepositoryController {
         }
     }
 
+    /**
+     * 校验请求指定的版本：以"-"开头会被git当作选项解析，控制字符会截断cat-file的批量请求
+     */
+    private static boolean isValidRef(String ref) {
+        if (ref == null) {
+            return true;
+        }
+        if (ref.trim().isEmpty() || ref.startsWith("-")) {
+            return false;
+        }
+        for (int i = 0; i < ref.length(); i++) {
+            if (Character.isISOControl(ref.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 是否从对象库读取：指定了版本，或仓库为没有工作区的裸镜像
+     */
+    private boolean isObjectDatabaseRead(String repoPath, String ref) {
+        return ref != null || gitService.isBareRepository(repoPath);
+    }
+
+    /**
+     * 从对象库读取指定版本中某个目录的文件列表
+     *
+     * @return 文件列表，目录不存在时返回null
+     */
+    private List<FileListResponse.FileInfo> listTreeFiles(String repoPath, String revision, String path) {
+        List<GitTreeEntry> entries = gitService.listDirectory(repoPath, revision, path);
+        if (entries == null) {
+            return null;
+        }
+        return entries.stream()
+                .filter(entry -> !entry.getName().startsWith(".")) // 过滤隐藏文件
+                .map(entry -> {
+                    String fileName = entry.getName();
+                    String extension = "";
+                    if (fileName.contains(".") && !entry.isDirectory()) {
+                        extension = fileName.substring(fileName.lastIndexOf(".") + 1);
+                    }
+                    return FileListResponse.FileInfo.builder()
+                            .name(fileName)
+                            .path(entry.getPath())
+                            .isDirectory(entry.isDirectory())
+                            .size(entry.getSize())
+                            .extension(extension)
+                            .build();
+                })
+                .sorted(RepositoryController::compareFileInfo)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 目录排在前面，同类按名称排序
+     */
+    private static int compareFileInfo(FileListResponse.FileInfo a, FileListResponse.FileInfo b) {
+        if (a.getIsDirectory() && !b.getIsDirectory()) return -1;
+        if (!a.getIsDirectory() && b.getIsDirectory()) return 1;
+        return a.getName().compareTo(b.getName());
+    }
+
+    private static String trimSlashes(String path) {
+        String trimmed = path.replace("\\", "/");
+        while (trimmed.startsWith("/")) {
+            trimmed = trimmed.substring(1);
+        }
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
     /**
      * 查找仓库实际存储路径
      * 尝试多种格式以兼容不同版本
@@ -1,6 +1,7 @@
 package ai.opendw.koalawiki.web.controller;
 
 import ai.opendw.koalawiki.core.git.CommitInfo;
+import ai.opendw.koalawiki.core.git.GitBackendType;
 import ai.opendw.koalawiki.core.git.GitService;
 import ai.opendw.koalawiki.core.service.IWarehouseSyncService;
 import ai.opendw.koalawiki.domain.warehouse.WarehouseStatus;
@@ -105,6 +106,11 @@ public class WarehouseController {
                 warehouse.setGitPassword(request.getGitPassword());
             }
 
+            GitBackendType backendType = GitBackendType.fromName(request.getGitBackend(), null);
+            if (backendType != null) {
+                warehouse.setGitBackend(backendType.name());
+            }
+
             // 5. 保存仓库
             warehouse = warehouseRepository.save(warehouse);
 
@@ -148,6 +154,11 @@ public class WarehouseController {
                 warehouse.setGitPassword(request.getGitPassword());
             }
 
+            GitBackendType backendType = GitBackendType.fromName(request.getGitBackend(), null);
+            if (backendType != null) {
+                warehouse.setGitBackend(backendType.name());
+            }
+
             warehouse = warehouseRepository.save(warehouse);
 
             WarehouseResponse response = convertToResponse(warehouse);
@@ -55,4 +55,10 @@ public class CustomSubmitWarehouseRequest {
      */
     @Size(max = 100, message = "Git邮箱长度不能超过100字符")
     private String email;
+
+    /**
+     * Git后端（jgit/native），为空时使用全局默认后端
+     */
+    @Size(max = 32, message = "Git后端长度不能超过32字符")
+    private String gitBackend;
 }
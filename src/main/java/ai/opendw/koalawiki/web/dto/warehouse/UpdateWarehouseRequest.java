@@ -55,4 +55,10 @@ public class UpdateWarehouseRequest {
      * 是否启用同步
      */
     private Boolean enableSync;
+
+    /**
+     * Git后端（jgit/native），为空时使用全局默认后端
+     */
+    @Size(max = 32, message = "Git后端长度不能超过32字符")
+    private String gitBackend;
 }
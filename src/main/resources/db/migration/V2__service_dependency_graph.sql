@@ -0,0 +1,43 @@
+-- =============================================
+-- 跨仓库服务依赖图
+-- 版本: V2
+-- 每个服务的节点、提供的接口和发起的依赖按仓库同步事件整体替换，
+-- source_commit 记录该部分数据对应的提交版本
+-- =============================================
+
+-- 服务节点表
+CREATE TABLE IF NOT EXISTS service_dependency_nodes (
+    id VARCHAR(64) PRIMARY KEY,
+    service_name VARCHAR(255) NOT NULL,
+    warehouse_id VARCHAR(64),
+    source_commit VARCHAR(64),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME,
+    UNIQUE KEY uk_service_dependency_nodes_service_name (service_name),
+    INDEX idx_service_dependency_nodes_warehouse_id (warehouse_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 服务提供的接口表
+CREATE TABLE IF NOT EXISTS service_dependency_interfaces (
+    id VARCHAR(64) PRIMARY KEY,
+    service_name VARCHAR(255) NOT NULL,
+    interface_name VARCHAR(512) NOT NULL,
+    source_commit VARCHAR(64),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_service_dependency_interfaces_service_name (service_name),
+    INDEX idx_service_dependency_interfaces_interface_name (interface_name(255))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 服务依赖关系表（目标服务在加载时按接口关联，不落库）
+CREATE TABLE IF NOT EXISTS service_dependency_edges (
+    id VARCHAR(64) PRIMARY KEY,
+    source_service VARCHAR(255) NOT NULL,
+    interface_name VARCHAR(512),
+    dependency_type VARCHAR(20) NOT NULL,
+    source_class VARCHAR(512),
+    source_field VARCHAR(255),
+    source_commit VARCHAR(64),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_service_dependency_edges_source_service (source_service),
+    INDEX idx_service_dependency_edges_interface_name (interface_name(255))
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
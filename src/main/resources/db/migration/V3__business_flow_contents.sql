@@ -0,0 +1,26 @@
+-- =============================================
+-- 业务流程内容缓存
+-- 版本: V3
+-- 流程内容按追踪输入（经过的源文件blob ID和远程依赖）的哈希寻址，
+-- 输入不变的流程跨关键词、跨提交复用；business_flow_documents 只保留关键词关联，
+-- 通过 content_hash 引用流程内容
+-- =============================================
+
+-- 流程内容表
+CREATE TABLE IF NOT EXISTS business_flow_contents (
+    id VARCHAR(64) PRIMARY KEY,
+    entry_key VARCHAR(64) NOT NULL,
+    inputs_json LONGTEXT,
+    call_chain_json LONGTEXT,
+    mermaid_diagram LONGTEXT,
+    node_count INT,
+    max_depth INT,
+    related_services TEXT,
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_business_flow_contents_entry_key (entry_key, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 关键词关联引用流程内容
+ALTER TABLE business_flow_documents
+    ADD COLUMN content_hash VARCHAR(64) AFTER method_signature,
+    ADD INDEX idx_business_flow_documents_content_hash (content_hash);
@@ -0,0 +1,9 @@
+-- =============================================
+-- 仓库Git后端
+-- 版本: V4
+-- 按仓库选择克隆、拉取和读取使用的Git后端（jgit/native），
+-- 为空时使用 koalawiki.git.backend 配置的默认后端
+-- =============================================
+
+ALTER TABLE warehouses
+    ADD COLUMN git_backend VARCHAR(32) AFTER enable_sync;